@@ -0,0 +1,293 @@
+package com.my.spring.ai.bot.admission;
+
+import com.my.spring.ai.bot.config.AdmissionControlProperties;
+import com.my.spring.ai.bot.deadline.Deadline;
+import com.my.spring.ai.bot.exception.DeadlineExceededException;
+import com.my.spring.ai.bot.exception.RequestCancelledException;
+import com.my.spring.ai.bot.exception.TooManyRequestsException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Concurrency limit for one endpoint class that adapts to the latency the model shows.
+ *
+ * The limit follows AIMD driven by a latency gradient: every completed call is a sample; while the
+ * smoothed recent latency stays within {@code latencyTolerance} of the no-load latency and the limit is
+ * actually in use, it grows by one, and once latency climbs past that (the model is queueing work
+ * internally) or a call fails, it shrinks by {@code backoffRatio}. Calls over the limit wait in a FIFO
+ * queue of bounded length until a slot frees up or {@code maxWait} passes; both a full queue and a wait
+ * that ran out are rejected with {@link TooManyRequestsException} carrying a Retry-After estimate.
+ *
+ * A call never waits past its request's {@link Deadline}, and fails with the deadline when that passes
+ * first. A waiting call that is interrupted, because its client disconnected or its deadline passed,
+ * stops waiting with its interrupt flag still set.
+ */
+@Slf4j
+public class AdaptiveConcurrencyLimiter {
+
+    // Weight of a new sample in the smoothed recent latency
+    private static final double SHORT_RTT_WEIGHT = 0.2;
+    private static final long MAX_RETRY_AFTER_SECONDS = 60;
+
+    private final EndpointClass endpointClass;
+    private final int minLimit;
+    private final int maxLimit;
+    private final int queueCapacity;
+    private final long maxWaitNanos;
+    private final double latencyTolerance;
+    private final double backoffRatio;
+    private final int baselineResetSamples;
+
+    // Fair, so a freed slot goes to the caller that has waited longest
+    private final ReentrantLock lock = new ReentrantLock(true);
+    private final Condition slotFreed = lock.newCondition();
+
+    // Guarded by lock
+    private double limit;
+    private int inFlight;
+    private int queued;
+    private long noLoadRttNanos;
+    private double shortRttNanos;
+    private int samplesSinceBaseline;
+
+    private final Timer waitTime;
+    private final Counter rejectedQueueFull;
+    private final Counter rejectedTimeout;
+
+    public AdaptiveConcurrencyLimiter(EndpointClass endpointClass, AdmissionControlProperties.Limit properties,
+                                      MeterRegistry meterRegistry) {
+        if (properties.getMinLimit() <= 0 || properties.getMaxLimit() < properties.getMinLimit()) {
+            throw new IllegalArgumentException("admission limits for " + endpointClass.tag()
+                    + " need 0 < min-limit <= max-limit");
+        }
+        this.endpointClass = endpointClass;
+        this.minLimit = properties.getMinLimit();
+        this.maxLimit = properties.getMaxLimit();
+        this.queueCapacity = properties.getQueueCapacity();
+        this.maxWaitNanos = properties.getMaxWait().toNanos();
+        this.latencyTolerance = properties.getLatencyTolerance();
+        this.backoffRatio = properties.getBackoffRatio();
+        this.baselineResetSamples = properties.getBaselineResetSamples();
+        this.limit = Math.max(minLimit, Math.min(maxLimit, properties.getInitialLimit()));
+
+        String tag = endpointClass.tag();
+        this.waitTime = Timer.builder("admission.wait")
+                .tag("endpoint", tag)
+                .description("Time a model call waited for a concurrency slot")
+                .register(meterRegistry);
+        this.rejectedQueueFull = Counter.builder("admission.rejected")
+                .tag("endpoint", tag).tag("reason", "queue-full")
+                .description("Model calls turned away by admission control")
+                .register(meterRegistry);
+        this.rejectedTimeout = Counter.builder("admission.rejected")
+                .tag("endpoint", tag).tag("reason", "timeout")
+                .description("Model calls turned away by admission control")
+                .register(meterRegistry);
+        Gauge.builder("admission.limit", this, AdaptiveConcurrencyLimiter::getLimit)
+                .tag("endpoint", tag)
+                .description("Current adaptive concurrency limit")
+                .register(meterRegistry);
+        Gauge.builder("admission.inflight", this, AdaptiveConcurrencyLimiter::getInFlight)
+                .tag("endpoint", tag)
+                .description("Model calls currently holding a slot")
+                .register(meterRegistry);
+        Gauge.builder("admission.queued", this, AdaptiveConcurrencyLimiter::getQueued)
+                .tag("endpoint", tag)
+                .description("Model calls waiting for a slot")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Takes a slot, waiting in the queue if none is free.
+     *
+     * @return the permit to close once the model call is over
+     * @throws TooManyRequestsException when the queue is full or no slot frees up within the max wait
+     * @throws DeadlineExceededException when the request's deadline passes while waiting
+     * @throws RequestCancelledException when the thread is interrupted while waiting
+     */
+    public Permit acquire() {
+        long start = System.nanoTime();
+        lock.lock();
+        try {
+            if (inFlight < currentLimit() && queued == 0) {
+                inFlight++;
+                waitTime.record(0, TimeUnit.NANOSECONDS);
+                return new Permit(System.nanoTime());
+            }
+            if (queued >= queueCapacity) {
+                rejectedQueueFull.increment();
+                throw rejection("queue is full");
+            }
+            Deadline deadline = Deadline.current();
+            long maxWait = deadline == null ? maxWaitNanos : Math.min(maxWaitNanos, deadline.remaining().toNanos());
+            queued++;
+            try {
+                long remaining = maxWait;
+                while (inFlight >= currentLimit()) {
+                    if (remaining <= 0) {
+                        Deadline.checkCurrent();
+                        rejectedTimeout.increment();
+                        throw rejection("no slot freed up within " + Duration.ofNanos(maxWaitNanos));
+                    }
+                    try {
+                        remaining = slotFreed.awaitNanos(remaining);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        Deadline.checkCurrent(e);
+                        throw new RequestCancelledException("Interrupted while waiting for a concurrent "
+                                + endpointClass.tag() + " slot.", e);
+                    }
+                }
+                inFlight++;
+            } finally {
+                queued--;
+            }
+            long now = System.nanoTime();
+            waitTime.record(now - start, TimeUnit.NANOSECONDS);
+            return new Permit(now);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public double getLimit() {
+        lock.lock();
+        try {
+            return limit;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getInFlight() {
+        lock.lock();
+        try {
+            return inFlight;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getQueued() {
+        lock.lock();
+        try {
+            return queued;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private int currentLimit() {
+        return (int) limit;
+    }
+
+    private void release(long rttNanos, boolean dropped) {
+        lock.lock();
+        try {
+            inFlight--;
+            if (dropped) {
+                decrease();
+            } else if (rttNanos >= 0) {
+                onSample(rttNanos);
+            }
+            // The limit may have grown by more than one slot
+            slotFreed.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void onSample(long rttNanos) {
+        if (noLoadRttNanos == 0 || rttNanos < noLoadRttNanos || ++samplesSinceBaseline >= baselineResetSamples) {
+            noLoadRttNanos = rttNanos;
+            samplesSinceBaseline = 0;
+        }
+        shortRttNanos = shortRttNanos == 0 ? rttNanos
+                : shortRttNanos * (1 - SHORT_RTT_WEIGHT) + rttNanos * SHORT_RTT_WEIGHT;
+
+        if (shortRttNanos > noLoadRttNanos * latencyTolerance) {
+            decrease();
+        } else if (inFlight + 1 >= limit / 2) {
+            // Only grow while the limit is actually being used; idle headroom says nothing about capacity
+            limit = Math.min(maxLimit, limit + 1);
+        }
+    }
+
+    private void decrease() {
+        double previous = limit;
+        limit = Math.max(minLimit, limit * backoffRatio);
+        if ((int) previous != (int) limit) {
+            log.debug("Admission limit for {} lowered to {}", endpointClass.tag(), (int) limit);
+        }
+    }
+
+    private TooManyRequestsException rejection(String reason) {
+        // Roughly how long until the calls ahead of a retry have drained, at the recent latency
+        double latencyNanos = shortRttNanos > 0 ? shortRttNanos : TimeUnit.SECONDS.toNanos(1);
+        double drainNanos = latencyNanos * (queued + 1) / Math.max(1, currentLimit());
+        long seconds = Math.max(1, Math.min(MAX_RETRY_AFTER_SECONDS,
+                (long) Math.ceil(drainNanos / TimeUnit.SECONDS.toNanos(1))));
+        return new TooManyRequestsException("Too many concurrent " + endpointClass.tag()
+                + " requests (" + reason + "). Please retry later.", Duration.ofSeconds(seconds));
+    }
+
+    /**
+     * A held slot. Closing it frees the slot and feeds the call's latency into the limit.
+     * Streams call {@link #sample()} on their first token, so the latency reflects time to first
+     * token rather than the length of the answer.
+     */
+    public final class Permit implements AutoCloseable {
+
+        private final long acquiredAt;
+        private final AtomicBoolean released = new AtomicBoolean();
+        private volatile long rttNanos = -1;
+        private volatile boolean dropped;
+        private volatile boolean ignored;
+
+        private Permit(long acquiredAt) {
+            this.acquiredAt = acquiredAt;
+        }
+
+        /**
+         * Records the latency up to now as this call's sample; later calls are ignored.
+         */
+        public void sample() {
+            if (rttNanos < 0) {
+                rttNanos = System.nanoTime() - acquiredAt;
+            }
+        }
+
+        /**
+         * Marks the call as failed, which lowers the limit instead of sampling its latency.
+         */
+        public void fail() {
+            dropped = true;
+        }
+
+        /**
+         * Frees the slot without a sample, e.g. when the caller went away before the model answered.
+         */
+        public void ignore() {
+            ignored = true;
+        }
+
+        @Override
+        public void close() {
+            if (released.compareAndSet(false, true)) {
+                if (!ignored) {
+                    sample();
+                }
+                release(ignored ? -1 : rttNanos, dropped && !ignored);
+            }
+        }
+    }
+}
@@ -0,0 +1,173 @@
+package com.my.spring.ai.bot.admission;
+
+import com.my.spring.ai.bot.config.AdmissionControlProperties;
+import com.my.spring.ai.bot.exception.ServiceUnavailableException;
+import com.my.spring.ai.bot.exception.TooManyRequestsException;
+import com.my.spring.ai.bot.resilience.Failures;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.util.context.Context;
+import reactor.util.context.ContextView;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.function.Supplier;
+
+/**
+ * Admission layer in front of model calls, with an independent {@link AdaptiveConcurrencyLimiter}
+ * per {@link EndpointClass}, so a burst of batch generation cannot starve interactive chat.
+ *
+ * Admission is per request, not per model call: work done inside an admitted call on the same
+ * thread (the voice pipeline calling the chat service, for example), or handed to another thread
+ * with {@link #propagate}, is not admitted a second time.
+ * The endpoint class of the running call is available through {@link #current()}, so that layers
+ * below the services can tell which endpoint a model call belongs to.
+ *
+ * Only failures of the model lower the limit. A call rejected by an open circuit breaker never reached
+ * the model, and one cut short by its caller (its deadline passed, its client disconnected or it was
+ * interrupted) says nothing about the model's capacity; both free their slot without feedback.
+ */
+@Slf4j
+@Component
+public class AdmissionControl {
+
+    private static final ThreadLocal<EndpointClass> ADMITTED = new ThreadLocal<>();
+    private static final String CONTEXT_KEY = EndpointClass.class.getName();
+
+    private final boolean enabled;
+    private final Map<EndpointClass, AdaptiveConcurrencyLimiter> limiters = new EnumMap<>(EndpointClass.class);
+
+    public AdmissionControl(AdmissionControlProperties properties, MeterRegistry meterRegistry) {
+        this.enabled = properties.isEnabled();
+        for (EndpointClass endpointClass : EndpointClass.values()) {
+            limiters.put(endpointClass,
+                    new AdaptiveConcurrencyLimiter(endpointClass, properties.limitFor(endpointClass), meterRegistry));
+        }
+        log.info("AdmissionControl configured: enabled={}, defaults={}, overrides={}",
+                enabled, properties.getDefaults(), properties.getEndpoints().keySet());
+    }
+
+    /**
+     * Runs a blocking model call once the endpoint class has a free slot.
+     *
+     * @throws TooManyRequestsException when the call is rejected; the work is not run
+     */
+    public <T> T call(EndpointClass endpointClass, Supplier<T> work) {
+        if (ADMITTED.get() != null) {
+            return work.get();
+        }
+        if (!enabled) {
+            ADMITTED.set(endpointClass);
+            try {
+                return work.get();
+            } finally {
+                ADMITTED.remove();
+            }
+        }
+        AdaptiveConcurrencyLimiter.Permit permit = limiters.get(endpointClass).acquire();
+        ADMITTED.set(endpointClass);
+        try {
+            return work.get();
+        } catch (RuntimeException | Error e) {
+            if (Thread.currentThread().isInterrupted()) {
+                permit.ignore();
+            } else {
+                failed(permit, e);
+            }
+            throw e;
+        } finally {
+            ADMITTED.remove();
+            permit.close();
+        }
+    }
+
+    /**
+     * Holds a slot for the lifetime of a streamed model call. The slot is taken on subscription,
+     * its latency sample is the time to the first element, and it is freed when the stream ends.
+     */
+    public <T> Flux<T> stream(EndpointClass endpointClass, Supplier<Flux<T>> work) {
+        if (!enabled) {
+            return Flux.defer(work).contextWrite(Context.of(CONTEXT_KEY, endpointClass));
+        }
+        return Flux.using(
+                () -> limiters.get(endpointClass).acquire(),
+                permit -> work.get()
+                        .doOnNext(element -> permit.sample())
+                        .doOnError(e -> failed(permit, e))
+                        .doOnCancel(permit::ignore),
+                AdaptiveConcurrencyLimiter.Permit::close)
+                .contextWrite(Context.of(CONTEXT_KEY, endpointClass));
+    }
+
+    /**
+     * Endpoint class of the blocking model call running on this thread, or null outside of one.
+     */
+    public static EndpointClass current() {
+        return ADMITTED.get();
+    }
+
+    /**
+     * Wraps a task so that it runs as part of the calling thread's admitted call, on whichever thread runs
+     * it: it is not admitted again and {@link #current()} there tells its endpoint class.
+     */
+    public static <T> Callable<T> propagate(Callable<T> task) {
+        EndpointClass endpointClass = ADMITTED.get();
+        if (endpointClass == null) {
+            return task;
+        }
+        return () -> {
+            EndpointClass previous = ADMITTED.get();
+            ADMITTED.set(endpointClass);
+            try {
+                return task.call();
+            } finally {
+                if (previous == null) {
+                    ADMITTED.remove();
+                } else {
+                    ADMITTED.set(previous);
+                }
+            }
+        };
+    }
+
+    /**
+     * Endpoint class of the model stream subscribed under {@code context}, or null outside of one.
+     */
+    public static EndpointClass current(ContextView context) {
+        return context.getOrDefault(CONTEXT_KEY, ADMITTED.get());
+    }
+
+    private static void failed(AdaptiveConcurrencyLimiter.Permit permit, Throwable error) {
+        if (isModelFailure(error)) {
+            permit.fail();
+        } else {
+            permit.ignore();
+        }
+    }
+
+    /**
+     * Whether a failed call tells something about the model's capacity: not when an open circuit breaker
+     * rejected it, nor when its caller gave up on it.
+     */
+    static boolean isModelFailure(Throwable error) {
+        if (Failures.causedByCaller(error)) {
+            return false;
+        }
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ServiceUnavailableException) {
+                return false;
+            }
+            if (cause.getCause() == cause) {
+                break;
+            }
+        }
+        return true;
+    }
+
+    AdaptiveConcurrencyLimiter limiter(EndpointClass endpointClass) {
+        return limiters.get(endpointClass);
+    }
+}
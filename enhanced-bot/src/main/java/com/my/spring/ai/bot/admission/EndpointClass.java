@@ -0,0 +1,19 @@
+package com.my.spring.ai.bot.admission;
+
+/**
+ * Groups of endpoints that get their own concurrency limit towards the model.
+ */
+public enum EndpointClass {
+    CHAT,
+    MCP_CHAT,
+    QA,
+    GENERATE,
+    VOICE;
+
+    /**
+     * Lower-case name used in meter tags and logs.
+     */
+    public String tag() {
+        return name().toLowerCase().replace('_', '-');
+    }
+}
@@ -0,0 +1,46 @@
+package com.my.spring.ai.bot.cache;
+
+import org.springframework.ai.chat.model.ToolContext;
+import org.springframework.ai.tool.ToolCallback;
+import org.springframework.ai.tool.definition.ToolDefinition;
+import org.springframework.ai.tool.metadata.ToolMetadata;
+
+/**
+ * A read-only tool whose results are served from its cache; see {@link ToolResultCache}.
+ *
+ * Calls with a tool context are not cached, as their result may depend on it. A miss calls the tool
+ * with the arguments as given, deadline metadata included.
+ */
+class CachingToolCallback implements ToolCallback {
+
+    private final ToolCallback delegate;
+    private final SingleFlightCache<String, String> cache;
+
+    CachingToolCallback(ToolCallback delegate, SingleFlightCache<String, String> cache) {
+        this.delegate = delegate;
+        this.cache = cache;
+    }
+
+    @Override
+    public ToolDefinition getToolDefinition() {
+        return delegate.getToolDefinition();
+    }
+
+    @Override
+    public ToolMetadata getToolMetadata() {
+        return delegate.getToolMetadata();
+    }
+
+    @Override
+    public String call(String toolInput) {
+        return cache.get(ToolResultCache.normalize(toolInput), () -> delegate.call(toolInput));
+    }
+
+    @Override
+    public String call(String toolInput, ToolContext toolContext) {
+        if (toolContext == null || toolContext.getContext().isEmpty()) {
+            return call(toolInput);
+        }
+        return delegate.call(toolInput, toolContext);
+    }
+}
@@ -0,0 +1,282 @@
+package com.my.spring.ai.bot.cache;
+
+import com.my.spring.ai.bot.deadline.Deadline;
+import com.my.spring.ai.bot.exception.DeadlineExceededException;
+import com.my.spring.ai.bot.exception.RequestCancelledException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Bounded LRU cache with a time-to-live whose misses are loaded once per key.
+ *
+ * Concurrent misses for the same key are collapsed: the first caller runs the loader, the others
+ * wait for its result (or its exception) instead of repeating the expensive call. Failures are
+ * never cached. A cache built with {@code maxEntries <= 0} is disabled and always runs the loader.
+ *
+ * The callers usually serve different requests. A waiting caller is held to its own request's
+ * deadline and interrupt, not the loading one's; and when the load fails because the loading
+ * caller's request ended (its deadline passed, it was cancelled or interrupted), the waiting
+ * callers do not take over that failure but load again themselves.
+ *
+ * Publishes the Micrometer cache meters {@code cache.gets} (result=hit|miss), {@code cache.puts},
+ * {@code cache.evictions} (cause=size|expired), {@code cache.size} and {@code cache.coalesced},
+ * all tagged with {@code cache=<name>}.
+ */
+@Slf4j
+public class SingleFlightCache<K, V> {
+
+    private final String name;
+    private final int maxEntries;
+    private final long ttlMillis;
+    private final Clock clock;
+
+    // Access-ordered, so iteration starts at the least recently used entry
+    private final LinkedHashMap<K, Entry<V>> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final ReentrantLock lock = new ReentrantLock();
+    private final ConcurrentHashMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter puts;
+    private final Counter coalesced;
+    private final Counter sizeEvictions;
+    private final Counter expiredEvictions;
+
+    public SingleFlightCache(String name, int maxEntries, Duration ttl, MeterRegistry meterRegistry) {
+        this(name, maxEntries, ttl, meterRegistry, Clock.systemUTC());
+    }
+
+    public SingleFlightCache(String name, int maxEntries, Duration ttl, MeterRegistry meterRegistry, Clock clock) {
+        this.name = name;
+        this.maxEntries = maxEntries;
+        this.ttlMillis = ttl == null ? 0 : ttl.toMillis();
+        this.clock = clock;
+
+        this.hits = Counter.builder("cache.gets").tag("cache", name).tag("result", "hit")
+                .description("Cache lookups answered from the cache")
+                .register(meterRegistry);
+        this.misses = Counter.builder("cache.gets").tag("cache", name).tag("result", "miss")
+                .description("Cache lookups that had to load the value")
+                .register(meterRegistry);
+        this.puts = Counter.builder("cache.puts").tag("cache", name)
+                .description("Entries added to the cache")
+                .register(meterRegistry);
+        this.coalesced = Counter.builder("cache.coalesced").tag("cache", name)
+                .description("Misses that waited for an identical in-flight load instead of loading again")
+                .register(meterRegistry);
+        this.sizeEvictions = Counter.builder("cache.evictions").tag("cache", name).tag("cause", "size")
+                .description("Entries evicted from the cache")
+                .register(meterRegistry);
+        this.expiredEvictions = Counter.builder("cache.evictions").tag("cache", name).tag("cause", "expired")
+                .description("Entries evicted from the cache")
+                .register(meterRegistry);
+        Gauge.builder("cache.size", this, SingleFlightCache::size).tag("cache", name)
+                .description("Entries held in the cache")
+                .register(meterRegistry);
+
+        log.info("SingleFlightCache '{}' configured: maxEntries={}, ttl={}", name, maxEntries, ttl);
+    }
+
+    /**
+     * Returns the cached value for the key, loading it at most once across concurrent callers.
+     *
+     * @param key    the cache key
+     * @param loader produces the value on a miss; exceptions other than those ending the loading
+     *               caller's request propagate to every waiting caller
+     * @return the cached or freshly loaded value
+     * @throws DeadlineExceededException if the caller's deadline passes while it waits for another's load
+     * @throws RequestCancelledException if the caller is interrupted while it waits for another's load
+     */
+    public V get(K key, Supplier<V> loader) {
+        if (!isEnabled()) {
+            return loader.get();
+        }
+        boolean counted = false;
+        while (true) {
+            V cached = lookup(key);
+            if (cached != null) {
+                if (!counted) {
+                    hits.increment();
+                }
+                return cached;
+            }
+            if (!counted) {
+                misses.increment();
+                counted = true;
+            }
+
+            CompletableFuture<V> flight = new CompletableFuture<>();
+            CompletableFuture<V> existing = inFlight.putIfAbsent(key, flight);
+            if (existing == null) {
+                return load(key, loader, flight);
+            }
+            coalesced.increment();
+            try {
+                return await(existing);
+            } catch (LoadAbandonedException e) {
+                log.debug("Load of '{}' in cache '{}' ended with its caller's request; loading again", key, name);
+            }
+        }
+    }
+
+    private V load(K key, Supplier<V> loader, CompletableFuture<V> flight) {
+        try {
+            // Another caller may have finished loading between our lookup and claiming the flight
+            V value = lookup(key);
+            if (value == null) {
+                value = loader.get();
+                put(key, value);
+            }
+            flight.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            flight.completeExceptionally(endsRequest(e) ? new LoadAbandonedException(e) : e);
+            throw e;
+        } finally {
+            inFlight.remove(key, flight);
+        }
+    }
+
+    /**
+     * Stores a value, replacing any existing entry for the key. Null values are ignored.
+     */
+    public void put(K key, V value) {
+        if (!isEnabled() || value == null) {
+            return;
+        }
+        long expiresAt = ttlMillis > 0 ? clock.millis() + ttlMillis : Long.MAX_VALUE;
+        lock.lock();
+        try {
+            entries.put(key, new Entry<>(value, expiresAt));
+            puts.increment();
+            Iterator<Map.Entry<K, Entry<V>>> it = entries.entrySet().iterator();
+            while (entries.size() > maxEntries && it.hasNext()) {
+                it.next();
+                it.remove();
+                sizeEvictions.increment();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void invalidateAll() {
+        lock.lock();
+        try {
+            entries.clear();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int size() {
+        lock.lock();
+        try {
+            return entries.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public boolean isEnabled() {
+        return maxEntries > 0;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    private V lookup(K key) {
+        lock.lock();
+        try {
+            Entry<V> entry = entries.get(key);
+            if (entry == null) {
+                return null;
+            }
+            if (entry.expiresAt <= clock.millis()) {
+                entries.remove(key);
+                expiredEvictions.increment();
+                return null;
+            }
+            return entry.value;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Waits for another caller's load, for as long as the current request may.
+     */
+    private V await(CompletableFuture<V> flight) {
+        Deadline deadline = Deadline.current();
+        try {
+            if (deadline == null) {
+                return flight.get();
+            }
+            while (true) {
+                try {
+                    return flight.get(deadline.remaining().toNanos(), TimeUnit.NANOSECONDS);
+                } catch (TimeoutException e) {
+                    deadline.check(null);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            Deadline.checkCurrent();
+            throw new RequestCancelledException("Request was cancelled while waiting for a load of cache '" + name + "'.");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    /**
+     * Whether the failure is the end of the loading caller's request rather than a failure of the load.
+     */
+    private static boolean endsRequest(Throwable failure) {
+        if (Thread.currentThread().isInterrupted()) {
+            return true;
+        }
+        for (Throwable cause = failure; cause != null; cause = cause.getCause()) {
+            if (cause instanceof DeadlineExceededException || cause instanceof RequestCancelledException
+                    || cause instanceof InterruptedException || cause instanceof CancellationException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Completes a flight whose loading caller's request ended, telling the waiting callers to load again.
+     */
+    private static final class LoadAbandonedException extends RuntimeException {
+
+        private LoadAbandonedException(Throwable cause) {
+            super(cause.toString(), cause, false, false);
+        }
+    }
+
+    private record Entry<V>(V value, long expiresAt) {
+    }
+}
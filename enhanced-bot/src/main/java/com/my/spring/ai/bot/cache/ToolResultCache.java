@@ -0,0 +1,117 @@
+package com.my.spring.ai.bot.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.my.spring.ai.bot.config.ToolResultCacheProperties;
+import com.my.spring.ai.bot.tools.ToolCallbackWrapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.ai.tool.ToolCallback;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Caches the results of read-only MCP tools, so that the same call with the same arguments within a
+ * few minutes, e.g. {@code getRecentLogs} for the last hour or {@code getTemperature} for the same
+ * place, is not another round trip to the tool server or another Splunk search.
+ *
+ * Tools opt in one by one, each with its own {@link SingleFlightCache} named {@code tool:<name>}, so the
+ * cache meters give the hit rate per tool; concurrent identical calls are made once. Arguments are
+ * normalized before they are used as the key: object keys are sorted, numbers compared by value, strings
+ * trimmed, and null members and the {@code _meta} member carrying the request's deadline left out.
+ * Tools with side effects are never cached.
+ */
+@Slf4j
+@Component
+public class ToolResultCache implements ToolCallbackWrapper {
+
+    // Deadline metadata added to the arguments of each call; see DeadlineToolCallback
+    private static final String META = "_meta";
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    private final Map<String, SingleFlightCache<String, String>> caches;
+
+    public ToolResultCache(ToolResultCacheProperties properties, MeterRegistry meterRegistry) {
+        Map<String, SingleFlightCache<String, String>> byTool = new HashMap<>();
+        if (properties.isEnabled()) {
+            properties.getTools().forEach((name, tool) -> {
+                if (properties.getNeverCached().contains(name)) {
+                    throw new IllegalStateException("Tool '" + name + "' has side effects and cannot be cached");
+                }
+                int maxEntries = tool == null || tool.getMaxEntries() == null ? properties.getMaxEntries() : tool.getMaxEntries();
+                var ttl = tool == null || tool.getTtl() == null ? properties.getTtl() : tool.getTtl();
+                byTool.put(name, new SingleFlightCache<>("tool:" + name, maxEntries, ttl, meterRegistry));
+            });
+        }
+        this.caches = Map.copyOf(byTool);
+
+        log.info("ToolResultCache configured: enabled={}, tools={}, neverCached={}",
+                properties.isEnabled(), caches.keySet(), properties.getNeverCached());
+    }
+
+    /**
+     * Wraps a tool that opted in so that its results are cached; the others are returned as they are.
+     */
+    @Override
+    public ToolCallback wrap(ToolCallback tool) {
+        SingleFlightCache<String, String> cache = caches.get(tool.getToolDefinition().name());
+        return cache != null && !(tool instanceof CachingToolCallback) ? new CachingToolCallback(tool, cache) : tool;
+    }
+
+    /**
+     * The cache key of a call's arguments: equal for arguments that mean the same to the tool.
+     */
+    static String normalize(String toolInput) {
+        if (toolInput == null || toolInput.isBlank()) {
+            return "{}";
+        }
+        try {
+            return OBJECT_MAPPER.writeValueAsString(normalize(OBJECT_MAPPER.readTree(toolInput), true));
+        } catch (JsonProcessingException e) {
+            // Not JSON; only the very same text is the same call
+            return toolInput;
+        }
+    }
+
+    private static JsonNode normalize(JsonNode node, boolean topLevel) {
+        JsonNodeFactory nodes = JsonNodeFactory.instance;
+        if (node.isObject()) {
+            List<String> names = new ArrayList<>();
+            node.fieldNames().forEachRemaining(names::add);
+            Collections.sort(names);
+            ObjectNode sorted = nodes.objectNode();
+            for (String name : names) {
+                JsonNode value = node.get(name);
+                if (!value.isNull() && !(topLevel && META.equals(name))) {
+                    sorted.set(name, normalize(value, false));
+                }
+            }
+            return sorted;
+        }
+        if (node.isArray()) {
+            ArrayNode array = nodes.arrayNode();
+            for (Iterator<JsonNode> it = node.elements(); it.hasNext(); ) {
+                array.add(normalize(it.next(), false));
+            }
+            return array;
+        }
+        if (node.isNumber()) {
+            return nodes.numberNode(node.decimalValue().stripTrailingZeros());
+        }
+        if (node.isTextual()) {
+            return nodes.textNode(node.asText().trim());
+        }
+        return node;
+    }
+}
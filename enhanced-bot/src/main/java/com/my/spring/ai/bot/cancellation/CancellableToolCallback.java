@@ -0,0 +1,62 @@
+package com.my.spring.ai.bot.cancellation;
+
+import com.my.spring.ai.bot.exception.RequestCancelledException;
+import org.springframework.ai.chat.model.ToolContext;
+import org.springframework.ai.tool.ToolCallback;
+import org.springframework.ai.tool.definition.ToolDefinition;
+import org.springframework.ai.tool.metadata.ToolMetadata;
+
+/**
+ * A tool that is not called once its request has been cancelled.
+ *
+ * A cancelled request's work is interrupted: the worker running it for the request, and the tool-call
+ * threads running its calls, all of which {@link RequestCancellation#propagate} ties to the request. The
+ * cancellation is marked before the interrupt is delivered, so either one stops the next call. The tool itself
+ * is left to react to the interrupt (the MCP client aborts its pending call); this wrapper keeps the next
+ * tool from starting and counts the calls cut short by the cancellation. Calls interrupted for another
+ * reason, such as their timeout, are not counted here.
+ */
+class CancellableToolCallback implements ToolCallback {
+
+    private final ToolCallback delegate;
+    private final RequestCancellation requestCancellation;
+
+    CancellableToolCallback(ToolCallback delegate, RequestCancellation requestCancellation) {
+        this.delegate = delegate;
+        this.requestCancellation = requestCancellation;
+    }
+
+    @Override
+    public ToolDefinition getToolDefinition() {
+        return delegate.getToolDefinition();
+    }
+
+    @Override
+    public ToolMetadata getToolMetadata() {
+        return delegate.getToolMetadata();
+    }
+
+    @Override
+    public String call(String toolInput) {
+        return call(toolInput, null);
+    }
+
+    @Override
+    public String call(String toolInput, ToolContext toolContext) {
+        String name = getToolDefinition().name();
+        if (Thread.currentThread().isInterrupted() || RequestCancellation.isCurrentCancelled()) {
+            if (RequestCancellation.isCurrentCancelled()) {
+                requestCancellation.toolCancelled(name);
+            }
+            throw new RequestCancelledException("Tool '" + name + "' not called: the request was cancelled.");
+        }
+        try {
+            return toolContext == null ? delegate.call(toolInput) : delegate.call(toolInput, toolContext);
+        } catch (RuntimeException e) {
+            if (RequestCancellation.isCurrentCancelled()) {
+                requestCancellation.toolCancelled(name);
+            }
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.my.spring.ai.bot.cancellation;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * Watches blocking model requests for a disconnected client while they are processed.
+ * The endpoints are given by path; streams and other paths pass through unwatched.
+ */
+public class ClientDisconnectFilter extends OncePerRequestFilter {
+
+    private final RequestCancellation requestCancellation;
+    private final Map<String, String> endpointsByPath;
+
+    /**
+     * @param endpointsByPath endpoint tag for each watched servlet path, e.g. {@code /api/chat -> chat}
+     */
+    public ClientDisconnectFilter(RequestCancellation requestCancellation, Map<String, String> endpointsByPath) {
+        this.requestCancellation = requestCancellation;
+        this.endpointsByPath = Map.copyOf(endpointsByPath);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !endpointsByPath.containsKey(request.getServletPath());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        ClientDisconnectProbe probe = (ClientDisconnectProbe) request.getAttribute(ClientDisconnectProbe.ATTRIBUTE);
+        try (RequestCancellation.Watch ignored =
+                     requestCancellation.watch(endpointsByPath.get(request.getServletPath()), probe)) {
+            chain.doFilter(request, response);
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.my.spring.ai.bot.cancellation;
+
+/**
+ * Tells whether the client of a request has closed its connection, without blocking.
+ *
+ * Exposed as the request attribute {@link #ATTRIBUTE} by {@link ClientDisconnectValve}; absent when the
+ * server cannot tell, in which case a disconnect only surfaces when the response is written. Only the
+ * thread serving the request may call it.
+ */
+@FunctionalInterface
+public interface ClientDisconnectProbe {
+
+    String ATTRIBUTE = ClientDisconnectProbe.class.getName();
+
+    boolean isDisconnected();
+}
@@ -0,0 +1,48 @@
+package com.my.spring.ai.bot.cancellation;
+
+import jakarta.servlet.ServletException;
+import org.apache.catalina.connector.Request;
+import org.apache.catalina.connector.Response;
+import org.apache.catalina.valves.ValveBase;
+import org.apache.coyote.ActionCode;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Gives every request a {@link ClientDisconnectProbe} backed by a non-blocking read of its connection.
+ *
+ * Tomcat does not watch the socket while a request is being processed, so a client that goes away is
+ * only noticed when the response is written. Once the request body has been read, though, nothing more
+ * is expected from the client: a non-blocking read that finds the end of the stream means the client
+ * closed the connection. Tomcat reports that as one byte available, so that a read would surface the
+ * error. Pipelined requests would look the same, which HTTP clients in practice do not send.
+ *
+ * The probe drives the request's Coyote processor, which is not thread-safe: only the thread serving the
+ * request may call it, while that thread is waiting for the request's work and nothing else reads the
+ * connection (see {@link RequestCancellation#call}), and never after the request has completed.
+ */
+public class ClientDisconnectValve extends ValveBase {
+
+    public ClientDisconnectValve() {
+        super(true);
+    }
+
+    @Override
+    public void invoke(Request request, Response response) throws IOException, ServletException {
+        org.apache.coyote.Request coyoteRequest = request.getCoyoteRequest();
+        request.setAttribute(ClientDisconnectProbe.ATTRIBUTE, (ClientDisconnectProbe) () -> isDisconnected(coyoteRequest));
+        getNext().invoke(request, response);
+    }
+
+    private static boolean isDisconnected(org.apache.coyote.Request coyoteRequest) {
+        AtomicBoolean bodyRead = new AtomicBoolean();
+        coyoteRequest.action(ActionCode.REQUEST_BODY_FULLY_READ, bodyRead);
+        if (!bodyRead.get()) {
+            // Still streaming the body in: available bytes are the client's data, not a disconnect
+            return false;
+        }
+        coyoteRequest.action(ActionCode.AVAILABLE, Boolean.TRUE);
+        return coyoteRequest.getAvailable() > 0;
+    }
+}
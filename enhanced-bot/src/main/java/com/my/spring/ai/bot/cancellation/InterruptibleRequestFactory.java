@@ -0,0 +1,26 @@
+package com.my.spring.ai.bot.cancellation;
+
+import org.springframework.boot.http.client.ClientHttpRequestFactoryBuilder;
+import org.springframework.http.client.ClientHttpRequestFactory;
+
+import java.net.http.HttpClient;
+
+/**
+ * Request factory for the RestClients of the model servers (Ollama, Kokoro), whose calls are cancelled by
+ * interrupting the thread making them (see {@link RequestCancellation}).
+ *
+ * It uses the JDK HTTP client, which aborts the exchange when the calling thread is interrupted, closing
+ * the connection so the server stops generating; HttpURLConnection would keep waiting for the answer.
+ * HTTP/1.1 because these servers do not speak HTTP/2 and the upgrade attempt only costs a round trip.
+ */
+public final class InterruptibleRequestFactory {
+
+    private InterruptibleRequestFactory() {
+    }
+
+    public static ClientHttpRequestFactory create() {
+        return ClientHttpRequestFactoryBuilder.jdk()
+                .withHttpClientCustomizer(builder -> builder.version(HttpClient.Version.HTTP_1_1))
+                .build();
+    }
+}
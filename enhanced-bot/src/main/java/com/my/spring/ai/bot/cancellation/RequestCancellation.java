@@ -0,0 +1,282 @@
+package com.my.spring.ai.bot.cancellation;
+
+import com.my.spring.ai.bot.config.RequestCancellationProperties;
+import com.my.spring.ai.bot.deadline.Deadline;
+import com.my.spring.ai.bot.exception.RequestCancelledException;
+import com.my.spring.ai.bot.metrics.MeterCache;
+import com.my.spring.ai.bot.tools.ToolCallbackWrapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.ai.tool.ToolCallback;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.stereotype.Component;
+
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Stops the model work of requests whose client has disconnected.
+ *
+ * Blocking requests are watched while they run. A watched request hands its model work to
+ * {@link #call(Supplier)}, which runs it on a worker thread while the request's own thread waits and probes
+ * its connection at the configured interval; the connection is only ever read by the thread serving the
+ * request. Once the client is gone the worker is interrupted, which aborts whatever it is blocked on: the
+ * model, embedding, vector store or speech call (the model clients use the JDK HTTP client, which cancels
+ * the exchange, closing the connection, and Ollama stops generating), a retry back-off, the session's turn
+ * or a model slot, or a tool call; work not yet started sees the cancellation and does not start.
+ * Streamed replies need no watching: the disconnect surfaces when the next token is written and the model
+ * stream is cancelled with it (counted by {@link com.my.spring.ai.bot.metrics.ChatStreamMetrics}).
+ *
+ * A watched request's catch-all error handling calls {@link #checkCurrent(Throwable)}, so the failure an
+ * interrupt causes is reported as the cancellation it is rather than as a failure of the model.
+ *
+ * Cancelled requests are counted as {@code llm.requests.cancelled} by endpoint, tool calls that were cut
+ * short or never ran because of it as {@code llm.tool.calls.cancelled} by tool.
+ */
+@Slf4j
+@Component
+public class RequestCancellation implements ToolCallbackWrapper, DisposableBean {
+
+    private static final ThreadLocal<Watch> CURRENT = new ThreadLocal<>();
+
+    private final boolean enabled;
+    private final MeterCache<String, Counter> toolsCancelled;
+    private final MeterCache<String, Counter> requestsCancelled;
+    private final long probeIntervalNanos;
+    private final Set<Watch> watches = ConcurrentHashMap.newKeySet();
+    private final ExecutorService workers;
+
+    public RequestCancellation(RequestCancellationProperties properties, MeterRegistry meterRegistry) {
+        this.enabled = properties.isEnabled();
+        this.toolsCancelled = new MeterCache<>(tool -> Counter.builder("llm.tool.calls.cancelled")
+                .tag("tool", tool)
+                .description("Tool calls not started or interrupted because their request was cancelled")
+                .register(meterRegistry));
+        this.requestsCancelled = new MeterCache<>(endpoint -> Counter.builder("llm.requests.cancelled")
+                .tag("endpoint", endpoint)
+                .description("Requests whose model work was cancelled because the client disconnected")
+                .register(meterRegistry));
+        this.probeIntervalNanos = properties.getProbeInterval().toNanos();
+        AtomicInteger threadCount = new AtomicInteger();
+        // Unbounded: one worker per watched request in flight, which the server's own threads already bound
+        this.workers = Executors.newCachedThreadPool(r -> {
+            Thread thread = new Thread(r, "request-work-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        Gauge.builder("llm.requests.watched", watches, Set::size)
+                .description("In-flight requests whose client connection is being watched")
+                .register(meterRegistry);
+
+        log.info("RequestCancellation configured: enabled={}, probeInterval={}", enabled, properties.getProbeInterval());
+    }
+
+    /**
+     * Watches the calling thread's request until the returned handle is closed: work it runs through
+     * {@link #call(Supplier)} is cancelled if the probe finds the client gone. Close it on the same thread,
+     * before the response is completed.
+     *
+     * @param endpoint tag value identifying the endpoint, e.g. "chat" or "voice"
+     * @param probe    the request's connection, or null when it cannot be probed
+     */
+    public Watch watch(String endpoint, ClientDisconnectProbe probe) {
+        Watch watch = new Watch(endpoint, Thread.currentThread(), probe, CURRENT.get());
+        if (watch.watched) {
+            watches.add(watch);
+        }
+        CURRENT.set(watch);
+        return watch;
+    }
+
+    /**
+     * Runs the work of the request served on this thread, cancelling it if the client disconnects first.
+     *
+     * On the thread serving a watched request the work runs on a worker, as part of the request (see
+     * {@link #propagate}) and within its deadline, while this thread waits for it and probes the client's
+     * connection in between. Anywhere else, such as in work already handed off this way or for a request
+     * that is not watched, the work simply runs on the calling thread.
+     *
+     * @throws RequestCancelledException if the client disconnected, or the thread was interrupted, before
+     *                                   the work completed; the work is then interrupted
+     */
+    public static <T> T call(Supplier<T> work) {
+        Watch watch = CURRENT.get();
+        if (watch == null || !watch.watched || watch.thread != Thread.currentThread()) {
+            return work.get();
+        }
+        return watch.await(work);
+    }
+
+    /**
+     * Turns a failure of the request served on this thread into a {@link RequestCancelledException} if the
+     * request was cancelled, which is then the cause: the cancellation aborted the work that failed. A thread
+     * interrupted outside of a watch counts as cancelled too. Returns normally otherwise, leaving the
+     * failure to the caller.
+     */
+    public static void checkCurrent(Throwable failure) {
+        Watch watch = CURRENT.get();
+        if ((watch != null && watch.isCancelled()) || Thread.currentThread().isInterrupted()) {
+            if (failure instanceof RequestCancelledException alreadyReported) {
+                throw alreadyReported;
+            }
+            throw new RequestCancelledException("The request was cancelled before it was answered.", failure);
+        }
+    }
+
+    /**
+     * Wraps a task so that it runs as part of the calling thread's request, on whichever thread runs it:
+     * {@link #checkCurrent} and the tool wrappers there see the request's cancellation. Interrupting that
+     * thread is left to whoever runs the task, e.g. by cancelling its future.
+     */
+    public static <T> Callable<T> propagate(Callable<T> task) {
+        Watch watch = CURRENT.get();
+        if (watch == null) {
+            return task;
+        }
+        return () -> {
+            Watch previous = CURRENT.get();
+            CURRENT.set(watch);
+            try {
+                return task.call();
+            } finally {
+                if (previous == null) {
+                    CURRENT.remove();
+                } else {
+                    CURRENT.set(previous);
+                }
+            }
+        };
+    }
+
+    /**
+     * Whether the request served on this thread was cancelled because its client disconnected. An
+     * interrupt of another cause, such as a tool's timeout or the request's deadline, is not a cancellation.
+     */
+    static boolean isCurrentCancelled() {
+        Watch watch = CURRENT.get();
+        return watch != null && watch.isCancelled();
+    }
+
+    /**
+     * Wraps a tool so that a call made for a cancelled request is not started, and one interrupted by
+     * the cancellation is counted.
+     */
+    @Override
+    public ToolCallback wrap(ToolCallback tool) {
+        return tool instanceof CancellableToolCallback ? tool : new CancellableToolCallback(tool, this);
+    }
+
+    void toolCancelled(String tool) {
+        toolsCancelled.get(tool).increment();
+    }
+
+    @Override
+    public void destroy() {
+        workers.shutdownNow();
+    }
+
+    /**
+     * A request being watched. Closing it stops the watch; closing twice is harmless.
+     */
+    public final class Watch implements AutoCloseable {
+
+        private final String endpoint;
+        private final Thread thread;
+        private final ClientDisconnectProbe probe;
+        private final Watch enclosing;
+        private final boolean watched;
+
+        // Only the request's thread probes and closes; the work it hands off reads the cancellation
+        private boolean closed;
+        private volatile boolean cancelled;
+
+        private Watch(String endpoint, Thread thread, ClientDisconnectProbe probe, Watch enclosing) {
+            this.endpoint = endpoint;
+            this.thread = thread;
+            this.probe = probe;
+            this.enclosing = enclosing;
+            this.watched = enabled && probe != null;
+        }
+
+        private <T> T await(Supplier<T> work) {
+            Deadline deadline = Deadline.current();
+            Callable<T> task = propagate(work::get);
+            Future<T> future = workers.submit(deadline == null ? task : deadline.propagate(task));
+            try {
+                while (true) {
+                    try {
+                        return future.get(probeIntervalNanos, TimeUnit.NANOSECONDS);
+                    } catch (TimeoutException e) {
+                        if (isDisconnected()) {
+                            cancelled = true;
+                            requestsCancelled.get(endpoint).increment();
+                            log.debug("Client of a {} request disconnected, cancelling its work", endpoint);
+                            throw new RequestCancelledException("The " + endpoint
+                                    + " request was cancelled: its client disconnected before it was answered.");
+                        }
+                    }
+                }
+            } catch (InterruptedException e) {
+                // The deadline interrupts the thread too; report it as such when it is the cause
+                Thread.currentThread().interrupt();
+                Deadline.checkCurrent(e);
+                throw new RequestCancelledException("The " + endpoint + " request was interrupted before it was answered.", e);
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof RuntimeException failure) {
+                    throw failure;
+                }
+                if (e.getCause() instanceof Error error) {
+                    throw error;
+                }
+                throw new IllegalStateException("The " + endpoint + " request failed", e.getCause());
+            } finally {
+                // Work still running when the request stops waiting for it is of no use any more
+                future.cancel(true);
+            }
+        }
+
+        private boolean isDisconnected() {
+            try {
+                return probe.isDisconnected();
+            } catch (RuntimeException e) {
+                // A probe that cannot read the connection says nothing about the client; keep waiting
+                log.debug("Could not probe the client connection of a {} request", endpoint, e);
+                return false;
+            }
+        }
+
+        /**
+         * Whether the client disconnected and the request's work was cancelled.
+         */
+        public boolean isCancelled() {
+            return cancelled;
+        }
+
+        @Override
+        public void close() {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            watches.remove(this);
+            if (CURRENT.get() == this) {
+                if (enclosing == null) {
+                    CURRENT.remove();
+                } else {
+                    CURRENT.set(enclosing);
+                }
+            }
+        }
+    }
+}
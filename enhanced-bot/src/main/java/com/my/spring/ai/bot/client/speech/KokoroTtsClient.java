@@ -1,5 +1,9 @@
 package com.my.spring.ai.bot.client.speech;
+import com.my.spring.ai.bot.cancellation.InterruptibleRequestFactory;
 import com.my.spring.ai.bot.config.KokoroTTSOptions;
+import com.my.spring.ai.bot.exception.ServiceUnavailableException;
+import com.my.spring.ai.bot.resilience.CircuitBreaker;
+import com.my.spring.ai.bot.resilience.CircuitBreakerRegistry;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import lombok.Builder;
 import lombok.Data;
@@ -23,13 +27,17 @@ import org.springframework.web.client.RestClient;
 public class KokoroTtsClient {
 
     private final RestClient restClient;
+    private final CircuitBreaker circuitBreaker;
 
     public KokoroTtsClient(
-            @Value("${kokoro.tts.base-url:http://localhost:8880}") String baseUrl) {
+            @Value("${kokoro.tts.base-url:http://localhost:8880}") String baseUrl,
+            CircuitBreakerRegistry circuitBreakers) {
         this.restClient = RestClient.builder()
                 .baseUrl(baseUrl)
+                .requestFactory(InterruptibleRequestFactory.create())
                 .defaultHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
                 .build();
+        this.circuitBreaker = circuitBreakers.get(CircuitBreakerRegistry.TEXT_TO_SPEECH);
 
         log.info("Initialized KokoroTtsClient with base-url={}", baseUrl);
     }
@@ -53,11 +61,11 @@ public class KokoroTtsClient {
                 .build();
 
         try {
-            byte[] response = restClient.post()
+            byte[] response = circuitBreaker.execute(() -> restClient.post()
                     .uri("/v1/audio/speech")
                     .body(request)
                     .retrieve()
-                    .body(byte[].class);
+                    .body(byte[].class));
 
             if (response == null) {
                 throw new RuntimeException("Null response from Kokoro API");
@@ -79,6 +87,8 @@ public class KokoroTtsClient {
 
             return audioBytes;
 
+        } catch (ServiceUnavailableException e) {
+            throw e;
         } catch (IllegalArgumentException e) {
             log.error("Failed to decode base64 response from Kokoro. Response might not be base64 encoded.", e);
             throw new RuntimeException("Failed to decode audio data - response is not valid base64", e);
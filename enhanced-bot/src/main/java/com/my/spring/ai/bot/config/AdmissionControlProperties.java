@@ -0,0 +1,79 @@
+package com.my.spring.ai.bot.config;
+
+import com.my.spring.ai.bot.admission.EndpointClass;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Adaptive concurrency limits in front of model calls, one limiter per endpoint class.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "admission")
+public class AdmissionControlProperties {
+
+    /**
+     * Whether model calls are admission controlled; when off every call goes straight through.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Limits used by endpoint classes without their own entry.
+     */
+    private Limit defaults = new Limit();
+
+    /**
+     * Per endpoint class overrides; an entry replaces the defaults as a whole.
+     */
+    private Map<EndpointClass, Limit> endpoints = new EnumMap<>(EndpointClass.class);
+
+    public Limit limitFor(EndpointClass endpointClass) {
+        return endpoints.getOrDefault(endpointClass, defaults);
+    }
+
+    @Data
+    public static class Limit {
+
+        /**
+         * Concurrent model calls allowed before any latency has been observed.
+         */
+        private int initialLimit = 8;
+
+        /**
+         * The limit never drops below this, so some traffic always gets through to measure recovery.
+         */
+        private int minLimit = 1;
+
+        private int maxLimit = 64;
+
+        /**
+         * Calls allowed to wait for a free slot; further calls are rejected at once.
+         */
+        private int queueCapacity = 32;
+
+        /**
+         * Longest a queued call waits for a slot before it is rejected.
+         */
+        private Duration maxWait = Duration.ofSeconds(10);
+
+        /**
+         * The limit is cut when recent latency exceeds the no-load latency by this factor.
+         */
+        private double latencyTolerance = 2.0;
+
+        /**
+         * Factor applied to the limit on congestion or failure (the multiplicative decrease).
+         */
+        private double backoffRatio = 0.9;
+
+        /**
+         * Samples after which the no-load latency is measured afresh, so it can follow a changed model or host.
+         */
+        private int baselineResetSamples = 500;
+    }
+}
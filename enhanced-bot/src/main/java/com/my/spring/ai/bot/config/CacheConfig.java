@@ -0,0 +1,22 @@
+package com.my.spring.ai.bot.config;
+
+import com.my.spring.ai.bot.cache.SingleFlightCache;
+import com.my.spring.ai.bot.dto.GenerateResponse;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * In-process caches in front of model and tool calls.
+ */
+@Configuration
+public class CacheConfig {
+
+    @Bean
+    public SingleFlightCache<String, GenerateResponse> generateResponseCache(GenerateCacheProperties properties,
+                                                                             MeterRegistry meterRegistry) {
+        // A disabled cache is built without capacity and simply runs every load
+        int maxEntries = properties.isEnabled() ? properties.getMaxEntries() : 0;
+        return new SingleFlightCache<>("generate", maxEntries, properties.getTtl(), meterRegistry);
+    }
+}
@@ -1,9 +1,19 @@
 package com.my.spring.ai.bot.config;
 
+import com.my.spring.ai.bot.hedging.HedgedChatModel;
+import com.my.spring.ai.bot.loadbalancer.LoadBalancedChatModel;
+import com.my.spring.ai.bot.memory.BoundedChatMemory;
+import com.my.spring.ai.bot.memory.MappedSegmentChatMemory;
+import com.my.spring.ai.bot.memory.RollingSummaryChatMemoryAdvisor;
+import com.my.spring.ai.bot.resilience.CircuitBreakerRegistry;
+import com.my.spring.ai.bot.resilience.CircuitBreakingChatModel;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.ai.chat.memory.ChatMemory;
-import org.springframework.ai.chat.memory.InMemoryChatMemory;
 import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Primary;
@@ -12,16 +22,63 @@ import org.springframework.context.annotation.Profile;
 @Configuration
 public class ChatBotConfig {
 
+    /**
+     * Shared chat memory for chat, MCP chat and voice sessions.
+     * Bounded per session and globally; see {@link ChatMemoryProperties}.
+     */
     @Bean
-    public ChatMemory chatMemory() {
-        return new InMemoryChatMemory();
+    @ConditionalOnProperty(prefix = "chat.memory", name = "store", havingValue = "bounded", matchIfMissing = true)
+    public BoundedChatMemory chatMemory(ChatMemoryProperties chatMemoryProperties) {
+        return new BoundedChatMemory(chatMemoryProperties);
     }
 
+    /**
+     * Durable chat memory that survives restarts; enabled with {@code chat.memory.store=mapped}.
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "chat.memory", name = "store", havingValue = "mapped")
+    public MappedSegmentChatMemory mappedChatMemory(ChatMemoryProperties chatMemoryProperties) {
+        return new MappedSegmentChatMemory(chatMemoryProperties);
+    }
+
+    /**
+     * Memory advisor for the plain chat service: recent turns verbatim, older turns as a rolling summary.
+     * Summaries are produced with the primary chat model.
+     */
+    @Bean
+    public RollingSummaryChatMemoryAdvisor rollingSummaryChatMemoryAdvisor(ChatMemory chatMemory,
+                                                                           ChatModel chatModel,
+                                                                           ChatMemoryProperties chatMemoryProperties,
+                                                                           MeterRegistry meterRegistry) {
+        return new RollingSummaryChatMemoryAdvisor(chatMemory, chatModel, chatMemoryProperties, meterRegistry);
+    }
+
+    /**
+     * The single auto-configured Ollama server, or the pool of servers when {@code ollama.pool.enabled=true},
+     * behind the chat-model circuit breaker and hedged to a secondary model when {@code chat.hedging.enabled=true}.
+     */
     @Bean
     @Primary
     @Profile("!mcp")
-    public ChatModel ollamaPrimaryChatModel(@Qualifier("ollamaChatModel") ChatModel ollamaChatModel) {
-        return ollamaChatModel;
+    public ChatModel ollamaPrimaryChatModel(@Qualifier("ollamaChatModel") ChatModel ollamaChatModel,
+                                            ObjectProvider<LoadBalancedChatModel> ollamaPoolChatModel,
+                                            HedgingProperties hedgingProperties,
+                                            CircuitBreakerRegistry circuitBreakers,
+                                            BeanFactory beanFactory,
+                                            MeterRegistry meterRegistry) {
+        LoadBalancedChatModel pool = ollamaPoolChatModel.getIfAvailable();
+        ChatModel ollama = pool != null ? pool : ollamaChatModel;
+        if (circuitBreakers.isEnabled()) {
+            String fallbackName = circuitBreakers.fallbackFor(CircuitBreakerRegistry.CHAT_MODEL);
+            ChatModel fallback = fallbackName == null ? null : beanFactory.getBean(fallbackName, ChatModel.class);
+            ollama = new CircuitBreakingChatModel(ollama,
+                    circuitBreakers.get(CircuitBreakerRegistry.CHAT_MODEL), fallback);
+        }
+        if (!hedgingProperties.isEnabled()) {
+            return ollama;
+        }
+        ChatModel secondary = beanFactory.getBean(hedgingProperties.getSecondaryModel(), ChatModel.class);
+        return new HedgedChatModel(ollama, secondary, hedgingProperties, meterRegistry);
     }
 
     @Bean
@@ -0,0 +1,125 @@
+package com.my.spring.ai.bot.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+/**
+ * Limits applied to the chat memory store shared by all chat services.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "chat.memory")
+public class ChatMemoryProperties {
+
+    /**
+     * Backing store: {@code bounded} (heap only) or {@code mapped} (durable segment files).
+     */
+    private String store = "bounded";
+
+    /**
+     * Number of history entries the services read back when checking a session.
+     */
+    private int historyWindow = 10;
+
+    /**
+     * Maximum messages kept per session; older ones are overwritten.
+     */
+    private int maxMessagesPerSession = 100;
+
+    /**
+     * Sessions not touched for this long are expired.
+     */
+    private Duration idleTtl = Duration.ofMinutes(30);
+
+    /**
+     * Maximum number of live sessions before the least recently used is evicted.
+     */
+    private int maxSessions = 10_000;
+
+    /**
+     * Upper bound on the estimated heap held by all sessions.
+     */
+    private DataSize maxBytes = DataSize.ofMegabytes(64);
+
+    /**
+     * How often the background sweeper looks for idle sessions.
+     */
+    private Duration sweepInterval = Duration.ofMinutes(1);
+
+    /**
+     * Settings for the memory-mapped segment store.
+     */
+    private Mapped mapped = new Mapped();
+
+    /**
+     * Settings for the rolling summary of older chat turns.
+     */
+    private Summary summary = new Summary();
+
+    @Data
+    public static class Mapped {
+
+        /**
+         * Directory holding segment files and the index checkpoint.
+         */
+        private String directory = "data/chat-memory";
+
+        /**
+         * Size of each memory-mapped segment file.
+         */
+        private DataSize segmentSize = DataSize.ofMegabytes(64);
+
+        /**
+         * How often the active segment is forced to disk; a machine crash loses at most the messages added since.
+         */
+        private Duration forceInterval = Duration.ofSeconds(1);
+
+        /**
+         * How often the in-memory index is checkpointed so recovery only replays the log tail.
+         */
+        private Duration checkpointInterval = Duration.ofSeconds(30);
+
+        /**
+         * How often sealed segments are checked for compaction.
+         */
+        private Duration compactionInterval = Duration.ofMinutes(5);
+
+        /**
+         * Sealed segments whose live fraction drops below this value are compacted.
+         */
+        private double compactionThreshold = 0.5;
+    }
+
+    @Data
+    public static class Summary {
+
+        /**
+         * Whether older turns are folded into a summary; when off the full stored history is sent.
+         */
+        private boolean enabled = true;
+
+        /**
+         * Most recent user/assistant turns always sent verbatim.
+         */
+        private int verbatimTurns = 4;
+
+        /**
+         * Estimated tokens outside the verbatim window that trigger a summary refresh.
+         */
+        private int tokenThreshold = 1000;
+
+        /**
+         * Background threads producing summaries.
+         */
+        private int threads = 1;
+
+        /**
+         * Pending refreshes beyond this are dropped and retried on the next turn.
+         */
+        private int queueCapacity = 100;
+    }
+}
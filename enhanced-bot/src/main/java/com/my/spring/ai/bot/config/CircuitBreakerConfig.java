@@ -0,0 +1,22 @@
+package com.my.spring.ai.bot.config;
+
+import com.my.spring.ai.bot.resilience.CircuitBreakerBeanPostProcessor;
+import com.my.spring.ai.bot.resilience.CircuitBreakerRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Circuit breakers around the embedding model and vector store beans; the chat model is guarded in
+ * {@link ChatBotConfig} and the speech clients guard their own calls.
+ */
+@Configuration
+public class CircuitBreakerConfig {
+
+    // Static, so that this configuration class is not instantiated early along with the post-processor
+    @Bean
+    public static CircuitBreakerBeanPostProcessor circuitBreakerBeanPostProcessor(
+            ObjectProvider<CircuitBreakerRegistry> circuitBreakerRegistry) {
+        return new CircuitBreakerBeanPostProcessor(circuitBreakerRegistry);
+    }
+}
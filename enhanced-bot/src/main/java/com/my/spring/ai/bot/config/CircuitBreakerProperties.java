@@ -0,0 +1,73 @@
+package com.my.spring.ai.bot.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Circuit breakers around the model, embedding, vector store and speech dependencies, one per dependency.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "circuit-breakers")
+public class CircuitBreakerProperties {
+
+    /**
+     * Whether calls go through circuit breakers; when off every call goes straight to the dependency.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Settings used by breakers without their own entry.
+     */
+    private Breaker defaults = new Breaker();
+
+    /**
+     * Per breaker overrides (chat-model, embedding-model, vector-store, text-to-speech, speech-to-text);
+     * an entry replaces the defaults as a whole.
+     */
+    private Map<String, Breaker> instances = new LinkedHashMap<>();
+
+    public Breaker breakerFor(String name) {
+        return instances.getOrDefault(name, defaults);
+    }
+
+    @Data
+    public static class Breaker {
+
+        /**
+         * Number of most recent calls the failure rate is taken over.
+         */
+        private int windowSize = 10;
+
+        /**
+         * Calls that must be in the window before the failure rate can open the circuit.
+         */
+        private int minimumCalls = 5;
+
+        /**
+         * Failure rate, between 0 and 1, at which the circuit opens.
+         */
+        private double failureRateThreshold = 0.5;
+
+        /**
+         * How long an open circuit fails calls fast before letting probe calls through.
+         */
+        private Duration openDuration = Duration.ofSeconds(30);
+
+        /**
+         * Probe calls let through a half-open circuit; all must succeed to close it, any failure reopens it.
+         */
+        private int halfOpenProbes = 2;
+
+        /**
+         * Bean name of an alternate used while the circuit is open instead of failing with 503.
+         * Only the chat-model breaker supports a fallback, e.g. {@code bedrockProxyChatModel}.
+         */
+        private String fallback;
+    }
+}
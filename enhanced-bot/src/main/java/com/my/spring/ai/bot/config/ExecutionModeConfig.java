@@ -0,0 +1,34 @@
+package com.my.spring.ai.bot.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Reports the thread model used for request handling.
+ *
+ * With {@code spring.threads.virtual.enabled=true} on a Java 21+ runtime, Spring Boot runs Tomcat
+ * request handling, the MVC async executor and the scheduler on virtual threads. The blocking
+ * model, tool, vector store and speech calls made by the chat, MCP chat, QA and voice services run
+ * on the request thread, so each one then parks a virtual thread instead of holding one of
+ * Tomcat's platform threads. On older runtimes the flag is ignored and platform threads are used.
+ */
+@Slf4j
+@Configuration
+public class ExecutionModeConfig {
+
+    private static final int VIRTUAL_THREADS_MIN_JAVA = 21;
+
+    public ExecutionModeConfig(@Value("${spring.threads.virtual.enabled:false}") boolean virtualThreadsEnabled) {
+        int javaVersion = Runtime.version().feature();
+        if (!virtualThreadsEnabled) {
+            log.info("Execution mode: platform threads");
+        } else if (javaVersion < VIRTUAL_THREADS_MIN_JAVA) {
+            log.warn("Virtual threads requested but the runtime is Java {}; falling back to platform threads. "
+                    + "Run on Java {}+ to enable them.", javaVersion, VIRTUAL_THREADS_MIN_JAVA);
+        } else {
+            log.info("Execution mode: virtual threads (pinned-thread tracing: {})",
+                    System.getProperty("jdk.tracePinnedThreads", "off"));
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.my.spring.ai.bot.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Batch text generation endpoint.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "generate.batch")
+public class GenerateBatchProperties {
+
+    /**
+     * Items of one batch generated at the same time.
+     */
+    private int concurrency = 4;
+
+    /**
+     * Largest batch accepted in one request.
+     */
+    private int maxItems = 1000;
+}
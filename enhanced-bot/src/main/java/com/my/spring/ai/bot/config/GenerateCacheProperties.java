@@ -0,0 +1,31 @@
+package com.my.spring.ai.bot.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Response cache of the {@code /generate} endpoint.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "generate.cache")
+public class GenerateCacheProperties {
+
+    /**
+     * Whether identical prompts are answered from the cache.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Maximum number of cached responses; the least recently used one is evicted first.
+     */
+    private int maxEntries = 1000;
+
+    /**
+     * How long a cached response is served before the model is asked again.
+     */
+    private Duration ttl = Duration.ofMinutes(10);
+}
@@ -0,0 +1,55 @@
+package com.my.spring.ai.bot.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Hedged requests from the primary Ollama chat model to a secondary chat model.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "chat.hedging")
+public class HedgingProperties {
+
+    /**
+     * Whether slow primary requests are repeated on the secondary model.
+     */
+    private boolean enabled = false;
+
+    /**
+     * Bean name of the secondary chat model, e.g. the Bedrock Converse model of the {@code bedrock} build profile.
+     */
+    private String secondaryModel = "bedrockProxyChatModel";
+
+    /**
+     * Percentile of recent primary latencies after which a request is hedged; 0.95 hedges about one in twenty.
+     */
+    private double percentile = 0.95;
+
+    /**
+     * Hedge delay used until {@link #minSamples} primary latencies have been observed.
+     */
+    private Duration initialDelay = Duration.ofSeconds(3);
+
+    /**
+     * Bounds on the hedge delay, whatever the observed latencies.
+     */
+    private Duration minDelay = Duration.ofMillis(200);
+
+    private Duration maxDelay = Duration.ofSeconds(30);
+
+    /**
+     * Number of recent primary latencies the percentile is taken over.
+     */
+    private int window = 500;
+
+    private int minSamples = 20;
+
+    /**
+     * Threads running the primary and hedged blocking calls; a call finding them all busy is not hedged.
+     */
+    private int threads = 32;
+}
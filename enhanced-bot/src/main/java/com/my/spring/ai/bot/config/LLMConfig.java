@@ -1,6 +1,9 @@
 package com.my.spring.ai.bot.config;
 
+import com.my.spring.ai.bot.metrics.LlmCallLoggingAdvisor;
+import com.my.spring.ai.bot.metrics.LlmCallMetricsAdvisor;
 import org.springframework.ai.chat.client.ChatClient;
+import org.springframework.ai.chat.client.ChatClientCustomizer;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
@@ -16,5 +19,15 @@ public class LLMConfig {
              .defaultSystem("You are a helpful assistant.")
              .build();
     }
+
+    /**
+     * Token, latency and throughput metrics and sampled structured call logs on every ChatClient
+     * built from the auto-configured builder.
+     */
+    @Bean
+    public ChatClientCustomizer llmCallMetricsCustomizer(LlmCallMetricsAdvisor llmCallMetricsAdvisor,
+                                                         LlmCallLoggingAdvisor llmCallLoggingAdvisor) {
+        return builder -> builder.defaultAdvisors(llmCallLoggingAdvisor, llmCallMetricsAdvisor);
+    }
     
 }
\ No newline at end of file
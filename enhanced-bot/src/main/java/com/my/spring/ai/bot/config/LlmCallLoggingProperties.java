@@ -0,0 +1,54 @@
+package com.my.spring.ai.bot.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Structured per-call log events of ChatClient calls, written to the {@code llm.calls} logger.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "llm.logging")
+public class LlmCallLoggingProperties {
+
+    /**
+     * Whether call events are logged at all; the {@code llm.calls} logger level must also allow INFO.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Fraction of ordinary calls that are logged, between 0 and 1.
+     */
+    private double sampleRate = 0.1;
+
+    /**
+     * Calls at least this slow are always logged, whatever the sample rate; failed calls are too.
+     */
+    private Duration slowThreshold = Duration.ofSeconds(5);
+
+    /**
+     * Whether the user text and completion are included in the event.
+     */
+    private boolean includeBodies = true;
+
+    /**
+     * Longest body included as is; longer ones are handled according to {@link #overflow}.
+     */
+    private int maxBodyLength = 256;
+
+    private Overflow overflow = Overflow.TRUNCATE;
+
+    public enum Overflow {
+        /**
+         * Keep the first {@code maxBodyLength} characters.
+         */
+        TRUNCATE,
+        /**
+         * Replace the body with a SHA-256 digest, so equal bodies can still be correlated.
+         */
+        HASH
+    }
+}
@@ -0,0 +1,37 @@
+package com.my.spring.ai.bot.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Background start-up of the MCP client connections.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "mcp.connections")
+public class McpConnectionProperties {
+
+    /**
+     * Wait before retrying a connection that failed for the first time; doubled after every failure.
+     */
+    private Duration initialBackoff = Duration.ofSeconds(1);
+
+    /**
+     * Longest wait between two attempts of a connection.
+     */
+    private Duration maxBackoff = Duration.ofMinutes(1);
+
+    /**
+     * Attempts after which a connection is given up; 0 retries for as long as the application runs.
+     */
+    private int maxAttempts = 0;
+
+    /**
+     * Interval between pings of each connected server; a server that does not answer is reconnected.
+     * Zero disables the pings.
+     */
+    private Duration healthCheckInterval = Duration.ofSeconds(30);
+}
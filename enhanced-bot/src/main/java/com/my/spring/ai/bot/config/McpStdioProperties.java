@@ -0,0 +1,100 @@
+package com.my.spring.ai.bot.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Pools of stdio MCP server processes, each served as one MCP connection.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "mcp.stdio")
+public class McpStdioProperties {
+
+    /**
+     * Pools by connection name. A server listed here must not also be among the
+     * {@code spring.ai.mcp.client.stdio.connections}.
+     */
+    private Map<String, Pool> pools = new LinkedHashMap<>();
+
+    @Data
+    public static class Pool {
+
+        /**
+         * Command starting one server process, e.g. {@code java}.
+         */
+        private String command;
+
+        /**
+         * Arguments of the command.
+         */
+        private List<String> args = new ArrayList<>();
+
+        /**
+         * Environment variables added to the processes' environment.
+         */
+        private Map<String, String> env = new HashMap<>();
+
+        /**
+         * Number of server processes.
+         */
+        private int size = 2;
+
+        /**
+         * Longest wait for the answer to any request of a process: the MCP handshake, each warm-up
+         * request and each tool call.
+         */
+        private Duration requestTimeout = Duration.ofSeconds(30);
+
+        /**
+         * Wait before replacing a process that died; doubled while replacements keep failing.
+         */
+        private Duration restartDelay = Duration.ofSeconds(1);
+
+        /**
+         * Longest wait between two attempts to replace a process.
+         */
+        private Duration maxRestartDelay = Duration.ofMinutes(1);
+
+        /**
+         * Warm-up of each process before it takes tool calls.
+         */
+        private Warmup warmup = new Warmup();
+    }
+
+    @Data
+    public static class Warmup {
+
+        /**
+         * MCP pings sent after the handshake, exercising the server's request path.
+         */
+        private int pings = 20;
+
+        /**
+         * Tool calls made once each, e.g. to load a tool's code; their results are discarded.
+         */
+        private List<Call> calls = new ArrayList<>();
+    }
+
+    @Data
+    public static class Call {
+
+        /**
+         * Name of the tool.
+         */
+        private String tool;
+
+        /**
+         * Arguments of the call, as a JSON object.
+         */
+        private String arguments = "{}";
+    }
+}
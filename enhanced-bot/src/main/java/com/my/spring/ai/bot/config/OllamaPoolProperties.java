@@ -0,0 +1,76 @@
+package com.my.spring.ai.bot.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Pool of Ollama servers behind the primary chat model.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "ollama.pool")
+public class OllamaPoolProperties {
+
+    /**
+     * Whether chat requests are balanced over {@link #endpoints}; when off the single
+     * {@code spring.ai.ollama.base-url} server is used.
+     */
+    private boolean enabled = false;
+
+    /**
+     * Ollama servers to balance over. They should all serve the configured chat model.
+     */
+    private List<Endpoint> endpoints = new ArrayList<>();
+
+    private Affinity affinity = new Affinity();
+
+    private Ejection ejection = new Ejection();
+
+    @Data
+    public static class Endpoint {
+
+        /**
+         * Name used in logs and in the {@code backend} metric tag; defaults to host:port of the base URL.
+         */
+        private String name;
+
+        private String baseUrl;
+    }
+
+    @Data
+    public static class Affinity {
+
+        /**
+         * Keep each chat session on one server, so its prompt/KV cache can be reused across turns.
+         */
+        private boolean enabled = false;
+
+        /**
+         * A session leaves its server when that server has this many more requests in flight than
+         * the least loaded one.
+         */
+        private int spilloverThreshold = 4;
+    }
+
+    @Data
+    public static class Ejection {
+
+        /**
+         * Consecutive failed requests after which a server stops receiving traffic.
+         */
+        private int consecutiveFailures = 3;
+
+        /**
+         * How long a server is left out the first time; each further ejection before it recovers
+         * doubles this, up to {@link #maxTime}.
+         */
+        private Duration baseTime = Duration.ofSeconds(30);
+
+        private Duration maxTime = Duration.ofMinutes(5);
+    }
+}
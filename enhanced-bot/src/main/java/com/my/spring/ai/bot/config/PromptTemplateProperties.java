@@ -0,0 +1,32 @@
+package com.my.spring.ai.bot.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Prompt templates used by the text generation endpoint.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "prompt.templates")
+public class PromptTemplateProperties {
+
+    /**
+     * Optional directory of {@code *.st} templates; they are added to, or replace, the bundled
+     * {@code classpath:/prompts} templates of the same name.
+     */
+    private String directory;
+
+    /**
+     * How often the directory is checked for changed templates; zero disables hot reload.
+     */
+    private Duration reloadInterval = Duration.ofSeconds(5);
+
+    /**
+     * Template used when a request does not name one.
+     */
+    private String defaultTemplate = "llama";
+}
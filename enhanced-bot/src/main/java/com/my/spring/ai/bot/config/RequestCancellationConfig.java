@@ -0,0 +1,43 @@
+package com.my.spring.ai.bot.config;
+
+import com.my.spring.ai.bot.cancellation.ClientDisconnectFilter;
+import com.my.spring.ai.bot.cancellation.ClientDisconnectValve;
+import com.my.spring.ai.bot.cancellation.RequestCancellation;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.tomcat.TomcatServletWebServerFactory;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.boot.web.server.WebServerFactoryCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.Map;
+
+/**
+ * Wires {@link RequestCancellation} into the server; the tools are wrapped by {@link ToolExecutionConfig} and
+ * the model clients use {@link com.my.spring.ai.bot.cancellation.InterruptibleRequestFactory}.
+ */
+@Configuration
+public class RequestCancellationConfig {
+
+    // Blocking model endpoints by path; streams are cancelled by Reactor when the client goes away
+    private static final Map<String, String> WATCHED_ENDPOINTS = Map.of(
+            "/api/chat", "chat",
+            "/api/mcp/chat", "mcp-chat",
+            "/qa", "qa",
+            "/generate", "generate",
+            "/api/voice/chat", "voice");
+
+    @Bean
+    @ConditionalOnProperty(prefix = "request.cancellation", name = "enabled", havingValue = "true", matchIfMissing = true)
+    public WebServerFactoryCustomizer<TomcatServletWebServerFactory> clientDisconnectValveCustomizer() {
+        return factory -> factory.addContextValves(new ClientDisconnectValve());
+    }
+
+    @Bean
+    public FilterRegistrationBean<ClientDisconnectFilter> clientDisconnectFilter(RequestCancellation requestCancellation) {
+        FilterRegistrationBean<ClientDisconnectFilter> registration =
+                new FilterRegistrationBean<>(new ClientDisconnectFilter(requestCancellation, WATCHED_ENDPOINTS));
+        registration.addUrlPatterns(WATCHED_ENDPOINTS.keySet().toArray(String[]::new));
+        return registration;
+    }
+}
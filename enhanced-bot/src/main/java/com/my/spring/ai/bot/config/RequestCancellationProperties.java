@@ -0,0 +1,26 @@
+package com.my.spring.ai.bot.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Cancelling model work for requests whose client has disconnected.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "request.cancellation")
+public class RequestCancellationProperties {
+
+    /**
+     * Whether in-flight chat, MCP chat, QA, generate and voice requests are checked for a disconnected client.
+     */
+    private boolean enabled = true;
+
+    /**
+     * How often the connections of in-flight requests are checked. A disconnect is noticed at most this late.
+     */
+    private Duration probeInterval = Duration.ofMillis(500);
+}
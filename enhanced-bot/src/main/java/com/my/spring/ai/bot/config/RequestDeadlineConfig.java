@@ -0,0 +1,33 @@
+package com.my.spring.ai.bot.config;
+
+import com.my.spring.ai.bot.deadline.RequestDeadlineFilter;
+import com.my.spring.ai.bot.deadline.RequestDeadlines;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.Map;
+
+/**
+ * Wires {@link RequestDeadlines} into the server; the tools are wrapped by {@link ToolExecutionConfig}.
+ */
+@Configuration
+public class RequestDeadlineConfig {
+
+    // Streams get the deadline of their endpoint too; they capture it before the request thread returns
+    private static final Map<String, String> ENDPOINTS = Map.of(
+            "/api/chat", "chat",
+            "/api/chat/stream", "chat",
+            "/api/mcp/chat", "mcp-chat",
+            "/api/mcp/chat/stream", "mcp-chat",
+            "/qa", "qa",
+            "/api/voice/chat", "voice");
+
+    @Bean
+    public FilterRegistrationBean<RequestDeadlineFilter> requestDeadlineFilter(RequestDeadlines requestDeadlines) {
+        FilterRegistrationBean<RequestDeadlineFilter> registration =
+                new FilterRegistrationBean<>(new RequestDeadlineFilter(requestDeadlines, ENDPOINTS));
+        registration.addUrlPatterns(ENDPOINTS.keySet().toArray(String[]::new));
+        return registration;
+    }
+}
@@ -0,0 +1,43 @@
+package com.my.spring.ai.bot.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Deadlines for chat, MCP chat, QA and voice requests.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "request.deadline")
+public class RequestDeadlineProperties {
+
+    /**
+     * Whether requests get a deadline that bounds their model, tool, search and speech calls.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Request header in which a caller sets its own timeout, e.g. {@code 30s} or {@code 30000} (milliseconds).
+     */
+    private String header = "X-Request-Timeout";
+
+    /**
+     * Timeout of requests that do not set one, unless their endpoint has its own below.
+     */
+    private Duration defaultTimeout = Duration.ofMinutes(2);
+
+    /**
+     * Longest timeout a caller may ask for; longer ones are cut to this.
+     */
+    private Duration maxTimeout = Duration.ofMinutes(5);
+
+    /**
+     * Default timeout per endpoint (chat, mcp-chat, qa, voice).
+     */
+    private Map<String, Duration> endpoints = new HashMap<>();
+}
@@ -0,0 +1,35 @@
+package com.my.spring.ai.bot.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Ordering of concurrent messages sent to the same chat session.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "chat.mailbox")
+public class SessionMailboxProperties {
+
+    public enum Policy {
+        /**
+         * Every message is answered, one after another, in arrival order.
+         */
+        ORDERED,
+        /**
+         * A queued message is dropped when a newer one for the same session arrives behind it.
+         */
+        LATEST_WINS
+    }
+
+    /**
+     * Whether turns of the same session are serialized; when off they run concurrently.
+     */
+    private boolean enabled = true;
+
+    /**
+     * What happens to messages still waiting when newer ones arrive.
+     */
+    private Policy policy = Policy.ORDERED;
+}
@@ -0,0 +1,60 @@
+package com.my.spring.ai.bot.config;
+
+import com.my.spring.ai.bot.cache.ToolResultCache;
+import com.my.spring.ai.bot.cancellation.RequestCancellation;
+import com.my.spring.ai.bot.deadline.RequestDeadlines;
+import com.my.spring.ai.bot.tools.ParallelToolCallingManager;
+import com.my.spring.ai.bot.tools.ToolCallbackWrappingBeanPostProcessor;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import org.springframework.ai.model.tool.DefaultToolCallingManager;
+import org.springframework.ai.model.tool.ToolCallingManager;
+import org.springframework.ai.tool.execution.DefaultToolExecutionExceptionProcessor;
+import org.springframework.ai.tool.execution.ToolExecutionExceptionProcessor;
+import org.springframework.ai.tool.resolution.DelegatingToolCallbackResolver;
+import org.springframework.ai.tool.resolution.ToolCallbackResolver;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.List;
+
+/**
+ * Replaces the auto-configured {@link ToolCallingManager}, which every chat model uses to run the
+ * tools the model calls, with one that runs the calls of a turn concurrently, and wraps the tools
+ * themselves.
+ */
+@Configuration
+public class ToolExecutionConfig {
+
+    @Bean
+    public ParallelToolCallingManager toolCallingManager(ObjectProvider<ToolCallbackResolver> toolCallbackResolver,
+                                                         ObjectProvider<ToolExecutionExceptionProcessor> exceptionProcessor,
+                                                         ObjectProvider<ObservationRegistry> observationRegistry,
+                                                         ToolExecutionProperties properties,
+                                                         MeterRegistry meterRegistry) {
+        ToolCallbackResolver resolver = toolCallbackResolver.getIfUnique(() -> new DelegatingToolCallbackResolver(List.of()));
+        ToolExecutionExceptionProcessor processor = exceptionProcessor.getIfUnique(
+                () -> DefaultToolExecutionExceptionProcessor.builder().build());
+        ToolCallingManager sequential = DefaultToolCallingManager.builder()
+                .observationRegistry(observationRegistry.getIfUnique(() -> ObservationRegistry.NOOP))
+                .toolCallbackResolver(resolver)
+                .toolExecutionExceptionProcessor(processor)
+                .build();
+        return new ParallelToolCallingManager(sequential, resolver, processor, properties, meterRegistry);
+    }
+
+    /**
+     * Wraps every tool, innermost first: its results are cached, then it stops with a cancelled request,
+     * then it is held to the request's deadline. So a cached result is not served to a request that was
+     * cancelled or is past its deadline either.
+     */
+    // Static, so that this configuration class is not instantiated early along with the post-processor
+    @Bean
+    public static ToolCallbackWrappingBeanPostProcessor toolCallbackWrappingBeanPostProcessor(
+            ObjectProvider<ToolResultCache> toolResultCache,
+            ObjectProvider<RequestCancellation> requestCancellation,
+            ObjectProvider<RequestDeadlines> requestDeadlines) {
+        return new ToolCallbackWrappingBeanPostProcessor(List.of(toolResultCache, requestCancellation, requestDeadlines));
+    }
+}
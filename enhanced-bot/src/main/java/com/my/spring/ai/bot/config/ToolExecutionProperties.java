@@ -0,0 +1,44 @@
+package com.my.spring.ai.bot.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Execution of the tool calls the model asks for.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "tools.execution")
+public class ToolExecutionProperties {
+
+    /**
+     * Whether the tool calls of one model turn run concurrently; otherwise one after another.
+     */
+    private boolean parallel = true;
+
+    /**
+     * Threads running tool calls, shared by all requests.
+     */
+    private int threads = 8;
+
+    /**
+     * Tool calls that may wait for a thread; further calls are not run and the model gets an error result.
+     */
+    private int queueCapacity = 64;
+
+    /**
+     * Time a tool call may take, unless its tool has its own below. The model gets an error
+     * result for a call that takes longer.
+     */
+    private Duration timeout = Duration.ofSeconds(30);
+
+    /**
+     * Timeout per tool name, e.g. {@code extractLogs: 60s}.
+     */
+    private Map<String, Duration> timeouts = new HashMap<>();
+}
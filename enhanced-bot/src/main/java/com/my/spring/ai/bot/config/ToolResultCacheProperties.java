@@ -0,0 +1,61 @@
+package com.my.spring.ai.bot.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Client-side cache of MCP tool results. Only the tools listed under {@code tools} are cached.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "tools.cache")
+public class ToolResultCacheProperties {
+
+    /**
+     * Whether results of the listed tools are served from the cache.
+     */
+    private boolean enabled = true;
+
+    /**
+     * How long a result is served, unless its tool sets its own.
+     */
+    private Duration ttl = Duration.ofMinutes(5);
+
+    /**
+     * Results kept per tool, unless its tool sets its own; the least recently used one is evicted first.
+     */
+    private int maxEntries = 200;
+
+    /**
+     * Tools whose results are cached, by tool name. Only read-only tools belong here: a call answered
+     * from the cache does not reach the tool.
+     */
+    private Map<String, Tool> tools = new LinkedHashMap<>();
+
+    /**
+     * Tools with side effects, whose results are never cached; listing one of them under {@code tools}
+     * fails startup.
+     */
+    private Set<String> neverCached = new HashSet<>(Set.of("send_greeting_email"));
+
+    @Data
+    public static class Tool {
+
+        /**
+         * How long a result of this tool is served; the default when unset.
+         */
+        private Duration ttl;
+
+        /**
+         * Results of this tool kept; the default when unset.
+         */
+        private Integer maxEntries;
+    }
+}
@@ -0,0 +1,22 @@
+package com.my.spring.ai.bot.config;
+
+import com.my.spring.ai.bot.tools.ToolRegistry;
+import com.my.spring.ai.bot.tools.ToolSelector;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Chooses the MCP tools of each prompt with the application's embedding model, when it has exactly one.
+ */
+@Configuration
+public class ToolSelectionConfig {
+
+    @Bean
+    public ToolSelector toolSelector(ToolRegistry toolRegistry, ObjectProvider<EmbeddingModel> embeddingModel,
+                                     ToolSelectionProperties properties, MeterRegistry meterRegistry) {
+        return new ToolSelector(toolRegistry, embeddingModel.getIfUnique(), properties, meterRegistry);
+    }
+}
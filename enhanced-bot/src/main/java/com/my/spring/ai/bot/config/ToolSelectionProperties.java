@@ -0,0 +1,38 @@
+package com.my.spring.ai.bot.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Choice of the MCP tools sent with each MCP chat prompt.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "tools.selection")
+public class ToolSelectionProperties {
+
+    /**
+     * Whether a prompt gets only the tools most relevant to the user's message; otherwise all tools.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Number of tools sent with a prompt.
+     */
+    private int topK = 3;
+
+    /**
+     * Cosine similarity between the message and the best matching tool below which the message is taken
+     * to match no tool well, and all tools are sent. 0 always sends the top k.
+     */
+    private double minSimilarity = 0.0;
+
+    /**
+     * Wait after the tool descriptions could not be embedded before they are embedded again; prompts
+     * get all tools meanwhile.
+     */
+    private Duration retryAfter = Duration.ofSeconds(30);
+}
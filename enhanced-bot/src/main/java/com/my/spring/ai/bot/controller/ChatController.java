@@ -2,11 +2,15 @@ package com.my.spring.ai.bot.controller;
 
 import com.my.spring.ai.bot.dto.ChatRequest;
 import com.my.spring.ai.bot.dto.ChatResponse;
+import com.my.spring.ai.bot.dto.PromptTokenUsage;
 import com.my.spring.ai.bot.service.ChatService;
 import jakarta.validation.Valid;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
 
 /**
  * RESTful endpoint for chat interactions.
@@ -38,6 +42,20 @@ public class ChatController {
         return ResponseEntity.ok(response);
     }
 
+    /**
+     * Streams the AI's response for a chat message as Server-Sent Events.
+     * See {@link ChatStreamEvents} for the events sent.
+     * Tokens are written as the client consumes them, so a slow reader slows the model stream.
+     *
+     * @param request The ChatRequest DTO.
+     * @return The stream of SSE events.
+     */
+    @PostMapping(path = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<?>> chatStream(@Valid @RequestBody ChatRequest request) {
+        log.info("Received chat stream request for session: {}", request.getSessionId());
+        return ChatStreamEvents.of(chatService.chatStream(request.getSessionId(), request.getMessage()));
+    }
+
     /**
      * Resets/clears the conversation history for a given session.
      * Fulfills "Reset/clear conversation history" requirement.
@@ -52,4 +70,15 @@ public class ChatController {
         chatService.clearUserChatHistory(sessionId, isNew);
         return ResponseEntity.ok().build();
     }
+
+    /**
+     * Returns the estimated prompt token usage of a session, including tokens saved by summarizing older turns.
+     *
+     * @param sessionId The ID of the session.
+     * @return The session's prompt token figures.
+     */
+    @GetMapping("/{sessionId}/tokens")
+    public ResponseEntity<PromptTokenUsage> getPromptTokenUsage(@PathVariable String sessionId) {
+        return ResponseEntity.ok(chatService.getPromptTokenUsage(sessionId));
+    }
 }
@@ -0,0 +1,59 @@
+package com.my.spring.ai.bot.controller;
+
+import com.my.spring.ai.bot.dto.ChatStreamError;
+import com.my.spring.ai.bot.exception.DeadlineExceededException;
+import com.my.spring.ai.bot.exception.RequestCancelledException;
+import com.my.spring.ai.bot.exception.ServiceUnavailableException;
+import com.my.spring.ai.bot.exception.SupersededMessageException;
+import com.my.spring.ai.bot.exception.TooManyRequestsException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.codec.ServerSentEvent;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Turns a chat token stream into the Server-Sent Events of the chat /stream endpoints.
+ */
+final class ChatStreamEvents {
+
+    private ChatStreamEvents() {
+    }
+
+    /**
+     * Each "token" event carries one chunk of the answer and a final "done" event marks the end;
+     * if the reply fails an "error" event carrying a {@link ChatStreamError} is sent instead, with
+     * the status and Retry-After the blocking endpoint would have answered with.
+     *
+     * @param tokens the token stream from the chat service
+     * @return the stream of SSE events
+     */
+    static Flux<ServerSentEvent<?>> of(Flux<String> tokens) {
+        return tokens
+                .<ServerSentEvent<?>>map(token -> ServerSentEvent.builder(token).event("token").build())
+                .concatWith(Mono.just(ServerSentEvent.builder("").event("done").build()))
+                .onErrorResume(e -> Mono.just(ServerSentEvent.builder(error(e)).event("error").build()));
+    }
+
+    private static ChatStreamError error(Throwable e) {
+        if (e instanceof TooManyRequestsException rejected) {
+            return new ChatStreamError(HttpStatus.TOO_MANY_REQUESTS.value(), rejected.getMessage(),
+                    rejected.getRetryAfter().toSeconds());
+        }
+        if (e instanceof ServiceUnavailableException unavailable) {
+            return new ChatStreamError(HttpStatus.SERVICE_UNAVAILABLE.value(), unavailable.getMessage(),
+                    unavailable.getRetryAfter().toSeconds());
+        }
+        if (e instanceof SupersededMessageException) {
+            return new ChatStreamError(HttpStatus.CONFLICT.value(),
+                    "A newer message for this session replaced this one.", null);
+        }
+        if (e instanceof DeadlineExceededException) {
+            return new ChatStreamError(HttpStatus.GATEWAY_TIMEOUT.value(), e.getMessage(), null);
+        }
+        if (e instanceof RequestCancelledException) {
+            return new ChatStreamError(499, e.getMessage(), null);
+        }
+        return new ChatStreamError(HttpStatus.INTERNAL_SERVER_ERROR.value(),
+                "AI service failed. Please try again later.", null);
+    }
+}
@@ -4,13 +4,15 @@ import com.my.spring.ai.bot.dto.ChatRequest;
 import com.my.spring.ai.bot.dto.ChatResponse;
 import com.my.spring.ai.bot.dto.ToolDefinitionResponse;
 import com.my.spring.ai.bot.service.McpChatService;
+import com.my.spring.ai.bot.tools.ToolCatalog;
 import jakarta.validation.Valid;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.ai.tool.ToolCallback;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.web.bind.annotation.*;
-
-import java.util.List;
+import reactor.core.publisher.Flux;
 
 @RestController
 @RequestMapping("/api/mcp/chat")
@@ -38,6 +40,20 @@ public class ChatWithMcpController {
         return ResponseEntity.ok(response);
     }
 
+    /**
+     * Streams the AI's response for a chat message as Server-Sent Events.
+     * See {@link ChatStreamEvents} for the events sent.
+     * Tokens are written as the client consumes them, so a slow reader slows the model stream.
+     *
+     * @param request The ChatRequest DTO.
+     * @return The stream of SSE events.
+     */
+    @PostMapping(path = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<?>> chatStream(@Valid @RequestBody ChatRequest request) {
+        log.info("Received chat stream request for session: {}", request.getSessionId());
+        return ChatStreamEvents.of(chatService.chatStream(request.getSessionId(), request.getMessage()));
+    }
+
     /**
      * Resets/clears the conversation history for a given session.
      * Fulfills "Reset/clear conversation history" requirement.
@@ -53,20 +69,22 @@ public class ChatWithMcpController {
         return ResponseEntity.ok().build();
     }
 
+    /**
+     * Lists the available MCP tools as {@link ToolDefinitionResponse} JSON.
+     * The list carries an ETag that changes only when the tools do, so a client revalidating
+     * with If-None-Match gets 304 Not Modified until then.
+     *
+     * @return The tool definitions.
+     */
     @GetMapping("/tools")
-    public ResponseEntity<List<ToolDefinitionResponse>> listTools() {
+    public ResponseEntity<byte[]> listTools() {
         log.info("Received request to list tools");
-        List<ToolCallback> tools = chatService.listAvailableMcpTools();
-        var toolsList = tools.stream()
-                .map(tool ->
-                        ToolDefinitionResponse.builder()
-                                .description(tool.getToolDefinition().description())
-                                .name(tool.getToolDefinition().name())
-                                .inputSchema(tool.getToolDefinition().inputSchema())
-                                .build()
-                )
-                .toList();
-        return ResponseEntity.ok(toolsList);
+        ToolCatalog catalog = chatService.getToolCatalog();
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .cacheControl(CacheControl.noCache())
+                .eTag(catalog.etag())
+                .body(catalog.definitionsJson());
     }
 
 }
@@ -1,13 +1,19 @@
 package com.my.spring.ai.bot.controller;
 
+import com.my.spring.ai.bot.dto.BatchGenerateResult;
 import com.my.spring.ai.bot.dto.GenerateRequest;
 import com.my.spring.ai.bot.dto.GenerateResponse;
+import com.my.spring.ai.bot.service.BatchTextGeneratorService;
 import com.my.spring.ai.bot.service.TextGeneratorService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+
+import java.util.List;
 
 /**
  * REST Controller for text generation operations.
@@ -21,6 +27,8 @@ public class TextGeneratorController {
     // TODO: Inject the TextGeneratorService dependency
     // Hint: Use final field and @RequiredArgsConstructor for constructor injection
      private final TextGeneratorService textGeneratorService;
+
+    private final BatchTextGeneratorService batchTextGeneratorService;
     
     @PostMapping
     public ResponseEntity<GenerateResponse> generateText(@Valid @RequestBody GenerateRequest request) {
@@ -39,4 +47,18 @@ public class TextGeneratorController {
         return ResponseEntity.ok(response);
     }
 
-}
\ No newline at end of file
+    /**
+     * Generates text for a list of prompts in one call.
+     * Results are streamed as newline-delimited JSON in completion order, each tagged with the index
+     * of its request; a failed item is reported on its own line without aborting the batch.
+     *
+     * @param requests The prompts to generate for.
+     * @return The stream of per-item results.
+     */
+    @PostMapping(path = "/batch", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<BatchGenerateResult> generateBatch(@RequestBody List<GenerateRequest> requests) {
+        log.debug("Received batch text generation request with {} items", requests.size());
+        return batchTextGeneratorService.generateBatch(requests);
+    }
+
+}
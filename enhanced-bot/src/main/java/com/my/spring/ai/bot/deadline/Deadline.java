@@ -0,0 +1,144 @@
+package com.my.spring.ai.bot.deadline;
+
+import com.my.spring.ai.bot.exception.DeadlineExceededException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * The time by which a request must be answered, carried with the request's work.
+ *
+ * While a request is served its deadline is bound to the request's thread (see {@link RequestDeadlines}),
+ * so the services and tools it calls find it with {@link #current()} without passing it along; a stream
+ * captures it when it is assembled, on that thread, and is bounded with {@link #bound(Flux)}.
+ */
+public final class Deadline {
+
+    private static final ThreadLocal<Deadline> CURRENT = new ThreadLocal<>();
+
+    private final String endpoint;
+    private final long expiresAtNanos;
+    private final Runnable onExceeded;
+    private final AtomicBoolean exceeded = new AtomicBoolean();
+
+    Deadline(String endpoint, Duration timeout, Runnable onExceeded) {
+        this.endpoint = endpoint;
+        this.expiresAtNanos = System.nanoTime() + timeout.toNanos();
+        this.onExceeded = onExceeded;
+    }
+
+    /**
+     * Deadline of the request served on this thread, or null outside of one.
+     */
+    public static Deadline current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Stops the current request's work if its deadline has passed.
+     *
+     * @throws DeadlineExceededException if it has
+     */
+    public static void checkCurrent() {
+        checkCurrent(null);
+    }
+
+    /**
+     * Turns a failure of the current request into a {@link DeadlineExceededException} if its deadline has
+     * passed, which is then the likely cause: the deadline interrupts work still running when it passes.
+     * Returns normally otherwise, leaving the failure to the caller.
+     */
+    public static void checkCurrent(Throwable failure) {
+        Deadline deadline = CURRENT.get();
+        if (deadline != null) {
+            deadline.check(failure);
+        }
+    }
+
+    public String getEndpoint() {
+        return endpoint;
+    }
+
+    /**
+     * Time left until the deadline; zero once it has passed.
+     */
+    public Duration remaining() {
+        return Duration.ofNanos(Math.max(0, expiresAtNanos - System.nanoTime()));
+    }
+
+    public boolean isExpired() {
+        return System.nanoTime() - expiresAtNanos >= 0;
+    }
+
+    /**
+     * @throws DeadlineExceededException if the deadline has passed
+     */
+    public void check(Throwable cause) {
+        if (isExpired()) {
+            exceeded();
+            if (cause instanceof DeadlineExceededException alreadyReported) {
+                throw alreadyReported;
+            }
+            throw new DeadlineExceededException("The " + endpoint + " request was not answered within its deadline.", cause);
+        }
+    }
+
+    /**
+     * Fails the stream with a {@link DeadlineExceededException} if it has not completed by the deadline,
+     * cancelling the work upstream.
+     */
+    public <T> Flux<T> bound(Flux<T> stream) {
+        return stream.takeUntilOther(Mono.defer(() -> Mono.delay(remaining()))
+                .then(Mono.error(() -> {
+                    exceeded();
+                    return new DeadlineExceededException("The " + endpoint + " stream did not complete within its deadline.", null);
+                })));
+    }
+
+    /**
+     * Runs the task with this as the current deadline of whichever thread runs it, for work the request
+     * hands to another thread. Expiry still interrupts the request's own thread only, which is expected
+     * to stop waiting for the task and cancel it.
+     */
+    public <T> Callable<T> propagate(Callable<T> task) {
+        return () -> {
+            Deadline previous = bind();
+            try {
+                return task.call();
+            } finally {
+                restore(previous);
+            }
+        };
+    }
+
+    /**
+     * Reports the deadline as exceeded, once however many parts of the request notice it.
+     */
+    void exceeded() {
+        if (exceeded.compareAndSet(false, true)) {
+            onExceeded.run();
+        }
+    }
+
+    /**
+     * Makes this the current deadline of the calling thread.
+     *
+     * @return the deadline it replaces, to be given back to {@link #restore}
+     */
+    Deadline bind() {
+        Deadline previous = CURRENT.get();
+        CURRENT.set(this);
+        return previous;
+    }
+
+    static void restore(Deadline previous) {
+        if (previous == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(previous);
+        }
+    }
+}
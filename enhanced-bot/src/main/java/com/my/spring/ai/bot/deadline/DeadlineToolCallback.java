@@ -0,0 +1,74 @@
+package com.my.spring.ai.bot.deadline;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.springframework.ai.chat.model.ToolContext;
+import org.springframework.ai.tool.ToolCallback;
+import org.springframework.ai.tool.definition.ToolDefinition;
+import org.springframework.ai.tool.metadata.ToolMetadata;
+
+/**
+ * A tool that is held to its request's deadline.
+ *
+ * A call is not started once the deadline has passed. Otherwise the time left goes to the tool with its
+ * arguments, as {@code "_meta": {"timeoutMillis": ...}}, the MCP request metadata key; the MCP client in
+ * use cannot set request metadata itself, and the tool servers read it from either place. Tools ignore
+ * arguments they do not declare.
+ */
+class DeadlineToolCallback implements ToolCallback {
+
+    static final String META = "_meta";
+    static final String TIMEOUT_MILLIS = "timeoutMillis";
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    private final ToolCallback delegate;
+
+    DeadlineToolCallback(ToolCallback delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public ToolDefinition getToolDefinition() {
+        return delegate.getToolDefinition();
+    }
+
+    @Override
+    public ToolMetadata getToolMetadata() {
+        return delegate.getToolMetadata();
+    }
+
+    @Override
+    public String call(String toolInput) {
+        return call(toolInput, null);
+    }
+
+    @Override
+    public String call(String toolInput, ToolContext toolContext) {
+        Deadline deadline = Deadline.current();
+        String input = toolInput;
+        if (deadline != null) {
+            deadline.check(null);
+            input = withTimeout(toolInput, deadline.remaining().toMillis());
+        }
+        return toolContext == null ? delegate.call(input) : delegate.call(input, toolContext);
+    }
+
+    static String withTimeout(String toolInput, long timeoutMillis) {
+        try {
+            JsonNode arguments = OBJECT_MAPPER.readTree(toolInput == null || toolInput.isBlank() ? "{}" : toolInput);
+            if (!(arguments instanceof ObjectNode object)) {
+                return toolInput;
+            }
+            JsonNode meta = object.get(META);
+            ObjectNode metaObject = meta instanceof ObjectNode existing ? existing : object.putObject(META);
+            metaObject.put(TIMEOUT_MILLIS, timeoutMillis);
+            return OBJECT_MAPPER.writeValueAsString(object);
+        } catch (JsonProcessingException e) {
+            // Not JSON arguments; the tool gets them as they are and runs without knowing the deadline
+            return toolInput;
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.my.spring.ai.bot.deadline;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * Binds each request's deadline to it while it is processed. The endpoints are given by path; other
+ * paths pass through without a deadline.
+ */
+public class RequestDeadlineFilter extends OncePerRequestFilter {
+
+    private final RequestDeadlines requestDeadlines;
+    private final Map<String, String> endpointsByPath;
+
+    /**
+     * @param endpointsByPath endpoint tag for each servlet path, e.g. {@code /api/chat -> chat}
+     */
+    public RequestDeadlineFilter(RequestDeadlines requestDeadlines, Map<String, String> endpointsByPath) {
+        this.requestDeadlines = requestDeadlines;
+        this.endpointsByPath = Map.copyOf(endpointsByPath);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !endpointsByPath.containsKey(request.getServletPath());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        Deadline deadline = requestDeadlines.resolve(endpointsByPath.get(request.getServletPath()),
+                request.getHeader(requestDeadlines.getHeader()));
+        if (deadline == null) {
+            chain.doFilter(request, response);
+            return;
+        }
+        try (RequestDeadlines.Scope ignored = requestDeadlines.enter(deadline)) {
+            chain.doFilter(request, response);
+        }
+    }
+}
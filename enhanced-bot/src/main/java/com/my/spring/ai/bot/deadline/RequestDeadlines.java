@@ -0,0 +1,164 @@
+package com.my.spring.ai.bot.deadline;
+
+import com.my.spring.ai.bot.config.RequestDeadlineProperties;
+import com.my.spring.ai.bot.metrics.MeterCache;
+import com.my.spring.ai.bot.tools.ToolCallbackWrapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.ai.tool.ToolCallback;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Gives requests a deadline and holds their work to it.
+ *
+ * A request's deadline is the timeout its caller sent in the configured header, capped at the maximum,
+ * or its endpoint's default. While the request runs the deadline is bound to its thread; when it passes
+ * with the request still running, the thread is interrupted, which aborts the model, vector store, speech
+ * or tool call it is blocked on. Services check the deadline between their steps so no new call starts
+ * after it, and MCP tools get the time left with each call so the tool servers can stop in time too.
+ *
+ * Requests that miss their deadline are counted as {@code llm.requests.deadline.exceeded} by endpoint.
+ */
+@Slf4j
+@Component
+public class RequestDeadlines implements ToolCallbackWrapper, DisposableBean {
+
+    private final RequestDeadlineProperties properties;
+    // By endpoint
+    private final MeterCache<String, Counter> deadlinesExceeded;
+    private final ScheduledExecutorService timer;
+
+    public RequestDeadlines(RequestDeadlineProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.deadlinesExceeded = new MeterCache<>(endpoint -> Counter.builder("llm.requests.deadline.exceeded")
+                .tag("endpoint", endpoint)
+                .description("Requests not answered within their deadline")
+                .register(meterRegistry));
+        this.timer = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "request-deadline-timer");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        log.info("RequestDeadlines configured: enabled={}, header={}, defaultTimeout={}, maxTimeout={}, endpoints={}",
+                properties.isEnabled(), properties.getHeader(), properties.getDefaultTimeout(),
+                properties.getMaxTimeout(), properties.getEndpoints());
+    }
+
+    /**
+     * The deadline of a request arriving now.
+     *
+     * @param endpoint  tag value identifying the endpoint, e.g. "chat" or "voice"
+     * @param requested the caller's timeout from the request header, or null
+     * @return the deadline, or null when deadlines are disabled
+     */
+    public Deadline resolve(String endpoint, String requested) {
+        if (!properties.isEnabled()) {
+            return null;
+        }
+        Duration timeout = properties.getEndpoints().getOrDefault(endpoint, properties.getDefaultTimeout());
+        if (requested != null && !requested.isBlank()) {
+            try {
+                Duration asked = DurationStyle.detectAndParse(requested.trim());
+                if (asked.isNegative() || asked.isZero()) {
+                    log.debug("Ignoring non-positive {} timeout '{}'", endpoint, requested);
+                } else {
+                    timeout = asked.compareTo(properties.getMaxTimeout()) > 0 ? properties.getMaxTimeout() : asked;
+                }
+            } catch (IllegalArgumentException e) {
+                log.debug("Ignoring unparseable {} timeout '{}'", endpoint, requested);
+            }
+        }
+        return new Deadline(endpoint, timeout, () -> deadlinesExceeded.get(endpoint).increment());
+    }
+
+    /**
+     * Binds the deadline to the calling thread until the returned scope is closed, interrupting the thread
+     * if the deadline passes first. Close it on the same thread.
+     */
+    public Scope enter(Deadline deadline) {
+        Scope scope = new Scope(deadline, Thread.currentThread());
+        scope.start();
+        return scope;
+    }
+
+    /**
+     * Wraps a tool so that a call is not started once its request's deadline has passed, and MCP tools learn
+     * how much time is left.
+     */
+    @Override
+    public ToolCallback wrap(ToolCallback tool) {
+        return tool instanceof DeadlineToolCallback ? tool : new DeadlineToolCallback(tool);
+    }
+
+    public String getHeader() {
+        return properties.getHeader();
+    }
+
+    @Override
+    public void destroy() {
+        timer.shutdownNow();
+    }
+
+    /**
+     * A deadline bound to a thread. Closing it unbinds the deadline and clears the interrupt it may have
+     * caused, so the thread goes back to the server's pool clean. Closing twice is harmless.
+     */
+    public final class Scope implements AutoCloseable {
+
+        private final Deadline deadline;
+        private final Thread thread;
+        private Deadline previous;
+        private ScheduledFuture<?> expiry;
+
+        // Guarded by this; expiring and closing never overlap, so a closed scope never interrupts its thread
+        private boolean closed;
+        private boolean expired;
+
+        private Scope(Deadline deadline, Thread thread) {
+            this.deadline = deadline;
+            this.thread = thread;
+        }
+
+        private void start() {
+            previous = deadline.bind();
+            expiry = timer.schedule(this::expire, deadline.remaining().toNanos(), TimeUnit.NANOSECONDS);
+        }
+
+        private synchronized void expire() {
+            if (closed) {
+                return;
+            }
+            expired = true;
+            deadline.exceeded();
+            log.debug("A {} request passed its deadline, interrupting its work on {}", deadline.getEndpoint(), thread.getName());
+            thread.interrupt();
+        }
+
+        @Override
+        public void close() {
+            boolean interrupted;
+            synchronized (this) {
+                if (closed) {
+                    return;
+                }
+                closed = true;
+                interrupted = expired;
+            }
+            expiry.cancel(false);
+            Deadline.restore(previous);
+            if (interrupted) {
+                Thread.interrupted();
+            }
+        }
+    }
+}
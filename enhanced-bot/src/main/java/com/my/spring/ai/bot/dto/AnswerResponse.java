@@ -12,4 +12,8 @@ import lombok.NoArgsConstructor;
 @Builder(toBuilder = true)
 public class AnswerResponse {
     private String answer;
+    // Model that produced the answer, as reported by the model server
+    private String model;
+    // Prompt plus completion tokens of the call, null when the model does not report usage
+    private Integer tokensUsed;
 }
@@ -0,0 +1,48 @@
+package com.my.spring.ai.bot.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One line of the NDJSON batch generation response.
+ * Exactly one of {@code response} and {@code error} is set.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BatchGenerateResult {
+
+    /**
+     * Position of the request in the submitted batch; results arrive in completion order.
+     */
+    private int index;
+
+    /**
+     * The generated text, when the item succeeded.
+     */
+    private GenerateResponse response;
+
+    /**
+     * Why the item failed; other items are not affected.
+     */
+    private String error;
+
+    public static BatchGenerateResult success(int index, GenerateResponse response) {
+        return BatchGenerateResult.builder()
+                .index(index)
+                .response(response)
+                .build();
+    }
+
+    public static BatchGenerateResult failure(int index, String error) {
+        return BatchGenerateResult.builder()
+                .index(index)
+                .error(error)
+                .build();
+    }
+}
@@ -0,0 +1,34 @@
+package com.my.spring.ai.bot.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Data of the "error" event that ends a streamed chat reply. The stream's HTTP status is already 200
+ * by then, so the status the request would have failed with is carried here.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ChatStreamError {
+
+    /**
+     * HTTP status the same failure gets on the blocking endpoint, e.g. 429 when the model is saturated.
+     */
+    private int status;
+
+    /**
+     * Human-readable error message.
+     */
+    private String message;
+
+    /**
+     * Seconds to wait before retrying, when the request was turned away for a while.
+     */
+    private Long retryAfter;
+}
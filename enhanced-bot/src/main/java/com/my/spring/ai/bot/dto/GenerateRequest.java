@@ -28,4 +28,15 @@ public class GenerateRequest {
     @NotBlank(message = "Prompt cannot be empty or contain only whitespace")
     @Size(min = 1, max = 2000, message = "Prompt must be between 1 and 2000 characters")
     private String prompt;
-}
\ No newline at end of file
+
+    /**
+     * Name of the prompt template to wrap the prompt in; the configured default when omitted.
+     */
+    @Size(max = 100, message = "Template name must be at most 100 characters")
+    private String template;
+
+    /**
+     * Skips the response cache and asks the model again; the fresh answer replaces the cached one.
+     */
+    private boolean bypassCache;
+}
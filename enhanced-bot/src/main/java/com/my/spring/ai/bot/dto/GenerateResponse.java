@@ -30,8 +30,8 @@ public class GenerateResponse {
     private LocalDateTime timestamp = LocalDateTime.now();
     
     /**
-     * The AI model used to generate the response.
-     * Examples: "gpt-3.5-turbo", "gpt-4", etc.
+     * The AI model used to generate the response, as reported by the model server.
+     * Examples: "llama3.2", "gpt-4", etc.
      * Helps with debugging and understanding response characteristics.
      */
     private String model;
@@ -41,7 +41,8 @@ public class GenerateResponse {
      * Includes both prompt tokens and completion tokens.
      * Useful for cost tracking and optimization.
      * 
-     * Note: This field is optional - set to null if not available.
+     * Note: This field is optional - null when the model does not report usage.
+     * A response answered from the cache reports the tokens of the call that produced it.
      */
     private Integer tokensUsed;
     
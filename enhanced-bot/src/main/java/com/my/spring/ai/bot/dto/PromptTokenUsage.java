@@ -0,0 +1,23 @@
+package com.my.spring.ai.bot.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PromptTokenUsage {
+    // The session the figures belong to
+    private String sessionId;
+    // Estimated tokens of the last prompt: summary, unsummarized history and user message
+    private int promptTokens;
+    // Estimated tokens of the current rolling summary
+    private int summaryTokens;
+    // Estimated tokens of the messages folded into the summary
+    private int foldedTokens;
+    // Tokens no longer sent on each prompt thanks to the summary
+    private int savedTokens;
+    // Number of messages folded into the summary
+    private long summarizedMessages;
+}
@@ -0,0 +1,11 @@
+package com.my.spring.ai.bot.exception;
+
+/**
+ * Thrown when a request's deadline passes before its work is done. Mapped to 504.
+ */
+public class DeadlineExceededException extends RuntimeException {
+
+    public DeadlineExceededException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
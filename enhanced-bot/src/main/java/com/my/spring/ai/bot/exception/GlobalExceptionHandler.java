@@ -4,6 +4,7 @@ import com.my.spring.ai.bot.dto.ErrorResponse;
 import jakarta.validation.ConstraintViolation;
 import jakarta.validation.ConstraintViolationException;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.converter.HttpMessageNotReadableException;
@@ -118,6 +119,158 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(errorResponse, HttpStatus.INTERNAL_SERVER_ERROR);
     }
 
+    /**
+     * Handles SupersededMessageException when a newer message for the same session replaced a queued one.
+     *
+     * @param ex the SupersededMessageException that was thrown
+     * @param request the web request context
+     * @return ResponseEntity with ErrorResponse and HTTP 409 status
+     */
+    @ExceptionHandler(SupersededMessageException.class)
+    public ResponseEntity<ErrorResponse> handleSupersededMessageException(
+            SupersededMessageException ex, WebRequest request) {
+
+        log.info("Chat message superseded: {}", ex.getMessage());
+
+        ErrorResponse errorResponse = ErrorResponse.apiError(
+            "A newer message for this session replaced this one.",
+            request.getDescription(false)
+        );
+
+        return new ResponseEntity<>(errorResponse, HttpStatus.CONFLICT);
+    }
+
+    /**
+     * Handles RequestCancelledException when the client disconnected before its request was answered.
+     * Nobody reads the response, so this only keeps the cancellation out of the error logs.
+     *
+     * @param ex the RequestCancelledException that was thrown
+     * @param request the web request context
+     * @return ResponseEntity with ErrorResponse and HTTP 499 status (client closed request)
+     */
+    @ExceptionHandler(RequestCancelledException.class)
+    public ResponseEntity<ErrorResponse> handleRequestCancelledException(
+            RequestCancelledException ex, WebRequest request) {
+
+        log.debug("Request cancelled: {}", ex.getMessage());
+
+        ErrorResponse errorResponse = ErrorResponse.simple(
+            "Client Closed Request",
+            ex.getMessage()
+        );
+
+        return ResponseEntity.status(499).body(errorResponse);
+    }
+
+    /**
+     * Handles PromptTemplateNotFoundException when a request names an unknown prompt template.
+     *
+     * @param ex the PromptTemplateNotFoundException that was thrown
+     * @param request the web request context
+     * @return ResponseEntity with ErrorResponse and HTTP 400 status
+     */
+    @ExceptionHandler(PromptTemplateNotFoundException.class)
+    public ResponseEntity<ErrorResponse> handlePromptTemplateNotFoundException(
+            PromptTemplateNotFoundException ex, WebRequest request) {
+
+        log.warn("Prompt template not found: {}", ex.getMessage());
+
+        ErrorResponse errorResponse = ErrorResponse.apiError(
+            ex.getMessage(),
+            request.getDescription(false)
+        );
+
+        return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST);
+    }
+
+    /**
+     * Handles InvalidBatchRequestException when a batch is empty or too large.
+     *
+     * @param ex the InvalidBatchRequestException that was thrown
+     * @param request the web request context
+     * @return ResponseEntity with ErrorResponse and HTTP 400 status
+     */
+    @ExceptionHandler(InvalidBatchRequestException.class)
+    public ResponseEntity<ErrorResponse> handleInvalidBatchRequestException(
+            InvalidBatchRequestException ex, WebRequest request) {
+
+        log.debug("Invalid batch request: {}", ex.getMessage());
+
+        ErrorResponse errorResponse = ErrorResponse.simple(
+            "Bad Request",
+            ex.getMessage()
+        );
+
+        return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST);
+    }
+
+    /**
+     * Handles TooManyRequestsException when admission control turns a request away.
+     *
+     * @param ex the TooManyRequestsException that was thrown
+     * @param request the web request context
+     * @return ResponseEntity with ErrorResponse, HTTP 429 status and a Retry-After header
+     */
+    @ExceptionHandler(TooManyRequestsException.class)
+    public ResponseEntity<ErrorResponse> handleTooManyRequestsException(
+            TooManyRequestsException ex, WebRequest request) {
+
+        log.warn("Request rejected by admission control: {}", ex.getMessage());
+
+        ErrorResponse errorResponse = ErrorResponse.simple(
+            "Too Many Requests",
+            ex.getMessage()
+        );
+
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfter().toSeconds()))
+                .body(errorResponse);
+    }
+
+    /**
+     * Handles ServiceUnavailableException when an open circuit breaker fails a call fast.
+     *
+     * @param ex the ServiceUnavailableException that was thrown
+     * @param request the web request context
+     * @return ResponseEntity with ErrorResponse, HTTP 503 status and a Retry-After header
+     */
+    @ExceptionHandler(ServiceUnavailableException.class)
+    public ResponseEntity<ErrorResponse> handleServiceUnavailableException(
+            ServiceUnavailableException ex, WebRequest request) {
+
+        log.warn("Request failed fast by circuit breaker: {}", ex.getMessage());
+
+        ErrorResponse errorResponse = ErrorResponse.simple(
+            "Service Unavailable",
+            ex.getMessage()
+        );
+
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfter().toSeconds()))
+                .body(errorResponse);
+    }
+
+    /**
+     * Handles DeadlineExceededException when a request ran out of time before it was answered.
+     *
+     * @param ex the DeadlineExceededException that was thrown
+     * @param request the web request context
+     * @return ResponseEntity with ErrorResponse and HTTP 504 status
+     */
+    @ExceptionHandler(DeadlineExceededException.class)
+    public ResponseEntity<ErrorResponse> handleDeadlineExceededException(
+            DeadlineExceededException ex, WebRequest request) {
+
+        log.warn("Request deadline exceeded: {}", ex.getMessage());
+
+        ErrorResponse errorResponse = ErrorResponse.simple(
+            "Gateway Timeout",
+            ex.getMessage()
+        );
+
+        return new ResponseEntity<>(errorResponse, HttpStatus.GATEWAY_TIMEOUT);
+    }
+
     /**
      * Handles validation errors from @Valid annotations on request DTOs.
      */
@@ -0,0 +1,11 @@
+package com.my.spring.ai.bot.exception;
+
+/**
+ * Thrown when a batch request as a whole is unacceptable, e.g. empty or too large.
+ * Problems with individual items are reported inline instead.
+ */
+public class InvalidBatchRequestException extends RuntimeException {
+    public InvalidBatchRequestException(String message) {
+        super(message);
+    }
+}
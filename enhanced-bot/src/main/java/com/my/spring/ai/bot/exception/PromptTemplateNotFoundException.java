@@ -0,0 +1,7 @@
+package com.my.spring.ai.bot.exception;
+
+public class PromptTemplateNotFoundException extends RuntimeException {
+    public PromptTemplateNotFoundException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,14 @@
+package com.my.spring.ai.bot.exception;
+
+/**
+ * Thrown when work for a request is abandoned because its client disconnected.
+ */
+public class RequestCancelledException extends RuntimeException {
+    public RequestCancelledException(String message) {
+        super(message);
+    }
+
+    public RequestCancelledException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,20 @@
+package com.my.spring.ai.bot.exception;
+
+import lombok.Getter;
+
+import java.time.Duration;
+
+/**
+ * Thrown when a circuit breaker fails a call fast because the dependency behind it is down.
+ * Mapped to 503 with a Retry-After header.
+ */
+@Getter
+public class ServiceUnavailableException extends RuntimeException {
+
+    private final Duration retryAfter;
+
+    public ServiceUnavailableException(String message, Duration retryAfter) {
+        super(message);
+        this.retryAfter = retryAfter;
+    }
+}
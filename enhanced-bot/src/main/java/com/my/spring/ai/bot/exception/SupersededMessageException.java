@@ -0,0 +1,10 @@
+package com.my.spring.ai.bot.exception;
+
+/**
+ * Thrown when a queued chat message is dropped because a newer message for the same session replaced it.
+ */
+public class SupersededMessageException extends RuntimeException {
+    public SupersededMessageException(String message) {
+        super(message);
+    }
+}
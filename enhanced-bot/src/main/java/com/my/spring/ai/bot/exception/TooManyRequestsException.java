@@ -0,0 +1,20 @@
+package com.my.spring.ai.bot.exception;
+
+import lombok.Getter;
+
+import java.time.Duration;
+
+/**
+ * Thrown when admission control turns a request away because the model is saturated.
+ * Mapped to 429 with a Retry-After header.
+ */
+@Getter
+public class TooManyRequestsException extends RuntimeException {
+
+    private final Duration retryAfter;
+
+    public TooManyRequestsException(String message, Duration retryAfter) {
+        super(message);
+        this.retryAfter = retryAfter;
+    }
+}
@@ -0,0 +1,430 @@
+package com.my.spring.ai.bot.hedging;
+
+import com.my.spring.ai.bot.admission.AdmissionControl;
+import com.my.spring.ai.bot.cancellation.RequestCancellation;
+import com.my.spring.ai.bot.config.HedgingProperties;
+import com.my.spring.ai.bot.deadline.Deadline;
+import com.my.spring.ai.bot.exception.RequestCancelledException;
+import com.my.spring.ai.bot.loadbalancer.BackendAffinity;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.prompt.ChatOptions;
+import org.springframework.ai.chat.prompt.Prompt;
+import org.springframework.ai.model.function.FunctionCallingOptions;
+import org.springframework.ai.model.tool.ToolCallingChatOptions;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * Chat model that repeats a slow request on a secondary model and answers with whichever is first.
+ *
+ * A request goes to the primary model; if no answer has arrived once the hedge delay has passed (or the
+ * primary has already failed), the same prompt is sent to the secondary model. The first successful answer
+ * wins and the other request is cancelled. The delay is a percentile of recent primary latencies, so in
+ * steady state only the slowest few percent of requests are hedged, while a stalled primary gets
+ * hedged on every request. Blocking calls race on the whole answer, streams on the first chunk.
+ *
+ * The secondary model gets the prompt's portable options, its tools above all, but not the model name,
+ * which names one of the primary's models: it answers with its own default model.
+ *
+ * Blocking calls run on a bounded pool of {@code chat.hedging.threads} as part of the caller's request:
+ * under its deadline, its cancellation and its endpoint class. A caller that is interrupted, by its
+ * deadline or a disconnected client, cancels both calls and fails as the request does. A call that
+ * finds the pool busy is not hedged: the primary is called on the caller's thread, or alone if it is the
+ * secondary that finds no thread.
+ *
+ * Publishes {@code chat.hedge.calls} (mode=call|stream, hedged=true|false), {@code chat.hedge.wins}
+ * (mode, winner=primary|secondary), {@code chat.hedge.rejected} (calls not hedged for want of a thread)
+ * and the current {@code chat.hedge.delay} per mode; the hedge rate is {@code hedged=true} over all calls.
+ */
+@Slf4j
+public class HedgedChatModel implements ChatModel, AutoCloseable {
+
+    static final String PRIMARY = "primary";
+    static final String SECONDARY = "secondary";
+    private static final String MODE_CALL = "call";
+    private static final String MODE_STREAM = "stream";
+
+    private final ChatModel primary;
+    private final ChatModel secondary;
+    private final long initialDelayNanos;
+    private final long minDelayNanos;
+    private final long maxDelayNanos;
+    private final ThreadPoolExecutor executor;
+    private final Counter rejected;
+
+    private final LatencyWindow callLatencies;
+    private final LatencyWindow firstChunkLatencies;
+    private final Meters callMeters;
+    private final Meters streamMeters;
+
+    public HedgedChatModel(ChatModel primary, ChatModel secondary, HedgingProperties properties,
+                           MeterRegistry meterRegistry) {
+        if (properties.getPercentile() <= 0 || properties.getPercentile() >= 1) {
+            throw new IllegalArgumentException("chat.hedging.percentile must be between 0 and 1");
+        }
+        this.primary = primary;
+        this.secondary = secondary;
+        this.initialDelayNanos = properties.getInitialDelay().toNanos();
+        this.minDelayNanos = properties.getMinDelay().toNanos();
+        this.maxDelayNanos = properties.getMaxDelay().toNanos();
+        this.callLatencies = new LatencyWindow(properties.getWindow(), properties.getMinSamples(),
+                properties.getPercentile());
+        this.firstChunkLatencies = new LatencyWindow(properties.getWindow(), properties.getMinSamples(),
+                properties.getPercentile());
+        this.callMeters = new Meters(MODE_CALL, callLatencies, meterRegistry);
+        this.streamMeters = new Meters(MODE_STREAM, firstChunkLatencies, meterRegistry);
+
+        this.rejected = Counter.builder("chat.hedge.rejected")
+                .tag("mode", MODE_CALL)
+                .description("Chat model calls not hedged because every hedging thread was busy")
+                .register(meterRegistry);
+
+        AtomicInteger threadCount = new AtomicInteger();
+        // No queue: a call waiting for a thread would only be slower than one made without hedging
+        this.executor = new ThreadPoolExecutor(properties.getThreads(), properties.getThreads(),
+                30, TimeUnit.SECONDS, new SynchronousQueue<>(), r -> {
+            Thread thread = new Thread(r, "chat-hedge-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }, new ThreadPoolExecutor.AbortPolicy());
+        this.executor.allowCoreThreadTimeOut(true);
+
+        log.info("HedgedChatModel configured: percentile={}, initialDelay={}, delayBounds=[{}, {}], threads={}",
+                properties.getPercentile(), properties.getInitialDelay(), properties.getMinDelay(),
+                properties.getMaxDelay(), properties.getThreads());
+    }
+
+    @Override
+    public ChatResponse call(Prompt prompt) {
+        long start = System.nanoTime();
+        CompletableFuture<ChatResponse> primaryResult = new CompletableFuture<>();
+        Future<?> primaryTask;
+        try {
+            primaryTask = submit(BackendAffinity.propagate(() -> primary.call(prompt)), primaryResult);
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            callMeters.notHedged.increment();
+            return primary.call(prompt);
+        }
+        try {
+            ChatResponse response = primaryResult.get(hedgeDelay(callLatencies), TimeUnit.NANOSECONDS);
+            callLatencies.record(System.nanoTime() - start);
+            callMeters.notHedged.increment();
+            return response;
+        } catch (TimeoutException | ExecutionException e) {
+            // Too slow, or already failed: either way the secondary gets a go
+        } catch (InterruptedException e) {
+            primaryTask.cancel(true);
+            throw interrupted(e);
+        }
+
+        CompletableFuture<ChatResponse> secondaryResult = new CompletableFuture<>();
+        Future<?> secondaryTask;
+        try {
+            secondaryTask = submit(() -> secondary.call(secondaryPrompt(prompt)), secondaryResult);
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            callMeters.notHedged.increment();
+            try {
+                return join(primaryResult);
+            } finally {
+                primaryTask.cancel(true);
+            }
+        }
+        callMeters.hedged.increment();
+        try {
+            CompletableFuture<ChatResponse> winner = firstSuccess(primaryResult, secondaryResult);
+            if (!primaryResult.isCompletedExceptionally()) {
+                // When the secondary won this is only a lower bound, which still keeps the delay from drifting down
+                callLatencies.record(System.nanoTime() - start);
+            }
+            (winner == primaryResult ? callMeters.primaryWins : callMeters.secondaryWins).increment();
+            return winner.join();
+        } finally {
+            primaryTask.cancel(true);
+            secondaryTask.cancel(true);
+        }
+    }
+
+    @Override
+    public Flux<ChatResponse> stream(Prompt prompt) {
+        return Flux.defer(() -> {
+            long start = System.nanoTime();
+            AtomicReference<String> winner = new AtomicReference<>();
+            AtomicBoolean hedged = new AtomicBoolean();
+
+            Flux<ChatResponse> primaryStream = primary.stream(prompt)
+                    .doOnNext(response -> {
+                        if (winner.compareAndSet(null, PRIMARY)) {
+                            firstChunkLatencies.record(System.nanoTime() - start);
+                        }
+                    });
+            Flux<ChatResponse> secondaryStream = Mono.delay(Duration.ofNanos(hedgeDelay(firstChunkLatencies)))
+                    .doOnNext(tick -> hedged.set(true))
+                    .thenMany(Flux.defer(() -> secondary.stream(secondaryPrompt(prompt))))
+                    .doOnNext(response -> {
+                        if (winner.compareAndSet(null, SECONDARY)) {
+                            // Lower bound of the primary's time to first chunk, as for blocking calls
+                            firstChunkLatencies.record(System.nanoTime() - start);
+                        }
+                    });
+
+            // Counted before completion reaches the subscriber, and only once
+            AtomicBoolean counted = new AtomicBoolean();
+            Runnable count = () -> {
+                if (!counted.compareAndSet(false, true)) {
+                    return;
+                }
+                if (!hedged.get()) {
+                    streamMeters.notHedged.increment();
+                    return;
+                }
+                streamMeters.hedged.increment();
+                if (PRIMARY.equals(winner.get())) {
+                    streamMeters.primaryWins.increment();
+                } else if (SECONDARY.equals(winner.get())) {
+                    streamMeters.secondaryWins.increment();
+                }
+            };
+            return Flux.firstWithValue(primaryStream, secondaryStream)
+                    .doOnTerminate(count)
+                    .doOnCancel(count);
+        });
+    }
+
+    @Override
+    public ChatOptions getDefaultOptions() {
+        return primary.getDefaultOptions();
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+
+    long hedgeDelay(LatencyWindow latencies) {
+        long percentile = latencies.percentile();
+        long delay = percentile < 0 ? initialDelayNanos : percentile;
+        return Math.max(minDelayNanos, Math.min(maxDelayNanos, delay));
+    }
+
+    /**
+     * Runs the call on the pool, as part of the caller's request.
+     *
+     * @throws RejectedExecutionException if every thread is busy
+     */
+    private Future<?> submit(Supplier<ChatResponse> call, CompletableFuture<ChatResponse> result) {
+        Deadline deadline = Deadline.current();
+        Callable<ChatResponse> task = RequestCancellation.propagate(AdmissionControl.propagate(call::get));
+        Callable<ChatResponse> bounded = deadline == null ? task : deadline.propagate(task);
+        return executor.submit(() -> {
+            try {
+                result.complete(bounded.call());
+            } catch (Throwable e) {
+                result.completeExceptionally(e);
+            }
+        });
+    }
+
+    private static ChatResponse join(CompletableFuture<ChatResponse> result) {
+        try {
+            return result.get();
+        } catch (ExecutionException e) {
+            throw unwrap(result);
+        } catch (InterruptedException e) {
+            throw interrupted(e);
+        }
+    }
+
+    /**
+     * Waits for the first of the two to succeed; when both fail, the primary's failure is thrown.
+     */
+    private static CompletableFuture<ChatResponse> firstSuccess(CompletableFuture<ChatResponse> primaryResult,
+                                                                CompletableFuture<ChatResponse> secondaryResult) {
+        try {
+            CompletableFuture.anyOf(primaryResult, secondaryResult).get();
+        } catch (ExecutionException e) {
+            // One of them failed; the other may still succeed
+        } catch (InterruptedException e) {
+            throw interrupted(e);
+        }
+        for (CompletableFuture<ChatResponse> result : Arrays.asList(primaryResult, secondaryResult)) {
+            if (result.isDone() && !result.isCompletedExceptionally()) {
+                return result;
+            }
+        }
+        CompletableFuture<ChatResponse> remaining = primaryResult.isDone() ? secondaryResult : primaryResult;
+        try {
+            remaining.get();
+            return remaining;
+        } catch (ExecutionException e) {
+            throw unwrap(primaryResult);
+        } catch (InterruptedException e) {
+            throw interrupted(e);
+        }
+    }
+
+    /**
+     * The failure of a call, reported as the request's deadline or cancellation when that is its cause.
+     */
+    private static RuntimeException unwrap(CompletableFuture<ChatResponse> failed) {
+        try {
+            failed.join();
+            throw new IllegalStateException("Chat model call did not fail");
+        } catch (CompletionException e) {
+            Deadline.checkCurrent(e.getCause());
+            RequestCancellation.checkCurrent(e.getCause());
+            return e.getCause() instanceof RuntimeException runtime ? runtime : e;
+        }
+    }
+
+    /**
+     * Reports the caller's interrupt as the end of its request: its deadline, or its cancellation.
+     */
+    private static RuntimeException interrupted(InterruptedException e) {
+        Thread.currentThread().interrupt();
+        Deadline.checkCurrent(e);
+        RequestCancellation.checkCurrent(e);
+        return new RequestCancelledException("Interrupted while waiting for the chat model", e);
+    }
+
+    static Prompt secondaryPrompt(Prompt prompt) {
+        ChatOptions options = prompt.getOptions();
+        return options == null
+                ? new Prompt(prompt.getInstructions())
+                : new Prompt(prompt.getInstructions(), secondaryOptions(options));
+    }
+
+    /**
+     * The portable options and tools of the prompt, without its model.
+     */
+    private static ChatOptions secondaryOptions(ChatOptions options) {
+        ToolCallingChatOptions.Builder builder = ToolCallingChatOptions.builder()
+                .frequencyPenalty(options.getFrequencyPenalty())
+                .maxTokens(options.getMaxTokens())
+                .presencePenalty(options.getPresencePenalty())
+                .stopSequences(options.getStopSequences())
+                .temperature(options.getTemperature())
+                .topK(options.getTopK())
+                .topP(options.getTopP());
+        if (options instanceof ToolCallingChatOptions tools) {
+            if (tools.getToolCallbacks() != null) {
+                builder.toolCallbacks(tools.getToolCallbacks());
+            }
+            if (tools.getToolNames() != null) {
+                builder.toolNames(tools.getToolNames());
+            }
+            builder.internalToolExecutionEnabled(tools.isInternalToolExecutionEnabled());
+        } else if (options instanceof FunctionCallingOptions functions) {
+            if (functions.getFunctionCallbacks() != null) {
+                builder.toolCallbacks(functions.getFunctionCallbacks());
+            }
+            if (functions.getFunctions() != null) {
+                builder.toolNames(functions.getFunctions());
+            }
+        }
+        if (options instanceof FunctionCallingOptions functions && functions.getToolContext() != null) {
+            builder.toolContext(functions.getToolContext());
+        }
+        return builder.build();
+    }
+
+    private static final class Meters {
+
+        private final Counter hedged;
+        private final Counter notHedged;
+        private final Counter primaryWins;
+        private final Counter secondaryWins;
+
+        private Meters(String mode, LatencyWindow latencies, MeterRegistry meterRegistry) {
+            this.hedged = calls(meterRegistry, mode, true);
+            this.notHedged = calls(meterRegistry, mode, false);
+            this.primaryWins = wins(meterRegistry, mode, PRIMARY);
+            this.secondaryWins = wins(meterRegistry, mode, SECONDARY);
+            TimeGauge.builder("chat.hedge.delay", latencies, TimeUnit.NANOSECONDS, LatencyWindow::percentile)
+                    .tag("mode", mode)
+                    .description("Observed primary latency percentile the hedge delay is based on (-1 until known)")
+                    .register(meterRegistry);
+        }
+
+        private static Counter calls(MeterRegistry meterRegistry, String mode, boolean hedged) {
+            return Counter.builder("chat.hedge.calls")
+                    .tag("mode", mode).tag("hedged", String.valueOf(hedged))
+                    .description("Chat model calls, by whether they were hedged to the secondary model")
+                    .register(meterRegistry);
+        }
+
+        private static Counter wins(MeterRegistry meterRegistry, String mode, String winner) {
+            return Counter.builder("chat.hedge.wins")
+                    .tag("mode", mode).tag("winner", winner)
+                    .description("Hedged chat model calls, by which model answered first")
+                    .register(meterRegistry);
+        }
+    }
+
+    /**
+     * The most recent latencies in a ring buffer, with the percentile recomputed every few samples.
+     */
+    static final class LatencyWindow {
+
+        private static final int RECOMPUTE_EVERY = 16;
+
+        private final long[] samples;
+        private final int minSamples;
+        private final double percentile;
+
+        // Guarded by this
+        private int next;
+        private int count;
+        private int sinceRecompute;
+
+        private volatile long percentileNanos = -1;
+
+        LatencyWindow(int size, int minSamples, double percentile) {
+            this.samples = new long[Math.max(1, size)];
+            this.minSamples = Math.max(1, Math.min(minSamples, samples.length));
+            this.percentile = percentile;
+        }
+
+        synchronized void record(long nanos) {
+            samples[next] = nanos;
+            next = (next + 1) % samples.length;
+            count = Math.min(count + 1, samples.length);
+            if (count >= minSamples && (percentileNanos < 0 || ++sinceRecompute >= RECOMPUTE_EVERY)) {
+                long[] sorted = Arrays.copyOf(samples, count);
+                Arrays.sort(sorted);
+                percentileNanos = sorted[Math.max(0, (int) Math.ceil(percentile * count) - 1)];
+                sinceRecompute = 0;
+            }
+        }
+
+        /**
+         * @return the percentile in nanoseconds, or -1 until enough samples have been recorded
+         */
+        long percentile() {
+            return percentileNanos;
+        }
+    }
+}
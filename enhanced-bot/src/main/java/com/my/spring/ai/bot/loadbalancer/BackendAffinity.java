@@ -0,0 +1,66 @@
+package com.my.spring.ai.bot.loadbalancer;
+
+import reactor.core.publisher.Flux;
+import reactor.util.context.Context;
+import reactor.util.context.ContextView;
+
+import java.util.function.Supplier;
+
+/**
+ * Carries the key that pins a request to one backend of a {@link LoadBalancedChatModel}.
+ *
+ * Blocking calls carry it on the calling thread; streams carry it in the Reactor context, because
+ * the model is only invoked once the stream is subscribed, usually on another thread.
+ */
+public final class BackendAffinity {
+
+    static final String CONTEXT_KEY = BackendAffinity.class.getName();
+
+    private static final ThreadLocal<String> CURRENT = new ThreadLocal<>();
+
+    private BackendAffinity() {
+    }
+
+    /**
+     * Runs a blocking model call pinned to the backend chosen for {@code key}.
+     */
+    public static <T> T call(String key, Supplier<T> work) {
+        if (key == null) {
+            return work.get();
+        }
+        String previous = CURRENT.get();
+        CURRENT.set(key);
+        try {
+            return work.get();
+        } finally {
+            if (previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+        }
+    }
+
+    /**
+     * Pins the model stream subscribed below {@code flux} to the backend chosen for {@code key}.
+     */
+    public static <T> Flux<T> stream(String key, Flux<T> flux) {
+        return key == null ? flux : flux.contextWrite(Context.of(CONTEXT_KEY, key));
+    }
+
+    /**
+     * Wraps a blocking model call so that it keeps the caller's affinity key when run on another thread.
+     */
+    public static <T> Supplier<T> propagate(Supplier<T> work) {
+        String key = CURRENT.get();
+        return key == null ? work : () -> call(key, work);
+    }
+
+    static String current() {
+        return CURRENT.get();
+    }
+
+    static String current(ContextView context) {
+        return context.getOrDefault(CONTEXT_KEY, CURRENT.get());
+    }
+}
@@ -0,0 +1,44 @@
+package com.my.spring.ai.bot.loadbalancer;
+
+import org.springframework.ai.chat.client.advisor.api.AdvisedRequest;
+import org.springframework.ai.chat.client.advisor.api.AdvisedResponse;
+import org.springframework.ai.chat.client.advisor.api.CallAroundAdvisor;
+import org.springframework.ai.chat.client.advisor.api.CallAroundAdvisorChain;
+import org.springframework.ai.chat.client.advisor.api.StreamAroundAdvisor;
+import org.springframework.ai.chat.client.advisor.api.StreamAroundAdvisorChain;
+import org.springframework.core.Ordered;
+import reactor.core.publisher.Flux;
+
+import static org.springframework.ai.chat.client.advisor.AbstractChatMemoryAdvisor.CHAT_MEMORY_CONVERSATION_ID_KEY;
+
+/**
+ * Pins every model call of a conversation to the same pool backend, using the conversation id
+ * the chat services already pass to their memory advisors.
+ */
+public class BackendAffinityAdvisor implements CallAroundAdvisor, StreamAroundAdvisor {
+
+    @Override
+    public String getName() {
+        return "BackendAffinityAdvisor";
+    }
+
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE;
+    }
+
+    @Override
+    public AdvisedResponse aroundCall(AdvisedRequest advisedRequest, CallAroundAdvisorChain chain) {
+        return BackendAffinity.call(conversationId(advisedRequest), () -> chain.nextAroundCall(advisedRequest));
+    }
+
+    @Override
+    public Flux<AdvisedResponse> aroundStream(AdvisedRequest advisedRequest, StreamAroundAdvisorChain chain) {
+        return BackendAffinity.stream(conversationId(advisedRequest), chain.nextAroundStream(advisedRequest));
+    }
+
+    private static String conversationId(AdvisedRequest advisedRequest) {
+        Object id = advisedRequest.adviseContext().get(CHAT_MEMORY_CONVERSATION_ID_KEY);
+        return id == null ? null : id.toString();
+    }
+}
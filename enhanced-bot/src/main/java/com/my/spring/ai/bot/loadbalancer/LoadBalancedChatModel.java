@@ -0,0 +1,324 @@
+package com.my.spring.ai.bot.loadbalancer;
+
+import com.my.spring.ai.bot.config.OllamaPoolProperties;
+import com.my.spring.ai.bot.resilience.Failures;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.prompt.ChatOptions;
+import org.springframework.ai.chat.prompt.Prompt;
+import org.springframework.ai.retry.NonTransientAiException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Chat model that spreads requests over a pool of backends by least outstanding requests.
+ *
+ * Each request goes to the available backend with the fewest requests in flight. With affinity
+ * enabled, a request carrying a {@link BackendAffinity} key goes to the backend the key hashes to
+ * (rendezvous hashing, so only the keys of a lost backend move), unless that backend is
+ * {@code spilloverThreshold} requests busier than the least loaded one.
+ *
+ * Backends are ejected passively: after {@code consecutiveFailures} failed requests in a row a backend
+ * gets no traffic for the ejection time, which doubles each time it is ejected again without having
+ * served a request successfully in between. Client errors (4xx) say nothing about the backend and do
+ * not count, nor do requests cut short by their caller (deadline, cancellation, a losing hedged request). When every backend is ejected, all of them are used again rather than failing every request.
+ *
+ * Publishes, tagged with {@code backend=<name>}: the timer {@code ollama.backend.requests}
+ * (mode=call|stream, outcome=success|error), the timer {@code ollama.backend.first.chunk} for streams,
+ * the gauges {@code ollama.backend.outstanding} and {@code ollama.backend.available}, and the counter
+ * {@code ollama.backend.ejections}.
+ */
+@Slf4j
+public class LoadBalancedChatModel implements ChatModel {
+
+    private static final String MODE_CALL = "call";
+    private static final String MODE_STREAM = "stream";
+
+    private final List<Backend> backends;
+    private final boolean affinityEnabled;
+    private final int spilloverThreshold;
+    private final int failuresToEject;
+    private final long baseEjectionMillis;
+    private final long maxEjectionMillis;
+    private final Clock clock;
+
+    // Rotates the scan start, so ties in outstanding requests do not all land on the first backend
+    private final AtomicInteger nextScanStart = new AtomicInteger();
+
+    private final Counter affinityHits;
+    private final Counter affinitySpills;
+
+    public LoadBalancedChatModel(Map<String, ChatModel> backends, OllamaPoolProperties properties,
+                                 MeterRegistry meterRegistry) {
+        this(backends, properties, meterRegistry, Clock.systemUTC());
+    }
+
+    public LoadBalancedChatModel(Map<String, ChatModel> backends, OllamaPoolProperties properties,
+                                 MeterRegistry meterRegistry, Clock clock) {
+        if (backends.isEmpty()) {
+            throw new IllegalArgumentException("A load balanced chat model needs at least one backend");
+        }
+        this.affinityEnabled = properties.getAffinity().isEnabled();
+        this.spilloverThreshold = properties.getAffinity().getSpilloverThreshold();
+        this.failuresToEject = properties.getEjection().getConsecutiveFailures();
+        this.baseEjectionMillis = properties.getEjection().getBaseTime().toMillis();
+        this.maxEjectionMillis = properties.getEjection().getMaxTime().toMillis();
+        this.clock = clock;
+
+        List<Backend> list = new ArrayList<>();
+        backends.forEach((name, model) -> list.add(new Backend(name, model, meterRegistry)));
+        this.backends = List.copyOf(list);
+
+        this.affinityHits = Counter.builder("ollama.pool.affinity")
+                .tag("result", "hit")
+                .description("Requests routed to the backend their session is pinned to")
+                .register(meterRegistry);
+        this.affinitySpills = Counter.builder("ollama.pool.affinity")
+                .tag("result", "spill")
+                .description("Requests moved off their session's backend because it was overloaded")
+                .register(meterRegistry);
+
+        log.info("LoadBalancedChatModel configured: backends={}, affinity={}, ejectAfter={} failures",
+                backends.keySet(), affinityEnabled, failuresToEject);
+    }
+
+    @Override
+    public ChatResponse call(Prompt prompt) {
+        Backend backend = acquire(BackendAffinity.current());
+        long start = System.nanoTime();
+        try {
+            ChatResponse response = backend.model.call(prompt);
+            backend.succeeded(MODE_CALL, start);
+            return response;
+        } catch (RuntimeException e) {
+            backend.failed(MODE_CALL, start, e);
+            throw e;
+        } finally {
+            backend.outstanding.decrementAndGet();
+        }
+    }
+
+    @Override
+    public Flux<ChatResponse> stream(Prompt prompt) {
+        return Flux.deferContextual(context -> {
+            Backend backend = acquire(BackendAffinity.current(context));
+            long start = System.nanoTime();
+            AtomicBoolean firstChunk = new AtomicBoolean(true);
+            Flux<ChatResponse> responses;
+            try {
+                responses = backend.model.stream(prompt);
+            } catch (RuntimeException e) {
+                backend.failed(MODE_STREAM, start, e);
+                backend.outstanding.decrementAndGet();
+                return Flux.error(e);
+            }
+            return responses
+                    .doOnNext(response -> {
+                        if (firstChunk.compareAndSet(true, false)) {
+                            backend.firstChunk.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                        }
+                    })
+                    .doOnComplete(() -> backend.succeeded(MODE_STREAM, start))
+                    .doOnError(e -> backend.failed(MODE_STREAM, start, e))
+                    .doFinally(signal -> backend.outstanding.decrementAndGet());
+        });
+    }
+
+    @Override
+    public ChatOptions getDefaultOptions() {
+        return backends.get(0).model.getDefaultOptions();
+    }
+
+    private Backend acquire(String affinityKey) {
+        Backend backend = select(affinityKey);
+        backend.outstanding.incrementAndGet();
+        return backend;
+    }
+
+    private Backend select(String affinityKey) {
+        long now = clock.millis();
+        List<Backend> candidates = new ArrayList<>(backends.size());
+        for (Backend backend : backends) {
+            if (backend.isAvailable(now)) {
+                candidates.add(backend);
+            }
+        }
+        if (candidates.isEmpty()) {
+            // Everything is ejected; spreading the load beats failing every request
+            candidates = backends;
+        }
+
+        Backend least = leastOutstanding(candidates);
+        if (affinityEnabled && affinityKey != null) {
+            Backend pinned = rendezvous(candidates, affinityKey);
+            if (pinned.outstanding.get() - least.outstanding.get() < spilloverThreshold) {
+                affinityHits.increment();
+                return pinned;
+            }
+            affinitySpills.increment();
+        }
+        return least;
+    }
+
+    private Backend leastOutstanding(List<Backend> candidates) {
+        int size = candidates.size();
+        int start = Math.floorMod(nextScanStart.getAndIncrement(), size);
+        Backend least = null;
+        int leastOutstanding = Integer.MAX_VALUE;
+        for (int i = 0; i < size; i++) {
+            Backend backend = candidates.get((start + i) % size);
+            int outstanding = backend.outstanding.get();
+            if (outstanding < leastOutstanding) {
+                least = backend;
+                leastOutstanding = outstanding;
+            }
+        }
+        return least;
+    }
+
+    private static Backend rendezvous(List<Backend> candidates, String key) {
+        long keyHash = key.hashCode();
+        Backend best = null;
+        long bestScore = Long.MIN_VALUE;
+        for (Backend backend : candidates) {
+            long score = mix(keyHash * 31 + backend.nameHash);
+            if (best == null || score > bestScore) {
+                best = backend;
+                bestScore = score;
+            }
+        }
+        return best;
+    }
+
+    // Finalizer of SplitMix64; spreads nearby hash codes over the whole range
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * Whether a failure says something about the backend's health. Client errors are the caller's fault,
+     * and so is a request its caller gave up on: past its deadline, cancelled or interrupted.
+     */
+    private static boolean isBackendFailure(Throwable e) {
+        if (e instanceof NonTransientAiException
+                || Thread.currentThread().isInterrupted() || Failures.causedByCaller(e)) {
+            return false;
+        }
+        return !(e instanceof WebClientResponseException response)
+                || !response.getStatusCode().is4xxClientError()
+                || response.getStatusCode().value() == 429;
+    }
+
+    List<String> availableBackends() {
+        long now = clock.millis();
+        return backends.stream().filter(b -> b.isAvailable(now)).map(b -> b.name).toList();
+    }
+
+    private final class Backend {
+
+        private final String name;
+        private final long nameHash;
+        private final ChatModel model;
+        private final AtomicInteger outstanding = new AtomicInteger();
+        private final AtomicInteger consecutiveFailures = new AtomicInteger();
+
+        // Guarded by this
+        private long ejectedUntil;
+        private int ejections;
+
+        private final Timer callSuccess;
+        private final Timer callError;
+        private final Timer streamSuccess;
+        private final Timer streamError;
+        private final Timer firstChunk;
+        private final Counter ejectionCounter;
+
+        private Backend(String name, ChatModel model, MeterRegistry meterRegistry) {
+            this.name = name;
+            this.nameHash = mix(name.hashCode());
+            this.model = model;
+            this.callSuccess = requestTimer(meterRegistry, MODE_CALL, "success");
+            this.callError = requestTimer(meterRegistry, MODE_CALL, "error");
+            this.streamSuccess = requestTimer(meterRegistry, MODE_STREAM, "success");
+            this.streamError = requestTimer(meterRegistry, MODE_STREAM, "error");
+            this.firstChunk = Timer.builder("ollama.backend.first.chunk")
+                    .tag("backend", name)
+                    .description("Time from sending a streamed request to a backend until its first chunk")
+                    .register(meterRegistry);
+            this.ejectionCounter = Counter.builder("ollama.backend.ejections")
+                    .tag("backend", name)
+                    .description("Times a backend was taken out of rotation after repeated failures")
+                    .register(meterRegistry);
+            Gauge.builder("ollama.backend.outstanding", outstanding, AtomicInteger::get)
+                    .tag("backend", name)
+                    .description("Requests in flight on a backend")
+                    .register(meterRegistry);
+            Gauge.builder("ollama.backend.available", this, b -> b.isAvailable(clock.millis()) ? 1 : 0)
+                    .tag("backend", name)
+                    .description("1 while a backend receives traffic, 0 while it is ejected")
+                    .register(meterRegistry);
+        }
+
+        private Timer requestTimer(MeterRegistry meterRegistry, String mode, String outcome) {
+            return Timer.builder("ollama.backend.requests")
+                    .tag("backend", name).tag("mode", mode).tag("outcome", outcome)
+                    .description("Latency of requests sent to a backend")
+                    .register(meterRegistry);
+        }
+
+        private synchronized boolean isAvailable(long now) {
+            return now >= ejectedUntil;
+        }
+
+        private void succeeded(String mode, long startNanos) {
+            (MODE_CALL.equals(mode) ? callSuccess : streamSuccess)
+                    .record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+            consecutiveFailures.set(0);
+            synchronized (this) {
+                ejections = 0;
+            }
+        }
+
+        private void failed(String mode, long startNanos, Throwable e) {
+            (MODE_CALL.equals(mode) ? callError : streamError)
+                    .record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+            if (!isBackendFailure(e)) {
+                return;
+            }
+            if (consecutiveFailures.incrementAndGet() >= failuresToEject) {
+                eject();
+            }
+        }
+
+        private synchronized void eject() {
+            long now = clock.millis();
+            if (now < ejectedUntil) {
+                // Requests that were already in flight when it was ejected
+                return;
+            }
+            long duration = Math.min(maxEjectionMillis, baseEjectionMillis << Math.min(ejections, 20));
+            ejections++;
+            ejectedUntil = now + duration;
+            consecutiveFailures.set(0);
+            ejectionCounter.increment();
+            log.warn("Ejected chat backend '{}' for {} after {} consecutive failures",
+                    name, Duration.ofMillis(duration), failuresToEject);
+        }
+    }
+}
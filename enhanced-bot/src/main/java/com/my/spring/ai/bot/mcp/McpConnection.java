@@ -0,0 +1,53 @@
+package com.my.spring.ai.bot.mcp;
+
+import org.springframework.ai.tool.ToolCallback;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One configured MCP server, as seen by {@link McpConnections}.
+ */
+public interface McpConnection {
+
+    /**
+     * The connection's name in the configuration, e.g. {@code splunk-mcp-server}.
+     */
+    String name();
+
+    /**
+     * Performs the MCP initialization handshake, blocking until the server answers.
+     *
+     * @throws RuntimeException if the server cannot be reached or refuses
+     */
+    void initialize();
+
+    /**
+     * The server's tools, listed from the server; only called once it is initialized.
+     *
+     * @throws RuntimeException if the server cannot be reached
+     */
+    List<ToolCallback> listTools();
+
+    /**
+     * Checks that the server still answers; by default by listing its tools.
+     *
+     * @throws RuntimeException if it does not
+     */
+    default void ping() {
+        listTools();
+    }
+
+    /**
+     * Further details of the connection for its health, e.g. per-process queue depths.
+     */
+    default Map<String, Object> details() {
+        return Map.of();
+    }
+
+    /**
+     * Releases what the connection holds once the application stops.
+     */
+    default void close() {
+    }
+}
@@ -0,0 +1,348 @@
+package com.my.spring.ai.bot.mcp;
+
+import com.my.spring.ai.bot.config.McpConnectionProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.ai.chat.model.ToolContext;
+import org.springframework.ai.tool.ToolCallback;
+import org.springframework.ai.tool.definition.ToolDefinition;
+import org.springframework.ai.tool.metadata.ToolMetadata;
+import org.springframework.context.SmartLifecycle;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiConsumer;
+
+/**
+ * Connects the MCP servers in the background, all at once, so a slow or unreachable server neither
+ * holds up the start of the application nor the other servers.
+ *
+ * Until a server is connected its tools are simply not offered: {@link #readyToolCallbacks()} lists the
+ * tools of the connected servers only, asking each of them at the time, and the endpoints that need no
+ * tools are served from the start. A connection that fails is tried again after a backoff that doubles
+ * with every failure up to {@code mcp.connections.max-backoff}, and given up after
+ * {@code mcp.connections.max-attempts} if set.
+ *
+ * A connected server is pinged every {@code mcp.connections.health-check-interval}, and after any of its
+ * tool calls fails. A server that no longer answers, or whose tools cannot be listed, goes back to
+ * retrying. The listener is told each time a server connects or is lost, so its tools are picked up or
+ * dropped.
+ *
+ * The state of each connection is reported by {@link #status()}, and through the {@code mcp} health
+ * contributor.
+ */
+@Slf4j
+public class McpConnections implements SmartLifecycle {
+
+    /**
+     * Where a connection stands.
+     */
+    public enum State {
+        /** First attempt in progress. */
+        CONNECTING,
+        /** Connected; its tools are offered. */
+        READY,
+        /** Failed or lost; the next attempt is scheduled. */
+        RETRYING,
+        /** Failed {@code max-attempts} times; not tried again. */
+        FAILED
+    }
+
+    /**
+     * A connection's state as reported by {@link #status()}.
+     *
+     * @param tools number of tools the server listed last
+     * @param lastError message of the last failure, null if it has not failed
+     * @param nextAttemptIn wait before the next attempt when retrying, null otherwise
+     * @param details the connection's own details, see {@link McpConnection#details()}
+     */
+    public record Status(State state, int attempts, int tools, String lastError, Duration nextAttemptIn,
+                         Map<String, Object> details) {
+    }
+
+    private final List<Connection> connections;
+    private final McpConnectionProperties properties;
+    private final BiConsumer<String, State> onChange;
+    private final ScheduledThreadPoolExecutor executor;
+
+    private volatile boolean running;
+
+    /**
+     * @param onChange called with the connection's name and its new state each time one is established
+     *                 ({@link State#READY}) or lost ({@link State#RETRYING})
+     */
+    public McpConnections(List<McpConnection> connections, McpConnectionProperties properties,
+                          BiConsumer<String, State> onChange) {
+        if (properties.getInitialBackoff().isNegative() || properties.getInitialBackoff().isZero()) {
+            throw new IllegalArgumentException("mcp.connections.initial-backoff must be positive");
+        }
+        this.connections = connections.stream().map(Connection::new).toList();
+        this.properties = properties;
+        this.onChange = onChange;
+
+        // One thread per server, so that each first attempt starts right away
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ScheduledThreadPoolExecutor(Math.max(1, connections.size()), r -> {
+            Thread thread = new Thread(r, "mcp-connect-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.executor.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
+    }
+
+    @Override
+    public void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        log.info("Connecting {} MCP server(s) in the background: {}", connections.size(),
+                connections.stream().map(connection -> connection.mcp.name()).toList());
+        for (Connection connection : connections) {
+            executor.execute(() -> connect(connection));
+        }
+        Duration interval = properties.getHealthCheckInterval();
+        if (!interval.isZero() && !interval.isNegative() && !connections.isEmpty()) {
+            executor.scheduleWithFixedDelay(this::checkReady, interval.toNanos(), interval.toNanos(), TimeUnit.NANOSECONDS);
+        }
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        executor.shutdownNow();
+        for (Connection connection : connections) {
+            try {
+                connection.mcp.close();
+            } catch (RuntimeException e) {
+                log.warn("Failed to close MCP connection '{}'", connection.mcp.name(), e);
+            }
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * The tools of the servers connected so far, in the order the servers are configured, listed from
+     * each server now. A server whose tools cannot be listed is left out and goes back to retrying.
+     */
+    public ToolCallback[] readyToolCallbacks() {
+        List<ToolCallback> tools = new ArrayList<>();
+        for (Connection connection : connections) {
+            if (connection.state.get() != State.READY) {
+                continue;
+            }
+            try {
+                List<ToolCallback> listed = connection.mcp.listTools();
+                connection.tools = listed.size();
+                for (ToolCallback tool : listed) {
+                    tools.add(new CheckedToolCallback(tool, connection));
+                }
+            } catch (RuntimeException e) {
+                lost(connection, e);
+            }
+        }
+        return tools.toArray(ToolCallback[]::new);
+    }
+
+    /**
+     * The state of each connection by name, in the order the servers are configured.
+     */
+    public Map<String, Status> status() {
+        Map<String, Status> status = new LinkedHashMap<>();
+        for (Connection connection : connections) {
+            status.put(connection.mcp.name(), connection.status());
+        }
+        return status;
+    }
+
+    private void connect(Connection connection) {
+        if (!running) {
+            return;
+        }
+        String name = connection.mcp.name();
+        int attempt = ++connection.attempts;
+        try {
+            connection.mcp.initialize();
+            connection.tools = connection.mcp.listTools().size();
+            connection.nextAttemptAt = 0;
+            connection.state.set(State.READY);
+            log.info("MCP server '{}' connected after {} attempt(s), {} tool(s)", name, attempt, connection.tools);
+        } catch (RuntimeException e) {
+            connection.lastError = message(e);
+            if (properties.getMaxAttempts() > 0 && attempt >= properties.getMaxAttempts()) {
+                connection.state.set(State.FAILED);
+                log.error("MCP server '{}' could not be connected in {} attempts, giving up: {}", name, attempt,
+                        connection.lastError, e);
+                return;
+            }
+            Duration backoff = backoff(attempt);
+            connection.nextAttemptAt = System.nanoTime() + backoff.toNanos();
+            connection.state.set(State.RETRYING);
+            log.warn("MCP server '{}' could not be connected (attempt {}), retrying in {}: {}", name, attempt, backoff,
+                    connection.lastError);
+            schedule(() -> connect(connection), backoff);
+            return;
+        }
+        changed(connection, State.READY);
+    }
+
+    private void checkReady() {
+        for (Connection connection : connections) {
+            check(connection);
+        }
+    }
+
+    /**
+     * Pings a connected server; one that does not answer is lost.
+     */
+    private void check(Connection connection) {
+        if (connection.state.get() != State.READY || !connection.checking.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            connection.mcp.ping();
+        } catch (RuntimeException e) {
+            lost(connection, e);
+        } finally {
+            connection.checking.set(false);
+        }
+    }
+
+    /**
+     * Takes a connected server out of service and reconnects it from the first attempt.
+     */
+    private void lost(Connection connection, RuntimeException failure) {
+        if (!connection.state.compareAndSet(State.READY, State.RETRYING)) {
+            return;
+        }
+        connection.lastError = message(failure);
+        connection.attempts = 0;
+        connection.nextAttemptAt = System.nanoTime();
+        log.warn("MCP server '{}' was lost, reconnecting: {}", connection.mcp.name(), connection.lastError);
+        changed(connection, State.RETRYING);
+        schedule(() -> connect(connection), Duration.ZERO);
+    }
+
+    private void changed(Connection connection, State state) {
+        try {
+            onChange.accept(connection.mcp.name(), state);
+        } catch (RuntimeException e) {
+            log.warn("Listener failed for MCP server '{}' now {}", connection.mcp.name(), state, e);
+        }
+    }
+
+    private void schedule(Runnable task, Duration delay) {
+        if (!running) {
+            return;
+        }
+        try {
+            executor.schedule(task, delay.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (RejectedExecutionException e) {
+            log.debug("MCP connections stopped, not scheduling another attempt");
+        }
+    }
+
+    /**
+     * Wait after the given failed attempt: the initial backoff, doubled for each earlier failure.
+     */
+    Duration backoff(int attempt) {
+        Duration max = properties.getMaxBackoff();
+        Duration backoff = properties.getInitialBackoff();
+        for (int i = 1; i < attempt && backoff.compareTo(max) < 0; i++) {
+            backoff = backoff.multipliedBy(2);
+        }
+        return backoff.compareTo(max) > 0 ? max : backoff;
+    }
+
+    private static String message(RuntimeException e) {
+        return e.getMessage() != null ? e.getMessage() : e.getClass().getName();
+    }
+
+    /**
+     * A server and how far its connection got. Written by the one attempt running at a time, and by the
+     * check or listing that finds it lost; read by requests and health checks.
+     */
+    private static final class Connection {
+
+        private final McpConnection mcp;
+        private final AtomicReference<State> state = new AtomicReference<>(State.CONNECTING);
+        private final AtomicBoolean checking = new AtomicBoolean();
+        private volatile int attempts;
+        private volatile int tools;
+        private volatile String lastError;
+        private volatile long nextAttemptAt;
+
+        private Connection(McpConnection mcp) {
+            this.mcp = mcp;
+        }
+
+        private Status status() {
+            State current = state.get();
+            Duration nextAttemptIn = current == State.RETRYING
+                    ? Duration.ofNanos(Math.max(0, nextAttemptAt - System.nanoTime()))
+                    : null;
+            return new Status(current, attempts, current == State.READY ? tools : 0, lastError, nextAttemptIn,
+                    mcp.details());
+        }
+    }
+
+    /**
+     * A tool of a connected server; when a call fails the server is checked, in the background.
+     */
+    private final class CheckedToolCallback implements ToolCallback {
+
+        private final ToolCallback delegate;
+        private final Connection connection;
+
+        private CheckedToolCallback(ToolCallback delegate, Connection connection) {
+            this.delegate = delegate;
+            this.connection = connection;
+        }
+
+        @Override
+        public ToolDefinition getToolDefinition() {
+            return delegate.getToolDefinition();
+        }
+
+        @Override
+        public ToolMetadata getToolMetadata() {
+            return delegate.getToolMetadata();
+        }
+
+        @Override
+        public String call(String toolInput) {
+            try {
+                return delegate.call(toolInput);
+            } catch (RuntimeException e) {
+                failed();
+                throw e;
+            }
+        }
+
+        @Override
+        public String call(String toolInput, ToolContext toolContext) {
+            try {
+                return delegate.call(toolInput, toolContext);
+            } catch (RuntimeException e) {
+                failed();
+                throw e;
+            }
+        }
+
+        private void failed() {
+            schedule(() -> check(connection), Duration.ZERO);
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.my.spring.ai.bot.mcp;
+
+import org.springframework.boot.actuate.health.CompositeHealthContributor;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthContributor;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.actuate.health.NamedContributor;
+import org.springframework.boot.actuate.health.Status;
+
+import java.util.Iterator;
+
+/**
+ * Health of each MCP connection, under {@code /actuator/health/mcp/<connection>}.
+ *
+ * A connection that is not up is reported {@code DEGRADED} rather than down: the application still
+ * serves every request, only without that server's tools.
+ */
+public class McpConnectionsHealth implements CompositeHealthContributor {
+
+    /**
+     * Status of a connection that is not ready; ordered and mapped to HTTP 200 in the configuration.
+     */
+    public static final Status DEGRADED = new Status("DEGRADED", "Connecting or retrying; its tools are not offered");
+
+    private final McpConnections connections;
+
+    public McpConnectionsHealth(McpConnections connections) {
+        this.connections = connections;
+    }
+
+    @Override
+    public HealthContributor getContributor(String name) {
+        return connections.status().containsKey(name) ? indicator(name) : null;
+    }
+
+    @Override
+    public Iterator<NamedContributor<HealthContributor>> iterator() {
+        return connections.status().keySet().stream()
+                .map(name -> NamedContributor.of(name, (HealthContributor) indicator(name)))
+                .iterator();
+    }
+
+    private HealthIndicator indicator(String name) {
+        return () -> health(connections.status().get(name));
+    }
+
+    static Health health(McpConnections.Status status) {
+        if (status == null) {
+            return Health.unknown().build();
+        }
+        Health.Builder health = (status.state() == McpConnections.State.READY ? Health.up() : Health.status(DEGRADED))
+                .withDetail("state", status.state())
+                .withDetail("attempts", status.attempts())
+                .withDetail("tools", status.tools());
+        if (status.lastError() != null) {
+            health.withDetail("lastError", status.lastError());
+        }
+        if (status.nextAttemptIn() != null) {
+            health.withDetail("nextAttemptIn", status.nextAttemptIn().toString());
+        }
+        health.withDetails(status.details());
+        return health.build();
+    }
+}
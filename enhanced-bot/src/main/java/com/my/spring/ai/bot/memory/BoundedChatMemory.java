@@ -0,0 +1,308 @@
+package com.my.spring.ai.bot.memory;
+
+import com.my.spring.ai.bot.config.ChatMemoryProperties;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.BaseUnits;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.ai.chat.memory.ChatMemory;
+import org.springframework.ai.chat.messages.Message;
+
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Heap-bounded {@link ChatMemory} replacing the unbounded {@code InMemoryChatMemory}.
+ *
+ * Each session keeps at most {@code maxMessagesPerSession} messages in a ring buffer,
+ * sessions idle for longer than {@code idleTtl} are expired, and the store as a whole
+ * never holds more than {@code maxSessions} sessions or {@code maxBytes} of estimated
+ * message text - the least recently used session is evicted first.
+ */
+@Slf4j
+public class BoundedChatMemory implements ChatMemory, MeterBinder, AutoCloseable {
+
+    /**
+     * Rough fixed cost of a message object, its metadata map and the ring slot.
+     */
+    private static final long MESSAGE_OVERHEAD_BYTES = 64;
+
+    enum EvictionReason { SESSIONS, BYTES, IDLE }
+
+    private final int maxMessagesPerSession;
+    private final long idleTtlMillis;
+    private final int maxSessions;
+    private final long maxBytes;
+    private final Clock clock;
+
+    // Access-ordered, so iteration starts at the least recently used session
+    private final LinkedHashMap<String, Session> sessions = new LinkedHashMap<>(16, 0.75f, true);
+    private final ReentrantLock lock = new ReentrantLock();
+    private long estimatedBytes;
+
+    private final Map<EvictionReason, LongAdder> evictions = new EnumMap<>(EvictionReason.class);
+    private final ScheduledExecutorService sweeper;
+
+    public BoundedChatMemory(ChatMemoryProperties properties) {
+        this(properties, Clock.systemUTC());
+    }
+
+    public BoundedChatMemory(ChatMemoryProperties properties, Clock clock) {
+        if (properties.getMaxMessagesPerSession() <= 0) {
+            throw new IllegalArgumentException("chat.memory.max-messages-per-session must be positive");
+        }
+        this.maxMessagesPerSession = properties.getMaxMessagesPerSession();
+        this.idleTtlMillis = properties.getIdleTtl().toMillis();
+        this.maxSessions = properties.getMaxSessions();
+        this.maxBytes = properties.getMaxBytes().toBytes();
+        this.clock = clock;
+        for (EvictionReason reason : EvictionReason.values()) {
+            evictions.put(reason, new LongAdder());
+        }
+
+        long sweepMillis = properties.getSweepInterval().toMillis();
+        if (sweepMillis > 0 && idleTtlMillis > 0) {
+            this.sweeper = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread thread = new Thread(r, "chat-memory-sweeper");
+                thread.setDaemon(true);
+                return thread;
+            });
+            this.sweeper.scheduleWithFixedDelay(this::expireIdleSessions, sweepMillis, sweepMillis, TimeUnit.MILLISECONDS);
+        } else {
+            this.sweeper = null;
+        }
+
+        log.info("BoundedChatMemory configured: maxMessagesPerSession={}, idleTtl={}, maxSessions={}, maxBytes={}",
+                maxMessagesPerSession, properties.getIdleTtl(), maxSessions, properties.getMaxBytes());
+    }
+
+    @Override
+    public void add(String conversationId, List<Message> messages) {
+        if (messages == null || messages.isEmpty()) {
+            return;
+        }
+        long now = clock.millis();
+        lock.lock();
+        try {
+            Session session = sessions.get(conversationId);
+            // An expired session is gone, as for get(), however long the sweeper takes to find it
+            if (session != null && isExpired(session, now)) {
+                remove(conversationId, EvictionReason.IDLE);
+                session = null;
+            }
+            if (session == null) {
+                session = new Session(maxMessagesPerSession);
+                sessions.put(conversationId, session);
+            }
+            session.lastAccessMillis = now;
+            for (Message message : messages) {
+                estimatedBytes += session.append(message);
+            }
+            enforceBounds(conversationId);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public List<Message> get(String conversationId, int lastN) {
+        long now = clock.millis();
+        lock.lock();
+        try {
+            Session session = sessions.get(conversationId);
+            if (session == null) {
+                return Collections.emptyList();
+            }
+            if (isExpired(session, now)) {
+                remove(conversationId, EvictionReason.IDLE);
+                return Collections.emptyList();
+            }
+            session.lastAccessMillis = now;
+            return session.last(lastN);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void clear(String conversationId) {
+        lock.lock();
+        try {
+            Session session = sessions.remove(conversationId);
+            if (session != null) {
+                estimatedBytes -= session.bytes;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Drops every session idle for longer than the configured TTL.
+     * Runs on the sweeper thread; also callable directly.
+     */
+    public void expireIdleSessions() {
+        if (idleTtlMillis <= 0) {
+            return;
+        }
+        long now = clock.millis();
+        int expired = 0;
+        lock.lock();
+        try {
+            Iterator<Map.Entry<String, Session>> it = sessions.entrySet().iterator();
+            while (it.hasNext()) {
+                Session session = it.next().getValue();
+                // Access order means everything after the first live session is live too
+                if (!isExpired(session, now)) {
+                    break;
+                }
+                it.remove();
+                estimatedBytes -= session.bytes;
+                evictions.get(EvictionReason.IDLE).increment();
+                expired++;
+            }
+        } finally {
+            lock.unlock();
+        }
+        if (expired > 0) {
+            log.debug("Expired {} idle chat sessions", expired);
+        }
+    }
+
+    public int sessionCount() {
+        lock.lock();
+        try {
+            return sessions.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long estimatedBytes() {
+        lock.lock();
+        try {
+            return estimatedBytes;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    long evictionCount(EvictionReason reason) {
+        return evictions.get(reason).sum();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("chat.memory.sessions", this, BoundedChatMemory::sessionCount)
+                .description("Live chat sessions held in memory")
+                .register(registry);
+        Gauge.builder("chat.memory.bytes", this, BoundedChatMemory::estimatedBytes)
+                .description("Estimated heap held by chat session messages")
+                .baseUnit(BaseUnits.BYTES)
+                .register(registry);
+        for (EvictionReason reason : EvictionReason.values()) {
+            FunctionCounter.builder("chat.memory.evictions", evictions.get(reason), LongAdder::sum)
+                    .description("Chat sessions evicted from memory")
+                    .tag("reason", reason.name().toLowerCase())
+                    .register(registry);
+        }
+    }
+
+    @Override
+    public void close() {
+        if (sweeper != null) {
+            sweeper.shutdownNow();
+        }
+    }
+
+    private void enforceBounds(String currentConversationId) {
+        Iterator<Map.Entry<String, Session>> it = sessions.entrySet().iterator();
+        while ((sessions.size() > maxSessions || estimatedBytes > maxBytes) && it.hasNext()) {
+            Map.Entry<String, Session> eldest = it.next();
+            // Never evict the session being written; a single oversized session keeps its ring cap instead
+            if (eldest.getKey().equals(currentConversationId)) {
+                continue;
+            }
+            EvictionReason reason = sessions.size() > maxSessions ? EvictionReason.SESSIONS : EvictionReason.BYTES;
+            it.remove();
+            estimatedBytes -= eldest.getValue().bytes;
+            evictions.get(reason).increment();
+            log.debug("Evicted chat session {} ({})", eldest.getKey(), reason);
+        }
+    }
+
+    private void remove(String conversationId, EvictionReason reason) {
+        Session session = sessions.remove(conversationId);
+        if (session != null) {
+            estimatedBytes -= session.bytes;
+            evictions.get(reason).increment();
+        }
+    }
+
+    private boolean isExpired(Session session, long now) {
+        return idleTtlMillis > 0 && now - session.lastAccessMillis > idleTtlMillis;
+    }
+
+    static long estimateBytes(Message message) {
+        String text = message.getText();
+        return MESSAGE_OVERHEAD_BYTES + (text == null ? 0 : 2L * text.length());
+    }
+
+    /**
+     * Fixed-capacity ring of messages; guarded by the enclosing store's lock.
+     */
+    private static final class Session {
+
+        private final Message[] ring;
+        private int head;
+        private int size;
+        private long bytes;
+        private long lastAccessMillis;
+
+        Session(int capacity) {
+            this.ring = new Message[capacity];
+        }
+
+        /**
+         * Appends a message, overwriting the oldest one when full.
+         *
+         * @return change in estimated bytes
+         */
+        long append(Message message) {
+            long added = estimateBytes(message);
+            long delta = added;
+            if (size == ring.length) {
+                delta -= estimateBytes(ring[head]);
+                ring[head] = message;
+                head = (head + 1) % ring.length;
+            } else {
+                ring[(head + size) % ring.length] = message;
+                size++;
+            }
+            bytes += delta;
+            return delta;
+        }
+
+        List<Message> last(int lastN) {
+            int count = Math.min(Math.max(lastN, 0), size);
+            List<Message> result = new ArrayList<>(count);
+            for (int i = size - count; i < size; i++) {
+                result.add(ring[(head + i) % ring.length]);
+            }
+            return result;
+        }
+    }
+}
@@ -0,0 +1,820 @@
+package com.my.spring.ai.bot.memory;
+
+import com.my.spring.ai.bot.config.ChatMemoryProperties;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.BaseUnits;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.ai.chat.memory.ChatMemory;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.messages.Message;
+import org.springframework.ai.chat.messages.MessageType;
+import org.springframework.ai.chat.messages.SystemMessage;
+import org.springframework.ai.chat.messages.UserMessage;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.LongUnaryOperator;
+import java.util.function.ObjLongConsumer;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Durable {@link ChatMemory} backed by memory-mapped, append-only segment files.
+ *
+ * Every message is appended to the active segment as a CRC-protected record and the
+ * in-memory index keeps, per conversation, the positions of its last
+ * {@code maxMessagesPerSession} records. {@link #clear(String)} only drops the index
+ * entry and appends a tombstone; the space is reclaimed later by background compaction.
+ *
+ * The index is checkpointed periodically, so recovery loads the checkpoint and replays
+ * only the records written after it instead of the whole log. The log alone must still
+ * recover the same state should the checkpoint be lost: records relocated by compaction
+ * carry the position of their original, which orders them on replay, and a tombstone is
+ * relocated too for as long as an older segment still holds records of its conversation.
+ *
+ * Records reach the page cache as they are appended, so they survive a crash of the process; the
+ * active segment is forced to disk every {@code force-interval} and before each checkpoint, so a
+ * crash of the machine loses at most the records appended since.
+ */
+@Slf4j
+public class MappedSegmentChatMemory implements ChatMemory, MeterBinder, AutoCloseable {
+
+    private static final String SEGMENT_PREFIX = "segment-";
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final String CHECKPOINT_FILE = "index.checkpoint";
+    private static final int CHECKPOINT_MAGIC = 0x43484b50;
+    private static final int CHECKPOINT_VERSION = 1;
+
+    // Record header: payload length + CRC32 of the payload
+    private static final int HEADER_BYTES = 8;
+
+    private static final byte OP_APPEND = 1;
+    private static final byte OP_CLEAR = 2;
+    // Records re-written by compaction, followed by the position of the original
+    private static final byte OP_COPY = 3;
+    private static final byte OP_CLEAR_COPY = 4;
+    private static final int ORIGIN_BYTES = 8;
+
+    private final Path directory;
+    private final int segmentSize;
+    private final int maxMessagesPerSession;
+    private final double compactionThreshold;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    // Held from a checkpoint's snapshot until its file is in place, so a later snapshot is never overwritten
+    private final ReentrantLock checkpointLock = new ReentrantLock();
+    private final Map<String, PointerRing> index = new HashMap<>();
+    private final TreeMap<Integer, Segment> segments = new TreeMap<>();
+    private Segment active;
+
+    private final ScheduledExecutorService maintenance;
+
+    public MappedSegmentChatMemory(ChatMemoryProperties properties) {
+        ChatMemoryProperties.Mapped mapped = properties.getMapped();
+        long size = mapped.getSegmentSize().toBytes();
+        if (size <= HEADER_BYTES || size > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("chat.memory.mapped.segment-size must be between 8 bytes and 2GB");
+        }
+        this.directory = Path.of(mapped.getDirectory());
+        this.segmentSize = (int) size;
+        this.maxMessagesPerSession = properties.getMaxMessagesPerSession();
+        this.compactionThreshold = mapped.getCompactionThreshold();
+
+        try {
+            Files.createDirectories(directory);
+            recover();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to open chat memory segments in " + directory, e);
+        }
+
+        this.maintenance = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "chat-memory-maintenance");
+            thread.setDaemon(true);
+            return thread;
+        });
+        schedule(mapped.getForceInterval().toMillis(), this::forceQuietly);
+        schedule(mapped.getCheckpointInterval().toMillis(), this::checkpointQuietly);
+        schedule(mapped.getCompactionInterval().toMillis(), this::compactQuietly);
+
+        log.info("MappedSegmentChatMemory opened: directory={}, segments={}, sessions={}",
+                directory.toAbsolutePath(), segments.size(), index.size());
+    }
+
+    @Override
+    public void add(String conversationId, List<Message> messages) {
+        if (messages == null || messages.isEmpty()) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            PointerRing pointers = index.computeIfAbsent(conversationId, id -> new PointerRing(maxMessagesPerSession));
+            for (Message message : messages) {
+                Character type = typeCode(message.getMessageType());
+                if (type == null) {
+                    log.debug("Skipping {} message for conversation {}", message.getMessageType(), conversationId);
+                    continue;
+                }
+                pointers.add(append(encode(OP_APPEND, conversationId, type, message.getText())));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public List<Message> get(String conversationId, int lastN) {
+        lock.readLock().lock();
+        try {
+            PointerRing pointers = index.get(conversationId);
+            if (pointers == null) {
+                return Collections.emptyList();
+            }
+            long[] tail = pointers.last(lastN);
+            List<Message> result = new ArrayList<>(tail.length);
+            for (long pointer : tail) {
+                result.add(read(pointer));
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Drops the conversation from the index and appends a tombstone - O(1) regardless of history length.
+     */
+    @Override
+    public void clear(String conversationId) {
+        lock.writeLock().lock();
+        try {
+            if (index.remove(conversationId) != null) {
+                append(encode(OP_CLEAR, conversationId, ' ', null));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int sessionCount() {
+        lock.readLock().lock();
+        try {
+            return index.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int segmentCount() {
+        lock.readLock().lock();
+        try {
+            return segments.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("chat.memory.sessions", this, MappedSegmentChatMemory::sessionCount)
+                .description("Live chat sessions in the segment index")
+                .register(registry);
+        Gauge.builder("chat.memory.segments", this, MappedSegmentChatMemory::segmentCount)
+                .description("Chat memory segment files on disk")
+                .register(registry);
+        Gauge.builder("chat.memory.bytes", this, m -> (double) m.segmentCount() * m.segmentSize)
+                .description("Disk space mapped by chat memory segments")
+                .baseUnit(BaseUnits.BYTES)
+                .register(registry);
+    }
+
+    /**
+     * Writes a snapshot of the index and the log position it covers, once the records it refers to are on disk.
+     * Checkpoints run one at a time, so the file always holds the latest snapshot.
+     */
+    public void checkpoint() throws IOException {
+        checkpointLock.lock();
+        try {
+            Map<String, long[]> snapshot = new HashMap<>();
+            Segment segment;
+            int offset;
+            lock.readLock().lock();
+            try {
+                index.forEach((id, pointers) -> snapshot.put(id, pointers.last(Integer.MAX_VALUE)));
+                segment = active;
+                offset = active.writeOffset;
+            } finally {
+                lock.readLock().unlock();
+            }
+            // Sealed segments were forced when they were rolled over
+            segment.buffer.force();
+
+            Path tmp = directory.resolve(CHECKPOINT_FILE + ".tmp");
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp)))) {
+                out.writeInt(CHECKPOINT_MAGIC);
+                out.writeInt(CHECKPOINT_VERSION);
+                out.writeInt(segment.id);
+                out.writeInt(offset);
+                out.writeInt(snapshot.size());
+                for (Map.Entry<String, long[]> entry : snapshot.entrySet()) {
+                    out.writeUTF(entry.getKey());
+                    out.writeInt(entry.getValue().length);
+                    for (long pointer : entry.getValue()) {
+                        out.writeLong(pointer);
+                    }
+                }
+            }
+            Files.move(tmp, directory.resolve(CHECKPOINT_FILE),
+                    StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            checkpointLock.unlock();
+        }
+    }
+
+    /**
+     * Relocates live records out of mostly-dead sealed segments and deletes them. The tombstones
+     * of those segments are relocated as well while an older segment that stays holds records of
+     * their conversation, which a replay of the log without checkpoint would bring back otherwise.
+     */
+    public void compact() throws IOException {
+        Set<Segment> candidates = new LinkedHashSet<>();
+        List<byte[]> tombstones = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            Map<Integer, Long> liveBytes = new HashMap<>();
+            for (PointerRing pointers : index.values()) {
+                for (long pointer : pointers.last(Integer.MAX_VALUE)) {
+                    Segment segment = segments.get(segmentId(pointer));
+                    int length = HEADER_BYTES + segment.buffer.getInt(offset(pointer));
+                    liveBytes.merge(segment.id, (long) length, Long::sum);
+                }
+            }
+            for (Segment segment : segments.values()) {
+                if (segment == active) {
+                    continue;
+                }
+                double liveFraction = (double) liveBytes.getOrDefault(segment.id, 0L) / Math.max(1, segment.writeOffset);
+                if (liveFraction < compactionThreshold) {
+                    candidates.add(segment);
+                }
+            }
+            if (!candidates.isEmpty()) {
+                tombstones = tombstonesToKeep(candidates);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        if (candidates.isEmpty()) {
+            return;
+        }
+
+        int relocated = 0;
+        lock.writeLock().lock();
+        try {
+            for (PointerRing pointers : index.values()) {
+                relocated += pointers.replaceAll(pointer -> {
+                    Segment segment = segments.get(segmentId(pointer));
+                    return candidates.contains(segment) ? relocate(pointer) : pointer;
+                });
+            }
+            for (byte[] tombstone : tombstones) {
+                append(tombstone);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        // The checkpoint must reference the copies before the originals disappear
+        checkpoint();
+
+        lock.writeLock().lock();
+        try {
+            for (Segment segment : candidates) {
+                segments.remove(segment.id);
+                segment.close();
+                Files.deleteIfExists(segment.path);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Compacted {} chat memory segments, relocated {} records and {} tombstones",
+                candidates.size(), relocated, tombstones.size());
+    }
+
+    /**
+     * Copies of the tombstones in the candidates still needed: those of conversations with records
+     * in a segment that stays and is not newer than the tombstone's original.
+     */
+    private List<byte[]> tombstonesToKeep(Set<Segment> candidates) {
+        Map<Integer, Set<String>> conversationsBySegment = new HashMap<>();
+        List<byte[]> kept = new ArrayList<>();
+        for (Segment candidate : candidates) {
+            forEachRecord(candidate, (payload, pointer) -> {
+                byte op = payload.get();
+                if (op != OP_CLEAR && op != OP_CLEAR_COPY) {
+                    return;
+                }
+                String conversationId = readString(payload);
+                long origin = op == OP_CLEAR_COPY ? payload.getLong() : pointer;
+                for (Segment older : segments.headMap(segmentId(origin), true).values()) {
+                    if (!candidates.contains(older) && conversationsBySegment
+                            .computeIfAbsent(older.id, id -> conversationsIn(older)).contains(conversationId)) {
+                        kept.add(encodeClearCopy(conversationId, origin));
+                        return;
+                    }
+                }
+            });
+        }
+        return kept;
+    }
+
+    private Set<String> conversationsIn(Segment segment) {
+        Set<String> conversations = new HashSet<>();
+        forEachRecord(segment, (payload, pointer) -> {
+            byte op = payload.get();
+            if (op == OP_APPEND || op == OP_COPY) {
+                conversations.add(readString(payload));
+            }
+        });
+        return conversations;
+    }
+
+    /**
+     * Visits the payload and position of each record written to the segment.
+     */
+    private static void forEachRecord(Segment segment, ObjLongConsumer<ByteBuffer> visitor) {
+        int offset = 0;
+        while (offset + HEADER_BYTES <= segment.writeOffset) {
+            int length = segment.buffer.getInt(offset);
+            if (length <= 0) {
+                break;
+            }
+            visitor.accept(segment.buffer.slice(offset + HEADER_BYTES, length), pointer(segment.id, offset));
+            offset += HEADER_BYTES + length;
+        }
+    }
+
+    @Override
+    public void close() {
+        maintenance.shutdown();
+        try {
+            maintenance.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        checkpointQuietly();
+        lock.writeLock().lock();
+        try {
+            for (Segment segment : segments.values()) {
+                segment.buffer.force();
+                segment.close();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // ---------------------------------------------------------------------
+    // Recovery
+    // ---------------------------------------------------------------------
+
+    private void recover() throws IOException {
+        Map<String, ReplayedConversation> replayed = new HashMap<>();
+        List<Integer> ids;
+        try (Stream<Path> files = Files.list(directory)) {
+            ids = files.map(path -> path.getFileName().toString())
+                    .filter(name -> name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX))
+                    .map(name -> Integer.parseInt(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length())))
+                    .sorted()
+                    .toList();
+        }
+        for (int id : ids) {
+            Segment segment = Segment.open(segmentPath(id), id, segmentSize);
+            segments.put(id, segment);
+        }
+
+        int replayFromSegment = ids.isEmpty() ? 0 : ids.get(0);
+        int replayFromOffset = 0;
+        Path checkpoint = directory.resolve(CHECKPOINT_FILE);
+        if (Files.exists(checkpoint)) {
+            int[] position = loadCheckpoint(checkpoint, replayed);
+            if (position != null && segments.containsKey(position[0])) {
+                replayFromSegment = position[0];
+                replayFromOffset = position[1];
+            } else {
+                log.warn("Ignoring stale chat memory checkpoint; replaying all segments");
+                replayed.clear();
+            }
+        }
+
+        long records = 0;
+        for (Segment segment : segments.tailMap(replayFromSegment, true).values()) {
+            int start = segment.id == replayFromSegment ? replayFromOffset : 0;
+            records += replay(segment, start, replayed);
+        }
+        for (Segment segment : segments.headMap(replayFromSegment, false).values()) {
+            segment.writeOffset = segment.buffer.capacity();
+        }
+        replayed.forEach((conversationId, conversation) -> {
+            if (!conversation.pointers.isEmpty()) {
+                PointerRing pointers = new PointerRing(maxMessagesPerSession);
+                conversation.pointers.values().forEach(pointers::add);
+                index.put(conversationId, pointers);
+            }
+        });
+
+        if (segments.isEmpty()) {
+            active = createSegment(1);
+        } else {
+            active = segments.lastEntry().getValue();
+        }
+        log.info("Recovered chat memory: {} sessions, {} records replayed after checkpoint", index.size(), records);
+    }
+
+    /**
+     * Loads the checkpoint's index into {@code replayed}.
+     *
+     * @return the log position it covers, or null if it is unreadable or refers to a deleted segment
+     */
+    private int[] loadCheckpoint(Path checkpoint, Map<String, ReplayedConversation> replayed) {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(checkpoint)))) {
+            if (in.readInt() != CHECKPOINT_MAGIC || in.readInt() != CHECKPOINT_VERSION) {
+                return null;
+            }
+            int segmentId = in.readInt();
+            int offset = in.readInt();
+            int sessions = in.readInt();
+            for (int i = 0; i < sessions; i++) {
+                String id = in.readUTF();
+                int count = in.readInt();
+                ReplayedConversation conversation = new ReplayedConversation();
+                for (int j = 0; j < count; j++) {
+                    long pointer = in.readLong();
+                    if (!segments.containsKey(segmentId(pointer))) {
+                        return null;
+                    }
+                    conversation.put(originOf(pointer), pointer, maxMessagesPerSession);
+                }
+                replayed.put(id, conversation);
+            }
+            return new int[]{segmentId, offset};
+        } catch (IOException e) {
+            log.warn("Failed to read chat memory checkpoint {}: {}", checkpoint, e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Replays records from {@code start}; stops at the first empty or torn record.
+     */
+    private long replay(Segment segment, int start, Map<String, ReplayedConversation> replayed) {
+        ByteBuffer buffer = segment.buffer;
+        int offset = start;
+        long count = 0;
+        while (offset + HEADER_BYTES <= buffer.capacity()) {
+            int length = buffer.getInt(offset);
+            if (length <= 0 || offset + HEADER_BYTES + length > buffer.capacity()) {
+                break;
+            }
+            byte[] payload = new byte[length];
+            buffer.get(offset + HEADER_BYTES, payload);
+            if (crc(payload) != buffer.getInt(offset + 4)) {
+                log.warn("Torn record in {} at offset {}; truncating", segment.path.getFileName(), offset);
+                zero(buffer, offset, Math.min(buffer.capacity(), offset + HEADER_BYTES + length));
+                break;
+            }
+            apply(ByteBuffer.wrap(payload), pointer(segment.id, offset), replayed);
+            offset += HEADER_BYTES + length;
+            count++;
+        }
+        segment.writeOffset = offset;
+        return count;
+    }
+
+    /**
+     * Applies a record at the position of its original, so copies take the place of the records they
+     * replace, whether those are still indexed or were deleted by compaction.
+     */
+    private void apply(ByteBuffer payload, long pointer, Map<String, ReplayedConversation> replayed) {
+        byte op = payload.get(0);
+        String conversationId = readString(payload.position(1));
+        ReplayedConversation conversation = replayed.computeIfAbsent(conversationId, id -> new ReplayedConversation());
+        long origin = op == OP_COPY || op == OP_CLEAR_COPY ? payload.getLong(payload.limit() - ORIGIN_BYTES) : pointer;
+        if (op == OP_APPEND || op == OP_COPY) {
+            conversation.put(origin, pointer, maxMessagesPerSession);
+        } else if (op == OP_CLEAR || op == OP_CLEAR_COPY) {
+            conversation.clearBefore(origin);
+        }
+    }
+
+    // ---------------------------------------------------------------------
+    // Record I/O (callers hold the lock)
+    // ---------------------------------------------------------------------
+
+    private long append(byte[] payload) {
+        int recordLength = HEADER_BYTES + payload.length;
+        if (recordLength > segmentSize) {
+            throw new IllegalArgumentException("Chat message of " + payload.length + " bytes exceeds segment size");
+        }
+        // A recovered segment keeps the size it was created with, which the configured size may since differ from
+        if (active.writeOffset + recordLength > active.buffer.capacity()) {
+            active.buffer.force();
+            active = createSegment(active.id + 1);
+        }
+        int offset = active.writeOffset;
+        MappedByteBuffer buffer = active.buffer;
+        buffer.putInt(offset + 4, crc(payload));
+        buffer.put(offset + HEADER_BYTES, payload);
+        // Length goes last so a torn write never looks like a complete record
+        buffer.putInt(offset, payload.length);
+        active.writeOffset = offset + recordLength;
+        return pointer(active.id, offset);
+    }
+
+    private long relocate(long pointer) {
+        ByteBuffer payload = payloadAt(pointer);
+        if (payload.get(0) == OP_COPY) {
+            // A copy keeps the position of the first original
+            byte[] bytes = new byte[payload.remaining()];
+            payload.get(bytes);
+            return append(bytes);
+        }
+        ByteBuffer copy = ByteBuffer.allocate(payload.remaining() + ORIGIN_BYTES);
+        copy.put(payload).putLong(pointer);
+        copy.put(0, OP_COPY);
+        return append(copy.array());
+    }
+
+    /**
+     * Position of the record the one at {@code pointer} is a copy of, or its own.
+     */
+    private long originOf(long pointer) {
+        ByteBuffer payload = payloadAt(pointer);
+        return payload.get(0) == OP_COPY ? payload.getLong(payload.limit() - ORIGIN_BYTES) : pointer;
+    }
+
+    private Message read(long pointer) {
+        ByteBuffer payload = payloadAt(pointer);
+        payload.get();
+        readString(payload);
+        char type = (char) payload.get();
+        String text = readString(payload);
+        return switch (type) {
+            case 'U' -> new UserMessage(text);
+            case 'A' -> new AssistantMessage(text);
+            default -> new SystemMessage(text);
+        };
+    }
+
+    private ByteBuffer payloadAt(long pointer) {
+        Segment segment = segments.get(segmentId(pointer));
+        int offset = offset(pointer);
+        int length = segment.buffer.getInt(offset);
+        return segment.buffer.slice(offset + HEADER_BYTES, length);
+    }
+
+    private static byte[] encode(byte op, String conversationId, char type, String text) {
+        byte[] id = conversationId.getBytes(StandardCharsets.UTF_8);
+        byte[] body = text == null ? new byte[0] : text.getBytes(StandardCharsets.UTF_8);
+        int size = 1 + 4 + id.length + (op == OP_CLEAR ? 0 : 1 + 4 + body.length);
+        ByteBuffer buffer = ByteBuffer.allocate(size);
+        buffer.put(op).putInt(id.length).put(id);
+        if (op != OP_CLEAR) {
+            buffer.put((byte) type).putInt(body.length).put(body);
+        }
+        return buffer.array();
+    }
+
+    private static byte[] encodeClearCopy(String conversationId, long origin) {
+        byte[] clear = encode(OP_CLEAR, conversationId, ' ', null);
+        ByteBuffer buffer = ByteBuffer.allocate(clear.length + ORIGIN_BYTES);
+        buffer.put(clear).putLong(origin);
+        buffer.put(0, OP_CLEAR_COPY);
+        return buffer.array();
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.getInt()];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static Character typeCode(MessageType type) {
+        return switch (type) {
+            case USER -> 'U';
+            case ASSISTANT -> 'A';
+            case SYSTEM -> 'S';
+            default -> null;
+        };
+    }
+
+    private static int crc(byte[] payload) {
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        return (int) crc.getValue();
+    }
+
+    private static void zero(ByteBuffer buffer, int from, int to) {
+        for (int i = from; i < to; i++) {
+            buffer.put(i, (byte) 0);
+        }
+    }
+
+    private static long pointer(int segmentId, int offset) {
+        return ((long) segmentId << 32) | (offset & 0xffffffffL);
+    }
+
+    private static int segmentId(long pointer) {
+        return (int) (pointer >>> 32);
+    }
+
+    private static int offset(long pointer) {
+        return (int) pointer;
+    }
+
+    // ---------------------------------------------------------------------
+    // Segments and maintenance
+    // ---------------------------------------------------------------------
+
+    private Segment createSegment(int id) {
+        try {
+            Segment segment = Segment.open(segmentPath(id), id, segmentSize);
+            segments.put(id, segment);
+            log.debug("Opened chat memory segment {}", segment.path.getFileName());
+            return segment;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to create chat memory segment " + id, e);
+        }
+    }
+
+    private Path segmentPath(int id) {
+        return directory.resolve(String.format("%s%010d%s", SEGMENT_PREFIX, id, SEGMENT_SUFFIX));
+    }
+
+    private void schedule(long intervalMillis, Runnable task) {
+        if (intervalMillis > 0) {
+            maintenance.scheduleWithFixedDelay(task, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void forceQuietly() {
+        Segment segment;
+        lock.readLock().lock();
+        try {
+            segment = active;
+        } finally {
+            lock.readLock().unlock();
+        }
+        try {
+            segment.buffer.force();
+        } catch (Exception e) {
+            log.warn("Forcing chat memory segment {} failed: {}", segment.path.getFileName(), e.getMessage(), e);
+        }
+    }
+
+    private void checkpointQuietly() {
+        try {
+            checkpoint();
+        } catch (Exception e) {
+            log.warn("Chat memory checkpoint failed: {}", e.getMessage(), e);
+        }
+    }
+
+    private void compactQuietly() {
+        try {
+            compact();
+        } catch (Exception e) {
+            log.warn("Chat memory compaction failed: {}", e.getMessage(), e);
+        }
+    }
+
+    private static final class Segment {
+
+        private final int id;
+        private final Path path;
+        private final FileChannel channel;
+        private final MappedByteBuffer buffer;
+        private int writeOffset;
+
+        private Segment(int id, Path path, FileChannel channel, MappedByteBuffer buffer) {
+            this.id = id;
+            this.path = path;
+            this.channel = channel;
+            this.buffer = buffer;
+        }
+
+        static Segment open(Path path, int id, int defaultSize) throws IOException {
+            FileChannel channel = FileChannel.open(path,
+                    StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            long size = channel.size() > 0 ? channel.size() : defaultSize;
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            return new Segment(id, path, channel, buffer);
+        }
+
+        void close() {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                log.debug("Failed to close segment {}: {}", path, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * A conversation's records found by recovery, keyed and so ordered by the position of their
+     * originals, and the position before which a tombstone cleared it.
+     */
+    private static final class ReplayedConversation {
+
+        private final TreeMap<Long, Long> pointers = new TreeMap<>();
+        private long clearedBefore = Long.MIN_VALUE;
+
+        void put(long origin, long pointer, int capacity) {
+            if (origin < clearedBefore) {
+                return;
+            }
+            pointers.put(origin, pointer);
+            while (pointers.size() > capacity) {
+                pointers.pollFirstEntry();
+            }
+        }
+
+        void clearBefore(long origin) {
+            clearedBefore = Math.max(clearedBefore, origin);
+            pointers.headMap(origin).clear();
+        }
+    }
+
+    /**
+     * Fixed-capacity ring of record pointers for one conversation.
+     */
+    private static final class PointerRing {
+
+        private final long[] ring;
+        private int head;
+        private int size;
+
+        PointerRing(int capacity) {
+            this.ring = new long[capacity];
+        }
+
+        void add(long pointer) {
+            if (size == ring.length) {
+                ring[head] = pointer;
+                head = (head + 1) % ring.length;
+            } else {
+                ring[(head + size) % ring.length] = pointer;
+                size++;
+            }
+        }
+
+        long[] last(int lastN) {
+            int count = Math.min(Math.max(lastN, 0), size);
+            long[] result = new long[count];
+            for (int i = 0; i < count; i++) {
+                result[i] = ring[(head + size - count + i) % ring.length];
+            }
+            return result;
+        }
+
+        int replaceAll(LongUnaryOperator mapper) {
+            int changed = 0;
+            for (int i = 0; i < size; i++) {
+                int slot = (head + i) % ring.length;
+                long replaced = mapper.applyAsLong(ring[slot]);
+                if (replaced != ring[slot]) {
+                    ring[slot] = replaced;
+                    changed++;
+                }
+            }
+            return changed;
+        }
+    }
+}
@@ -0,0 +1,411 @@
+package com.my.spring.ai.bot.memory;
+
+import com.my.spring.ai.bot.config.ChatMemoryProperties;
+import com.my.spring.ai.bot.dto.PromptTokenUsage;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.ai.chat.client.advisor.AbstractChatMemoryAdvisor;
+import org.springframework.ai.chat.client.advisor.api.AdvisedRequest;
+import org.springframework.ai.chat.client.advisor.api.AdvisedResponse;
+import org.springframework.ai.chat.client.advisor.api.CallAroundAdvisorChain;
+import org.springframework.ai.chat.client.advisor.api.StreamAroundAdvisorChain;
+import org.springframework.ai.chat.memory.ChatMemory;
+import org.springframework.ai.chat.messages.Message;
+import org.springframework.ai.chat.messages.SystemMessage;
+import org.springframework.ai.chat.messages.UserMessage;
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.ai.chat.model.MessageAggregator;
+import org.springframework.ai.chat.prompt.Prompt;
+import org.springframework.ai.tokenizer.JTokkitTokenCountEstimator;
+import org.springframework.ai.tokenizer.TokenCountEstimator;
+import reactor.core.publisher.Flux;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Chat memory advisor that keeps the last N turns verbatim and folds older turns into a rolling summary.
+ *
+ * Drop-in replacement for {@code MessageChatMemoryAdvisor}: messages are still stored in the shared
+ * {@link ChatMemory}, but the prompt only carries the summary plus the messages not yet folded into it.
+ * Once the unsummarized messages outside the verbatim window exceed {@code tokenThreshold}, the summary
+ * is refreshed on a low-priority background executor, so the request path never waits for it.
+ */
+@Slf4j
+public class RollingSummaryChatMemoryAdvisor extends AbstractChatMemoryAdvisor<ChatMemory> implements AutoCloseable {
+
+    private static final String SUMMARY_PREFIX = "Summary of the earlier conversation:\n";
+
+    private static final String SUMMARIZE_INSTRUCTIONS = """
+            You maintain a running summary of a conversation between a user and an assistant.
+            Merge the existing summary with the new messages into one concise summary.
+            Keep facts, names, preferences, decisions and open questions; drop pleasantries.
+            Reply with the summary text only.
+            """;
+
+    private final ChatModel chatModel;
+    private final TokenCountEstimator tokenEstimator;
+    private final int verbatimMessages;
+    private final int tokenThreshold;
+    private final int maxSessions;
+    private final ThreadPoolExecutor summaryExecutor;
+
+    // Access-ordered so the least recently used session state is dropped first
+    private final Map<String, SessionState> sessions = new LinkedHashMap<>(16, 0.75f, true);
+    private final ReentrantLock sessionsLock = new ReentrantLock();
+
+    private final DistributionSummary promptTokens;
+    private final DistributionSummary savedTokens;
+    private final Counter refreshes;
+    private final Counter refreshFailures;
+    private final Counter refreshesRejected;
+
+    public RollingSummaryChatMemoryAdvisor(ChatMemory chatMemory, ChatModel chatModel,
+                                           ChatMemoryProperties properties, MeterRegistry meterRegistry) {
+        this(chatMemory, chatModel, properties, meterRegistry, new JTokkitTokenCountEstimator());
+    }
+
+    public RollingSummaryChatMemoryAdvisor(ChatMemory chatMemory, ChatModel chatModel,
+                                           ChatMemoryProperties properties, MeterRegistry meterRegistry,
+                                           TokenCountEstimator tokenEstimator) {
+        super(chatMemory);
+        ChatMemoryProperties.Summary summary = properties.getSummary();
+        if (summary.getVerbatimTurns() <= 0) {
+            throw new IllegalArgumentException("chat.memory.summary.verbatim-turns must be positive");
+        }
+        this.chatModel = chatModel;
+        this.tokenEstimator = tokenEstimator;
+        // A turn is one user message and one assistant reply
+        this.verbatimMessages = summary.getVerbatimTurns() * 2;
+        this.tokenThreshold = summary.isEnabled() ? summary.getTokenThreshold() : Integer.MAX_VALUE;
+        this.maxSessions = properties.getMaxSessions();
+
+        AtomicInteger threadCount = new AtomicInteger();
+        this.summaryExecutor = new ThreadPoolExecutor(summary.getThreads(), summary.getThreads(),
+                30, TimeUnit.SECONDS, new ArrayBlockingQueue<>(summary.getQueueCapacity()), r -> {
+            Thread thread = new Thread(r, "chat-summary-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            // Summaries are best effort; keep them from competing with request threads
+            thread.setPriority(Thread.MIN_PRIORITY);
+            return thread;
+        }, new ThreadPoolExecutor.AbortPolicy());
+        this.summaryExecutor.allowCoreThreadTimeOut(true);
+
+        this.promptTokens = DistributionSummary.builder("chat.memory.prompt.tokens")
+                .description("Estimated history tokens sent with each prompt")
+                .register(meterRegistry);
+        this.savedTokens = DistributionSummary.builder("chat.memory.prompt.tokens.saved")
+                .description("Estimated history tokens per prompt replaced by the rolling summary")
+                .register(meterRegistry);
+        this.refreshes = Counter.builder("chat.memory.summary.refreshes")
+                .description("Rolling summary refreshes completed")
+                .register(meterRegistry);
+        this.refreshFailures = Counter.builder("chat.memory.summary.failures")
+                .description("Rolling summary refreshes that failed")
+                .register(meterRegistry);
+        this.refreshesRejected = Counter.builder("chat.memory.summary.rejected")
+                .description("Rolling summary refreshes skipped because the executor queue was full")
+                .register(meterRegistry);
+        Gauge.builder("chat.memory.summary.queue", summaryExecutor, e -> e.getQueue().size())
+                .description("Rolling summary refreshes waiting for the background executor")
+                .register(meterRegistry);
+
+        log.info("RollingSummaryChatMemoryAdvisor configured: enabled={}, verbatimTurns={}, tokenThreshold={}",
+                summary.isEnabled(), summary.getVerbatimTurns(), summary.getTokenThreshold());
+    }
+
+    @Override
+    public AdvisedResponse aroundCall(AdvisedRequest advisedRequest, CallAroundAdvisorChain chain) {
+        advisedRequest = before(advisedRequest);
+        AdvisedResponse advisedResponse = chain.nextAroundCall(advisedRequest);
+        observeAfter(advisedResponse);
+        return advisedResponse;
+    }
+
+    @Override
+    public Flux<AdvisedResponse> aroundStream(AdvisedRequest advisedRequest, StreamAroundAdvisorChain chain) {
+        Flux<AdvisedResponse> advisedResponses = doNextWithProtectFromBlockingBefore(advisedRequest, chain, this::before);
+        return new MessageAggregator().aggregateAdvisedResponse(advisedResponses, this::observeAfter);
+    }
+
+    /**
+     * Token usage of the last prompt sent for a session, if the session has been seen.
+     */
+    public Optional<PromptTokenUsage> tokenUsage(String conversationId) {
+        SessionState state;
+        sessionsLock.lock();
+        try {
+            state = sessions.get(conversationId);
+        } finally {
+            sessionsLock.unlock();
+        }
+        if (state == null) {
+            return Optional.empty();
+        }
+        state.lock.lock();
+        try {
+            return Optional.of(new PromptTokenUsage(conversationId, state.lastPromptTokens, state.summaryTokens,
+                    state.foldedTokens, Math.max(0, state.foldedTokens - state.summaryTokens), state.folded));
+        } finally {
+            state.lock.unlock();
+        }
+    }
+
+    @Override
+    public void close() {
+        summaryExecutor.shutdownNow();
+    }
+
+    private AdvisedRequest before(AdvisedRequest advisedRequest) {
+        String conversationId = doGetConversationId(advisedRequest.adviseContext());
+        SessionState state = state(conversationId);
+
+        List<Message> history;
+        String summary;
+        state.lock.lock();
+        try {
+            history = unsummarizedHistory(conversationId, state);
+            summary = state.summary;
+        } finally {
+            state.lock.unlock();
+        }
+
+        List<Message> advisedMessages = new ArrayList<>(advisedRequest.messages());
+        int historyTokens = 0;
+        if (!summary.isEmpty()) {
+            advisedMessages.add(new SystemMessage(SUMMARY_PREFIX + summary));
+            historyTokens += tokenEstimator.estimate(summary);
+        }
+        for (Message message : history) {
+            historyTokens += estimate(message);
+        }
+        advisedMessages.addAll(history);
+
+        int saved;
+        state.lock.lock();
+        try {
+            state.lastPromptTokens = historyTokens + tokenEstimator.estimate(advisedRequest.userText());
+            saved = Math.max(0, state.foldedTokens - state.summaryTokens);
+        } finally {
+            state.lock.unlock();
+        }
+        promptTokens.record(historyTokens);
+        savedTokens.record(saved);
+
+        UserMessage userMessage = new UserMessage(advisedRequest.userText(), advisedRequest.media());
+        getChatMemoryStore().add(conversationId, userMessage);
+        state.lock.lock();
+        try {
+            state.appended++;
+        } finally {
+            state.lock.unlock();
+        }
+        return AdvisedRequest.from(advisedRequest).messages(advisedMessages).build();
+    }
+
+    private void observeAfter(AdvisedResponse advisedResponse) {
+        String conversationId = doGetConversationId(advisedResponse.adviseContext());
+        List<Message> assistantMessages = advisedResponse.response()
+                .getResults()
+                .stream()
+                .map(generation -> (Message) generation.getOutput())
+                .toList();
+        getChatMemoryStore().add(conversationId, assistantMessages);
+
+        SessionState state = state(conversationId);
+        state.lock.lock();
+        try {
+            state.appended += assistantMessages.size();
+        } finally {
+            state.lock.unlock();
+        }
+        maybeRefreshSummary(conversationId, state);
+    }
+
+    /**
+     * Schedules a summary refresh once the messages that fell out of the verbatim window
+     * are worth more than the token threshold.
+     */
+    void maybeRefreshSummary(String conversationId, SessionState state) {
+        List<Message> toFold;
+        String previousSummary;
+        int foldTokens = 0;
+        long generation;
+        state.lock.lock();
+        try {
+            if (state.refreshing) {
+                return;
+            }
+            List<Message> history = unsummarizedHistory(conversationId, state);
+            int foldCount = history.size() - verbatimMessages;
+            if (foldCount <= 0) {
+                return;
+            }
+            toFold = List.copyOf(history.subList(0, foldCount));
+            for (Message message : toFold) {
+                foldTokens += estimate(message);
+            }
+            if (foldTokens < tokenThreshold) {
+                return;
+            }
+            state.refreshing = true;
+            previousSummary = state.summary;
+            generation = state.generation;
+        } finally {
+            state.lock.unlock();
+        }
+
+        int tokens = foldTokens;
+        try {
+            summaryExecutor.execute(() -> refreshSummary(conversationId, state, generation, previousSummary, toFold, tokens));
+        } catch (RejectedExecutionException e) {
+            refreshesRejected.increment();
+            state.lock.lock();
+            try {
+                state.refreshing = false;
+            } finally {
+                state.lock.unlock();
+            }
+            log.debug("Summary refresh for {} skipped, executor saturated", conversationId);
+        }
+    }
+
+    private void refreshSummary(String conversationId, SessionState state, long generation,
+                                String previousSummary, List<Message> toFold, int foldTokens) {
+        try {
+            String summary = summarize(previousSummary, toFold);
+            state.lock.lock();
+            try {
+                // The session was cleared while we were summarizing; the result is stale
+                if (state.generation == generation) {
+                    state.summary = summary;
+                    state.summaryTokens = tokenEstimator.estimate(summary);
+                    state.folded += toFold.size();
+                    state.foldedTokens += foldTokens;
+                }
+            } finally {
+                state.lock.unlock();
+            }
+            refreshes.increment();
+            log.debug("Folded {} messages ({} tokens) of session {} into the rolling summary",
+                    toFold.size(), foldTokens, conversationId);
+        } catch (Exception e) {
+            refreshFailures.increment();
+            log.warn("Failed to refresh rolling summary for session {}", conversationId, e);
+        } finally {
+            state.lock.lock();
+            try {
+                state.refreshing = false;
+            } finally {
+                state.lock.unlock();
+            }
+        }
+    }
+
+    private String summarize(String previousSummary, List<Message> toFold) {
+        StringBuilder transcript = new StringBuilder();
+        if (!previousSummary.isEmpty()) {
+            transcript.append("Existing summary:\n").append(previousSummary).append("\n\n");
+        }
+        transcript.append("New messages:\n");
+        for (Message message : toFold) {
+            transcript.append(message.getMessageType().getValue()).append(": ").append(message.getText()).append('\n');
+        }
+        String summary = chatModel.call(new Prompt(List.of(
+                new SystemMessage(SUMMARIZE_INSTRUCTIONS),
+                new UserMessage(transcript.toString()))))
+                .getResult()
+                .getOutput()
+                .getText();
+        if (summary == null || summary.isBlank()) {
+            throw new IllegalStateException("Model returned an empty summary");
+        }
+        return summary.strip();
+    }
+
+    /**
+     * Reads the messages not yet folded into the summary; guarded by the state's lock.
+     * Reconciles the counters when the store has dropped messages (ring cap) or the whole session (clear, expiry).
+     */
+    private List<Message> unsummarizedHistory(String conversationId, SessionState state) {
+        if (!state.initialized) {
+            // First sight of this session, e.g. after a restart with a durable store
+            state.appended = getChatMemoryStore().get(conversationId, Integer.MAX_VALUE).size();
+            state.initialized = true;
+        }
+        int unsummarized = (int) Math.min(Integer.MAX_VALUE, state.appended - state.folded);
+        if (unsummarized <= 0) {
+            return List.of();
+        }
+        List<Message> history = getChatMemoryStore().get(conversationId, unsummarized);
+        if (history.isEmpty()) {
+            state.reset();
+        } else if (history.size() < unsummarized) {
+            state.folded = state.appended - history.size();
+        }
+        return history;
+    }
+
+    private SessionState state(String conversationId) {
+        sessionsLock.lock();
+        try {
+            SessionState state = sessions.computeIfAbsent(conversationId, id -> new SessionState());
+            if (sessions.size() > maxSessions) {
+                var eldest = sessions.keySet().iterator();
+                eldest.next();
+                eldest.remove();
+            }
+            return state;
+        } finally {
+            sessionsLock.unlock();
+        }
+    }
+
+    private int estimate(Message message) {
+        String text = message.getText();
+        return text == null ? 0 : tokenEstimator.estimate(text);
+    }
+
+    /**
+     * Per-session bookkeeping; every field is guarded by {@code lock}.
+     * Locks rather than monitors, because the store is read while holding it and a
+     * virtual thread blocking inside a synchronized block would pin its carrier.
+     */
+    static final class SessionState {
+
+        private final ReentrantLock lock = new ReentrantLock();
+
+        private boolean initialized;
+        // Messages written to the store through this advisor, and how many of the oldest are folded into the summary
+        private long appended;
+        private long folded;
+        private String summary = "";
+        private int summaryTokens;
+        private int foldedTokens;
+        private int lastPromptTokens;
+        private boolean refreshing;
+        // Bumped on reset so in-flight refreshes for a cleared session are discarded
+        private long generation;
+
+        void reset() {
+            appended = 0;
+            folded = 0;
+            summary = "";
+            summaryTokens = 0;
+            foldedTokens = 0;
+            generation++;
+        }
+    }
+}
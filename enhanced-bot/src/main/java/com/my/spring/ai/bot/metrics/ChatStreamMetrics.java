@@ -0,0 +1,86 @@
+package com.my.spring.ai.bot.metrics;
+
+import com.my.spring.ai.bot.deadline.Deadline;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Records time-to-first-token and tokens/sec for streamed chat responses, counting each chunk as one token.
+ * A stream the client abandons is counted in {@code llm.requests.cancelled}, unless its deadline had passed.
+ */
+@Component
+public class ChatStreamMetrics {
+
+    // By endpoint
+    private final MeterCache<String, Timer> firstTokens;
+    private final MeterCache<String, DistributionSummary> tokenCounts;
+    private final MeterCache<String, DistributionSummary> tokensPerSecond;
+    private final MeterCache<String, Counter> cancellations;
+
+    public ChatStreamMetrics(MeterRegistry meterRegistry) {
+        this.firstTokens = new MeterCache<>(endpoint -> Timer.builder("chat.stream.time.to.first.token")
+                .description("Time from request to the first streamed token")
+                .tag("endpoint", endpoint)
+                .publishPercentileHistogram()
+                .register(meterRegistry));
+        this.tokenCounts = new MeterCache<>(endpoint -> DistributionSummary.builder("chat.stream.tokens")
+                .description("Tokens streamed per response")
+                .tag("endpoint", endpoint)
+                .register(meterRegistry));
+        this.tokensPerSecond = new MeterCache<>(endpoint -> DistributionSummary.builder("chat.stream.tokens.per.second")
+                .description("Streaming generation rate after the first token")
+                .tag("endpoint", endpoint)
+                .register(meterRegistry));
+        this.cancellations = new MeterCache<>(endpoint -> Counter.builder("llm.requests.cancelled")
+                .description("Requests whose model work was cancelled because the client disconnected")
+                .tag("endpoint", endpoint)
+                .register(meterRegistry));
+    }
+
+    /**
+     * Wraps a token stream so its timings are recorded when it is subscribed to.
+     * Call it on the request's thread, so a cancel after the request's deadline is not counted.
+     *
+     * @param endpoint tag value identifying the calling endpoint, e.g. "chat" or "mcp-chat"
+     * @param tokens   the token stream from the model
+     * @return the same stream, instrumented
+     */
+    public Flux<String> record(String endpoint, Flux<String> tokens) {
+        Deadline deadline = Deadline.current();
+        Timer firstToken = firstTokens.get(endpoint);
+        return Flux.defer(() -> {
+            long start = System.nanoTime();
+            AtomicLong firstTokenAt = new AtomicLong();
+            AtomicLong count = new AtomicLong();
+            return tokens
+                    .doOnNext(token -> {
+                        if (count.getAndIncrement() == 0) {
+                            long now = System.nanoTime();
+                            firstTokenAt.set(now);
+                            firstToken.record(Duration.ofNanos(now - start));
+                        }
+                    })
+                    .doOnComplete(() -> {
+                        long tokenCount = count.get();
+                        tokenCounts.get(endpoint).record(tokenCount);
+                        long generationNanos = System.nanoTime() - firstTokenAt.get();
+                        if (tokenCount > 1 && generationNanos > 0) {
+                            tokensPerSecond.get(endpoint).record((tokenCount - 1) / (generationNanos / 1_000_000_000.0));
+                        }
+                    })
+                    .doOnCancel(() -> {
+                        if (deadline != null && deadline.isExpired()) {
+                            return;
+                        }
+                        cancellations.get(endpoint).increment();
+                    });
+        });
+    }
+}
@@ -0,0 +1,249 @@
+package com.my.spring.ai.bot.metrics;
+
+import com.my.spring.ai.bot.admission.AdmissionControl;
+import com.my.spring.ai.bot.admission.EndpointClass;
+import com.my.spring.ai.bot.config.LlmCallLoggingProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.ai.chat.client.advisor.api.AdvisedRequest;
+import org.springframework.ai.chat.client.advisor.api.AdvisedResponse;
+import org.springframework.ai.chat.client.advisor.api.CallAroundAdvisor;
+import org.springframework.ai.chat.client.advisor.api.CallAroundAdvisorChain;
+import org.springframework.ai.chat.client.advisor.api.StreamAroundAdvisor;
+import org.springframework.ai.chat.client.advisor.api.StreamAroundAdvisorChain;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.Ordered;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.springframework.ai.chat.client.advisor.AbstractChatMemoryAdvisor.CHAT_MEMORY_CONVERSATION_ID_KEY;
+
+/**
+ * Writes one compact JSON line per ChatClient call to the {@code llm.calls} logger.
+ *
+ * Ordinary calls are sampled at {@code sampleRate}; slow and failed calls are always logged. Bodies
+ * longer than {@code maxBodyLength} are truncated or replaced by a digest. When logging is disabled,
+ * by property or by the logger level, calls pass straight through: no timing, no wrapping of streams
+ * and no event is built. The production logback profile sends {@code llm.calls} to its own
+ * non-blocking appender, so a slow disk never holds up a model call.
+ *
+ * Runs first in the advisor chain, so it sees the user's own text (before retrieval adds context)
+ * and times the whole call as the client sees it.
+ */
+@Component
+public class LlmCallLoggingAdvisor implements CallAroundAdvisor, StreamAroundAdvisor {
+
+    private static final Logger CALL_LOG = LoggerFactory.getLogger("llm.calls");
+
+    private final Logger callLog;
+    private final boolean enabled;
+    private final double sampleRate;
+    private final long slowThresholdNanos;
+    private final boolean includeBodies;
+    private final int maxBodyLength;
+    private final LlmCallLoggingProperties.Overflow overflow;
+
+    @Autowired
+    public LlmCallLoggingAdvisor(LlmCallLoggingProperties properties) {
+        this(properties, CALL_LOG);
+    }
+
+    LlmCallLoggingAdvisor(LlmCallLoggingProperties properties, Logger callLog) {
+        this.callLog = callLog;
+        this.enabled = properties.isEnabled();
+        this.sampleRate = properties.getSampleRate();
+        this.slowThresholdNanos = properties.getSlowThreshold().toNanos();
+        this.includeBodies = properties.isIncludeBodies();
+        this.maxBodyLength = properties.getMaxBodyLength();
+        this.overflow = properties.getOverflow();
+    }
+
+    @Override
+    public String getName() {
+        return "LlmCallLoggingAdvisor";
+    }
+
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE;
+    }
+
+    @Override
+    public AdvisedResponse aroundCall(AdvisedRequest advisedRequest, CallAroundAdvisorChain chain) {
+        if (!enabled || !callLog.isInfoEnabled()) {
+            return chain.nextAroundCall(advisedRequest);
+        }
+        boolean sampled = sampled();
+        EndpointClass endpoint = AdmissionControl.current();
+        long start = System.nanoTime();
+        AdvisedResponse response;
+        try {
+            response = chain.nextAroundCall(advisedRequest);
+        } catch (RuntimeException e) {
+            log("error", endpoint, "call", advisedRequest, null, null, System.nanoTime() - start, -1, e);
+            throw e;
+        }
+        long elapsed = System.nanoTime() - start;
+        if (elapsed >= slowThresholdNanos) {
+            log("slow", endpoint, "call", advisedRequest, response.response(), text(response.response()), elapsed, -1, null);
+        } else if (sampled) {
+            log("sampled", endpoint, "call", advisedRequest, response.response(), text(response.response()), elapsed, -1, null);
+        }
+        return response;
+    }
+
+    @Override
+    public Flux<AdvisedResponse> aroundStream(AdvisedRequest advisedRequest, StreamAroundAdvisorChain chain) {
+        if (!enabled || !callLog.isInfoEnabled()) {
+            return chain.nextAroundStream(advisedRequest);
+        }
+        return Flux.deferContextual(context -> {
+            boolean sampled = sampled();
+            EndpointClass endpoint = AdmissionControl.current(context);
+            long start = System.nanoTime();
+            AtomicLong firstChunkAt = new AtomicLong();
+            AtomicReference<ChatResponse> last = new AtomicReference<>();
+            // The completion is only assembled when the event will carry it
+            StringBuilder completion = includeBodies ? new StringBuilder() : null;
+            AtomicBoolean logged = new AtomicBoolean();
+            return chain.nextAroundStream(advisedRequest)
+                    .doOnNext(response -> {
+                        firstChunkAt.compareAndSet(0, System.nanoTime());
+                        last.set(response.response());
+                        if (completion != null) {
+                            String chunk = text(response.response());
+                            if (chunk != null) {
+                                completion.append(chunk);
+                            }
+                        }
+                    })
+                    .doOnComplete(() -> {
+                        long elapsed = System.nanoTime() - start;
+                        if ((elapsed >= slowThresholdNanos || sampled) && logged.compareAndSet(false, true)) {
+                            long ttft = firstChunkAt.get() == 0 ? -1 : firstChunkAt.get() - start;
+                            log(elapsed >= slowThresholdNanos ? "slow" : "sampled", endpoint, "stream", advisedRequest,
+                                    last.get(), completion == null ? null : completion.toString(), elapsed, ttft, null);
+                        }
+                    })
+                    .doOnError(e -> {
+                        if (logged.compareAndSet(false, true)) {
+                            long ttft = firstChunkAt.get() == 0 ? -1 : firstChunkAt.get() - start;
+                            log("error", endpoint, "stream", advisedRequest, last.get(), null,
+                                    System.nanoTime() - start, ttft, e);
+                        }
+                    });
+        });
+    }
+
+    private boolean sampled() {
+        return sampleRate >= 1.0 || (sampleRate > 0 && ThreadLocalRandom.current().nextDouble() < sampleRate);
+    }
+
+    private void log(String reason, EndpointClass endpoint, String mode, AdvisedRequest request,
+                     ChatResponse response, String completion, long elapsedNanos, long ttftNanos, Throwable error) {
+        LlmUsage usage = LlmUsage.of(response).withDefaultModel(
+                request.chatOptions() == null ? null : request.chatOptions().getModel());
+        StringBuilder json = new StringBuilder(256 + (includeBodies ? 2 * maxBodyLength : 0));
+        json.append('{');
+        field(json, "ts", Instant.now().toString());
+        field(json, "event", "llm_call");
+        field(json, "reason", reason);
+        field(json, "endpoint", endpoint == null ? "other" : endpoint.tag());
+        field(json, "mode", mode);
+        field(json, "model", usage.model());
+        Object conversationId = request.adviseContext() == null ? null
+                : request.adviseContext().get(CHAT_MEMORY_CONVERSATION_ID_KEY);
+        field(json, "conversationId", conversationId == null ? null : conversationId.toString());
+        field(json, "outcome", error == null ? "success" : "error");
+        field(json, "durationMs", elapsedNanos / 1_000_000);
+        if (ttftNanos >= 0) {
+            field(json, "ttftMs", ttftNanos / 1_000_000);
+        }
+        field(json, "promptTokens", usage.promptTokens());
+        field(json, "completionTokens", usage.completionTokens());
+        String userText = request.userText();
+        field(json, "userLength", userText == null ? null : userText.length());
+        if (includeBodies) {
+            field(json, "user", body(userText));
+            field(json, "completion", body(completion));
+        }
+        if (error != null) {
+            field(json, "error", error.getClass().getSimpleName());
+        }
+        json.setLength(json.length() - 1);
+        json.append('}');
+        callLog.info(json.toString());
+    }
+
+    String body(String text) {
+        if (text == null || text.length() <= maxBodyLength) {
+            return text;
+        }
+        if (overflow == LlmCallLoggingProperties.Overflow.HASH) {
+            return "sha256:" + sha256(text) + " (" + text.length() + " chars)";
+        }
+        return text.substring(0, maxBodyLength) + "... (" + text.length() + " chars)";
+    }
+
+    private static String text(ChatResponse response) {
+        if (response == null || response.getResult() == null || response.getResult().getOutput() == null) {
+            return null;
+        }
+        return response.getResult().getOutput().getText();
+    }
+
+    private static void field(StringBuilder json, String name, Object value) {
+        if (value == null) {
+            return;
+        }
+        json.append('"').append(name).append("\":");
+        if (value instanceof Number) {
+            json.append(value);
+        } else {
+            json.append('"');
+            escape(json, value.toString());
+            json.append('"');
+        }
+        json.append(',');
+    }
+
+    private static void escape(StringBuilder json, String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> json.append("\\\"");
+                case '\\' -> json.append("\\\\");
+                case '\n' -> json.append("\\n");
+                case '\r' -> json.append("\\r");
+                case '\t' -> json.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        json.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        json.append(c);
+                    }
+                }
+            }
+        }
+    }
+
+    private static String sha256(String text) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(text.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest, 0, 16);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
@@ -0,0 +1,195 @@
+package com.my.spring.ai.bot.metrics;
+
+import com.my.spring.ai.bot.admission.AdmissionControl;
+import com.my.spring.ai.bot.admission.EndpointClass;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.ai.chat.client.advisor.api.AdvisedRequest;
+import org.springframework.ai.chat.client.advisor.api.AdvisedResponse;
+import org.springframework.ai.chat.client.advisor.api.CallAroundAdvisor;
+import org.springframework.ai.chat.client.advisor.api.CallAroundAdvisorChain;
+import org.springframework.ai.chat.client.advisor.api.StreamAroundAdvisor;
+import org.springframework.ai.chat.client.advisor.api.StreamAroundAdvisorChain;
+import org.springframework.core.Ordered;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Records latency, time-to-first-token, token counts and tokens/sec for every {@code ChatClient} call.
+ *
+ * Meters are tagged with the endpoint class of the call (chat, mcp-chat, qa, generate, voice), taken
+ * from {@link AdmissionControl#current()}, and with the model name the response reports. Token counts
+ * come from the response's usage metadata; responses without usage are timed but not counted. For a
+ * blocking call, tokens/sec is taken over the whole call; for a stream, over the time after the first
+ * chunk, since the wait for the first chunk is prompt processing.
+ */
+@Component
+public class LlmCallMetricsAdvisor implements CallAroundAdvisor, StreamAroundAdvisor {
+
+    // Next to the model, after memory and retrieval advisors, so that it times the model call alone
+    private static final int ORDER = Ordered.LOWEST_PRECEDENCE - 1000;
+    private static final String UNKNOWN = "unknown";
+
+    private final MeterCache<Call, Timer> durations;
+    private final MeterCache<Model, Timer> firstTokens;
+    private final MeterCache<Tokens, DistributionSummary> tokens;
+    private final MeterCache<Rate, DistributionSummary> tokensPerSecond;
+
+    public LlmCallMetricsAdvisor(MeterRegistry meterRegistry) {
+        this.durations = new MeterCache<>(call -> Timer.builder("llm.call.duration")
+                .description("Duration of a model call through ChatClient")
+                .tag("endpoint", call.endpoint())
+                .tag("model", call.model())
+                .tag("mode", call.mode())
+                .tag("outcome", call.outcome())
+                .publishPercentileHistogram()
+                .register(meterRegistry));
+        this.firstTokens = new MeterCache<>(model -> Timer.builder("llm.time.to.first.token")
+                .description("Time from a streamed model call to its first chunk")
+                .tag("endpoint", model.endpoint())
+                .tag("model", model.model())
+                .publishPercentileHistogram()
+                .register(meterRegistry));
+        this.tokens = new MeterCache<>(tokens -> DistributionSummary.builder("llm.tokens")
+                .description("Tokens per model call, by prompt and completion")
+                .baseUnit("tokens")
+                .tag("endpoint", tokens.endpoint())
+                .tag("model", tokens.model())
+                .tag("type", tokens.type())
+                .publishPercentileHistogram()
+                .register(meterRegistry));
+        this.tokensPerSecond = new MeterCache<>(rate -> DistributionSummary.builder("llm.tokens.per.second")
+                .description("Completion tokens generated per second")
+                .tag("endpoint", rate.endpoint())
+                .tag("model", rate.model())
+                .tag("mode", rate.mode())
+                .publishPercentileHistogram()
+                .register(meterRegistry));
+    }
+
+    @Override
+    public String getName() {
+        return "LlmCallMetricsAdvisor";
+    }
+
+    @Override
+    public int getOrder() {
+        return ORDER;
+    }
+
+    @Override
+    public AdvisedResponse aroundCall(AdvisedRequest advisedRequest, CallAroundAdvisorChain chain) {
+        String endpoint = tag(AdmissionControl.current());
+        long start = System.nanoTime();
+        AdvisedResponse response;
+        try {
+            response = chain.nextAroundCall(advisedRequest);
+        } catch (RuntimeException e) {
+            recordDuration(endpoint, requestedModel(advisedRequest), "call", "error", System.nanoTime() - start);
+            throw e;
+        }
+        long elapsed = System.nanoTime() - start;
+        LlmUsage usage = LlmUsage.of(response.response()).withDefaultModel(requestedModel(advisedRequest));
+        recordDuration(endpoint, usage.model(), "call", "success", elapsed);
+        recordTokens(endpoint, "call", usage, elapsed);
+        return response;
+    }
+
+    @Override
+    public Flux<AdvisedResponse> aroundStream(AdvisedRequest advisedRequest, StreamAroundAdvisorChain chain) {
+        return Flux.deferContextual(context -> {
+            String endpoint = tag(AdmissionControl.current(context));
+            long start = System.nanoTime();
+            AtomicLong firstChunkAt = new AtomicLong();
+            // Ollama reports the model on every chunk but usage only on the last one
+            AtomicReference<String> model = new AtomicReference<>(requestedModel(advisedRequest));
+            AtomicReference<LlmUsage> usage = new AtomicReference<>(LlmUsage.UNKNOWN);
+            AtomicBoolean recorded = new AtomicBoolean();
+            return chain.nextAroundStream(advisedRequest)
+                    .doOnNext(response -> {
+                        firstChunkAt.compareAndSet(0, System.nanoTime());
+                        LlmUsage chunk = LlmUsage.of(response.response());
+                        if (chunk.model() != null) {
+                            model.set(chunk.model());
+                        }
+                        if (chunk.totalTokens() != null) {
+                            usage.set(chunk);
+                        }
+                    })
+                    .doOnComplete(() -> {
+                        if (recorded.compareAndSet(false, true)) {
+                            long end = System.nanoTime();
+                            String modelName = model.get();
+                            recordDuration(endpoint, modelName, "stream", "success", end - start);
+                            if (firstChunkAt.get() != 0) {
+                                firstTokens.get(new Model(endpoint, orUnknown(modelName)))
+                                        .record(Duration.ofNanos(firstChunkAt.get() - start));
+                                LlmUsage reported = usage.get();
+                                recordTokens(endpoint, "stream",
+                                        new LlmUsage(modelName, reported.promptTokens(), reported.completionTokens()),
+                                        end - firstChunkAt.get());
+                            }
+                        }
+                    })
+                    .doOnError(e -> {
+                        if (recorded.compareAndSet(false, true)) {
+                            recordDuration(endpoint, model.get(), "stream", "error", System.nanoTime() - start);
+                        }
+                    })
+                    .doOnCancel(() -> {
+                        if (recorded.compareAndSet(false, true)) {
+                            recordDuration(endpoint, model.get(), "stream", "cancelled", System.nanoTime() - start);
+                        }
+                    });
+        });
+    }
+
+    private void recordDuration(String endpoint, String model, String mode, String outcome, long nanos) {
+        durations.get(new Call(endpoint, orUnknown(model), mode, outcome)).record(Duration.ofNanos(nanos));
+    }
+
+    private void recordTokens(String endpoint, String mode, LlmUsage usage, long generationNanos) {
+        String model = orUnknown(usage.model());
+        if (usage.promptTokens() != null) {
+            tokens.get(new Tokens(endpoint, model, "prompt")).record(usage.promptTokens());
+        }
+        if (usage.completionTokens() != null) {
+            tokens.get(new Tokens(endpoint, model, "completion")).record(usage.completionTokens());
+            if (generationNanos > 0) {
+                tokensPerSecond.get(new Rate(endpoint, model, mode))
+                        .record(usage.completionTokens() / (generationNanos / 1_000_000_000.0));
+            }
+        }
+    }
+
+    private static String orUnknown(String model) {
+        return model == null ? UNKNOWN : model;
+    }
+
+    private static String requestedModel(AdvisedRequest request) {
+        return request.chatOptions() == null ? null : request.chatOptions().getModel();
+    }
+
+    private static String tag(EndpointClass endpointClass) {
+        return endpointClass == null ? "other" : endpointClass.tag();
+    }
+
+    // Tag values of the meters
+    private record Call(String endpoint, String model, String mode, String outcome) {
+    }
+
+    private record Rate(String endpoint, String model, String mode) {
+    }
+
+    private record Model(String endpoint, String model) {
+    }
+
+    private record Tokens(String endpoint, String model, String type) {
+    }
+}
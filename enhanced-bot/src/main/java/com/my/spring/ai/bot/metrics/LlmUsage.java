@@ -0,0 +1,52 @@
+package com.my.spring.ai.bot.metrics;
+
+import org.springframework.ai.chat.metadata.ChatResponseMetadata;
+import org.springframework.ai.chat.metadata.Usage;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.util.StringUtils;
+
+/**
+ * Model name and token counts reported in a {@link ChatResponse}'s metadata.
+ *
+ * Fields are null when the model did not report them; Spring AI fills in an empty usage of zero
+ * tokens in that case, which is not the same as a free call.
+ */
+public record LlmUsage(String model, Integer promptTokens, Integer completionTokens) {
+
+    public static final LlmUsage UNKNOWN = new LlmUsage(null, null, null);
+
+    public static LlmUsage of(ChatResponse response) {
+        if (response == null || response.getMetadata() == null) {
+            return UNKNOWN;
+        }
+        ChatResponseMetadata metadata = response.getMetadata();
+        String model = StringUtils.hasText(metadata.getModel()) ? metadata.getModel() : null;
+        Usage usage = metadata.getUsage();
+        if (usage == null || (positive(usage.getPromptTokens()) == null
+                && positive(usage.getCompletionTokens()) == null)) {
+            return new LlmUsage(model, null, null);
+        }
+        return new LlmUsage(model, positive(usage.getPromptTokens()), positive(usage.getCompletionTokens()));
+    }
+
+    /**
+     * Prompt plus completion tokens, or null when the model reported neither.
+     */
+    public Integer totalTokens() {
+        if (promptTokens == null && completionTokens == null) {
+            return null;
+        }
+        return (promptTokens == null ? 0 : promptTokens) + (completionTokens == null ? 0 : completionTokens);
+    }
+
+    /**
+     * This usage with the model name filled in from {@code defaultModel} when the response had none.
+     */
+    public LlmUsage withDefaultModel(String defaultModel) {
+        return model != null ? this : new LlmUsage(defaultModel, promptTokens, completionTokens);
+    }
+
+    private static Integer positive(Integer tokens) {
+        return tokens == null || tokens <= 0 ? null : tokens;
+    }
+}
@@ -0,0 +1,33 @@
+package com.my.spring.ai.bot.metrics;
+
+import io.micrometer.core.instrument.Meter;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * The meters of one name, one per combination of tag values, each registered the first time it is needed.
+ *
+ * Building and registering a meter for every recording allocates a builder, its tags and its id, and
+ * looks the id up in the registry; on a hot path the meter is looked up here by its tag values instead.
+ *
+ * @param <K> the tag values: a String for a single tag, a record for several
+ * @param <M> the meter type
+ */
+public final class MeterCache<K, M extends Meter> {
+
+    private final ConcurrentHashMap<K, M> meters = new ConcurrentHashMap<>();
+    private final Function<? super K, ? extends M> register;
+
+    /**
+     * @param register builds and registers the meter for the given tag values
+     */
+    public MeterCache(Function<? super K, ? extends M> register) {
+        this.register = register;
+    }
+
+    public M get(K tags) {
+        M meter = meters.get(tags);
+        return meter != null ? meter : meters.computeIfAbsent(tags, register);
+    }
+}
@@ -0,0 +1,65 @@
+package com.my.spring.ai.bot.prompt;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import org.springframework.ai.chat.prompt.PromptTemplate;
+import org.stringtemplate.v4.ST;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.CRC32;
+
+/**
+ * A prompt template parsed once and rendered many times.
+ *
+ * Spring AI's {@link PromptTemplate} re-reads and re-parses its source for every instance and mutates
+ * its single StringTemplate on render, so it can be neither cached nor shared. Here the template is
+ * compiled into a prototype whose variables are all declared up front; each render copies the prototype,
+ * which shares the compiled bytecode and only allocates the attribute slots, so concurrent renders are safe.
+ */
+@Getter
+public final class CompiledPromptTemplate {
+
+    private final String name;
+    private final String source;
+    // Changes whenever the template text does; part of response cache keys
+    private final String version;
+    private final Set<String> variables;
+    @Getter(AccessLevel.NONE)
+    private final ST prototype;
+
+    public CompiledPromptTemplate(String name, String source) {
+        this.name = name;
+        this.source = source;
+        this.variables = Set.copyOf(new PromptTemplate(source).getInputVariables());
+        this.prototype = new ST(source, '{', '}');
+        for (String variable : variables) {
+            // Declares the attribute on the shared compiled template, then leaves its slot empty
+            prototype.add(variable, null);
+            prototype.remove(variable);
+        }
+        CRC32 crc = new CRC32();
+        crc.update(source.getBytes(StandardCharsets.UTF_8));
+        this.version = Long.toHexString(crc.getValue());
+    }
+
+    /**
+     * Renders the template with the given variables.
+     *
+     * @throws IllegalArgumentException when a variable used by the template is missing
+     */
+    public String render(Map<String, Object> model) {
+        for (String variable : variables) {
+            if (model.get(variable) == null) {
+                throw new IllegalArgumentException(
+                        "Missing variable '" + variable + "' for prompt template '" + name + "'");
+            }
+        }
+        ST st = new ST(prototype);
+        for (String variable : variables) {
+            st.add(variable, model.get(variable));
+        }
+        return st.render();
+    }
+}
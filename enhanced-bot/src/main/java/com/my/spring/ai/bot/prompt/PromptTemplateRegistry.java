@@ -0,0 +1,228 @@
+package com.my.spring.ai.bot.prompt;
+
+import com.my.spring.ai.bot.config.PromptTemplateProperties;
+import com.my.spring.ai.bot.exception.PromptTemplateNotFoundException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.core.io.support.ResourcePatternResolver;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+/**
+ * Named prompt templates, compiled once and shared by every request.
+ *
+ * Templates are the bundled {@code classpath:/prompts/*.st} files plus, optionally, the {@code *.st} files
+ * of {@code prompt.templates.directory}, which win on name clashes. The directory is polled for changes;
+ * only templates whose text changed are recompiled, and the new set is swapped in atomically. A template
+ * that fails to compile keeps serving its previous version.
+ */
+@Slf4j
+@Component
+public class PromptTemplateRegistry implements AutoCloseable {
+
+    static final String EXTENSION = ".st";
+    private static final String CLASSPATH_PATTERN = "classpath*:/prompts/*" + EXTENSION;
+
+    private final ResourcePatternResolver resourceResolver = new PathMatchingResourcePatternResolver();
+    private final Path directory;
+    private final String defaultTemplate;
+    private final ScheduledExecutorService watcher;
+
+    private volatile Map<String, CompiledPromptTemplate> templates = Map.of();
+    private final ReentrantLock reloadLock = new ReentrantLock();
+    // Name -> last modified time and size of the directory files seen by the previous scan
+    private Map<String, List<Long>> directoryFingerprint = Map.of();
+
+    private final Counter reloads;
+    private final Counter reloadFailures;
+
+    public PromptTemplateRegistry(PromptTemplateProperties properties, MeterRegistry meterRegistry) {
+        this.directory = StringUtils.hasText(properties.getDirectory()) ? Path.of(properties.getDirectory()) : null;
+        this.defaultTemplate = properties.getDefaultTemplate();
+
+        this.reloads = Counter.builder("prompt.templates.reloads")
+                .description("Prompt templates recompiled after their file changed")
+                .register(meterRegistry);
+        this.reloadFailures = Counter.builder("prompt.templates.reload.failures")
+                .description("Prompt templates that failed to load or compile")
+                .register(meterRegistry);
+        Gauge.builder("prompt.templates.loaded", this, r -> r.templates.size())
+                .description("Prompt templates available to requests")
+                .register(meterRegistry);
+
+        reload();
+        if (!templates.containsKey(defaultTemplate)) {
+            throw new IllegalStateException("Default prompt template '" + defaultTemplate + "' not found");
+        }
+
+        long reloadMillis = properties.getReloadInterval().toMillis();
+        if (directory != null && reloadMillis > 0) {
+            this.watcher = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread thread = new Thread(r, "prompt-template-watcher");
+                thread.setDaemon(true);
+                return thread;
+            });
+            this.watcher.scheduleWithFixedDelay(this::reloadQuietly, reloadMillis, reloadMillis, TimeUnit.MILLISECONDS);
+        } else {
+            this.watcher = null;
+        }
+
+        log.info("PromptTemplateRegistry configured: templates={}, directory={}, reloadInterval={}",
+                templates.keySet(), directory, properties.getReloadInterval());
+    }
+
+    /**
+     * Returns the named template, or the default one when the name is blank.
+     *
+     * @throws PromptTemplateNotFoundException when no template has that name
+     */
+    public CompiledPromptTemplate get(String name) {
+        String templateName = StringUtils.hasText(name) ? name : defaultTemplate;
+        CompiledPromptTemplate template = templates.get(templateName);
+        if (template == null) {
+            throw new PromptTemplateNotFoundException("Prompt template not found: " + templateName);
+        }
+        return template;
+    }
+
+    public Set<String> names() {
+        return templates.keySet();
+    }
+
+    /**
+     * Rescans the bundled templates and the directory, recompiling what changed.
+     * Does nothing when the directory looks exactly as it did on the previous scan.
+     */
+    public void reload() {
+        reloadLock.lock();
+        try {
+            Map<String, List<Long>> fingerprint = fingerprintDirectory();
+            if (!templates.isEmpty() && fingerprint.equals(directoryFingerprint)) {
+                return;
+            }
+            Map<String, String> sources = new TreeMap<>(readClasspathTemplates());
+            sources.putAll(readDirectoryTemplates(fingerprint.keySet()));
+
+            Map<String, CompiledPromptTemplate> previous = templates;
+            Map<String, CompiledPromptTemplate> next = new HashMap<>();
+            sources.forEach((name, source) -> {
+                CompiledPromptTemplate current = previous.get(name);
+                if (current != null && current.getSource().equals(source)) {
+                    next.put(name, current);
+                    return;
+                }
+                try {
+                    next.put(name, new CompiledPromptTemplate(name, source));
+                    if (current != null) {
+                        reloads.increment();
+                        log.info("Reloaded prompt template '{}'", name);
+                    }
+                } catch (RuntimeException e) {
+                    reloadFailures.increment();
+                    log.warn("Failed to compile prompt template '{}', keeping the previous version", name, e);
+                    if (current != null) {
+                        next.put(name, current);
+                    }
+                }
+            });
+            templates = Map.copyOf(next);
+            directoryFingerprint = fingerprint;
+        } finally {
+            reloadLock.unlock();
+        }
+    }
+
+    @Override
+    public void close() {
+        if (watcher != null) {
+            watcher.shutdownNow();
+        }
+    }
+
+    private void reloadQuietly() {
+        try {
+            reload();
+        } catch (Exception e) {
+            reloadFailures.increment();
+            log.warn("Failed to reload prompt templates from {}", directory, e);
+        }
+    }
+
+    private Map<String, String> readClasspathTemplates() {
+        Map<String, String> sources = new HashMap<>();
+        try {
+            for (Resource resource : resourceResolver.getResources(CLASSPATH_PATTERN)) {
+                String filename = resource.getFilename();
+                if (filename != null) {
+                    sources.put(templateName(filename), resource.getContentAsString(StandardCharsets.UTF_8));
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read bundled prompt templates", e);
+        }
+        return sources;
+    }
+
+    private Map<String, String> readDirectoryTemplates(Set<String> names) {
+        Map<String, String> sources = new HashMap<>();
+        for (String name : names) {
+            try {
+                sources.put(name, Files.readString(directory.resolve(name + EXTENSION), StandardCharsets.UTF_8));
+            } catch (IOException e) {
+                // Deleted or unreadable since the scan; the bundled version, if any, stays in place
+                reloadFailures.increment();
+                log.warn("Failed to read prompt template '{}' from {}", name, directory, e);
+            }
+        }
+        return sources;
+    }
+
+    private Map<String, List<Long>> fingerprintDirectory() {
+        if (directory == null || !Files.isDirectory(directory)) {
+            return Map.of();
+        }
+        Map<String, List<Long>> fingerprint = new HashMap<>();
+        try (Stream<Path> files = Files.list(directory)) {
+            files.filter(file -> file.getFileName().toString().endsWith(EXTENSION))
+                    .forEach(file -> {
+                        try {
+                            BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+                            if (attributes.isRegularFile()) {
+                                fingerprint.put(templateName(file.getFileName().toString()),
+                                        List.of(attributes.lastModifiedTime().toMillis(), attributes.size()));
+                            }
+                        } catch (IOException e) {
+                            log.debug("Skipping unreadable prompt template {}", file, e);
+                        }
+                    });
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to list prompt templates in " + directory, e);
+        }
+        return fingerprint;
+    }
+
+    private static String templateName(String filename) {
+        return filename.substring(0, filename.length() - EXTENSION.length());
+    }
+}
@@ -0,0 +1,406 @@
+package com.my.spring.ai.bot.resilience;
+
+import com.my.spring.ai.bot.config.CircuitBreakerProperties;
+import com.my.spring.ai.bot.exception.ServiceUnavailableException;
+import com.my.spring.ai.bot.exception.TooManyRequestsException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.ai.retry.NonTransientAiException;
+import org.springframework.web.client.RestClientResponseException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Circuit breaker for one dependency (Ollama, Chroma, Whisper, Kokoro).
+ *
+ * While CLOSED every call goes through and its outcome lands in a window of the most recent calls;
+ * once the window holds {@code minimumCalls} and the failure rate reaches the threshold the circuit
+ * OPENs and calls fail at once with {@link ServiceUnavailableException} (or go to a fallback) instead
+ * of each waiting out the dependency's timeout. After {@code openDuration} the circuit is HALF_OPEN:
+ * {@code halfOpenProbes} calls are let through, and if all succeed it closes again, while any failure
+ * reopens it for another {@code openDuration}.
+ *
+ * Only failures that say something about the dependency's health count: client errors (4xx, invalid
+ * input) show the dependency is up, rejections by admission control or another breaker never
+ * reached it, and calls cut short by their caller's deadline or cancellation say nothing either way.
+ */
+@Slf4j
+public class CircuitBreaker {
+
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    // Retry-After for calls turned away while the half-open probes are still running
+    private static final Duration PROBE_RETRY_AFTER = Duration.ofSeconds(1);
+
+    private final String name;
+    private final boolean enabled;
+    private final int minimumCalls;
+    private final double failureRateThreshold;
+    private final Duration openDuration;
+    private final int halfOpenProbes;
+    private final Clock clock;
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    // Guarded by lock. outcomes is a ring of the most recent calls, true for a failure
+    private State state = State.CLOSED;
+    private final boolean[] outcomes;
+    private int recorded;
+    private int next;
+    private int failures;
+    private Instant openUntil = Instant.MIN;
+    private int probesStarted;
+    private int probesSucceeded;
+    // Bumped on every transition, so calls admitted in an earlier state do not count in the current one
+    private long generation;
+
+    private final Counter successes;
+    private final Counter failuresCounter;
+    private final Counter rejections;
+    private final MeterRegistry meterRegistry;
+
+    public CircuitBreaker(String name, CircuitBreakerProperties.Breaker properties, boolean enabled,
+                          MeterRegistry meterRegistry) {
+        this(name, properties, enabled, meterRegistry, Clock.systemUTC());
+    }
+
+    CircuitBreaker(String name, CircuitBreakerProperties.Breaker properties, boolean enabled,
+                   MeterRegistry meterRegistry, Clock clock) {
+        if (properties.getWindowSize() <= 0 || properties.getMinimumCalls() <= 0
+                || properties.getMinimumCalls() > properties.getWindowSize() || properties.getHalfOpenProbes() <= 0) {
+            throw new IllegalArgumentException("circuit breaker " + name
+                    + " needs 0 < minimum-calls <= window-size and half-open-probes > 0");
+        }
+        this.name = name;
+        this.enabled = enabled;
+        this.minimumCalls = properties.getMinimumCalls();
+        this.failureRateThreshold = properties.getFailureRateThreshold();
+        this.openDuration = properties.getOpenDuration();
+        this.halfOpenProbes = properties.getHalfOpenProbes();
+        this.outcomes = new boolean[properties.getWindowSize()];
+        this.clock = clock;
+        this.meterRegistry = meterRegistry;
+
+        this.successes = callCounter("success");
+        this.failuresCounter = callCounter("failure");
+        this.rejections = callCounter("rejected");
+        Gauge.builder("circuit.breaker.state", this, breaker -> breaker.getState().ordinal())
+                .tag("name", name)
+                .description("Circuit breaker state: 0 closed, 1 open, 2 half-open")
+                .register(meterRegistry);
+        Gauge.builder("circuit.breaker.failure.rate", this, CircuitBreaker::getFailureRate)
+                .tag("name", name)
+                .description("Failure rate over the recent calls of a closed circuit")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Runs a blocking call through the breaker.
+     *
+     * @throws ServiceUnavailableException when the circuit is open; the work is not run
+     */
+    public <T> T execute(Supplier<T> work) {
+        return execute(work, null);
+    }
+
+    /**
+     * Runs a blocking call through the breaker, or {@code fallback} while the circuit is open.
+     * Fallback calls are not recorded; they say nothing about this dependency.
+     */
+    public <T> T execute(Supplier<T> work, Supplier<T> fallback) {
+        if (!enabled) {
+            return work.get();
+        }
+        Permit permit = tryAcquire();
+        if (permit == null) {
+            if (fallback != null) {
+                return fallback.get();
+            }
+            throw rejection();
+        }
+        T result;
+        try {
+            result = work.get();
+        } catch (RuntimeException | Error e) {
+            permit.fail(e);
+            throw e;
+        }
+        permit.succeed();
+        return result;
+    }
+
+    /**
+     * Runs a streamed call through the breaker. Permission is asked on subscription; the outcome is
+     * that of the whole stream, and a cancelled stream is not recorded.
+     */
+    public <T> Flux<T> stream(Supplier<Flux<T>> work) {
+        return stream(work, null);
+    }
+
+    public <T> Flux<T> stream(Supplier<Flux<T>> work, Supplier<Flux<T>> fallback) {
+        if (!enabled) {
+            return Flux.defer(work);
+        }
+        return Flux.defer(() -> {
+            Permit permit = tryAcquire();
+            if (permit == null) {
+                return fallback != null ? fallback.get() : Flux.error(rejection());
+            }
+            Flux<T> flux;
+            try {
+                flux = work.get();
+            } catch (RuntimeException e) {
+                permit.fail(e);
+                throw e;
+            }
+            return flux
+                    .doOnComplete(permit::succeed)
+                    .doOnError(permit::fail)
+                    .doOnCancel(permit::ignore);
+        });
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public State getState() {
+        lock.lock();
+        try {
+            return state;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Failure rate over the recent calls in the window, or 0 while it holds fewer than {@code minimumCalls}.
+     */
+    public double getFailureRate() {
+        lock.lock();
+        try {
+            return recorded < minimumCalls ? 0.0 : (double) failures / recorded;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Point-in-time view of the breaker for the actuator endpoint.
+     */
+    public Snapshot snapshot() {
+        lock.lock();
+        try {
+            return new Snapshot(state, recorded < minimumCalls ? 0.0 : (double) failures / recorded,
+                    recorded, state == State.OPEN ? openUntil : null);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public record Snapshot(State state, double failureRate, int bufferedCalls, Instant openUntil) {
+    }
+
+    /**
+     * Returns a permit for one call, or null when the circuit turns the call away.
+     */
+    private Permit tryAcquire() {
+        lock.lock();
+        try {
+            if (state == State.OPEN) {
+                if (clock.instant().isBefore(openUntil)) {
+                    rejections.increment();
+                    return null;
+                }
+                transition(State.HALF_OPEN);
+            }
+            if (state == State.HALF_OPEN) {
+                if (probesStarted >= halfOpenProbes) {
+                    rejections.increment();
+                    return null;
+                }
+                probesStarted++;
+            }
+            return new Permit(generation);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private ServiceUnavailableException rejection() {
+        Duration retryAfter;
+        lock.lock();
+        try {
+            retryAfter = state == State.OPEN
+                    ? Duration.between(clock.instant(), openUntil)
+                    : PROBE_RETRY_AFTER;
+        } finally {
+            lock.unlock();
+        }
+        // Round up so that Retry-After is never 0 seconds
+        long seconds = Math.max(1, (retryAfter.toMillis() + 999) / 1000);
+        return new ServiceUnavailableException(
+                String.format("%s is unavailable, please retry later", name), Duration.ofSeconds(seconds));
+    }
+
+    private void onResult(Permit permit, boolean failure) {
+        (failure ? failuresCounter : successes).increment();
+        lock.lock();
+        try {
+            if (permit.generation != generation) {
+                return;
+            }
+            if (state == State.HALF_OPEN) {
+                if (failure) {
+                    transition(State.OPEN);
+                } else if (++probesSucceeded >= halfOpenProbes) {
+                    transition(State.CLOSED);
+                }
+            } else if (state == State.CLOSED) {
+                record(failure);
+                if (recorded >= minimumCalls && (double) failures / recorded >= failureRateThreshold) {
+                    transition(State.OPEN);
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void onIgnored(Permit permit) {
+        lock.lock();
+        try {
+            // Give back the probe slot, or a half-open circuit whose probes were cancelled never closes
+            if (permit.generation == generation && state == State.HALF_OPEN) {
+                probesStarted--;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void record(boolean failure) {
+        if (recorded == outcomes.length) {
+            if (outcomes[next]) {
+                failures--;
+            }
+        } else {
+            recorded++;
+        }
+        outcomes[next] = failure;
+        if (failure) {
+            failures++;
+        }
+        next = (next + 1) % outcomes.length;
+    }
+
+    private void transition(State to) {
+        State from = state;
+        state = to;
+        generation++;
+        switch (to) {
+            case OPEN -> openUntil = clock.instant().plus(openDuration);
+            case HALF_OPEN -> {
+                probesStarted = 0;
+                probesSucceeded = 0;
+            }
+            case CLOSED -> {
+                recorded = 0;
+                next = 0;
+                failures = 0;
+            }
+        }
+        Counter.builder("circuit.breaker.transitions")
+                .tag("name", name)
+                .tag("to", to.name().toLowerCase())
+                .description("Circuit breaker state changes")
+                .register(meterRegistry)
+                .increment();
+        if (to == State.OPEN) {
+            log.warn("Circuit breaker {} opened ({} -> {}), failing calls fast for {}", name, from, to, openDuration);
+        } else {
+            log.info("Circuit breaker {}: {} -> {}", name, from, to);
+        }
+    }
+
+    private Counter callCounter(String outcome) {
+        return Counter.builder("circuit.breaker.calls")
+                .tag("name", name)
+                .tag("outcome", outcome)
+                .description("Calls through a circuit breaker by outcome")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Whether a failed call says the dependency is unhealthy. Client errors and rejections that never
+     * reached the dependency do not, and neither does a call cut short because its caller gave up: its
+     * deadline passed, it was cancelled, or it was interrupted (see {@link Failures#causedByCaller}).
+     */
+    static Outcome classify(Throwable error) {
+        if (error instanceof ServiceUnavailableException || error instanceof TooManyRequestsException
+                || Thread.currentThread().isInterrupted() || Failures.causedByCaller(error)) {
+            return Outcome.IGNORED;
+        }
+        if (error instanceof NonTransientAiException || error instanceof IllegalArgumentException) {
+            return Outcome.SUCCESS;
+        }
+        if (error instanceof RestClientResponseException e && isClientError(e.getStatusCode().value())) {
+            return Outcome.SUCCESS;
+        }
+        if (error instanceof WebClientResponseException e && isClientError(e.getStatusCode().value())) {
+            return Outcome.SUCCESS;
+        }
+        return Outcome.FAILURE;
+    }
+
+    private static boolean isClientError(int status) {
+        return status >= 400 && status < 500 && status != 429;
+    }
+
+    enum Outcome {
+        SUCCESS, FAILURE, IGNORED
+    }
+
+    private final class Permit {
+
+        private final long generation;
+        private final AtomicBoolean done = new AtomicBoolean();
+
+        private Permit(long generation) {
+            this.generation = generation;
+        }
+
+        void succeed() {
+            if (done.compareAndSet(false, true)) {
+                onResult(this, false);
+            }
+        }
+
+        void fail(Throwable error) {
+            if (done.compareAndSet(false, true)) {
+                switch (classify(error)) {
+                    case SUCCESS -> onResult(this, false);
+                    case FAILURE -> onResult(this, true);
+                    case IGNORED -> onIgnored(this);
+                }
+            }
+        }
+
+        void ignore() {
+            if (done.compareAndSet(false, true)) {
+                onIgnored(this);
+            }
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.my.spring.ai.bot.resilience;
+
+import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.ai.vectorstore.VectorStore;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+
+/**
+ * Puts every auto-configured {@link EmbeddingModel} and {@link VectorStore} behind its circuit breaker,
+ * so that the Chroma store and the services that look it up all see the guarded beans.
+ *
+ * The registry is looked up lazily: resolving it while post-processors are still being created would
+ * initialize the meter registry too early for its own post-processing.
+ */
+public class CircuitBreakerBeanPostProcessor implements BeanPostProcessor {
+
+    private final ObjectProvider<CircuitBreakerRegistry> registry;
+
+    public CircuitBreakerBeanPostProcessor(ObjectProvider<CircuitBreakerRegistry> registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof EmbeddingModel embeddingModel && !(bean instanceof CircuitBreakingEmbeddingModel)
+                && registry().isEnabled()) {
+            return new CircuitBreakingEmbeddingModel(embeddingModel,
+                    registry().get(CircuitBreakerRegistry.EMBEDDING_MODEL));
+        }
+        if (bean instanceof VectorStore vectorStore && !(bean instanceof CircuitBreakingVectorStore)
+                && registry().isEnabled()) {
+            return new CircuitBreakingVectorStore(vectorStore, registry().get(CircuitBreakerRegistry.VECTOR_STORE));
+        }
+        return bean;
+    }
+
+    private CircuitBreakerRegistry registry() {
+        return registry.getObject();
+    }
+}
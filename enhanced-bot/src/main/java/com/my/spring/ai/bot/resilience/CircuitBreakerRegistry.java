@@ -0,0 +1,58 @@
+package com.my.spring.ai.bot.resilience;
+
+import com.my.spring.ai.bot.config.CircuitBreakerProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * One {@link CircuitBreaker} per dependency, created on first use with its configured settings.
+ */
+@Slf4j
+@Component
+public class CircuitBreakerRegistry {
+
+    public static final String CHAT_MODEL = "chat-model";
+    public static final String EMBEDDING_MODEL = "embedding-model";
+    public static final String VECTOR_STORE = "vector-store";
+    public static final String TEXT_TO_SPEECH = "text-to-speech";
+    public static final String SPEECH_TO_TEXT = "speech-to-text";
+
+    private final CircuitBreakerProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, CircuitBreaker> breakers = new ConcurrentHashMap<>();
+
+    public CircuitBreakerRegistry(CircuitBreakerProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        log.info("CircuitBreakerRegistry configured: enabled={}, defaults={}, overrides={}",
+                properties.isEnabled(), properties.getDefaults(), properties.getInstances().keySet());
+    }
+
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    public CircuitBreaker get(String name) {
+        return breakers.computeIfAbsent(name, key ->
+                new CircuitBreaker(key, properties.breakerFor(key), properties.isEnabled(), meterRegistry));
+    }
+
+    /**
+     * Bean name of the alternate configured for a breaker, or null when it fails fast.
+     */
+    public String fallbackFor(String name) {
+        return properties.breakerFor(name).getFallback();
+    }
+
+    /**
+     * Breakers created so far, by name.
+     */
+    public Map<String, CircuitBreaker> all() {
+        return new TreeMap<>(breakers);
+    }
+}
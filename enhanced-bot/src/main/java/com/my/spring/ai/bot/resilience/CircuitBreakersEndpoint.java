@@ -0,0 +1,36 @@
+package com.my.spring.ai.bot.resilience;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Actuator endpoint {@code /actuator/circuitbreakers} with the state of every circuit breaker.
+ */
+@Component
+@Endpoint(id = "circuitbreakers")
+public class CircuitBreakersEndpoint {
+
+    private final CircuitBreakerRegistry registry;
+
+    public CircuitBreakersEndpoint(CircuitBreakerRegistry registry) {
+        this.registry = registry;
+    }
+
+    @ReadOperation
+    public Map<String, CircuitBreaker.Snapshot> circuitBreakers() {
+        Map<String, CircuitBreaker.Snapshot> snapshots = new LinkedHashMap<>();
+        registry.all().forEach((name, breaker) -> snapshots.put(name, breaker.snapshot()));
+        return snapshots;
+    }
+
+    @ReadOperation
+    public CircuitBreaker.Snapshot circuitBreaker(@Selector String name) {
+        CircuitBreaker breaker = registry.all().get(name);
+        return breaker == null ? null : breaker.snapshot();
+    }
+}
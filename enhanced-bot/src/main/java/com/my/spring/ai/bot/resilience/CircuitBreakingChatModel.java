@@ -0,0 +1,49 @@
+package com.my.spring.ai.bot.resilience;
+
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.prompt.ChatOptions;
+import org.springframework.ai.chat.prompt.Prompt;
+import reactor.core.publisher.Flux;
+
+/**
+ * Chat model behind a {@link CircuitBreaker}: while the primary model is down, calls fail fast
+ * with 503 or, when one is configured, go to a fallback model.
+ */
+public class CircuitBreakingChatModel implements ChatModel {
+
+    private final ChatModel delegate;
+    private final CircuitBreaker circuitBreaker;
+    private final ChatModel fallback;
+
+    /**
+     * @param fallback model used while the circuit is open, or null to fail fast
+     */
+    public CircuitBreakingChatModel(ChatModel delegate, CircuitBreaker circuitBreaker, ChatModel fallback) {
+        this.delegate = delegate;
+        this.circuitBreaker = circuitBreaker;
+        this.fallback = fallback;
+    }
+
+    @Override
+    public ChatResponse call(Prompt prompt) {
+        return circuitBreaker.execute(() -> delegate.call(prompt),
+                fallback == null ? null : () -> fallback.call(forFallback(prompt)));
+    }
+
+    @Override
+    public Flux<ChatResponse> stream(Prompt prompt) {
+        return circuitBreaker.stream(() -> delegate.stream(prompt),
+                fallback == null ? null : () -> fallback.stream(forFallback(prompt)));
+    }
+
+    @Override
+    public ChatOptions getDefaultOptions() {
+        return delegate.getDefaultOptions();
+    }
+
+    // The prompt carries the primary's default options (model name and all), which mean nothing to the fallback
+    private static Prompt forFallback(Prompt prompt) {
+        return new Prompt(prompt.getInstructions());
+    }
+}
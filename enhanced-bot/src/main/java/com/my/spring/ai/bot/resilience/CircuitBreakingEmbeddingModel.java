@@ -0,0 +1,56 @@
+package com.my.spring.ai.bot.resilience;
+
+import org.springframework.ai.document.Document;
+import org.springframework.ai.embedding.BatchingStrategy;
+import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.ai.embedding.EmbeddingOptions;
+import org.springframework.ai.embedding.EmbeddingRequest;
+import org.springframework.ai.embedding.EmbeddingResponse;
+
+import java.util.List;
+
+/**
+ * Embedding model behind a {@link CircuitBreaker}, so that ingestion and retrieval fail fast while
+ * the embedding server is down.
+ */
+public class CircuitBreakingEmbeddingModel implements EmbeddingModel {
+
+    private final EmbeddingModel delegate;
+    private final CircuitBreaker circuitBreaker;
+
+    public CircuitBreakingEmbeddingModel(EmbeddingModel delegate, CircuitBreaker circuitBreaker) {
+        this.delegate = delegate;
+        this.circuitBreaker = circuitBreaker;
+    }
+
+    @Override
+    public EmbeddingResponse call(EmbeddingRequest request) {
+        return circuitBreaker.execute(() -> delegate.call(request));
+    }
+
+    @Override
+    public float[] embed(String text) {
+        return circuitBreaker.execute(() -> delegate.embed(text));
+    }
+
+    @Override
+    public float[] embed(Document document) {
+        return circuitBreaker.execute(() -> delegate.embed(document));
+    }
+
+    @Override
+    public List<float[]> embed(List<String> texts) {
+        return circuitBreaker.execute(() -> delegate.embed(texts));
+    }
+
+    @Override
+    public List<float[]> embed(List<Document> documents, EmbeddingOptions options, BatchingStrategy batchingStrategy) {
+        return circuitBreaker.execute(() -> delegate.embed(documents, options, batchingStrategy));
+    }
+
+    @Override
+    public int dimensions() {
+        // Resolving the dimensions may embed a probe text on first use
+        return circuitBreaker.execute(delegate::dimensions);
+    }
+}
@@ -0,0 +1,63 @@
+package com.my.spring.ai.bot.resilience;
+
+import org.springframework.ai.document.Document;
+import org.springframework.ai.vectorstore.SearchRequest;
+import org.springframework.ai.vectorstore.VectorStore;
+import org.springframework.ai.vectorstore.filter.Filter;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Vector store behind a {@link CircuitBreaker}, so that QA and document ingestion fail fast while
+ * Chroma is down.
+ */
+public class CircuitBreakingVectorStore implements VectorStore {
+
+    private final VectorStore delegate;
+    private final CircuitBreaker circuitBreaker;
+
+    public CircuitBreakingVectorStore(VectorStore delegate, CircuitBreaker circuitBreaker) {
+        this.delegate = delegate;
+        this.circuitBreaker = circuitBreaker;
+    }
+
+    @Override
+    public String getName() {
+        return delegate.getName();
+    }
+
+    @Override
+    public void add(List<Document> documents) {
+        circuitBreaker.execute(() -> {
+            delegate.add(documents);
+            return null;
+        });
+    }
+
+    @Override
+    public void delete(List<String> idList) {
+        circuitBreaker.execute(() -> {
+            delegate.delete(idList);
+            return null;
+        });
+    }
+
+    @Override
+    public void delete(Filter.Expression filterExpression) {
+        circuitBreaker.execute(() -> {
+            delegate.delete(filterExpression);
+            return null;
+        });
+    }
+
+    @Override
+    public List<Document> similaritySearch(SearchRequest request) {
+        return circuitBreaker.execute(() -> delegate.similaritySearch(request));
+    }
+
+    @Override
+    public <T> Optional<T> getNativeClient() {
+        return delegate.getNativeClient();
+    }
+}
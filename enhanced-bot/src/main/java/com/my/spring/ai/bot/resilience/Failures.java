@@ -0,0 +1,41 @@
+package com.my.spring.ai.bot.resilience;
+
+import com.my.spring.ai.bot.exception.DeadlineExceededException;
+import com.my.spring.ai.bot.exception.RequestCancelledException;
+
+import java.io.InterruptedIOException;
+import java.net.SocketTimeoutException;
+import java.nio.channels.ClosedByInterruptException;
+import java.util.concurrent.CancellationException;
+
+/**
+ * Classification of failures shared by the health tracking of dependencies.
+ */
+public final class Failures {
+
+    private Failures() {
+    }
+
+    /**
+     * Whether a call failed because its caller gave up rather than because of the dependency: its deadline
+     * passed, it was cancelled, or it was interrupted (a losing hedged request, for example). The interrupt
+     * flag is usually cleared by whatever threw, so the cause chain is checked.
+     */
+    public static boolean causedByCaller(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof DeadlineExceededException || cause instanceof RequestCancelledException
+                    || cause instanceof CancellationException || cause instanceof InterruptedException
+                    || cause instanceof ClosedByInterruptException) {
+                return true;
+            }
+            // A socket timeout is an InterruptedIOException too, but says the dependency is slow
+            if (cause instanceof InterruptedIOException && !(cause instanceof SocketTimeoutException)) {
+                return true;
+            }
+            if (cause.getCause() == cause) {
+                break;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,24 @@
+package com.my.spring.ai.bot.service;
+
+import com.my.spring.ai.bot.dto.BatchGenerateResult;
+import com.my.spring.ai.bot.dto.GenerateRequest;
+import com.my.spring.ai.bot.exception.InvalidBatchRequestException;
+import reactor.core.publisher.Flux;
+
+import java.util.List;
+
+/**
+ * Runs many text generation requests in one call.
+ */
+public interface BatchTextGeneratorService {
+
+    /**
+     * Generates text for every request with bounded parallelism.
+     *
+     * @param requests the prompts to generate for
+     * @return one result per request, in completion order, each carrying its input index;
+     *         a failing item yields an error result and never ends the stream
+     * @throws InvalidBatchRequestException when the batch is empty or exceeds the configured size
+     */
+    Flux<BatchGenerateResult> generateBatch(List<GenerateRequest> requests);
+}
@@ -1,8 +1,13 @@
 package com.my.spring.ai.bot.service;
 
+import com.my.spring.ai.bot.dto.PromptTokenUsage;
+import reactor.core.publisher.Flux;
+
 public interface ChatService {
 
     String chat(String sessionId, String userMessage);
+    Flux<String> chatStream(String sessionId, String userMessage);
     void clearUserChatHistory(String sessionId, boolean isNew);
+    PromptTokenUsage getPromptTokenUsage(String sessionId);
 
 }
@@ -1,11 +1,15 @@
 package com.my.spring.ai.bot.service;
 
+import com.my.spring.ai.bot.tools.ToolCatalog;
 import org.springframework.ai.tool.ToolCallback;
+import reactor.core.publisher.Flux;
 
 import java.util.List;
 
 public interface McpChatService {
     List<ToolCallback> listAvailableMcpTools();
+    ToolCatalog getToolCatalog();
     String chat(String sessionId, String userMessage);
+    Flux<String> chatStream(String sessionId, String userMessage);
     void clearUserChatHistory(String sessionId, boolean isNew);
 }
@@ -0,0 +1,91 @@
+package com.my.spring.ai.bot.service.impl;
+
+import com.my.spring.ai.bot.config.GenerateBatchProperties;
+import com.my.spring.ai.bot.dto.BatchGenerateResult;
+import com.my.spring.ai.bot.dto.GenerateRequest;
+import com.my.spring.ai.bot.exception.InvalidBatchRequestException;
+import com.my.spring.ai.bot.exception.PromptTemplateNotFoundException;
+import com.my.spring.ai.bot.exception.ServiceUnavailableException;
+import com.my.spring.ai.bot.exception.TooManyRequestsException;
+import com.my.spring.ai.bot.service.BatchTextGeneratorService;
+import com.my.spring.ai.bot.service.TextGeneratorService;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Fans a batch out to {@link TextGeneratorService}, at most {@code generate.batch.concurrency} items at a time.
+ *
+ * Each item is validated like a single {@code /generate} request and runs on the bounded elastic
+ * scheduler, since the model call blocks. Results are emitted as soon as each item finishes;
+ * cancelling the stream (e.g. the client went away) stops items that have not started yet.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class BatchTextGeneratorServiceImpl implements BatchTextGeneratorService {
+
+    private static final String GENERIC_ERROR = "Failed to generate text. Please try again later.";
+
+    private final TextGeneratorService textGeneratorService;
+    private final Validator validator;
+    private final GenerateBatchProperties properties;
+
+    @Override
+    public Flux<BatchGenerateResult> generateBatch(List<GenerateRequest> requests) {
+        if (requests == null || requests.isEmpty()) {
+            throw new InvalidBatchRequestException("Batch must contain at least one request.");
+        }
+        if (requests.size() > properties.getMaxItems()) {
+            throw new InvalidBatchRequestException(
+                    "Batch of " + requests.size() + " requests exceeds the limit of " + properties.getMaxItems() + ".");
+        }
+        log.info("Received batch of {} text generation requests", requests.size());
+
+        return Flux.range(0, requests.size())
+                .flatMap(index -> generate(index, requests.get(index)), Math.max(1, properties.getConcurrency()));
+    }
+
+    private Mono<BatchGenerateResult> generate(int index, GenerateRequest request) {
+        String invalid = validate(request);
+        if (invalid != null) {
+            return Mono.just(BatchGenerateResult.failure(index, invalid));
+        }
+        return Mono.fromCallable(() -> BatchGenerateResult.success(index, textGeneratorService.generateText(request)))
+                .subscribeOn(Schedulers.boundedElastic())
+                .onErrorResume(e -> Mono.just(BatchGenerateResult.failure(index, describe(index, e))));
+    }
+
+    private String validate(GenerateRequest request) {
+        if (request == null) {
+            return "Request cannot be null";
+        }
+        Set<ConstraintViolation<GenerateRequest>> violations = validator.validate(request);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream()
+                .map(v -> v.getPropertyPath() + ": " + v.getMessage())
+                .sorted()
+                .collect(Collectors.joining("; "));
+    }
+
+    private String describe(int index, Throwable e) {
+        if (e instanceof PromptTemplateNotFoundException || e instanceof TooManyRequestsException
+                || e instanceof ServiceUnavailableException) {
+            return e.getMessage();
+        }
+        // Same wording as GlobalExceptionHandler; the details stay in the log
+        log.warn("Batch item {} failed: {}", index, e.getMessage());
+        return GENERIC_ERROR;
+    }
+}
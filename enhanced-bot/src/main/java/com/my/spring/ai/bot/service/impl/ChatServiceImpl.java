@@ -1,14 +1,25 @@
 package com.my.spring.ai.bot.service.impl;
 
+import com.my.spring.ai.bot.admission.AdmissionControl;
+import com.my.spring.ai.bot.admission.EndpointClass;
+import com.my.spring.ai.bot.cancellation.RequestCancellation;
+import com.my.spring.ai.bot.dto.PromptTokenUsage;
+import com.my.spring.ai.bot.deadline.Deadline;
 import com.my.spring.ai.bot.exception.ConversationNotFoundException;
+import com.my.spring.ai.bot.exception.DeadlineExceededException;
+import com.my.spring.ai.bot.exception.RequestCancelledException;
+import com.my.spring.ai.bot.exception.ServiceUnavailableException;
+import com.my.spring.ai.bot.memory.RollingSummaryChatMemoryAdvisor;
+import com.my.spring.ai.bot.metrics.ChatStreamMetrics;
 import com.my.spring.ai.bot.service.ChatService;
+import com.my.spring.ai.bot.session.SessionMailbox;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.ai.chat.client.ChatClient;
-import org.springframework.ai.chat.client.advisor.MessageChatMemoryAdvisor;
 import org.springframework.ai.chat.memory.ChatMemory;
 import org.springframework.ai.chat.messages.Message;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
 
 import java.util.List;
 import java.util.UUID;
@@ -24,6 +35,10 @@ public class ChatServiceImpl implements ChatService {
 
     private final ChatClient chatClient;
     private final ChatMemory chatMemory;
+    private final ChatStreamMetrics streamMetrics;
+    private final SessionMailbox sessionMailbox;
+    private final AdmissionControl admissionControl;
+    private final RollingSummaryChatMemoryAdvisor memoryAdvisor;
 
     // Define the system message to set the bot's behavior
     private static final String SYSTEM_MESSAGE_CONTENT = """
@@ -36,18 +51,24 @@ public class ChatServiceImpl implements ChatService {
     private int lastEntriesCount;
 
     public ChatServiceImpl(ChatMemory chatMemory, ChatClient.Builder chatClientBuilder,
-                           @Value("${chat.memory.history-window:10}") int lastEntriesCount) {
+                           @Value("${chat.memory.history-window:10}") int lastEntriesCount,
+                           ChatStreamMetrics streamMetrics,
+                           SessionMailbox sessionMailbox,
+                           RollingSummaryChatMemoryAdvisor memoryAdvisor,
+                           AdmissionControl admissionControl) {
         this.chatMemory = chatMemory;
+        this.streamMetrics = streamMetrics;
+        this.sessionMailbox = sessionMailbox;
+        this.admissionControl = admissionControl;
+        this.memoryAdvisor = memoryAdvisor;
         this.lastEntriesCount = lastEntriesCount;
 
         this.chatClient = chatClientBuilder
                 .defaultSystem(SYSTEM_MESSAGE_CONTENT)
-                .defaultAdvisors(
-                        MessageChatMemoryAdvisor.builder(this.chatMemory).build()
-                )
+                .defaultAdvisors(memoryAdvisor)
                 .build();
 
-        log.info("ChatClient configured with LoggingAdvisor for prompt/completion logging");
+        log.info("ChatClient configured with RollingSummaryChatMemoryAdvisor");
     }
 
     /**
@@ -70,19 +91,60 @@ public class ChatServiceImpl implements ChatService {
             throw new IllegalArgumentException("User message cannot be null or empty");
         }
 
-        try {
-            var userId = sessionId;
-            String response = this.chatClient.prompt()
-                    .user(userMessage)
-                    .advisors(a -> a.param(CHAT_MEMORY_CONVERSATION_ID_KEY, userId))
-                    .call()
-                    .content();
-            log.debug("Chat response from prompt for sessionId={}: {}", sessionId, response);
-            return response;
-        } catch (Exception e) {
-            log.error("Error during chat completion for sessionId={}", sessionId, e);
-            throw new RuntimeException("AI service failed. Please try again later.", e);
+        var userId = sessionId;
+        // Turns of one session run in order so they never interleave in its chat memory,
+        // and only then wait for a model slot, so a queued turn never holds one; all of it is cancelled
+        // when the client disconnects
+        return RequestCancellation.call(() -> sessionMailbox.submit(userId, () -> admissionControl.call(EndpointClass.CHAT, () -> {
+            try {
+                // Waiting for the session's turn and a model slot may have used up the request's time
+                Deadline.checkCurrent();
+                String response = this.chatClient.prompt()
+                        .user(userMessage)
+                        .advisors(a -> a.param(CHAT_MEMORY_CONVERSATION_ID_KEY, userId))
+                        .call()
+                        .content();
+                log.debug("Chat response from prompt for sessionId={}: {}", userId, response);
+                return response;
+            } catch (ServiceUnavailableException | DeadlineExceededException | RequestCancelledException e) {
+                throw e;
+            } catch (Exception e) {
+                Deadline.checkCurrent(e);
+                RequestCancellation.checkCurrent(e);
+                log.error("Error during chat completion for sessionId={}", userId, e);
+                throw new RuntimeException("AI service failed. Please try again later.", e);
+            }
+        })));
+    }
+
+    /**
+     * Streams the AI's response token by token.
+     * The memory advisor aggregates the stream and stores the full answer once it completes.
+     *
+     * @param sessionId   The ID of the conversation.
+     * @param userMessage The content of the user's message.
+     * @return The response tokens as they are generated.
+     */
+    @Override
+    public Flux<String> chatStream(String sessionId, String userMessage) {
+        log.debug("Chat stream request for sessionId={}: {}", sessionId, userMessage);
+
+        if (sessionId == null || sessionId.isEmpty()) {
+            sessionId = UUID.randomUUID().toString();
+            log.info("No session ID provided. Generated new session: {}", sessionId);
+        }
+
+        if (userMessage == null || userMessage.trim().isEmpty()) {
+            throw new IllegalArgumentException("User message cannot be null or empty");
         }
+
+        var userId = sessionId;
+        return ChatStreams.stream(sessionMailbox, admissionControl, streamMetrics, EndpointClass.CHAT, "chat", userId,
+                () -> this.chatClient.prompt()
+                        .user(userMessage)
+                        .advisors(a -> a.param(CHAT_MEMORY_CONVERSATION_ID_KEY, userId))
+                        .stream()
+                        .content());
     }
 
     @Override
@@ -106,4 +168,16 @@ public class ChatServiceImpl implements ChatService {
         log.info("Clearing chat history for session ID: {}", sessionId);
         chatMemory.clear(sessionId);
     }
+
+    /**
+     * Reports the estimated prompt tokens of the session's last turn and what the rolling summary saved.
+     *
+     * @param sessionId The ID of the conversation.
+     * @return The token figures for the session.
+     */
+    @Override
+    public PromptTokenUsage getPromptTokenUsage(String sessionId) {
+        return memoryAdvisor.tokenUsage(sessionId)
+                .orElseThrow(() -> new ConversationNotFoundException("Conversation with ID '" + sessionId + "' not found."));
+    }
 }
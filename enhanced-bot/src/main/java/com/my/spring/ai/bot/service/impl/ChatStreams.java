@@ -0,0 +1,69 @@
+package com.my.spring.ai.bot.service.impl;
+
+import com.my.spring.ai.bot.admission.AdmissionControl;
+import com.my.spring.ai.bot.admission.EndpointClass;
+import com.my.spring.ai.bot.deadline.Deadline;
+import com.my.spring.ai.bot.exception.DeadlineExceededException;
+import com.my.spring.ai.bot.exception.RequestCancelledException;
+import com.my.spring.ai.bot.exception.ServiceUnavailableException;
+import com.my.spring.ai.bot.exception.SupersededMessageException;
+import com.my.spring.ai.bot.exception.TooManyRequestsException;
+import com.my.spring.ai.bot.metrics.ChatStreamMetrics;
+import com.my.spring.ai.bot.session.SessionMailbox;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.concurrent.Callable;
+import java.util.function.Supplier;
+
+/**
+ * Stream plumbing shared by the chat services' {@code chatStream}.
+ */
+@Slf4j
+final class ChatStreams {
+
+    private ChatStreams() {
+    }
+
+    /**
+     * Streams a model reply within the session's turn, an admission slot and the request's deadline,
+     * recording its metrics. Call it on the request's thread, so the stream is tied to the request's deadline.
+     *
+     * @param endpointClass the admission class of the calling endpoint
+     * @param endpoint      metrics tag value identifying the calling endpoint, e.g. "chat" or "mcp-chat"
+     * @param sessionId     the session whose turn the reply is generated in
+     * @param model         starts the model's token stream
+     * @return the token stream; failures other than rejections, an exceeded deadline or a cancellation
+     * are replaced by a generic one
+     */
+    static Flux<String> stream(SessionMailbox sessionMailbox, AdmissionControl admissionControl,
+                               ChatStreamMetrics streamMetrics, EndpointClass endpointClass, String endpoint,
+                               String sessionId, Supplier<Flux<String>> model) {
+        Deadline deadline = Deadline.current();
+        // The session's turn is held until the stream completes, errors or is cancelled;
+        // waiting for it happens off the request thread, bounded by the request's deadline
+        Callable<SessionMailbox.Turn> enterTurn = () -> sessionMailbox.enter(sessionId);
+        Flux<String> tokens = Flux.using(
+                        deadline == null ? enterTurn : deadline.propagate(enterTurn),
+                        turn -> admissionControl.stream(endpointClass, model),
+                        SessionMailbox.Turn::close)
+                .subscribeOn(Schedulers.boundedElastic());
+        if (deadline != null) {
+            tokens = deadline.bound(tokens);
+        }
+        return streamMetrics.record(endpoint, tokens)
+                .doOnError(e -> !isReported(e), e -> log.error("Error during chat stream for sessionId={}", sessionId, e))
+                .onErrorMap(e -> !isReported(e), e -> new RuntimeException("AI service failed. Please try again later.", e));
+    }
+
+    /**
+     * Failures reported to the client as they are, like the blocking endpoints report them: rejections that
+     * say when to retry, and requests that ran out of time or were cancelled.
+     */
+    private static boolean isReported(Throwable e) {
+        return e instanceof TooManyRequestsException || e instanceof ServiceUnavailableException
+                || e instanceof SupersededMessageException
+                || e instanceof DeadlineExceededException || e instanceof RequestCancelledException;
+    }
+}
@@ -3,6 +3,7 @@ package com.my.spring.ai.bot.service.impl;
 
 import com.my.spring.ai.bot.config.ApplicationContextHolder;
 import com.my.spring.ai.bot.dto.IngestResponse;
+import com.my.spring.ai.bot.exception.ServiceUnavailableException;
 import com.my.spring.ai.bot.service.DocumentService;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.ai.document.Document;
@@ -83,6 +84,9 @@ public class DocumentServiceImpl implements DocumentService {
             try {
                 getVectorStore().add(batch);
                 return; // Success!
+            } catch (ServiceUnavailableException e) {
+                // Open circuit: retrying within the open period cannot succeed
+                throw e;
             } catch (Exception e) {
                 lastException = e;
                 attempt++;
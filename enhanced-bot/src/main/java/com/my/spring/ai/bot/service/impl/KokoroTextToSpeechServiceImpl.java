@@ -2,6 +2,7 @@ package com.my.spring.ai.bot.service.impl;
 
 import com.my.spring.ai.bot.client.speech.KokoroTtsClient;
 import com.my.spring.ai.bot.config.KokoroTTSOptions;
+import com.my.spring.ai.bot.exception.ServiceUnavailableException;
 import com.my.spring.ai.bot.exception.SpeechGenerationException;
 import com.my.spring.ai.bot.service.TextToSpeechService;
 import lombok.AllArgsConstructor;
@@ -44,6 +45,8 @@ public class KokoroTextToSpeechServiceImpl implements TextToSpeechService {
 
             return audioData;
 
+        } catch (ServiceUnavailableException e) {
+            throw e;
         } catch (Exception e) {
             String error = String.format("Failed to convert text to speech: text=%s", text);
             log.error(error, e);
@@ -1,18 +1,29 @@
 package com.my.spring.ai.bot.service.impl;
 
+import com.my.spring.ai.bot.admission.AdmissionControl;
+import com.my.spring.ai.bot.admission.EndpointClass;
+import com.my.spring.ai.bot.cancellation.RequestCancellation;
+import com.my.spring.ai.bot.deadline.Deadline;
 import com.my.spring.ai.bot.exception.ConversationNotFoundException;
+import com.my.spring.ai.bot.exception.DeadlineExceededException;
+import com.my.spring.ai.bot.exception.RequestCancelledException;
+import com.my.spring.ai.bot.exception.ServiceUnavailableException;
+import com.my.spring.ai.bot.metrics.ChatStreamMetrics;
 import com.my.spring.ai.bot.service.McpChatService;
+import com.my.spring.ai.bot.session.SessionMailbox;
+import com.my.spring.ai.bot.tools.ToolCatalog;
+import com.my.spring.ai.bot.tools.ToolRegistry;
+import com.my.spring.ai.bot.tools.ToolSelector;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.ai.chat.client.ChatClient;
 import org.springframework.ai.chat.client.advisor.MessageChatMemoryAdvisor;
 import org.springframework.ai.chat.memory.ChatMemory;
 import org.springframework.ai.chat.messages.Message;
 import org.springframework.ai.tool.ToolCallback;
-import org.springframework.ai.tool.ToolCallbackProvider;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
 
-import java.util.Arrays;
 import java.util.List;
 import java.util.UUID;
 
@@ -22,10 +33,14 @@ import static org.springframework.ai.chat.client.advisor.AbstractChatMemoryAdvis
 @Service
 public class McpChatServiceImpl implements McpChatService {
 
-    private ToolCallbackProvider toolCallbackProvider;
+    private final ToolRegistry toolRegistry;
+    private final ToolSelector toolSelector;
 
     private final ChatClient chatClient;
     private final ChatMemory chatMemory;
+    private final ChatStreamMetrics streamMetrics;
+    private final SessionMailbox sessionMailbox;
+    private final AdmissionControl admissionControl;
 
     // Define the system message to set the bot's behavior
     private static final String SYSTEM_MESSAGE_CONTENT = """
@@ -39,20 +54,27 @@ public class McpChatServiceImpl implements McpChatService {
 
     public McpChatServiceImpl(ChatMemory chatMemory, ChatClient.Builder chatClientBuilder,
                            @Value("${chat.memory.history-window:10}") int lastEntriesCount,
-                              ToolCallbackProvider toolCallbackProvider) {
+                              ToolRegistry toolRegistry,
+                              ToolSelector toolSelector,
+                              ChatStreamMetrics streamMetrics,
+                              SessionMailbox sessionMailbox,
+                              AdmissionControl admissionControl) {
         this.chatMemory = chatMemory;
+        this.streamMetrics = streamMetrics;
+        this.sessionMailbox = sessionMailbox;
+        this.admissionControl = admissionControl;
         this.lastEntriesCount = lastEntriesCount;
-        this.toolCallbackProvider = toolCallbackProvider;
+        this.toolRegistry = toolRegistry;
+        this.toolSelector = toolSelector;
 
         this.chatClient = chatClientBuilder
                 .defaultSystem(SYSTEM_MESSAGE_CONTENT)
                 .defaultAdvisors(
                         MessageChatMemoryAdvisor.builder(this.chatMemory).build()
                 )
-                .defaultTools(toolCallbackProvider.getToolCallbacks())
                 .build();
 
-        log.info("ChatClient configured with MessageChatMemoryAdvisor and MCP tools from toolCallbackProvider");
+        log.info("ChatClient configured with MessageChatMemoryAdvisor; each turn gets the MCP tools relevant to it");
     }
 
     /**
@@ -75,19 +97,62 @@ public class McpChatServiceImpl implements McpChatService {
             throw new IllegalArgumentException("User message cannot be null or empty");
         }
 
-        try {
-            var userId = sessionId;
-            String response = this.chatClient.prompt()
-                    .user(userMessage)
-                    .advisors(a -> a.param(CHAT_MEMORY_CONVERSATION_ID_KEY, userId))
-                    .call()
-                    .content();
-            log.debug("Chat response from prompt for sessionId={}: {}", sessionId, response);
-            return response;
-        } catch (Exception e) {
-            log.error("Error during chat completion for sessionId={}", sessionId, e);
-            throw new RuntimeException("AI service failed. Please try again later.", e);
+        var userId = sessionId;
+        // Turns of one session run in order so they never interleave in its chat memory,
+        // and only then wait for a model slot, so a queued turn never holds one; all of it is cancelled
+        // when the client disconnects
+        return RequestCancellation.call(() -> sessionMailbox.submit(userId, () -> admissionControl.call(EndpointClass.MCP_CHAT, () -> {
+            try {
+                // Waiting for the session's turn and a model slot may have used up the request's time
+                Deadline.checkCurrent();
+                String response = this.chatClient.prompt()
+                        .user(userMessage)
+                        .tools(toolSelector.select(userMessage))
+                        .advisors(a -> a.param(CHAT_MEMORY_CONVERSATION_ID_KEY, userId))
+                        .call()
+                        .content();
+                log.debug("Chat response from prompt for sessionId={}: {}", userId, response);
+                return response;
+            } catch (ServiceUnavailableException | DeadlineExceededException | RequestCancelledException e) {
+                throw e;
+            } catch (Exception e) {
+                Deadline.checkCurrent(e);
+                RequestCancellation.checkCurrent(e);
+                log.error("Error during chat completion for sessionId={}", userId, e);
+                throw new RuntimeException("AI service failed. Please try again later.", e);
+            }
+        })));
+    }
+
+    /**
+     * Streams the AI's response token by token.
+     * The memory advisor aggregates the stream and stores the full answer once it completes.
+     *
+     * @param sessionId   The ID of the conversation.
+     * @param userMessage The content of the user's message.
+     * @return The response tokens as they are generated.
+     */
+    @Override
+    public Flux<String> chatStream(String sessionId, String userMessage) {
+        log.debug("Chat stream request for sessionId={}: {}", sessionId, userMessage);
+
+        if (sessionId == null || sessionId.isEmpty()) {
+            sessionId = UUID.randomUUID().toString();
+            log.info("No session ID provided. Generated new session: {}", sessionId);
+        }
+
+        if (userMessage == null || userMessage.trim().isEmpty()) {
+            throw new IllegalArgumentException("User message cannot be null or empty");
         }
+
+        var userId = sessionId;
+        return ChatStreams.stream(sessionMailbox, admissionControl, streamMetrics, EndpointClass.MCP_CHAT, "mcp-chat", userId,
+                () -> this.chatClient.prompt()
+                        .user(userMessage)
+                        .tools(toolSelector.select(userMessage))
+                        .advisors(a -> a.param(CHAT_MEMORY_CONVERSATION_ID_KEY, userId))
+                        .stream()
+                        .content());
     }
 
     @Override
@@ -114,10 +179,12 @@ public class McpChatServiceImpl implements McpChatService {
 
     @Override
     public List<ToolCallback> listAvailableMcpTools() {
-        var callbacks = toolCallbackProvider.getToolCallbacks();
-        return Arrays.stream(callbacks)
-                .map(toolCallbacks -> (ToolCallback)toolCallbacks)
-                .toList();
+        return toolRegistry.getToolCallbacks();
+    }
+
+    @Override
+    public ToolCatalog getToolCatalog() {
+        return toolRegistry.catalog();
     }
 
 }
@@ -1,18 +1,30 @@
 package com.my.spring.ai.bot.service.impl;
 
+import com.my.spring.ai.bot.admission.AdmissionControl;
+import com.my.spring.ai.bot.admission.EndpointClass;
+import com.my.spring.ai.bot.cache.SingleFlightCache;
+import com.my.spring.ai.bot.cancellation.RequestCancellation;
 import com.my.spring.ai.bot.dto.GenerateRequest;
 import com.my.spring.ai.bot.dto.GenerateResponse;
+import com.my.spring.ai.bot.exception.RequestCancelledException;
+import com.my.spring.ai.bot.exception.ServiceUnavailableException;
 import com.my.spring.ai.bot.exception.TextGenerationException;
+import com.my.spring.ai.bot.exception.TooManyRequestsException;
+import com.my.spring.ai.bot.metrics.LlmUsage;
+import com.my.spring.ai.bot.prompt.CompiledPromptTemplate;
+import com.my.spring.ai.bot.prompt.PromptTemplateRegistry;
 import com.my.spring.ai.bot.service.TextGeneratorService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.ai.chat.client.ChatClient;
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.prompt.ChatOptions;
 import org.springframework.stereotype.Service;
 
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.core.io.Resource;
-
 import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.regex.Pattern;
 
 
 /**
@@ -28,13 +40,21 @@ import java.time.LocalDateTime;
 @RequiredArgsConstructor
 @Slf4j
 public class OllamaAITextGeneratorService implements TextGeneratorService {
+
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
     
     // TODO: Inject the ChatClient dependency
     // Hint: Use final field and @RequiredArgsConstructor for constructor injection
     private final ChatClient chatClient;
 
-    @Value("classpath:/prompts/llama.st")
-    private Resource promptResource;
+    // Source of the default options that, together with the prompt, determine the answer
+    private final ChatModel chatModel;
+
+    private final SingleFlightCache<String, GenerateResponse> generateResponseCache;
+
+    private final PromptTemplateRegistry promptTemplateRegistry;
+
+    private final AdmissionControl admissionControl;
     
     /**
      * Generates text using OpenAI's GPT model via Spring AI ChatClient.
@@ -53,29 +73,38 @@ public class OllamaAITextGeneratorService implements TextGeneratorService {
             throw error;
         }
         
+        // Unknown template names are a client error, reported before any model work
+        CompiledPromptTemplate template = promptTemplateRegistry.get(request.getTemplate());
+
         try {
-            // Step 2 & 3: Prepare and execute API call
-            String responseStr = chatClient.prompt()
-                    .user(u -> {
-                        u.text(promptResource);
-                        u.param("question",request.getPrompt());
-                    })
-                    .call()
-                    .content();
-
-            // Step 4: Build response
+            // Step 2 & 3: Prepare and execute API call, answering repeated prompts from the cache
+            String cacheKey = cacheKey(template, request.getPrompt());
+            GenerateResponse generated;
+            if (request.isBypassCache()) {
+                generated = callModel(template, request);
+                generateResponseCache.put(cacheKey, generated);
+            } else {
+                generated = generateResponseCache.get(cacheKey, () -> callModel(template, request));
+            }
+
+            // Step 4: Build response, with the model and token usage of the call that produced it
             GenerateResponse response = GenerateResponse.builder()
-                .response(responseStr)
-                .model("gpt-3.5-turbo") // TODO: Get actual model from configuration
+                .response(generated.getResponse())
+                .model(generated.getModel())
                 .timestamp(LocalDateTime.now())
-                // TODO: Add token usage if available from API response
+                .tokensUsed(generated.getTokensUsed())
                 .build();
 
             logResponse(response, request);
 
             return response;
 
+        } catch (TooManyRequestsException | ServiceUnavailableException | RequestCancelledException e) {
+            // Admission control and circuit breaker rejections keep their 429 and 503 mappings,
+            // a disconnected client its 499
+            throw e;
         } catch (Exception e) {
+            RequestCancellation.checkCurrent(e);
             // Step 5: Error handling
             handleApiException(e.getMessage(), e, request);
             throw new TextGenerationException("Failed to generate text: " + e.getMessage(), e);
@@ -83,6 +112,50 @@ public class OllamaAITextGeneratorService implements TextGeneratorService {
         
     }
     
+    private GenerateResponse callModel(CompiledPromptTemplate template, GenerateRequest request) {
+        String userText = template.render(Map.of("question", request.getPrompt()));
+        // Cache hits never get here, so they do not take a model slot
+        ChatResponse chatResponse = RequestCancellation.call(() -> admissionControl.call(EndpointClass.GENERATE,
+                () -> chatClient.prompt()
+                        .user(userText)
+                        .call()
+                        .chatResponse()));
+        ChatOptions options = chatModel.getDefaultOptions();
+        LlmUsage usage = LlmUsage.of(chatResponse).withDefaultModel(options == null ? null : options.getModel());
+        return GenerateResponse.builder()
+                .response(content(chatResponse))
+                .model(usage.model())
+                .tokensUsed(usage.totalTokens())
+                .build();
+    }
+
+    private static String content(ChatResponse chatResponse) {
+        if (chatResponse == null || chatResponse.getResult() == null || chatResponse.getResult().getOutput() == null) {
+            return null;
+        }
+        return chatResponse.getResult().getOutput().getText();
+    }
+
+    /**
+     * Builds the cache key from everything that shapes the answer: the template and its version, the
+     * model options and the prompt with surrounding and repeated whitespace collapsed.
+     */
+    private String cacheKey(CompiledPromptTemplate template, String prompt) {
+        ChatOptions options = chatModel.getDefaultOptions();
+        StringBuilder key = new StringBuilder(template.getName()).append('@').append(template.getVersion()).append('|');
+        if (options != null) {
+            key.append(options.getModel()).append('|')
+                    .append(options.getTemperature()).append('|')
+                    .append(options.getTopP()).append('|')
+                    .append(options.getTopK()).append('|')
+                    .append(options.getMaxTokens()).append('|')
+                    .append(options.getFrequencyPenalty()).append('|')
+                    .append(options.getPresencePenalty()).append('|')
+                    .append(options.getStopSequences()).append('|');
+        }
+        return key.append(WHITESPACE.matcher(prompt.strip()).replaceAll(" ")).toString();
+    }
+
     /**
      * Validates the incoming request at the service level.
      */
@@ -1,19 +1,30 @@
 package com.my.spring.ai.bot.service.impl;
 
+import com.my.spring.ai.bot.admission.AdmissionControl;
+import com.my.spring.ai.bot.admission.EndpointClass;
+import com.my.spring.ai.bot.cancellation.RequestCancellation;
 import com.my.spring.ai.bot.config.ApplicationContextHolder;
-import com.my.spring.ai.bot.config.LoggingAdvisor;
+import com.my.spring.ai.bot.deadline.Deadline;
 import com.my.spring.ai.bot.dto.AnswerResponse;
+import com.my.spring.ai.bot.exception.DeadlineExceededException;
+import com.my.spring.ai.bot.exception.RequestCancelledException;
+import com.my.spring.ai.bot.exception.ServiceUnavailableException;
 import com.my.spring.ai.bot.exception.TextGenerationException;
+import com.my.spring.ai.bot.exception.TooManyRequestsException;
+import com.my.spring.ai.bot.metrics.LlmUsage;
 import com.my.spring.ai.bot.service.QAService;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.ai.chat.client.ChatClient;
 import org.springframework.ai.chat.client.advisor.QuestionAnswerAdvisor;
+import org.springframework.ai.chat.model.ChatResponse;
 import org.springframework.ai.vectorstore.SearchRequest;
 import org.springframework.ai.vectorstore.VectorStore;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Service;
 
+import java.util.concurrent.locks.ReentrantLock;
+
 /**
  * Question-Answer service with RAG support - requires 'rag' profile
  *
@@ -29,14 +40,20 @@ public class QaServiceImpl implements QAService {
 
     private final ChatClient.Builder builder;
     private final ApplicationContextHolder context;
+    private final AdmissionControl admissionControl;
 
-    private ChatClient chatClient;
-    private VectorStore vectorStore;
+    // Lazily initialised on first use; a ReentrantLock rather than synchronized so a virtual
+    // thread waiting here (the vector store lookup can block) does not pin its carrier thread.
+    private final ReentrantLock initLock = new ReentrantLock();
+    private volatile ChatClient chatClient;
+    private volatile VectorStore vectorStore;
 
     @Autowired
-    public QaServiceImpl(ApplicationContextHolder context, ChatClient.Builder builder) {
+    public QaServiceImpl(ApplicationContextHolder context, ChatClient.Builder builder,
+                         AdmissionControl admissionControl) {
         this.context = context;
         this.builder = builder;
+        this.admissionControl = admissionControl;
     }
 
     /**
@@ -57,41 +74,71 @@ public class QaServiceImpl implements QAService {
 
         try {
 
-            String answer = getChatClient().prompt()
-                    .user(question)
-                    .call()
-                    .content();
+            ChatResponse chatResponse = RequestCancellation.call(() -> admissionControl.call(EndpointClass.QA, () -> {
+                // The vector store search and the model call share the request's deadline
+                Deadline.checkCurrent();
+                return getChatClient().prompt()
+                        .user(question)
+                        .call()
+                        .chatResponse();
+            }));
+            String answer = chatResponse == null || chatResponse.getResult() == null
+                    ? null
+                    : chatResponse.getResult().getOutput().getText();
+            LlmUsage usage = LlmUsage.of(chatResponse);
 
             log.debug("Generated answer: {}", answer);
 
-            return AnswerResponse.builder().answer(answer).build();
+            return AnswerResponse.builder()
+                    .answer(answer)
+                    .model(usage.model())
+                    .tokensUsed(usage.totalTokens())
+                    .build();
 
+        } catch (TooManyRequestsException | ServiceUnavailableException | DeadlineExceededException | RequestCancelledException e) {
+            throw e;
         } catch (Exception e) {
+            Deadline.checkCurrent(e);
+            RequestCancellation.checkCurrent(e);
             log.error("Failed to generate answer from AI", e);
             throw new TextGenerationException("Failed to generate answer from AI", e);
         }
     }
 
     private ChatClient getChatClient() {
-        if (this.chatClient == null) {
-            synchronized (this) {
-                this.chatClient = builder
-                        .defaultAdvisors(
-                                new LoggingAdvisor(),  // Add logging advisor to log prompts and completions
-                                new QuestionAnswerAdvisor(getVectorStore(), DEFAULT_SEARCH))
-                        .build();
+        ChatClient client = this.chatClient;
+        if (client == null) {
+            initLock.lock();
+            try {
+                client = this.chatClient;
+                if (client == null) {
+                    client = builder
+                            .defaultAdvisors(new QuestionAnswerAdvisor(getVectorStore(), DEFAULT_SEARCH))
+                            .build();
+                    this.chatClient = client;
+                }
+            } finally {
+                initLock.unlock();
             }
         }
-        return this.chatClient;
+        return client;
     }
 
     private VectorStore getVectorStore() {
-        if (this.vectorStore == null) {
-            synchronized (this) {
-            this.vectorStore = context.getBean(VectorStore.class);
+        VectorStore store = this.vectorStore;
+        if (store == null) {
+            initLock.lock();
+            try {
+                store = this.vectorStore;
+                if (store == null) {
+                    store = context.getBean(VectorStore.class);
+                    this.vectorStore = store;
+                }
+            } finally {
+                initLock.unlock();
             }
         }
-        return this.vectorStore;
+        return store;
     }
 
 }
@@ -1,11 +1,12 @@
 package com.my.spring.ai.bot.service.impl;
 
 import com.my.spring.ai.bot.exception.InvalidAudioException;
+import com.my.spring.ai.bot.exception.ServiceUnavailableException;
 import com.my.spring.ai.bot.exception.TextGenerationException;
+import com.my.spring.ai.bot.resilience.CircuitBreaker;
+import com.my.spring.ai.bot.resilience.CircuitBreakerRegistry;
 import com.my.spring.ai.bot.service.SpeechToTextService;
 import com.my.spring.ai.bot.util.AudioValidator;
-import lombok.AllArgsConstructor;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.ai.audio.transcription.AudioTranscriptionPrompt;
 import org.springframework.ai.audio.transcription.AudioTranscriptionResponse;
@@ -20,11 +21,20 @@ import org.springframework.stereotype.Service;
 @Slf4j
 @Profile("voice")
 @Service
-@AllArgsConstructor(onConstructor = @__(@Autowired))
 public class SpeechToTextServiceImpl implements SpeechToTextService {
 
     private final OpenAiAudioTranscriptionModel openAiAudioTranscriptionModel;
     private final AudioValidator audioValidator;
+    private final CircuitBreaker circuitBreaker;
+
+    @Autowired
+    public SpeechToTextServiceImpl(OpenAiAudioTranscriptionModel openAiAudioTranscriptionModel,
+                                   AudioValidator audioValidator,
+                                   CircuitBreakerRegistry circuitBreakers) {
+        this.openAiAudioTranscriptionModel = openAiAudioTranscriptionModel;
+        this.audioValidator = audioValidator;
+        this.circuitBreaker = circuitBreakers.get(CircuitBreakerRegistry.SPEECH_TO_TEXT);
+    }
 
     /**
      * Service implementation to transcribe speech audio bytes to text using OpenAI Whisper via Spring AI.
@@ -48,7 +58,7 @@ public class SpeechToTextServiceImpl implements SpeechToTextService {
                             .builder()
                             .build()
             );
-            AudioTranscriptionResponse response = openAiAudioTranscriptionModel.call(prompt);
+            AudioTranscriptionResponse response = circuitBreaker.execute(() -> openAiAudioTranscriptionModel.call(prompt));
             String transcribedText = response.getResult().getOutput();
 
             log.debug("Transcribed text (first 50 chars): {}",
@@ -58,6 +68,8 @@ public class SpeechToTextServiceImpl implements SpeechToTextService {
 
             return transcribedText;
 
+        } catch (ServiceUnavailableException e) {
+            throw e;
         } catch (Exception e) {
             log.error("Fail to transcribe provided speech", e);
             throw new TextGenerationException("Fail to transcribe provided speech", e);
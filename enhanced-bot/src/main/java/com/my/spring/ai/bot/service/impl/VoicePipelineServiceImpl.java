@@ -1,5 +1,9 @@
 package com.my.spring.ai.bot.service.impl;
 
+import com.my.spring.ai.bot.admission.AdmissionControl;
+import com.my.spring.ai.bot.admission.EndpointClass;
+import com.my.spring.ai.bot.cancellation.RequestCancellation;
+import com.my.spring.ai.bot.deadline.Deadline;
 import com.my.spring.ai.bot.dto.AudioResponse;
 import com.my.spring.ai.bot.service.ChatService;
 import com.my.spring.ai.bot.service.SpeechToTextService;
@@ -12,6 +16,7 @@ import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Service;
 
 import java.util.UUID;
+import java.util.function.Supplier;
 
 @Slf4j
 @Profile("voice")
@@ -22,6 +27,7 @@ public class VoicePipelineServiceImpl implements VoicePipelineService {
     private final ChatService chatService;
     private final SpeechToTextService speechToTextService;
     private final TextToSpeechService textToSpeechService;
+    private final AdmissionControl admissionControl;
 
     @Override
     public AudioResponse processVoiceQuery(String sessionId, byte[] audioInput) {
@@ -37,7 +43,7 @@ public class VoicePipelineServiceImpl implements VoicePipelineService {
             throw new IllegalArgumentException("audioInput must not be null or empty");
         }
 
-        String requestText = speechToTextService.speechToText(audioInput);
+        String requestText = withinDeadline(() -> speechToTextService.speechToText(audioInput));
 
         log.debug("Start chat sessionId={}, requestText={}", sessionId,  requestText);
 
@@ -45,7 +51,10 @@ public class VoicePipelineServiceImpl implements VoicePipelineService {
             throw new IllegalStateException("Speech-to-text result is empty");
         }
 
-        String responseText = chatService.chat(sessionId, requestText);
+        // Voice has its own limit; the chat call inside is not admitted again
+        String chatSessionId = sessionId;
+        String responseText = withinDeadline(() ->
+                admissionControl.call(EndpointClass.VOICE, () -> chatService.chat(chatSessionId, requestText)));
 
         log.debug("Start speech generation sessionId={}, requestText={}, responseText={}", sessionId,  requestText, responseText);
 
@@ -53,7 +62,7 @@ public class VoicePipelineServiceImpl implements VoicePipelineService {
             throw new IllegalStateException("Chat response is empty");
         }
 
-        byte[] responseVoice = textToSpeechService.textToSpeech(responseText);
+        byte[] responseVoice = withinDeadline(() -> textToSpeechService.textToSpeech(responseText));
 
         log.debug("Create full response sessionId={}, requestText={}, responseText={}, responseBytesLength={}",
                 sessionId,  requestText, responseText, responseVoice == null ? 0 : responseVoice.length);
@@ -65,6 +74,20 @@ public class VoicePipelineServiceImpl implements VoicePipelineService {
         return new AudioResponse(responseVoice, responseText, requestText, sessionId);
     }
 
+    /**
+     * Runs one step of the pipeline if the request still has time, reporting a step cut short by the
+     * deadline as such rather than as a failure of the step. The step is cancelled if the client disconnects.
+     */
+    private static <T> T withinDeadline(Supplier<T> step) {
+        Deadline.checkCurrent();
+        try {
+            return RequestCancellation.call(step);
+        } catch (RuntimeException e) {
+            Deadline.checkCurrent(e);
+            throw e;
+        }
+    }
+
     @Override
     public String chat(String sessionId, String userMessage) {
         return chatService.chat(sessionId, userMessage);
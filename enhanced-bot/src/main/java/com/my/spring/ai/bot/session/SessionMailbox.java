@@ -0,0 +1,230 @@
+package com.my.spring.ai.bot.session;
+
+import com.my.spring.ai.bot.config.SessionMailboxProperties;
+import com.my.spring.ai.bot.deadline.Deadline;
+import com.my.spring.ai.bot.exception.RequestCancelledException;
+import com.my.spring.ai.bot.exception.SupersededMessageException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+
+/**
+ * Runs the turns of each chat session one at a time, in arrival order, while different sessions run in parallel.
+ *
+ * Each session gets a mailbox only while it has turns in flight. A mailbox is a ticket queue: callers take
+ * the next ticket with an atomic increment and park until the head reaches it; finishing a turn advances
+ * the head and unparks exactly the next caller. There is no shared lock, so uncontended sessions pay
+ * two atomic operations per turn. With the {@code LATEST_WINS} policy a caller whose message was
+ * overtaken by a newer one for the same session is dropped instead of calling the model.
+ *
+ * A caller stops waiting when its request's deadline passes or its thread is interrupted, because
+ * the client left or the stream was cancelled; its ticket is then skipped when the head reaches it.
+ */
+@Slf4j
+@Component
+public class SessionMailbox {
+
+    private final boolean enabled;
+    private final SessionMailboxProperties.Policy policy;
+    private final ConcurrentHashMap<String, Mailbox> mailboxes = new ConcurrentHashMap<>();
+    private final AtomicInteger queued = new AtomicInteger();
+
+    private final Timer waitTime;
+    private final DistributionSummary queueDepth;
+    private final Counter superseded;
+
+    public SessionMailbox(SessionMailboxProperties properties, MeterRegistry meterRegistry) {
+        this.enabled = properties.isEnabled();
+        this.policy = properties.getPolicy();
+
+        this.waitTime = Timer.builder("chat.session.mailbox.wait")
+                .description("Time a chat turn waited behind earlier turns of the same session")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.queueDepth = DistributionSummary.builder("chat.session.mailbox.depth")
+                .description("Turns of the same session ahead of a new turn when it arrives")
+                .register(meterRegistry);
+        this.superseded = Counter.builder("chat.session.mailbox.superseded")
+                .description("Queued chat turns dropped because a newer message replaced them")
+                .register(meterRegistry);
+        Gauge.builder("chat.session.mailbox.queued", queued, AtomicInteger::get)
+                .description("Chat turns waiting for an earlier turn of the same session")
+                .register(meterRegistry);
+        Gauge.builder("chat.session.mailbox.sessions", mailboxes, ConcurrentHashMap::size)
+                .description("Sessions with turns in flight")
+                .register(meterRegistry);
+
+        log.info("SessionMailbox configured: enabled={}, policy={}", enabled, policy);
+    }
+
+    /**
+     * Runs a turn once every earlier turn of the session has finished.
+     *
+     * @param sessionId the session the turn belongs to
+     * @param turn      the work to run, typically the model call
+     * @return the turn's result
+     * @throws SupersededMessageException under {@code LATEST_WINS} when a newer turn arrived while this one waited
+     * @throws com.my.spring.ai.bot.exception.DeadlineExceededException if the request's deadline passed while it waited
+     * @throws RequestCancelledException if the thread was interrupted while it waited
+     */
+    public <T> T submit(String sessionId, Supplier<T> turn) {
+        try (Turn ignored = enter(sessionId)) {
+            return turn.get();
+        }
+    }
+
+    /**
+     * Waits for the session's turn and holds it until the returned handle is closed.
+     * Used for streamed replies, where the turn ends when the stream does.
+     *
+     * @throws SupersededMessageException under {@code LATEST_WINS} when a newer turn arrived while this one waited
+     * @throws com.my.spring.ai.bot.exception.DeadlineExceededException if the request's deadline passed while it waited
+     * @throws RequestCancelledException if the thread was interrupted while it waited
+     */
+    public Turn enter(String sessionId) {
+        if (!enabled) {
+            return () -> { };
+        }
+        Mailbox mailbox = mailboxes.compute(sessionId, (id, existing) -> {
+            Mailbox m = existing == null ? new Mailbox() : existing;
+            m.users++;
+            return m;
+        });
+
+        long ticket = mailbox.tail.getAndIncrement();
+        long ahead = ticket - mailbox.head.get();
+        queueDepth.record(ahead);
+
+        AtomicBoolean left = new AtomicBoolean();
+        Turn turn = () -> {
+            if (left.compareAndSet(false, true)) {
+                leave(sessionId, mailbox);
+            }
+        };
+        if (ahead > 0) {
+            queued.incrementAndGet();
+            long start = System.nanoTime();
+            try {
+                mailbox.awaitHead(ticket, sessionId);
+            } catch (RuntimeException e) {
+                // The ticket was handed on; only the reference to the mailbox is left to give back
+                release(sessionId, mailbox);
+                throw e;
+            } finally {
+                queued.decrementAndGet();
+                waitTime.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            }
+        } else {
+            waitTime.record(0, TimeUnit.NANOSECONDS);
+        }
+
+        // Only queued messages can be superseded; one that started straight away always runs
+        if (policy == SessionMailboxProperties.Policy.LATEST_WINS && ahead > 0 && mailbox.tail.get() > ticket + 1) {
+            turn.close();
+            superseded.increment();
+            log.debug("Dropped superseded message for session {}", sessionId);
+            throw new SupersededMessageException("Message for session '" + sessionId + "' was replaced by a newer one.");
+        }
+        return turn;
+    }
+
+    private void leave(String sessionId, Mailbox mailbox) {
+        mailbox.advance();
+        release(sessionId, mailbox);
+    }
+
+    private void release(String sessionId, Mailbox mailbox) {
+        mailboxes.computeIfPresent(sessionId, (id, m) -> --m.users == 0 ? null : m);
+    }
+
+    /**
+     * Handle for a running turn; closing it lets the session's next turn start. Closing twice is harmless.
+     */
+    @FunctionalInterface
+    public interface Turn extends AutoCloseable {
+        @Override
+        void close();
+    }
+
+    /**
+     * Ticket queue of one session.
+     */
+    private static final class Mailbox {
+
+        // Next ticket to hand out, and the ticket currently allowed to run
+        private final AtomicLong tail = new AtomicLong();
+        private final AtomicLong head = new AtomicLong();
+        private final ConcurrentHashMap<Long, Thread> waiters = new ConcurrentHashMap<>();
+        // Tickets whose caller stopped waiting; the head passes over them
+        private final Set<Long> abandoned = ConcurrentHashMap.newKeySet();
+        // Callers holding a reference; only read and written inside the map's compute functions
+        private int users;
+
+        /**
+         * Parks until {@code ticket} reaches the head, or until the current request's deadline passes or the
+         * thread is interrupted, in which case the ticket is abandoned so the turns behind it still run.
+         */
+        void awaitHead(long ticket, String sessionId) {
+            Deadline deadline = Deadline.current();
+            // Register before checking the head so an advance in between cannot miss us
+            waiters.put(ticket, Thread.currentThread());
+            try {
+                while (head.get() != ticket) {
+                    if (deadline == null) {
+                        LockSupport.park(this);
+                    } else if (deadline.isExpired()) {
+                        abandon(ticket);
+                        deadline.check(null);
+                    } else {
+                        LockSupport.parkNanos(this, deadline.remaining().toNanos());
+                    }
+                    if (Thread.interrupted()) {
+                        abandon(ticket);
+                        // The deadline interrupts the thread too; report it as such when it is the cause
+                        Deadline.checkCurrent();
+                        Thread.currentThread().interrupt();
+                        throw new RequestCancelledException("Request for session '" + sessionId
+                                + "' was cancelled while waiting for an earlier message.");
+                    }
+                }
+            } finally {
+                waiters.remove(ticket);
+            }
+        }
+
+        /**
+         * Gives up the ticket; whoever finds it at the head, the advancing caller or this one, moves past it.
+         */
+        private void abandon(long ticket) {
+            waiters.remove(ticket);
+            abandoned.add(ticket);
+            if (head.get() == ticket && abandoned.remove(ticket)) {
+                advance();
+            }
+        }
+
+        void advance() {
+            long next = head.incrementAndGet();
+            while (abandoned.remove(next)) {
+                next = head.incrementAndGet();
+            }
+            Thread waiter = waiters.get(next);
+            if (waiter != null) {
+                LockSupport.unpark(waiter);
+            }
+        }
+    }
+}
@@ -0,0 +1,302 @@
+package com.my.spring.ai.bot.tools;
+
+import com.my.spring.ai.bot.cancellation.RequestCancellation;
+import com.my.spring.ai.bot.config.ToolExecutionProperties;
+import com.my.spring.ai.bot.deadline.Deadline;
+import com.my.spring.ai.bot.metrics.MeterCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.messages.Message;
+import org.springframework.ai.chat.messages.ToolResponseMessage;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.model.ToolContext;
+import org.springframework.ai.chat.prompt.ChatOptions;
+import org.springframework.ai.chat.prompt.Prompt;
+import org.springframework.ai.model.function.FunctionCallback;
+import org.springframework.ai.model.function.FunctionCallingOptions;
+import org.springframework.ai.model.tool.ToolCallingChatOptions;
+import org.springframework.ai.model.tool.ToolCallingManager;
+import org.springframework.ai.model.tool.ToolExecutionResult;
+import org.springframework.ai.tool.ToolCallback;
+import org.springframework.ai.tool.definition.ToolDefinition;
+import org.springframework.ai.tool.execution.ToolExecutionException;
+import org.springframework.ai.tool.execution.ToolExecutionExceptionProcessor;
+import org.springframework.ai.tool.resolution.ToolCallbackResolver;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.util.Assert;
+import org.springframework.util.CollectionUtils;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs the tool calls of one model turn concurrently.
+ *
+ * The model may ask for several independent tools at once, e.g. Splunk logs and the weather; run one
+ * after another their latencies add up. Here each call is submitted to a bounded executor shared by all
+ * requests, and the results go back to the model in the order it asked for them. When the executor's
+ * queue is full a call is not run at all: the model gets an error result for it at once, as for a tool
+ * that failed, rather than the request's thread running it without a timeout.
+ *
+ * Each call has a timeout, per tool or the default; a call that takes longer is interrupted and the
+ * model gets an error result for it. The request's deadline and cancellation are passed to the calls,
+ * and when the request is cancelled or its deadline interrupts it, its pending calls are too.
+ *
+ * Tool definitions are resolved, and everything runs sequentially when {@code tools.execution.parallel}
+ * is off, by the delegate manager.
+ *
+ * Records {@code llm.tool.calls} by tool and outcome (success, error, timeout, rejected).
+ */
+@Slf4j
+public class ParallelToolCallingManager implements ToolCallingManager, DisposableBean {
+
+    private final ToolCallingManager delegate;
+    private final ToolCallbackResolver toolCallbackResolver;
+    private final ToolExecutionExceptionProcessor toolExecutionExceptionProcessor;
+    private final ToolExecutionProperties properties;
+    private final MeterCache<Outcome, Timer> toolCalls;
+    private final ThreadPoolExecutor executor;
+
+    public ParallelToolCallingManager(ToolCallingManager delegate,
+                                      ToolCallbackResolver toolCallbackResolver,
+                                      ToolExecutionExceptionProcessor toolExecutionExceptionProcessor,
+                                      ToolExecutionProperties properties,
+                                      MeterRegistry meterRegistry) {
+        if (properties.getThreads() <= 0) {
+            throw new IllegalArgumentException("tools.execution.threads must be positive");
+        }
+        this.delegate = delegate;
+        this.toolCallbackResolver = toolCallbackResolver;
+        this.toolExecutionExceptionProcessor = toolExecutionExceptionProcessor;
+        this.properties = properties;
+        this.toolCalls = new MeterCache<>(outcome -> Timer.builder("llm.tool.calls")
+                .tag("tool", outcome.tool())
+                .tag("outcome", outcome.outcome())
+                .description("Tool calls requested by the model, by outcome")
+                .register(meterRegistry));
+
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(properties.getThreads(), properties.getThreads(),
+                30, TimeUnit.SECONDS, new ArrayBlockingQueue<>(Math.max(1, properties.getQueueCapacity())), r -> {
+            Thread thread = new Thread(r, "tool-call-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }, new ThreadPoolExecutor.AbortPolicy());
+        this.executor.allowCoreThreadTimeOut(true);
+
+        log.info("ParallelToolCallingManager configured: parallel={}, threads={}, queueCapacity={}, timeout={}, timeouts={}",
+                properties.isParallel(), properties.getThreads(), properties.getQueueCapacity(),
+                properties.getTimeout(), properties.getTimeouts());
+    }
+
+    @Override
+    public List<ToolDefinition> resolveToolDefinitions(ToolCallingChatOptions chatOptions) {
+        return delegate.resolveToolDefinitions(chatOptions);
+    }
+
+    @Override
+    public ToolExecutionResult executeToolCalls(Prompt prompt, ChatResponse chatResponse) {
+        if (!properties.isParallel()) {
+            return delegate.executeToolCalls(prompt, chatResponse);
+        }
+        Assert.notNull(prompt, "prompt cannot be null");
+        Assert.notNull(chatResponse, "chatResponse cannot be null");
+
+        AssistantMessage assistantMessage = chatResponse.getResults().stream()
+                .filter(generation -> !CollectionUtils.isEmpty(generation.getOutput().getToolCalls()))
+                .findFirst()
+                .orElseThrow(() -> new IllegalStateException("No tool call requested by the chat model"))
+                .getOutput();
+        ToolContext toolContext = buildToolContext(prompt, assistantMessage);
+
+        // Every tool is resolved before any is called, so an unknown one fails the turn without side effects
+        List<FunctionCallback> available = toolCallbacks(prompt.getOptions());
+        List<ToolCall> calls = new ArrayList<>();
+        for (AssistantMessage.ToolCall toolCall : assistantMessage.getToolCalls()) {
+            calls.add(new ToolCall(toolCall, resolve(toolCall.name(), available), toolContext));
+        }
+
+        Deadline deadline = Deadline.current();
+        for (ToolCall call : calls) {
+            Callable<String> task = RequestCancellation.propagate(call);
+            try {
+                call.future = executor.submit(deadline == null ? task : deadline.propagate(task));
+            } catch (RejectedExecutionException e) {
+                call.record("rejected");
+                log.warn("Tool '{}' not called: all {} tool-call threads are busy and the queue is full",
+                        call.toolCall.name(), properties.getThreads());
+                call.future = CompletableFuture.failedFuture(new ToolExecutionException(definition(call.callback),
+                        new RejectedExecutionException("Tool '" + call.toolCall.name() + "' not called: too many tool calls in progress")));
+            }
+        }
+        List<ToolResponseMessage.ToolResponse> responses = new ArrayList<>(calls.size());
+        try {
+            for (ToolCall call : calls) {
+                responses.add(new ToolResponseMessage.ToolResponse(call.toolCall.id(), call.toolCall.name(), await(call)));
+            }
+        } finally {
+            // Calls still running when the turn fails are of no use any more
+            for (ToolCall call : calls) {
+                if (call.future != null) {
+                    call.future.cancel(true);
+                }
+            }
+        }
+
+        List<Message> conversationHistory = new ArrayList<>(prompt.getInstructions());
+        conversationHistory.add(assistantMessage);
+        conversationHistory.add(new ToolResponseMessage(responses, Map.of()));
+        return ToolExecutionResult.builder()
+                .conversationHistory(conversationHistory)
+                .returnDirect(returnDirect(calls))
+                .build();
+    }
+
+    private String await(ToolCall call) {
+        try {
+            return call.future.get(call.remainingNanos(), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            call.record("timeout");
+            call.future.cancel(true);
+            log.warn("Tool '{}' did not answer within {}", call.toolCall.name(), call.timeout);
+            return toolExecutionExceptionProcessor.process(new ToolExecutionException(definition(call.callback),
+                    new TimeoutException("Tool '" + call.toolCall.name() + "' did not answer within " + call.timeout)));
+        } catch (InterruptedException e) {
+            // The request was cancelled or passed its deadline; the caller finds out which
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for tool '" + call.toolCall.name() + "'", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof ToolExecutionException toolFailure) {
+                return toolExecutionExceptionProcessor.process(toolFailure);
+            }
+            if (e.getCause() instanceof RuntimeException failure) {
+                throw failure;
+            }
+            throw new IllegalStateException("Tool '" + call.toolCall.name() + "' failed", e.getCause());
+        }
+    }
+
+    private FunctionCallback resolve(String toolName, List<FunctionCallback> available) {
+        FunctionCallback callback = available.stream()
+                .filter(tool -> toolName.equals(tool.getName()))
+                .findFirst()
+                .orElseGet(() -> toolCallbackResolver.resolve(toolName));
+        if (callback == null) {
+            throw new IllegalStateException("No ToolCallback found for tool name: " + toolName);
+        }
+        return callback;
+    }
+
+    /**
+     * The result goes straight to the client only if every tool called asks for that.
+     */
+    private static boolean returnDirect(List<ToolCall> calls) {
+        return !calls.isEmpty() && calls.stream().allMatch(call ->
+                call.callback instanceof ToolCallback tool && tool.getToolMetadata().returnDirect());
+    }
+
+    private static List<FunctionCallback> toolCallbacks(ChatOptions options) {
+        if (options instanceof ToolCallingChatOptions toolOptions) {
+            return toolOptions.getToolCallbacks();
+        }
+        if (options instanceof FunctionCallingOptions functionOptions) {
+            return functionOptions.getFunctionCallbacks();
+        }
+        return List.of();
+    }
+
+    private static ToolContext buildToolContext(Prompt prompt, AssistantMessage assistantMessage) {
+        Map<String, Object> context = Map.of();
+        if (prompt.getOptions() instanceof FunctionCallingOptions options && !CollectionUtils.isEmpty(options.getToolContext())) {
+            context = new HashMap<>(options.getToolContext());
+            List<Message> history = new ArrayList<>(prompt.copy().getInstructions());
+            history.add(new AssistantMessage(assistantMessage.getText(), assistantMessage.getMetadata(),
+                    assistantMessage.getToolCalls()));
+            context.put(ToolContext.TOOL_CALL_HISTORY, history);
+        }
+        return new ToolContext(context);
+    }
+
+    private static ToolDefinition definition(FunctionCallback callback) {
+        if (callback instanceof ToolCallback tool) {
+            return tool.getToolDefinition();
+        }
+        return ToolDefinition.builder()
+                .name(callback.getName())
+                .description(callback.getDescription())
+                .inputSchema(callback.getInputTypeSchema())
+                .build();
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * One tool call of the turn, run by the executor.
+     */
+    private final class ToolCall implements Callable<String> {
+
+        private final AssistantMessage.ToolCall toolCall;
+        private final FunctionCallback callback;
+        private final ToolContext toolContext;
+        private final Duration timeout;
+        private final long startNanos = System.nanoTime();
+        private final AtomicBoolean recorded = new AtomicBoolean();
+        private Future<String> future;
+
+        private ToolCall(AssistantMessage.ToolCall toolCall, FunctionCallback callback, ToolContext toolContext) {
+            this.toolCall = toolCall;
+            this.callback = callback;
+            this.toolContext = toolContext;
+            this.timeout = properties.getTimeouts().getOrDefault(toolCall.name(), properties.getTimeout());
+        }
+
+        @Override
+        public String call() {
+            log.debug("Executing tool call: {}", toolCall.name());
+            try {
+                String result = callback.call(toolCall.arguments(), toolContext);
+                record("success");
+                return result;
+            } catch (RuntimeException e) {
+                record("error");
+                throw e;
+            }
+        }
+
+        private long remainingNanos() {
+            return Math.max(0, timeout.toNanos() - (System.nanoTime() - startNanos));
+        }
+
+        /**
+         * Records the call's outcome, once: a call that timed out is not recorded again when it stops.
+         */
+        private void record(String outcome) {
+            if (recorded.compareAndSet(false, true)) {
+                toolCalls.get(new Outcome(toolCall.name(), outcome))
+                        .record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+            }
+        }
+    }
+
+    private record Outcome(String tool, String outcome) {
+    }
+}
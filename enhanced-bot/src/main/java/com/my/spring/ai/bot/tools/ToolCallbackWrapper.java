@@ -0,0 +1,16 @@
+package com.my.spring.ai.bot.tools;
+
+import org.springframework.ai.tool.ToolCallback;
+
+/**
+ * Adds one concern, such as caching results or holding calls to their request's deadline, to the tools of
+ * every tool provider; see {@link ToolCallbackWrappingBeanPostProcessor}.
+ */
+@FunctionalInterface
+public interface ToolCallbackWrapper {
+
+    /**
+     * @return the tool with this concern added, or the tool itself when the concern does not apply to it
+     */
+    ToolCallback wrap(ToolCallback tool);
+}
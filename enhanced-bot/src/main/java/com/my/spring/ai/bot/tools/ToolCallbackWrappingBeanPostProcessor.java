@@ -0,0 +1,80 @@
+package com.my.spring.ai.bot.tools;
+
+import org.springframework.ai.tool.ToolCallback;
+import org.springframework.ai.tool.ToolCallbackProvider;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Wraps the tools of every {@link ToolCallbackProvider} (the MCP clients' tools, in particular) in the
+ * given {@link ToolCallbackWrapper}s, in order: the first wraps the tool itself, the last is called first.
+ *
+ * Each tool is wrapped once. A provider that lists a tool it listed before gets the wrapper made for it
+ * then; only new tool instances are wrapped.
+ *
+ * The wrappers are looked up lazily for the same reason as the circuit breaker registry: resolving them
+ * while post-processors are still being created would initialize the meter registry too early.
+ */
+public class ToolCallbackWrappingBeanPostProcessor implements BeanPostProcessor {
+
+    private final List<ObjectProvider<? extends ToolCallbackWrapper>> wrappers;
+
+    public ToolCallbackWrappingBeanPostProcessor(List<ObjectProvider<? extends ToolCallbackWrapper>> wrappers) {
+        this.wrappers = List.copyOf(wrappers);
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof ToolCallbackProvider provider && !(bean instanceof WrappedToolCallbackProvider)) {
+            return new WrappedToolCallbackProvider(provider, wrappers);
+        }
+        return bean;
+    }
+
+    static final class WrappedToolCallbackProvider implements ToolCallbackProvider {
+
+        private final ToolCallbackProvider delegate;
+        private final List<ObjectProvider<? extends ToolCallbackWrapper>> wrappers;
+
+        // The wrapper of each tool of the last listing, by tool instance; replaced, never modified
+        private volatile Map<Object, ToolCallback> wrapped = new IdentityHashMap<>();
+
+        WrappedToolCallbackProvider(ToolCallbackProvider delegate,
+                                    List<ObjectProvider<? extends ToolCallbackWrapper>> wrappers) {
+            this.delegate = delegate;
+            this.wrappers = wrappers;
+        }
+
+        @Override
+        public ToolCallback[] getToolCallbacks() {
+            Object[] tools = delegate.getToolCallbacks();
+            if (tools == null) {
+                return new ToolCallback[0];
+            }
+            Map<Object, ToolCallback> previous = wrapped;
+            Map<Object, ToolCallback> current = new IdentityHashMap<>(tools.length);
+            ToolCallback[] callbacks = new ToolCallback[tools.length];
+            for (int i = 0; i < tools.length; i++) {
+                ToolCallback callback = previous.get(tools[i]);
+                callbacks[i] = callback != null ? callback : wrap(tools[i]);
+                current.put(tools[i], callbacks[i]);
+            }
+            wrapped = current;
+            return callbacks;
+        }
+
+        private ToolCallback wrap(Object tool) {
+            if (!(tool instanceof ToolCallback callback)) {
+                throw new IllegalStateException("Tool " + tool + " is not a ToolCallback and cannot be wrapped");
+            }
+            for (ObjectProvider<? extends ToolCallbackWrapper> wrapper : wrappers) {
+                callback = wrapper.getObject().wrap(callback);
+            }
+            return callback;
+        }
+    }
+}
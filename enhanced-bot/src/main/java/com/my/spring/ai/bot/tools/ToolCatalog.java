@@ -0,0 +1,37 @@
+package com.my.spring.ai.bot.tools;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.my.spring.ai.bot.dto.ToolDefinitionResponse;
+import org.springframework.ai.tool.ToolCallback;
+import org.springframework.util.DigestUtils;
+
+import java.util.List;
+
+/**
+ * The tools available at one point in time, with everything derived from them computed once: the tool
+ * definitions as the JSON served to clients, and an ETag over that JSON, which changes exactly when the
+ * served definitions do.
+ *
+ * @param callbacks       the tools, in the order their provider listed them
+ * @param definitionsJson the {@link ToolDefinitionResponse} list of the tools, serialized
+ * @param etag            quoted strong entity tag of {@code definitionsJson}
+ */
+public record ToolCatalog(List<ToolCallback> callbacks, byte[] definitionsJson, String etag) {
+
+    public static ToolCatalog of(List<ToolCallback> callbacks, ObjectMapper objectMapper) {
+        List<ToolDefinitionResponse> definitions = callbacks.stream()
+                .map(tool -> ToolDefinitionResponse.builder()
+                        .name(tool.getToolDefinition().name())
+                        .description(tool.getToolDefinition().description())
+                        .inputSchema(tool.getToolDefinition().inputSchema())
+                        .build())
+                .toList();
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(definitions);
+            return new ToolCatalog(List.copyOf(callbacks), json, "\"" + DigestUtils.md5DigestAsHex(json) + "\"");
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize the tool definitions", e);
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package com.my.spring.ai.bot.tools;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.ai.model.function.FunctionCallback;
+import org.springframework.ai.tool.ToolCallback;
+import org.springframework.ai.tool.ToolCallbackProvider;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * In-process registry of the MCP tools.
+ *
+ * Listing the tools of an MCP client is a round trip to each of its servers, so the registry takes a
+ * {@link ToolCatalog} of them once and serves every chat turn and tool listing from it. The catalog is
+ * taken again only after {@link #invalidate} — called when a server notifies that its tools changed —
+ * on the next request that needs it, so the servers are not listed from within their notification.
+ * A catalog being taken while the tools are invalidated is handed to the request that took it but not
+ * kept, as it may predate the change; the next request takes the catalog again. Requests arriving while
+ * the catalog is taken wait for it rather than list the servers themselves.
+ *
+ * Publishes {@code mcp.tools.registered}, the number of tools in the catalog, and
+ * {@code mcp.tools.refreshes}, the number of times it was taken.
+ */
+@Slf4j
+@Component
+public class ToolRegistry {
+
+    private final ToolCallbackProvider toolCallbackProvider;
+    private final ObjectMapper objectMapper;
+    private final Counter refreshes;
+    // Incremented by every invalidation, so that a catalog taken across one is not kept
+    private final AtomicLong generation = new AtomicLong();
+    // A lock rather than a monitor: listing the servers blocks on I/O, which would pin a virtual thread's carrier
+    private final ReentrantLock loadLock = new ReentrantLock();
+
+    private volatile ToolCatalog catalog;
+
+    public ToolRegistry(ToolCallbackProvider toolCallbackProvider, ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.toolCallbackProvider = toolCallbackProvider;
+        this.objectMapper = objectMapper;
+        this.refreshes = Counter.builder("mcp.tools.refreshes")
+                .description("Times the MCP tools were listed from their servers")
+                .register(meterRegistry);
+        Gauge.builder("mcp.tools.registered", this, registry -> {
+                    ToolCatalog current = registry.catalog;
+                    return current == null ? 0 : current.callbacks().size();
+                })
+                .description("MCP tools in the registry")
+                .register(meterRegistry);
+    }
+
+    /**
+     * The current catalog, listing the tools first if there is none or it was invalidated.
+     */
+    public ToolCatalog catalog() {
+        ToolCatalog current = catalog;
+        if (current != null) {
+            return current;
+        }
+        loadLock.lock();
+        try {
+            current = catalog;
+            if (current != null) {
+                return current;
+            }
+            long loadedGeneration = generation.get();
+            ToolCatalog loaded = load();
+            catalog = loaded;
+            // Checked after publishing: an invalidation from here on clears the catalog itself
+            if (generation.get() != loadedGeneration) {
+                catalog = null;
+                log.info("MCP tools changed while they were listed; listing them again on the next request");
+            }
+            return loaded;
+        } finally {
+            loadLock.unlock();
+        }
+    }
+
+    /**
+     * The current tools; shorthand for {@code catalog().callbacks()}.
+     */
+    public List<ToolCallback> getToolCallbacks() {
+        return catalog().callbacks();
+    }
+
+    /**
+     * Drops the catalog, so the tools are listed again when next needed.
+     *
+     * @param reason what changed, for the log
+     */
+    public void invalidate(String reason) {
+        log.info("MCP tools invalidated: {}", reason);
+        generation.incrementAndGet();
+        catalog = null;
+    }
+
+    private ToolCatalog load() {
+        FunctionCallback[] callbacks = toolCallbackProvider.getToolCallbacks();
+        List<ToolCallback> tools = callbacks == null ? List.of() : Arrays.stream(callbacks)
+                .map(ToolCallback.class::cast)
+                .toList();
+        ToolCatalog loaded = ToolCatalog.of(tools, objectMapper);
+        refreshes.increment();
+        log.info("Registered {} MCP tools, etag {}", tools.size(), loaded.etag());
+        return loaded;
+    }
+}
@@ -0,0 +1,236 @@
+package com.my.spring.ai.bot.tools;
+
+import com.my.spring.ai.bot.config.ToolSelectionProperties;
+import com.my.spring.ai.bot.deadline.Deadline;
+import com.my.spring.ai.bot.metrics.MeterCache;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.ai.tokenizer.JTokkitTokenCountEstimator;
+import org.springframework.ai.tokenizer.TokenCountEstimator;
+import org.springframework.ai.tool.ToolCallback;
+import org.springframework.ai.tool.definition.ToolDefinition;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.IntStream;
+
+/**
+ * Chooses the MCP tools sent with a prompt.
+ *
+ * Every tool definition goes out with every prompt, and some tool descriptions are very long. The selector
+ * embeds each tool's name and description once per {@link ToolCatalog}, embeds the user's message on each
+ * turn, and attaches only the {@code top-k} tools closest to it by cosine similarity. All tools are sent
+ * instead when there are no more than {@code top-k}, when no tool is similar enough to the message, when
+ * there is no embedding model, or when embedding fails.
+ *
+ * The tools of a catalog are embedded by one request at a time; the others wait for it, or keep using the
+ * previous attempt for the same catalog. After embedding them fails, they are embedded again no sooner than
+ * {@code retry-after}.
+ *
+ * Records {@code mcp.tools.prompt.tokens}, the estimated tokens of the tool definitions sent with a prompt,
+ * {@code mcp.tools.prompt.tokens.saved}, those left out, and {@code mcp.tools.selection.fallbacks} by reason.
+ */
+@Slf4j
+public class ToolSelector {
+
+    private final ToolRegistry toolRegistry;
+    private final EmbeddingModel embeddingModel;
+    private final ToolSelectionProperties properties;
+    private final TokenCountEstimator tokenEstimator;
+
+    private final DistributionSummary promptTokens;
+    private final DistributionSummary savedTokens;
+    // By reason
+    private final MeterCache<String, Counter> fallbacks;
+
+    // A lock rather than a monitor, so a virtual thread embedding the tools does not pin its carrier
+    private final ReentrantLock buildLock = new ReentrantLock();
+    private volatile Index index;
+
+    /**
+     * @param embeddingModel embeds tools and messages; null sends all tools with every prompt
+     */
+    public ToolSelector(ToolRegistry toolRegistry, EmbeddingModel embeddingModel,
+                        ToolSelectionProperties properties, MeterRegistry meterRegistry) {
+        this(toolRegistry, embeddingModel, properties, meterRegistry, new JTokkitTokenCountEstimator());
+    }
+
+    public ToolSelector(ToolRegistry toolRegistry, EmbeddingModel embeddingModel,
+                        ToolSelectionProperties properties, MeterRegistry meterRegistry,
+                        TokenCountEstimator tokenEstimator) {
+        this.toolRegistry = toolRegistry;
+        this.embeddingModel = embeddingModel;
+        this.properties = properties;
+        this.tokenEstimator = tokenEstimator;
+
+        this.promptTokens = DistributionSummary.builder("mcp.tools.prompt.tokens")
+                .description("Estimated tokens of the tool definitions sent with each MCP chat prompt")
+                .register(meterRegistry);
+        this.savedTokens = DistributionSummary.builder("mcp.tools.prompt.tokens.saved")
+                .description("Estimated tokens of the tool definitions left out of each MCP chat prompt")
+                .register(meterRegistry);
+        this.fallbacks = new MeterCache<>(reason -> Counter.builder("mcp.tools.selection.fallbacks")
+                .tag("reason", reason)
+                .description("MCP chat prompts sent with all tools because none could be chosen")
+                .register(meterRegistry));
+
+        log.info("ToolSelector configured: enabled={}, topK={}, minSimilarity={}, embeddingModel={}",
+                properties.isEnabled(), properties.getTopK(), properties.getMinSimilarity(),
+                embeddingModel == null ? "none" : embeddingModel.getClass().getSimpleName());
+    }
+
+    /**
+     * The tools to send with a prompt for the user's message, in the registry's order.
+     */
+    public List<ToolCallback> select(String userMessage) {
+        Index current = index();
+        List<ToolCallback> all = current.catalog.callbacks();
+        if (!selecting(all)) {
+            return sent(current, all, null);
+        }
+        if (current.embeddings == null) {
+            return fallback(current, "error");
+        }
+
+        float[] message;
+        try {
+            message = embeddingModel.embed(userMessage);
+        } catch (RuntimeException e) {
+            // Work cut short by the request's deadline or cancellation is not worth a prompt with all tools
+            Deadline.checkCurrent(e);
+            if (Thread.currentThread().isInterrupted()) {
+                throw e;
+            }
+            log.warn("Could not embed the message to choose tools; sending all {}: {}", all.size(), e.getMessage());
+            return fallback(current, "error");
+        }
+
+        double[] similarity = new double[all.size()];
+        for (int i = 0; i < similarity.length; i++) {
+            similarity[i] = cosine(message, current.embeddings.get(i));
+        }
+        List<Integer> ranked = IntStream.range(0, all.size()).boxed()
+                .sorted(Comparator.comparingDouble((Integer i) -> similarity[i]).reversed())
+                .toList();
+        if (similarity[ranked.get(0)] < properties.getMinSimilarity()) {
+            return fallback(current, "no-match");
+        }
+        boolean[] chosen = new boolean[all.size()];
+        ranked.stream().limit(properties.getTopK()).forEach(i -> chosen[i] = true);
+        List<ToolCallback> selected = new ArrayList<>(properties.getTopK());
+        for (int i = 0; i < all.size(); i++) {
+            if (chosen[i]) {
+                selected.add(all.get(i));
+            }
+        }
+        if (log.isDebugEnabled()) {
+            log.debug("Chose tools {} of {}", selected.stream().map(t -> t.getToolDefinition().name()).toList(), all.size());
+        }
+        return sent(current, selected, chosen);
+    }
+
+    private List<ToolCallback> fallback(Index current, String reason) {
+        fallbacks.get(reason).increment();
+        return sent(current, current.catalog.callbacks(), null);
+    }
+
+    private List<ToolCallback> sent(Index current, List<ToolCallback> tools, boolean[] chosen) {
+        int sentTokens = 0;
+        for (int i = 0; i < current.tokens.length; i++) {
+            if (chosen == null || chosen[i]) {
+                sentTokens += current.tokens[i];
+            }
+        }
+        promptTokens.record(sentTokens);
+        savedTokens.record(current.totalTokens - sentTokens);
+        return tools;
+    }
+
+    private boolean selecting(List<ToolCallback> tools) {
+        return properties.isEnabled() && embeddingModel != null && tools.size() > properties.getTopK();
+    }
+
+    /**
+     * The index of the registry's current catalog, built when the catalog changes, and again once
+     * {@code retry-after} has passed since its tools could not be embedded.
+     */
+    private Index index() {
+        ToolCatalog catalog = toolRegistry.catalog();
+        Index current = index;
+        if (isCurrent(current, catalog)) {
+            return current;
+        }
+        if (!buildLock.tryLock()) {
+            // Another request is embedding these tools again; this one gets all tools as before
+            if (current != null && current.catalog == catalog) {
+                return current;
+            }
+            buildLock.lock();
+        }
+        try {
+            if (!isCurrent(index, catalog)) {
+                index = build(catalog);
+            }
+            return index;
+        } finally {
+            buildLock.unlock();
+        }
+    }
+
+    private boolean isCurrent(Index index, ToolCatalog catalog) {
+        return index != null && index.catalog == catalog
+                && (index.embeddings != null || !selecting(catalog.callbacks()) || System.nanoTime() < index.retryAt);
+    }
+
+    private Index build(ToolCatalog catalog) {
+        List<String> texts = catalog.callbacks().stream()
+                .map(tool -> tool.getToolDefinition().name() + ": " + tool.getToolDefinition().description())
+                .toList();
+        int[] tokens = catalog.callbacks().stream().mapToInt(tool -> estimate(tool.getToolDefinition())).toArray();
+        List<float[]> embeddings = null;
+        long retryAt = 0;
+        if (selecting(catalog.callbacks())) {
+            try {
+                embeddings = embeddingModel.embed(texts);
+                log.info("Embedded {} tool descriptions for tool selection", texts.size());
+            } catch (RuntimeException e) {
+                Deadline.checkCurrent(e);
+                retryAt = System.nanoTime() + properties.getRetryAfter().toNanos();
+                log.warn("Could not embed the tool descriptions; prompts get all tools, retrying in {}: {}",
+                        properties.getRetryAfter(), e.getMessage());
+            }
+        }
+        return new Index(catalog, embeddings, tokens, IntStream.of(tokens).sum(), retryAt);
+    }
+
+    private int estimate(ToolDefinition definition) {
+        return tokenEstimator.estimate(definition.name())
+                + tokenEstimator.estimate(definition.description())
+                + tokenEstimator.estimate(definition.inputSchema());
+    }
+
+    static double cosine(float[] a, float[] b) {
+        double dot = 0;
+        double normA = 0;
+        double normB = 0;
+        for (int i = 0; i < Math.min(a.length, b.length); i++) {
+            dot += a[i] * b[i];
+            normA += a[i] * a[i];
+            normB += b[i] * b[i];
+        }
+        return normA == 0 || normB == 0 ? 0 : dot / (Math.sqrt(normA) * Math.sqrt(normB));
+    }
+
+    /**
+     * A catalog with the embedding and estimated tokens of each of its tools, in catalog order.
+     * Embeddings are null when they could not be computed or are not needed; in the first case they are
+     * computed again from {@code retryAt}, in {@link System#nanoTime()}.
+     */
+    private record Index(ToolCatalog catalog, List<float[]> embeddings, int[] tokens, int totalTokens, long retryAt) {
+    }
+}
@@ -0,0 +1,86 @@
+package com.my.spring.ai.bot.mcp;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * A stdio MCP server run as a child process by the tests, with one tool, {@code echo}: it answers with
+ * its process id and arguments after {@code sleepMillis}, and exits when {@code crash} is true. When
+ * {@code addTool} is true it also lists {@code echo2} from then on, and notifies that its tools changed.
+ */
+public class FakeStdioMcpServer {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+    private static final PrintStream OUT = System.out;
+    private static volatile boolean twoTools;
+
+    public static void main(String[] args) throws Exception {
+        ExecutorService calls = Executors.newCachedThreadPool();
+        BufferedReader in = new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8));
+        String line;
+        while ((line = in.readLine()) != null) {
+            JsonNode message = OBJECT_MAPPER.readTree(line);
+            if (!message.has("id")) {
+                continue;
+            }
+            ObjectNode answer = OBJECT_MAPPER.createObjectNode().put("jsonrpc", "2.0").set("id", message.get("id"));
+            switch (message.path("method").asText()) {
+                case "initialize" -> {
+                    ObjectNode result = answer.putObject("result").put("protocolVersion", "2024-11-05");
+                    result.putObject("capabilities").putObject("tools").put("listChanged", true);
+                    result.putObject("serverInfo").put("name", "fake").put("version", "1");
+                }
+                case "ping" -> answer.putObject("result");
+                case "tools/list" -> {
+                    ArrayNode tools = answer.putObject("result").putArray("tools");
+                    for (String name : twoTools ? new String[]{"echo", "echo2"} : new String[]{"echo"}) {
+                        tools.addObject().put("name", name).put("description", "Echoes its arguments")
+                                .putObject("inputSchema").put("type", "object");
+                    }
+                }
+                case "tools/call" -> {
+                    calls.execute(() -> call(message, answer));
+                    continue;
+                }
+                default -> answer.putObject("error").put("code", -32601).put("message", "Method not found");
+            }
+            send(answer);
+        }
+        System.exit(0);
+    }
+
+    private static void call(JsonNode message, ObjectNode answer) {
+        JsonNode arguments = message.path("params").path("arguments");
+        if (arguments.path("crash").asBoolean()) {
+            System.exit(1);
+        }
+        if (arguments.path("addTool").asBoolean()) {
+            twoTools = true;
+            send(OBJECT_MAPPER.createObjectNode().put("jsonrpc", "2.0").put("method", "notifications/tools/list_changed"));
+        }
+        try {
+            Thread.sleep(arguments.path("sleepMillis").asLong());
+        } catch (InterruptedException e) {
+            return;
+        }
+        answer.putObject("result").putArray("content").addObject().put("type", "text")
+                .put("text", ProcessHandle.current().pid() + " " + arguments);
+        send(answer);
+    }
+
+    private static void send(JsonNode answer) {
+        synchronized (OUT) {
+            OUT.println(answer);
+            OUT.flush();
+        }
+    }
+}
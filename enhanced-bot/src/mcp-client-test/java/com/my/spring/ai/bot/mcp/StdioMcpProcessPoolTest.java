@@ -0,0 +1,153 @@
+package com.my.spring.ai.bot.mcp;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.my.spring.ai.bot.config.McpStdioProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.mcp.customizer.McpSyncClientCustomizer;
+import org.springframework.ai.tool.ToolCallback;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for StdioMcpProcessPool, against processes of {@link FakeStdioMcpServer}.
+ */
+class StdioMcpProcessPoolTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private SimpleMeterRegistry meterRegistry;
+    private McpStdioProperties.Pool properties;
+    private StdioMcpProcessPool pool;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        properties = new McpStdioProperties.Pool();
+        properties.setCommand(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        properties.setArgs(List.of("-cp", System.getProperty("java.class.path"), FakeStdioMcpServer.class.getName()));
+        properties.setSize(2);
+        properties.setRestartDelay(Duration.ofMillis(50));
+        properties.setRequestTimeout(Duration.ofSeconds(5));
+        properties.getWarmup().setPings(5);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (pool != null) {
+            pool.close();
+        }
+    }
+
+    @Test
+    @DisplayName("Warms up every process before it takes calls and offers the server's tools")
+    void initialize_WarmsUpAndListsTools() throws Exception {
+        pool = new StdioMcpProcessPool("fake-mcp-server", properties, List.of(), objectMapper, meterRegistry);
+        pool.initialize();
+
+        List<ToolCallback> tools = pool.listTools();
+        assertEquals(1, tools.size());
+        assertEquals("echo", tools.get(0).getToolDefinition().name());
+        assertEquals("{\"type\":\"object\"}", tools.get(0).getToolDefinition().inputSchema());
+
+        JsonNode content = objectMapper.readTree(tools.get(0).call("{\"city\":\"Oslo\"}"));
+        assertTrue(content.get(0).get("text").asText().endsWith("{\"city\":\"Oslo\"}"));
+
+        assertEquals(2, pool.details().get("processes"));
+        assertEquals(List.of(0, 0), pool.details().get("queueDepths"));
+        assertEquals(2.0, meterRegistry.get("mcp.stdio.pool.processes").tag("server", "fake-mcp-server").gauge().value());
+    }
+
+    @Test
+    @DisplayName("Sends each call to the process with the fewest outstanding requests")
+    void callTool_LeastBusyProcess() {
+        pool = new StdioMcpProcessPool("fake-mcp-server", properties, List.of(), objectMapper, meterRegistry);
+        pool.initialize();
+        ToolCallback echo = pool.listTools().get(0);
+
+        CompletableFuture<String> slow = CompletableFuture.supplyAsync(() -> echo.call("{\"sleepMillis\":1000}"));
+        await(() -> queueDepths().contains(1));
+        assertEquals(1.0, Arrays.stream(new String[]{"1", "2"})
+                .mapToDouble(process -> meterRegistry.get("mcp.stdio.pool.queue.depth").tag("process", process).gauge().value())
+                .sum());
+
+        String fast = echo.call("{}");
+        assertNotEquals(pid(slow.join()), pid(fast));
+    }
+
+    @Test
+    @DisplayName("Replaces a process that dies; the call it was serving fails")
+    void callTool_ProcessDies_Replaced() {
+        pool = new StdioMcpProcessPool("fake-mcp-server", properties, List.of(), objectMapper, meterRegistry);
+        pool.initialize();
+        ToolCallback echo = pool.listTools().get(0);
+
+        // The SDK does not fail the pending call when the process exits; it times out
+        assertThrows(RuntimeException.class, () -> echo.call("{\"crash\":true}"));
+
+        await(() -> meterRegistry.get("mcp.stdio.pool.replacements").counter().count() == 1.0);
+        assertEquals(2, pool.details().get("processes"));
+        assertNotNull(echo.call("{}"));
+    }
+
+    @Test
+    @DisplayName("A process notifying that its tools changed reaches the customizers' consumers; the tools are listed anew")
+    void toolsChanged_NotifiesAndListsAgain() {
+        List<String> changes = new CopyOnWriteArrayList<>();
+        McpSyncClientCustomizer customizer = (name, spec) ->
+                spec.toolsChangeConsumer(tools -> changes.add(name + " " + tools.size()));
+        properties.setSize(1);
+        pool = new StdioMcpProcessPool("fake-mcp-server", properties, List.of(customizer), objectMapper, meterRegistry);
+        pool.initialize();
+        assertEquals(1, pool.listTools().size());
+
+        pool.listTools().get(0).call("{\"addTool\":true}");
+
+        await(() -> changes.contains("fake-mcp-server 2"));
+        assertEquals(List.of("echo", "echo2"), pool.listTools().stream().map(tool -> tool.getToolDefinition().name()).toList());
+    }
+
+    @Test
+    @DisplayName("Fails to initialize when no process can be started")
+    void initialize_CommandFails_Throws() {
+        properties.setRequestTimeout(Duration.ofMillis(500));
+        properties.setCommand(Path.of(System.getProperty("java.home"), "bin", "does-not-exist").toString());
+        pool = new StdioMcpProcessPool("fake-mcp-server", properties, List.of(), objectMapper, meterRegistry);
+
+        assertThrows(RuntimeException.class, pool::initialize);
+        assertEquals(0, pool.details().get("processes"));
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Integer> queueDepths() {
+        return (List<Integer>) pool.details().get("queueDepths");
+    }
+
+    private String pid(String content) {
+        try {
+            return objectMapper.readTree(content).get(0).get("text").asText().split(" ")[0];
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void await(BooleanSupplier condition) {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "condition not met within 10s");
+            Thread.onSpinWait();
+        }
+    }
+}
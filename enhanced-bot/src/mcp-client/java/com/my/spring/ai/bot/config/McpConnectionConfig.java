@@ -0,0 +1,67 @@
+package com.my.spring.ai.bot.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.my.spring.ai.bot.mcp.McpConnection;
+import com.my.spring.ai.bot.mcp.McpConnections;
+import com.my.spring.ai.bot.mcp.McpConnectionsHealth;
+import com.my.spring.ai.bot.mcp.McpSyncClients;
+import com.my.spring.ai.bot.mcp.StdioMcpProcessPool;
+import com.my.spring.ai.bot.tools.ToolRegistry;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.ai.autoconfigure.mcp.client.properties.McpClientCommonProperties;
+import org.springframework.ai.autoconfigure.mcp.client.properties.McpSseClientProperties;
+import org.springframework.ai.mcp.customizer.McpSyncClientCustomizer;
+import org.springframework.ai.tool.ToolCallbackProvider;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Connects the MCP clients in the background and offers the tools of those connected so far.
+ *
+ * The MCP client auto-configuration is switched off ({@code spring.ai.mcp.client.enabled}), as it would
+ * build one client per server up front, connect them one after another before the application starts and
+ * reuse a client whose handshake failed. The clients are built here from its properties instead, anew for
+ * every attempt. The servers of {@code mcp.stdio.pools} are connected alongside, each as a pool of processes.
+ * With the auto-configuration left on, its own clients and tools are used and none of this is set up.
+ *
+ * Compiled only with the {@code bedrock} profile, which puts the MCP client on the classpath.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "spring.ai.mcp.client", name = "enabled", havingValue = "false")
+@EnableConfigurationProperties({McpClientCommonProperties.class, McpSseClientProperties.class})
+public class McpConnectionConfig {
+
+    @Bean
+    public McpConnections mcpConnections(McpClientCommonProperties commonProperties, McpSseClientProperties sseProperties,
+                                         ObjectProvider<McpSyncClientCustomizer> customizers,
+                                         McpConnectionProperties properties, McpStdioProperties stdioProperties,
+                                         ObjectMapper objectMapper, MeterRegistry meterRegistry,
+                                         ObjectProvider<ToolRegistry> toolRegistry) {
+        List<McpSyncClientCustomizer> clientCustomizers = customizers.orderedStream().toList();
+        List<McpConnection> connections = new ArrayList<>(McpSyncClients.connections(commonProperties, sseProperties,
+                clientCustomizers, objectMapper));
+        stdioProperties.getPools().forEach((name, pool) ->
+                connections.add(new StdioMcpProcessPool(name, pool, clientCustomizers, objectMapper, meterRegistry)));
+        return new McpConnections(connections, properties,
+                (name, state) -> toolRegistry.ifAvailable(registry -> registry.invalidate("MCP server '" + name + "' is " + state)));
+    }
+
+    /**
+     * The tools of the servers connected at the time; listed again whenever the tool registry is invalidated.
+     */
+    @Bean
+    public ToolCallbackProvider mcpReadyToolCallbacks(McpConnections mcpConnections) {
+        return mcpConnections::readyToolCallbacks;
+    }
+
+    @Bean(name = "mcp")
+    public McpConnectionsHealth mcpConnectionsHealth(McpConnections mcpConnections) {
+        return new McpConnectionsHealth(mcpConnections);
+    }
+}
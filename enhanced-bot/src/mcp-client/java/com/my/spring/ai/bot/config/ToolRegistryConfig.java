@@ -0,0 +1,19 @@
+package com.my.spring.ai.bot.config;
+
+import com.my.spring.ai.bot.tools.McpToolChangeNotifications;
+import com.my.spring.ai.bot.tools.ToolRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Keeps the {@link ToolRegistry} in step with the MCP servers' tools.
+ */
+@Configuration
+public class ToolRegistryConfig {
+
+    @Bean
+    public McpToolChangeNotifications mcpToolChangeNotifications(ObjectProvider<ToolRegistry> toolRegistry) {
+        return new McpToolChangeNotifications(toolRegistry);
+    }
+}
@@ -0,0 +1,50 @@
+package com.my.spring.ai.bot.mcp;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.modelcontextprotocol.client.McpClient;
+import io.modelcontextprotocol.client.McpSyncClient;
+import io.modelcontextprotocol.client.transport.HttpClientSseClientTransport;
+import io.modelcontextprotocol.spec.McpSchema;
+import org.springframework.ai.autoconfigure.mcp.client.properties.McpClientCommonProperties;
+import org.springframework.ai.autoconfigure.mcp.client.properties.McpSseClientProperties;
+import org.springframework.ai.mcp.customizer.McpSyncClientCustomizer;
+
+import java.net.http.HttpClient;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The SSE servers of {@code spring.ai.mcp.client.sse.connections} as {@link McpConnection}s.
+ *
+ * The clients are built the way the MCP client auto-configuration builds them, named
+ * {@code "<client name> - <connection name>"} and customized by every {@link McpSyncClientCustomizer},
+ * but anew for every connection attempt rather than once.
+ */
+public final class McpSyncClients {
+
+    private McpSyncClients() {
+    }
+
+    public static List<McpConnection> connections(McpClientCommonProperties commonProperties,
+                                                  McpSseClientProperties sseProperties,
+                                                  List<McpSyncClientCustomizer> customizers,
+                                                  ObjectMapper objectMapper) {
+        List<McpConnection> connections = new ArrayList<>();
+        sseProperties.getConnections().forEach((name, sse) -> connections.add(new SyncClientMcpConnection(name,
+                () -> client(name, sse.url(), commonProperties, customizers, objectMapper))));
+        return connections;
+    }
+
+    private static McpSyncClient client(String name, String url, McpClientCommonProperties commonProperties,
+                                        List<McpSyncClientCustomizer> customizers, ObjectMapper objectMapper) {
+        HttpClientSseClientTransport transport = new HttpClientSseClientTransport(HttpClient.newBuilder(), url, objectMapper);
+        McpClient.SyncSpec spec = McpClient.sync(transport)
+                .clientInfo(new McpSchema.Implementation(commonProperties.getName() + " - " + name,
+                        commonProperties.getVersion()))
+                .requestTimeout(commonProperties.getRequestTimeout());
+        for (McpSyncClientCustomizer customizer : customizers) {
+            customizer.customize(name, spec);
+        }
+        return spec.build();
+    }
+}
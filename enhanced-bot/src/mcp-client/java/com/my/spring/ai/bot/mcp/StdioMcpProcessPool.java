@@ -0,0 +1,425 @@
+package com.my.spring.ai.bot.mcp;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.my.spring.ai.bot.config.McpStdioProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.modelcontextprotocol.client.McpClient;
+import io.modelcontextprotocol.client.McpSyncClient;
+import io.modelcontextprotocol.client.transport.ServerParameters;
+import io.modelcontextprotocol.client.transport.StdioClientTransport;
+import io.modelcontextprotocol.spec.McpSchema;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.ai.chat.model.ToolContext;
+import org.springframework.ai.mcp.customizer.McpSyncClientCustomizer;
+import org.springframework.ai.model.ModelOptionsUtils;
+import org.springframework.ai.tool.ToolCallback;
+import org.springframework.ai.tool.definition.ToolDefinition;
+import org.springframework.ai.tool.execution.ToolExecutionException;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Function;
+
+/**
+ * A pool of pre-started processes of one stdio MCP server, offered as a single {@link McpConnection}.
+ *
+ * One stdio process serializes the tool calls of every user through its pipe, and when it dies the next
+ * call waits for a cold JVM. The pool keeps {@code size} MCP sync clients instead, each over its own
+ * {@link StdioClientTransport} and so its own process, and sends each tool call to the one with the
+ * fewest outstanding requests. A process takes calls only once it is warm: it has answered the MCP
+ * handshake, listed its tools, and run the configured pings and warm-up calls. A process that exits is
+ * replaced in the background, after a delay that doubles while replacements fail; calls it was serving
+ * fail once they time out, and are not retried, since a tool call may have side effects.
+ *
+ * The clients are customized by every {@link McpSyncClientCustomizer}, as those of the MCP client
+ * auto-configuration are, so a process notifying that its tools changed invalidates the tool registry.
+ * The tools are listed from a warm process each time they are asked for.
+ *
+ * {@link #initialize()} starts the processes in parallel and succeeds once at least one is warm; the rest
+ * are replaced as if they had died.
+ *
+ * Publishes {@code mcp.stdio.pool.queue.depth} for each process slot, {@code mcp.stdio.pool.processes},
+ * the warm processes, and {@code mcp.stdio.pool.replacements}, all tagged with the server.
+ */
+@Slf4j
+public class StdioMcpProcessPool implements McpConnection {
+
+    private final String name;
+    private final McpStdioProperties.Pool properties;
+    private final List<McpSyncClientCustomizer> customizers;
+    private final ObjectMapper objectMapper;
+    private final AtomicReferenceArray<PooledClient> slots;
+    private final ScheduledThreadPoolExecutor executor;
+    private final Counter replacements;
+    private final AtomicInteger nextSlot = new AtomicInteger();
+
+    private volatile boolean closed;
+
+    public StdioMcpProcessPool(String name, McpStdioProperties.Pool properties, List<McpSyncClientCustomizer> customizers,
+                               ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        if (properties.getCommand() == null || properties.getCommand().isBlank()) {
+            throw new IllegalArgumentException("mcp.stdio.pools." + name + ".command must be set");
+        }
+        if (properties.getSize() <= 0) {
+            throw new IllegalArgumentException("mcp.stdio.pools." + name + ".size must be positive");
+        }
+        this.name = name;
+        this.properties = properties;
+        this.customizers = List.copyOf(customizers);
+        this.objectMapper = objectMapper;
+        this.slots = new AtomicReferenceArray<>(properties.getSize());
+
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ScheduledThreadPoolExecutor(properties.getSize(), r -> {
+            Thread thread = new Thread(r, name + "-starter-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.executor.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
+
+        this.replacements = Counter.builder("mcp.stdio.pool.replacements")
+                .tag("server", name)
+                .description("Processes of the stdio MCP server started to replace one that died")
+                .register(meterRegistry);
+        Gauge.builder("mcp.stdio.pool.processes", this, pool -> pool.warmClients().size())
+                .tag("server", name)
+                .description("Warm processes of the stdio MCP server taking tool calls")
+                .register(meterRegistry);
+        for (int i = 0; i < properties.getSize(); i++) {
+            int slot = i;
+            Gauge.builder("mcp.stdio.pool.queue.depth", this, pool -> {
+                        PooledClient client = pool.slots.get(slot);
+                        return client == null ? 0 : client.queueDepth.get();
+                    })
+                    .tag("server", name)
+                    .tag("process", String.valueOf(slot + 1))
+                    .description("Requests sent to the stdio MCP server process and not answered yet")
+                    .register(meterRegistry);
+        }
+    }
+
+    @Override
+    public String name() {
+        return name;
+    }
+
+    @Override
+    public void initialize() {
+        List<Integer> empty = new ArrayList<>();
+        for (int slot = 0; slot < slots.length(); slot++) {
+            if (slots.get(slot) == null) {
+                empty.add(slot);
+            }
+        }
+        List<CompletableFuture<Void>> starts = empty.stream()
+                .map(slot -> CompletableFuture.runAsync(() -> start(slot), executor))
+                .toList();
+        RuntimeException failure = null;
+        for (int i = 0; i < starts.size(); i++) {
+            try {
+                starts.get(i).join();
+            } catch (CompletionException e) {
+                failure = e.getCause() instanceof RuntimeException cause ? cause : new IllegalStateException(e.getCause());
+                scheduleReplacement(empty.get(i), properties.getRestartDelay());
+            }
+        }
+        if (warmClients().isEmpty()) {
+            throw failure != null ? failure : new IllegalStateException("No process of " + name + " could be started");
+        }
+        log.info("Stdio MCP server '{}' pool started: {} of {} process(es) warm", name, warmClients().size(), slots.length());
+    }
+
+    @Override
+    public List<ToolCallback> listTools() {
+        return request(leastBusy(), client -> listTools(client).stream()
+                .<ToolCallback>map(PooledToolCallback::new)
+                .toList());
+    }
+
+    @Override
+    public void ping() {
+        request(leastBusy(), McpSyncClient::ping);
+    }
+
+    @Override
+    public Map<String, Object> details() {
+        List<Integer> queueDepths = new ArrayList<>(slots.length());
+        for (int slot = 0; slot < slots.length(); slot++) {
+            PooledClient client = slots.get(slot);
+            queueDepths.add(client == null ? null : client.queueDepth.get());
+        }
+        Map<String, Object> details = new LinkedHashMap<>();
+        details.put("processes", warmClients().size());
+        details.put("queueDepths", queueDepths);
+        return details;
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        executor.shutdownNow();
+        for (int slot = 0; slot < slots.length(); slot++) {
+            PooledClient client = slots.getAndSet(slot, null);
+            if (client != null) {
+                client.close();
+            }
+        }
+    }
+
+    /**
+     * Calls a tool on the warm process with the fewest outstanding requests.
+     */
+    String callTool(ToolDefinition tool, String toolInput) {
+        McpSchema.CallToolResult result = request(leastBusy(),
+                client -> client.callTool(new McpSchema.CallToolRequest(tool.name(), arguments(toolInput))));
+        String content = ModelOptionsUtils.toJsonString(result.content());
+        if (Boolean.TRUE.equals(result.isError())) {
+            throw new ToolExecutionException(tool, new IllegalStateException(content));
+        }
+        return content;
+    }
+
+    private <T> T request(PooledClient client, Function<McpSyncClient, T> request) {
+        client.queueDepth.incrementAndGet();
+        try {
+            return request.apply(client.client);
+        } catch (RuntimeException e) {
+            // A blocking SDK call that is interrupted clears the flag; the caller's cancellation relies on it
+            if (causedByInterrupt(e)) {
+                Thread.currentThread().interrupt();
+            }
+            throw e;
+        } finally {
+            client.queueDepth.decrementAndGet();
+        }
+    }
+
+    private PooledClient leastBusy() {
+        // Starting at a different slot each time spreads calls over processes that are equally busy
+        int start = Math.floorMod(nextSlot.getAndIncrement(), slots.length());
+        PooledClient best = null;
+        for (int i = 0; i < slots.length(); i++) {
+            PooledClient client = slots.get((start + i) % slots.length());
+            if (client != null && client.isAlive() && (best == null || client.queueDepth.get() < best.queueDepth.get())) {
+                best = client;
+            }
+        }
+        if (best == null) {
+            throw new IllegalStateException("No process of MCP server " + name + " is available");
+        }
+        return best;
+    }
+
+    private List<PooledClient> warmClients() {
+        List<PooledClient> warm = new ArrayList<>(slots.length());
+        for (int slot = 0; slot < slots.length(); slot++) {
+            PooledClient client = slots.get(slot);
+            if (client != null && client.isAlive()) {
+                warm.add(client);
+            }
+        }
+        return warm;
+    }
+
+    /**
+     * Starts and warms up a process, then puts it into the slot.
+     */
+    private void start(int slot) {
+        String processName = name + "-" + (slot + 1);
+        StdioClientTransport transport = new StdioClientTransport(ServerParameters.builder(properties.getCommand())
+                .args(properties.getArgs())
+                .env(properties.getEnv())
+                .build(), objectMapper);
+        transport.setStdErrorHandler(line -> log.debug("{} stderr: {}", processName, line));
+        McpClient.SyncSpec spec = McpClient.sync(transport)
+                .clientInfo(new McpSchema.Implementation("enhanced-bot - " + name, "1.0.0"))
+                .requestTimeout(properties.getRequestTimeout());
+        for (McpSyncClientCustomizer customizer : customizers) {
+            customizer.customize(name, spec);
+        }
+        PooledClient client = new PooledClient(processName, spec.build());
+        try {
+            long startNanos = System.nanoTime();
+            warmUp(client.client);
+            Thread watcher = new Thread(() -> awaitExit(slot, client, transport), processName + "-exit");
+            watcher.setDaemon(true);
+            watcher.start();
+            // A retried initialize and a replacement may both have started one for the slot
+            if (closed || !slots.compareAndSet(slot, null, client)) {
+                client.close();
+                return;
+            }
+            // Its exit is handled with the slot still empty if it died before it was put in, so it is replaced here
+            if (!client.isAlive()) {
+                if (slots.compareAndSet(slot, client, null)) {
+                    log.warn("MCP server process {} exited while it was warmed up, replacing it", processName);
+                    scheduleReplacement(slot, properties.getRestartDelay());
+                }
+                return;
+            }
+            log.info("MCP server process {} warm after {} ms", processName,
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos));
+        } catch (RuntimeException e) {
+            client.close();
+            throw e;
+        }
+    }
+
+    private void warmUp(McpSyncClient client) {
+        client.initialize();
+        listTools(client);
+        for (int i = 0; i < properties.getWarmup().getPings(); i++) {
+            client.ping();
+        }
+        for (McpStdioProperties.Call call : properties.getWarmup().getCalls()) {
+            client.callTool(new McpSchema.CallToolRequest(call.getTool(), arguments(call.getArguments())));
+        }
+    }
+
+    private static List<McpSchema.Tool> listTools(McpSyncClient client) {
+        List<McpSchema.Tool> tools = new ArrayList<>();
+        String cursor = null;
+        do {
+            McpSchema.ListToolsResult result = cursor == null ? client.listTools() : client.listTools(cursor);
+            tools.addAll(result.tools());
+            cursor = result.nextCursor();
+        } while (cursor != null);
+        return tools;
+    }
+
+    private void awaitExit(int slot, PooledClient client, StdioClientTransport transport) {
+        try {
+            transport.awaitForExit();
+        } catch (RuntimeException e) {
+            log.debug("Stopped waiting for the exit of {}", client.name, e);
+        }
+        if (!client.exited.compareAndSet(false, true) || closed) {
+            return;
+        }
+        client.close();
+        if (slots.compareAndSet(slot, client, null)) {
+            log.warn("MCP server process {} exited, replacing it", client.name);
+            scheduleReplacement(slot, properties.getRestartDelay());
+        }
+    }
+
+    private void scheduleReplacement(int slot, Duration delay) {
+        if (closed) {
+            return;
+        }
+        executor.schedule(() -> replace(slot, delay), delay.toNanos(), TimeUnit.NANOSECONDS);
+    }
+
+    private void replace(int slot, Duration delay) {
+        if (closed || slots.get(slot) != null) {
+            return;
+        }
+        try {
+            start(slot);
+            replacements.increment();
+        } catch (RuntimeException e) {
+            Duration next = delay.multipliedBy(2);
+            if (next.compareTo(properties.getMaxRestartDelay()) > 0) {
+                next = properties.getMaxRestartDelay();
+            }
+            log.warn("Could not replace MCP server process {}-{}, retrying in {}: {}", name, slot + 1, next, e.getMessage());
+            scheduleReplacement(slot, next);
+        }
+    }
+
+    private Map<String, Object> arguments(String toolInput) {
+        if (toolInput == null || toolInput.isBlank()) {
+            return Map.of();
+        }
+        try {
+            return ModelOptionsUtils.jsonToMap(toolInput);
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Tool arguments of " + name + " are not JSON: " + toolInput, e);
+        }
+    }
+
+    private static boolean causedByInterrupt(Throwable failure) {
+        for (Throwable cause = failure; cause != null; cause = cause.getCause()) {
+            if (cause instanceof InterruptedException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * One process of the pool, behind its MCP client.
+     */
+    private static final class PooledClient {
+
+        private final String name;
+        private final McpSyncClient client;
+        private final AtomicInteger queueDepth = new AtomicInteger();
+        private final AtomicBoolean exited = new AtomicBoolean();
+
+        private PooledClient(String name, McpSyncClient client) {
+            this.name = name;
+            this.client = client;
+        }
+
+        private boolean isAlive() {
+            return !exited.get();
+        }
+
+        /**
+         * Stops the process; its exit is then not handled as a death.
+         */
+        private void close() {
+            exited.set(true);
+            try {
+                client.close();
+            } catch (RuntimeException e) {
+                log.debug("Failed to close the client of MCP server process {}", name, e);
+            }
+        }
+    }
+
+    /**
+     * A tool of the server, called on whichever process of the pool is least busy.
+     */
+    private final class PooledToolCallback implements ToolCallback {
+
+        private final ToolDefinition toolDefinition;
+
+        private PooledToolCallback(McpSchema.Tool tool) {
+            this.toolDefinition = ToolDefinition.builder()
+                    .name(tool.name())
+                    .description(tool.description() == null ? "" : tool.description())
+                    .inputSchema(ModelOptionsUtils.toJsonString(tool.inputSchema()))
+                    .build();
+        }
+
+        @Override
+        public ToolDefinition getToolDefinition() {
+            return toolDefinition;
+        }
+
+        @Override
+        public String call(String toolInput) {
+            return callTool(toolDefinition, toolInput);
+        }
+
+        @Override
+        public String call(String toolInput, ToolContext toolContext) {
+            // The tool context stays in the application, as with the MCP client's own tool callbacks
+            return callTool(toolDefinition, toolInput);
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.my.spring.ai.bot.mcp;
+
+import io.modelcontextprotocol.client.McpSyncClient;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.ai.mcp.SyncMcpToolCallback;
+import org.springframework.ai.tool.ToolCallback;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * An MCP sync client as an {@link McpConnection}.
+ *
+ * A client whose handshake failed is not tried again: its transport may already be closed, or half open
+ * on a server that went away. Every attempt builds a new client, and with it a new transport, and closes
+ * the one before.
+ */
+@Slf4j
+final class SyncClientMcpConnection implements McpConnection {
+
+    private final String name;
+    private final Supplier<McpSyncClient> clients;
+
+    private volatile McpSyncClient client;
+
+    /**
+     * @param clients builds a new, not yet initialized, client with its own transport on every call
+     */
+    SyncClientMcpConnection(String name, Supplier<McpSyncClient> clients) {
+        this.name = name;
+        this.clients = clients;
+    }
+
+    @Override
+    public String name() {
+        return name;
+    }
+
+    @Override
+    public void initialize() {
+        close();
+        McpSyncClient attempt = clients.get();
+        try {
+            attempt.initialize();
+        } catch (RuntimeException e) {
+            close(attempt);
+            throw e;
+        }
+        client = attempt;
+    }
+
+    @Override
+    public List<ToolCallback> listTools() {
+        McpSyncClient current = connected();
+        return current.listTools().tools().stream()
+                .<ToolCallback>map(tool -> new SyncMcpToolCallback(current, tool))
+                .toList();
+    }
+
+    @Override
+    public void ping() {
+        connected().ping();
+    }
+
+    @Override
+    public void close() {
+        McpSyncClient current = client;
+        client = null;
+        if (current != null) {
+            close(current);
+        }
+    }
+
+    private McpSyncClient connected() {
+        McpSyncClient current = client;
+        if (current == null) {
+            throw new IllegalStateException("MCP server '" + name + "' is not connected");
+        }
+        return current;
+    }
+
+    private void close(McpSyncClient closing) {
+        try {
+            closing.close();
+        } catch (RuntimeException e) {
+            log.debug("Failed to close a client of MCP server '{}'", name, e);
+        }
+    }
+}
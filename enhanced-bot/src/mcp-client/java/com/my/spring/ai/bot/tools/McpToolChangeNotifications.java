@@ -0,0 +1,29 @@
+package com.my.spring.ai.bot.tools;
+
+import io.modelcontextprotocol.client.McpClient;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.ai.mcp.customizer.McpSyncClientCustomizer;
+import org.springframework.beans.factory.ObjectProvider;
+
+/**
+ * Invalidates the {@link ToolRegistry} whenever an MCP server notifies that its tools changed.
+ *
+ * Adds a tools-change consumer to every MCP sync client as it is built. The registry is looked up when a
+ * notification arrives, as it is created after the clients whose tools it lists.
+ */
+@Slf4j
+public class McpToolChangeNotifications implements McpSyncClientCustomizer {
+
+    private final ObjectProvider<ToolRegistry> toolRegistry;
+
+    public McpToolChangeNotifications(ObjectProvider<ToolRegistry> toolRegistry) {
+        this.toolRegistry = toolRegistry;
+    }
+
+    @Override
+    public void customize(String name, McpClient.SyncSpec spec) {
+        spec.toolsChangeConsumer(tools ->
+                toolRegistry.getObject().invalidate(name + " now has " + tools.size() + " tools"));
+        log.debug("Subscribed to tool changes of MCP client {}", name);
+    }
+}
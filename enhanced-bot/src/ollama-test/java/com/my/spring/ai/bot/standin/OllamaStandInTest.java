@@ -0,0 +1,102 @@
+package com.my.spring.ai.bot.standin;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.prompt.Prompt;
+import org.springframework.ai.chroma.vectorstore.ChromaApi;
+import org.springframework.ai.chroma.vectorstore.ChromaVectorStore;
+import org.springframework.ai.document.Document;
+import org.springframework.ai.ollama.OllamaChatModel;
+import org.springframework.ai.ollama.OllamaEmbeddingModel;
+import org.springframework.ai.ollama.api.OllamaApi;
+import org.springframework.ai.ollama.api.OllamaOptions;
+import org.springframework.ai.vectorstore.SearchRequest;
+import org.springframework.web.client.RestClientResponseException;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks that the Ollama stand-in speaks the protocol the Spring AI Ollama client expects.
+ */
+class OllamaStandInTest {
+
+    private static final String MODEL = "llama3.2";
+
+    @Test
+    @DisplayName("Ollama stand-in answers blocking and streaming chat calls with token counts")
+    void ollamaChat() {
+        StandInProfile profile = new StandInProfile();
+        profile.setReplyTokens(12);
+        try (OllamaStandIn ollama = new OllamaStandIn(profile).start()) {
+            OllamaChatModel chatModel = OllamaChatModel.builder()
+                    .ollamaApi(new OllamaApi(ollama.baseUrl()))
+                    .defaultOptions(OllamaOptions.builder().model(MODEL).build())
+                    .build();
+
+            ChatResponse response = chatModel.call(new Prompt("Tell me something about Spring"));
+            assertFalse(response.getResult().getOutput().getText().isBlank());
+            assertEquals(12, response.getMetadata().getUsage().getCompletionTokens());
+
+            String streamed = chatModel.stream(new Prompt("Tell me something about Spring"))
+                    .map(chunk -> chunk.getResult() == null || chunk.getResult().getOutput().getText() == null
+                            ? "" : chunk.getResult().getOutput().getText())
+                    .collect(Collectors.joining())
+                    .block(Duration.ofSeconds(10));
+            assertEquals(12, streamed.trim().split("\\s+").length);
+            assertEquals(2, ollama.requestCount());
+        }
+    }
+
+    @Test
+    @DisplayName("Ollama and Chroma stand-ins back a vector store that finds the closest document")
+    void vectorStoreSearch() {
+        try (OllamaStandIn ollama = new OllamaStandIn(new StandInProfile()).start();
+             ChromaStandIn chroma = new ChromaStandIn(new StandInProfile()).start()) {
+            OllamaEmbeddingModel embeddingModel = OllamaEmbeddingModel.builder()
+                    .ollamaApi(new OllamaApi(ollama.baseUrl()))
+                    .defaultOptions(OllamaOptions.builder().model("nomic-embed-text").build())
+                    .build();
+            assertEquals(OllamaStandIn.EMBEDDING_DIMENSIONS, embeddingModel.embed("hello world").length);
+
+            ChromaVectorStore vectorStore = ChromaVectorStore.builder(new ChromaApi(chroma.baseUrl()), embeddingModel)
+                    .collectionName("StandInTest")
+                    .initializeSchema(true)
+                    .build();
+            vectorStore.afterPropertiesSet();
+            vectorStore.add(List.of(
+                    new Document("Chroma stores embeddings for similarity search"),
+                    new Document("Kokoro turns text into speech"),
+                    new Document("Whisper transcribes speech into text")));
+            assertEquals(3, chroma.size("StandInTest"));
+
+            List<Document> results = vectorStore.similaritySearch(
+                    SearchRequest.builder().query("which one transcribes speech").topK(1).build());
+            assertEquals(1, results.size());
+            assertTrue(results.get(0).getText().startsWith("Whisper"));
+        } catch (Exception e) {
+            fail(e);
+        }
+    }
+
+    @Test
+    @DisplayName("Error rate 1 fails every request with the configured status")
+    void injectedErrors() {
+        StandInProfile profile = new StandInProfile();
+        profile.setErrorRate(1);
+        profile.setErrorStatus(503);
+        try (OllamaStandIn ollama = new OllamaStandIn(profile).start()) {
+            OllamaApi api = new OllamaApi(ollama.baseUrl());
+
+            RuntimeException error = assertThrows(RuntimeException.class, () -> api.embed(
+                    new OllamaApi.EmbeddingsRequest("nomic-embed-text", "hello")));
+            assertTrue(error instanceof RestClientResponseException || error.getMessage().contains("503"),
+                    error.toString());
+            assertEquals(1, ollama.injectedErrorCount());
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.my.spring.ai.bot.config;
+
+import com.my.spring.ai.bot.cancellation.InterruptibleRequestFactory;
+import org.springframework.ai.autoconfigure.ollama.OllamaConnectionDetails;
+import org.springframework.ai.ollama.api.OllamaApi;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.client.RestClient;
+import org.springframework.web.reactive.function.client.WebClient;
+
+/**
+ * The Ollama API used by the auto-configured chat and embedding models, in place of the auto-configured
+ * one, so that its blocking calls can be cancelled by interrupting the thread making them.
+ */
+@Configuration
+public class OllamaApiConfig {
+
+    @Bean
+    public OllamaApi ollamaApi(ObjectProvider<OllamaConnectionDetails> connectionDetails,
+                               @Value("${spring.ai.ollama.base-url:http://localhost:11434}") String baseUrl,
+                               ObjectProvider<RestClient.Builder> restClientBuilder,
+                               ObjectProvider<WebClient.Builder> webClientBuilder) {
+        RestClient.Builder restClient = restClientBuilder.getIfAvailable(RestClient::builder)
+                .requestFactory(InterruptibleRequestFactory.create());
+        // The connection details come with the Ollama auto-configuration, absent where it is excluded
+        OllamaConnectionDetails details = connectionDetails.getIfAvailable();
+        return new OllamaApi(details == null ? baseUrl : details.getBaseUrl(), restClient,
+                webClientBuilder.getIfAvailable(WebClient::builder));
+    }
+}
@@ -0,0 +1,78 @@
+package com.my.spring.ai.bot.config;
+
+import com.my.spring.ai.bot.cancellation.InterruptibleRequestFactory;
+import com.my.spring.ai.bot.loadbalancer.BackendAffinityAdvisor;
+import com.my.spring.ai.bot.loadbalancer.LoadBalancedChatModel;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import org.springframework.ai.autoconfigure.ollama.OllamaChatProperties;
+import org.springframework.ai.chat.client.ChatClientCustomizer;
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.ai.model.tool.ToolCallingManager;
+import org.springframework.ai.ollama.OllamaChatModel;
+import org.springframework.ai.ollama.api.OllamaApi;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.StringUtils;
+import org.springframework.web.client.RestClient;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.net.URI;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Pool of Ollama servers used as the primary chat model when {@code ollama.pool.enabled=true}.
+ * Every server gets its own chat model with the {@code spring.ai.ollama.chat} options.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "ollama.pool", name = "enabled", havingValue = "true")
+public class OllamaPoolConfig {
+
+    @Bean
+    public LoadBalancedChatModel ollamaPoolChatModel(OllamaPoolProperties poolProperties,
+                                                     OllamaChatProperties chatProperties,
+                                                     ToolCallingManager toolCallingManager,
+                                                     ObjectProvider<ObservationRegistry> observationRegistry,
+                                                     ObjectProvider<RestClient.Builder> restClientBuilder,
+                                                     ObjectProvider<WebClient.Builder> webClientBuilder,
+                                                     MeterRegistry meterRegistry) {
+        if (poolProperties.getEndpoints().isEmpty()) {
+            throw new IllegalStateException("ollama.pool.enabled is set but ollama.pool.endpoints is empty");
+        }
+        Map<String, ChatModel> backends = new LinkedHashMap<>();
+        for (OllamaPoolProperties.Endpoint endpoint : poolProperties.getEndpoints()) {
+            String name = StringUtils.hasText(endpoint.getName()) ? endpoint.getName() : defaultName(endpoint.getBaseUrl());
+            if (backends.containsKey(name)) {
+                throw new IllegalStateException("Duplicate Ollama pool endpoint name: " + name);
+            }
+            RestClient.Builder restClient = restClientBuilder.getIfAvailable(RestClient::builder)
+                    .requestFactory(InterruptibleRequestFactory.create());
+            OllamaApi ollamaApi = new OllamaApi(endpoint.getBaseUrl(), restClient,
+                    webClientBuilder.getIfAvailable(WebClient::builder));
+            backends.put(name, OllamaChatModel.builder()
+                    .ollamaApi(ollamaApi)
+                    .defaultOptions(chatProperties.getOptions())
+                    .toolCallingManager(toolCallingManager)
+                    .observationRegistry(observationRegistry.getIfUnique(() -> ObservationRegistry.NOOP))
+                    .build());
+        }
+        return new LoadBalancedChatModel(backends, poolProperties, meterRegistry);
+    }
+
+    /**
+     * Adds the session affinity advisor to every ChatClient built from the auto-configured builder.
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "ollama.pool.affinity", name = "enabled", havingValue = "true")
+    public ChatClientCustomizer backendAffinityCustomizer() {
+        return builder -> builder.defaultAdvisors(new BackendAffinityAdvisor());
+    }
+
+    private static String defaultName(String baseUrl) {
+        URI uri = URI.create(baseUrl);
+        return uri.getPort() < 0 ? uri.getHost() : uri.getHost() + ":" + uri.getPort();
+    }
+}
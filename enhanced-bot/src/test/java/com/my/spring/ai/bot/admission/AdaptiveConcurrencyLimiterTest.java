@@ -0,0 +1,270 @@
+package com.my.spring.ai.bot.admission;
+
+import com.my.spring.ai.bot.config.AdmissionControlProperties;
+import com.my.spring.ai.bot.config.RequestDeadlineProperties;
+import com.my.spring.ai.bot.deadline.RequestDeadlines;
+import com.my.spring.ai.bot.exception.DeadlineExceededException;
+import com.my.spring.ai.bot.exception.RequestCancelledException;
+import com.my.spring.ai.bot.exception.ServiceUnavailableException;
+import com.my.spring.ai.bot.exception.TooManyRequestsException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for AdaptiveConcurrencyLimiter and AdmissionControl.
+ */
+class AdaptiveConcurrencyLimiterTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private ExecutorService executor;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        executor = Executors.newCachedThreadPool();
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("Rejects at once with Retry-After when the queue is full")
+    void acquire_QueueFull_RejectsWithRetryAfter() throws Exception {
+        AdaptiveConcurrencyLimiter limiter = limiter(limit(1, 1, Duration.ofSeconds(5)));
+        AdaptiveConcurrencyLimiter.Permit held = limiter.acquire();
+        Future<AdaptiveConcurrencyLimiter.Permit> waiting = executor.submit(limiter::acquire);
+        awaitQueued(limiter, 1);
+
+        TooManyRequestsException ex = assertThrows(TooManyRequestsException.class, limiter::acquire);
+        assertTrue(ex.getMessage().contains("queue is full"));
+        assertTrue(ex.getRetryAfter().toSeconds() >= 1);
+        assertEquals(1.0, meterRegistry.get("admission.rejected")
+                .tags("endpoint", "generate", "reason", "queue-full").counter().count());
+
+        held.close();
+        waiting.get(5, TimeUnit.SECONDS).close();
+        assertEquals(0, limiter.getInFlight());
+    }
+
+    @Test
+    @DisplayName("Rejects a queued call when no slot frees up before its deadline")
+    void acquire_WaitExpires_RejectsWithTimeout() {
+        AdaptiveConcurrencyLimiter limiter = limiter(limit(1, 4, Duration.ofMillis(50)));
+        AdaptiveConcurrencyLimiter.Permit held = limiter.acquire();
+
+        assertThrows(TooManyRequestsException.class, limiter::acquire);
+        assertEquals(1.0, meterRegistry.get("admission.rejected")
+                .tags("endpoint", "generate", "reason", "timeout").counter().count());
+        assertEquals(0, limiter.getQueued());
+        held.close();
+    }
+
+    @Test
+    @DisplayName("Waits no longer than the request's deadline, and fails with the deadline")
+    void acquire_DeadlineBeforeMaxWait_FailsWithDeadline() {
+        AdaptiveConcurrencyLimiter limiter = limiter(limit(1, 4, Duration.ofSeconds(10)));
+        AdaptiveConcurrencyLimiter.Permit held = limiter.acquire();
+        RequestDeadlines requestDeadlines = new RequestDeadlines(new RequestDeadlineProperties(), meterRegistry);
+
+        long start = System.nanoTime();
+        try (RequestDeadlines.Scope ignored = requestDeadlines.enter(requestDeadlines.resolve("generate", "100ms"))) {
+            assertThrows(DeadlineExceededException.class, limiter::acquire);
+        } finally {
+            Thread.interrupted();
+            requestDeadlines.destroy();
+        }
+
+        assertTrue(Duration.ofNanos(System.nanoTime() - start).toMillis() < 5_000);
+        assertEquals(0, limiter.getQueued());
+        held.close();
+    }
+
+    @Test
+    @DisplayName("Stops waiting when interrupted, keeping the interrupt flag")
+    void acquire_Interrupted_FailsAndKeepsFlag() throws Exception {
+        AdaptiveConcurrencyLimiter limiter = limiter(limit(1, 4, Duration.ofSeconds(10)));
+        AdaptiveConcurrencyLimiter.Permit held = limiter.acquire();
+        Future<Boolean> waiting = executor.submit(() -> {
+            assertThrows(RequestCancelledException.class, limiter::acquire);
+            return Thread.currentThread().isInterrupted();
+        });
+        awaitQueued(limiter, 1);
+
+        executor.shutdownNow();
+
+        assertTrue(waiting.get(5, TimeUnit.SECONDS));
+        assertEquals(0, limiter.getQueued());
+        assertEquals(1, limiter.getInFlight());
+        held.close();
+    }
+
+    @Test
+    @DisplayName("Lowers the limit when a call fails")
+    void close_FailedCall_DecreasesLimit() {
+        AdaptiveConcurrencyLimiter limiter = limiter(limit(10, 4, Duration.ofSeconds(1)));
+
+        AdaptiveConcurrencyLimiter.Permit permit = limiter.acquire();
+        permit.fail();
+        permit.close();
+        permit.close();
+
+        assertEquals(9.0, limiter.getLimit(), 0.001);
+        assertEquals(0, limiter.getInFlight());
+    }
+
+    @Test
+    @DisplayName("Lowers the limit when latency climbs well above the no-load latency")
+    void close_LatencyRises_DecreasesLimit() throws Exception {
+        AdaptiveConcurrencyLimiter limiter = limiter(limit(10, 4, Duration.ofSeconds(1)));
+        limiter.acquire().close();
+        double before = limiter.getLimit();
+
+        AdaptiveConcurrencyLimiter.Permit slow = limiter.acquire();
+        Thread.sleep(50);
+        slow.close();
+
+        assertTrue(limiter.getLimit() < before, "limit should shrink, was " + limiter.getLimit());
+    }
+
+    @Test
+    @DisplayName("Raises the limit while it is in use and latency stays flat")
+    void close_UnderLoad_IncreasesLimit() {
+        AdmissionControlProperties.Limit properties = limit(4, 4, Duration.ofSeconds(1));
+        // Sub-millisecond samples jitter too much for the default tolerance
+        properties.setLatencyTolerance(1_000_000);
+        AdaptiveConcurrencyLimiter limiter = limiter(properties);
+
+        List<AdaptiveConcurrencyLimiter.Permit> permits = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            permits.add(limiter.acquire());
+        }
+        permits.forEach(AdaptiveConcurrencyLimiter.Permit::close);
+
+        assertTrue(limiter.getLimit() > 4, "limit should grow, was " + limiter.getLimit());
+    }
+
+    @Test
+    @DisplayName("Does not admit a call nested inside an admitted call a second time")
+    void call_Nested_AdmittedOnce() {
+        AdmissionControlProperties properties = new AdmissionControlProperties();
+        properties.setDefaults(limit(1, 0, Duration.ofMillis(10)));
+        AdmissionControl admissionControl = new AdmissionControl(properties, meterRegistry);
+
+        String result = admissionControl.call(EndpointClass.VOICE,
+                () -> admissionControl.call(EndpointClass.CHAT, () -> "answer"));
+
+        assertEquals("answer", result);
+        assertEquals(0, admissionControl.limiter(EndpointClass.VOICE).getInFlight());
+        assertEquals(0, admissionControl.limiter(EndpointClass.CHAT).getInFlight());
+    }
+
+    @Test
+    @DisplayName("Lowers the limit when the model fails, but not for breaker fast-fails or calls their caller gave up on")
+    void call_Failures_OnlyModelFailuresDecreaseLimit() {
+        AdmissionControl admissionControl = pinnedAdmissionControl(4);
+        AdaptiveConcurrencyLimiter chat = admissionControl.limiter(EndpointClass.CHAT);
+
+        List<RuntimeException> ignored = List.of(
+                new ServiceUnavailableException("Circuit breaker 'ollama' is open", Duration.ofSeconds(5)),
+                new IllegalStateException("Model call failed", new ServiceUnavailableException("open", Duration.ofSeconds(5))),
+                new DeadlineExceededException("The chat request was not answered within its deadline.", null),
+                new RequestCancelledException("The request was cancelled before it was answered."));
+        for (RuntimeException failure : ignored) {
+            assertThrows(failure.getClass(), () -> admissionControl.call(EndpointClass.CHAT, () -> {
+                throw failure;
+            }));
+        }
+        assertEquals(4.0, chat.getLimit(), 0.001);
+
+        assertThrows(IllegalStateException.class, () -> admissionControl.call(EndpointClass.CHAT, () -> {
+            throw new IllegalStateException("Model returned 500");
+        }));
+        assertTrue(chat.getLimit() < 4, "limit should shrink, was " + chat.getLimit());
+        assertEquals(0, chat.getInFlight());
+    }
+
+    @Test
+    @DisplayName("A stream rejected by an open breaker frees its slot without lowering the limit")
+    void stream_Failures_OnlyModelFailuresDecreaseLimit() {
+        AdmissionControl admissionControl = pinnedAdmissionControl(4);
+        AdaptiveConcurrencyLimiter chat = admissionControl.limiter(EndpointClass.CHAT);
+
+        Flux<String> fastFail = admissionControl.stream(EndpointClass.CHAT,
+                () -> Flux.error(new ServiceUnavailableException("Circuit breaker 'ollama' is open", Duration.ofSeconds(5))));
+        assertThrows(ServiceUnavailableException.class, fastFail::blockLast);
+        assertEquals(4.0, chat.getLimit(), 0.001);
+
+        Flux<String> failing = admissionControl.stream(EndpointClass.CHAT,
+                () -> Flux.error(new IllegalStateException("Model returned 500")));
+        assertThrows(IllegalStateException.class, failing::blockLast);
+        assertTrue(chat.getLimit() < 4, "limit should shrink, was " + chat.getLimit());
+        assertEquals(0, chat.getInFlight());
+    }
+
+    @Test
+    @DisplayName("Holds a slot for a stream until it completes")
+    void stream_HoldsSlotUntilComplete() {
+        AdmissionControlProperties properties = new AdmissionControlProperties();
+        properties.setDefaults(limit(1, 0, Duration.ofMillis(10)));
+        // Pinned, so the completed stream's sample cannot raise it
+        properties.getDefaults().setMaxLimit(1);
+        AdmissionControl admissionControl = new AdmissionControl(properties, meterRegistry);
+        AdaptiveConcurrencyLimiter chat = admissionControl.limiter(EndpointClass.CHAT);
+
+        List<Integer> inFlightSeen = admissionControl.stream(EndpointClass.CHAT, () -> Flux.just("a", "b"))
+                .map(token -> chat.getInFlight())
+                .collectList()
+                .block();
+        assertEquals(List.of(1, 1), inFlightSeen);
+        assertEquals(0, chat.getInFlight());
+
+        AdaptiveConcurrencyLimiter.Permit held = chat.acquire();
+        Flux<String> rejected = admissionControl.stream(EndpointClass.CHAT, () -> Flux.just("a"));
+        assertThrows(TooManyRequestsException.class, rejected::blockLast);
+        held.close();
+    }
+
+    private AdmissionControl pinnedAdmissionControl(int limit) {
+        AdmissionControlProperties properties = new AdmissionControlProperties();
+        properties.setDefaults(limit(limit, 0, Duration.ofMillis(10)));
+        // Pinned from above, so only a failure can move it
+        properties.getDefaults().setMaxLimit(limit);
+        return new AdmissionControl(properties, meterRegistry);
+    }
+
+    private AdaptiveConcurrencyLimiter limiter(AdmissionControlProperties.Limit properties) {
+        return new AdaptiveConcurrencyLimiter(EndpointClass.GENERATE, properties, meterRegistry);
+    }
+
+    private static AdmissionControlProperties.Limit limit(int initialLimit, int queueCapacity, Duration maxWait) {
+        AdmissionControlProperties.Limit properties = new AdmissionControlProperties.Limit();
+        properties.setInitialLimit(initialLimit);
+        properties.setQueueCapacity(queueCapacity);
+        properties.setMaxWait(maxWait);
+        return properties;
+    }
+
+    private static void awaitQueued(AdaptiveConcurrencyLimiter limiter, int expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (limiter.getQueued() < expected && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertEquals(expected, limiter.getQueued());
+    }
+}
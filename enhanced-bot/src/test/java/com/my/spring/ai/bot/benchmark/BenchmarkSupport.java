@@ -0,0 +1,75 @@
+package com.my.spring.ai.bot.benchmark;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.slf4j.LoggerFactory;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.metadata.ChatResponseMetadata;
+import org.springframework.ai.chat.metadata.DefaultUsage;
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.model.Generation;
+import org.springframework.ai.chat.prompt.ChatOptions;
+import org.springframework.ai.chat.prompt.Prompt;
+
+import java.util.List;
+
+/**
+ * Shared pieces of the JMH benchmarks: a zero-latency chat model, quiet logging and the JSON runner.
+ */
+final class BenchmarkSupport {
+
+    private BenchmarkSupport() {
+    }
+
+    /**
+     * Runs the benchmarks of one class offline and writes the JMH results as JSON to {@code target/jmh-<name>.json}.
+     */
+    static void run(Class<?> benchmark, String name) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(benchmark.getSimpleName())
+                .resultFormat(ResultFormatType.JSON)
+                .result("target/jmh-" + name + ".json")
+                .build()).run();
+    }
+
+    /**
+     * Outside Spring Boot, logback falls back to DEBUG on the console, which would dominate the
+     * measurements. Keeps only warnings, but leaves {@code llm.calls} at INFO without appenders, so the
+     * call-logging advisor still samples and builds its events as it does in production, where they go
+     * to an asynchronous appender.
+     */
+    static void quietLogging() {
+        ((Logger) LoggerFactory.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME)).setLevel(Level.WARN);
+        Logger callLog = (Logger) LoggerFactory.getLogger("llm.calls");
+        callLog.setLevel(Level.INFO);
+        callLog.setAdditive(false);
+    }
+
+    /**
+     * A chat model that answers at once with a fixed reply and usage, so a benchmark measures only our own layers.
+     */
+    static ChatModel zeroLatencyChatModel() {
+        ChatResponse response = new ChatResponse(
+                List.of(new Generation(new AssistantMessage("Spring Boot makes it easy to create stand-alone applications."))),
+                ChatResponseMetadata.builder()
+                        .model("stub")
+                        .usage(new DefaultUsage(120, 12))
+                        .build());
+        return new ChatModel() {
+            @Override
+            public ChatResponse call(Prompt prompt) {
+                return response;
+            }
+
+            @Override
+            public ChatOptions getDefaultOptions() {
+                return ChatOptions.builder().model("stub").build();
+            }
+        };
+    }
+}
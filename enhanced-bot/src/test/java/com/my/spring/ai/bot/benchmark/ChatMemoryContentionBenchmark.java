@@ -0,0 +1,118 @@
+package com.my.spring.ai.bot.benchmark;
+
+import com.my.spring.ai.bot.config.ChatMemoryProperties;
+import com.my.spring.ai.bot.memory.BoundedChatMemory;
+import com.my.spring.ai.bot.memory.MappedSegmentChatMemory;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.ai.chat.memory.ChatMemory;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.messages.Message;
+import org.springframework.ai.chat.messages.UserMessage;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link ChatMemory} reads and writes of both stores under contention: six threads read the
+ * history window while two append turns, spread over a few hundred active sessions.
+ *
+ * Not part of the regular build (the class name is outside the surefire includes). Run it explicitly:
+ * <pre>
+ * mvn test -Dtest=ChatMemoryContentionBenchmark
+ * </pre>
+ * Results are printed by JMH and written as JSON to {@code target/jmh-chat-memory-contention.json}.
+ */
+@State(Scope.Group)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ChatMemoryContentionBenchmark {
+
+    private static final int SESSIONS = 256;
+    private static final int HISTORY_WINDOW = 10;
+
+    private static final List<Message> TURN = List.of(
+            new UserMessage("Tell me a fun fact about Spring Boot"),
+            new AssistantMessage("Spring Boot makes it easy to create stand-alone applications."));
+
+    @Param({"bounded", "mapped"})
+    public String store;
+
+    private final String[] sessionIds = new String[SESSIONS];
+    private ChatMemory chatMemory;
+    private Path directory;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        BenchmarkSupport.quietLogging();
+        ChatMemoryProperties properties = new ChatMemoryProperties();
+        if ("mapped".equals(store)) {
+            directory = Files.createTempDirectory("chat-memory-bench");
+            properties.getMapped().setDirectory(directory.toString());
+            chatMemory = new MappedSegmentChatMemory(properties);
+        } else {
+            properties.setSweepInterval(Duration.ZERO);
+            chatMemory = new BoundedChatMemory(properties);
+        }
+        for (int i = 0; i < SESSIONS; i++) {
+            sessionIds[i] = "bench-" + i;
+            for (int turn = 0; turn < HISTORY_WINDOW; turn++) {
+                chatMemory.add(sessionIds[i], TURN);
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        ((AutoCloseable) chatMemory).close();
+        if (directory != null) {
+            FileSystemUtils.deleteRecursively(directory);
+        }
+    }
+
+    @Benchmark
+    @Group("readWrite")
+    @GroupThreads(6)
+    public List<Message> get() {
+        return chatMemory.get(randomSession(), HISTORY_WINDOW);
+    }
+
+    @Benchmark
+    @Group("readWrite")
+    @GroupThreads(2)
+    public void add() {
+        chatMemory.add(randomSession(), TURN);
+    }
+
+    private String randomSession() {
+        return sessionIds[ThreadLocalRandom.current().nextInt(SESSIONS)];
+    }
+
+    @Test
+    void run() throws Exception {
+        BenchmarkSupport.run(ChatMemoryContentionBenchmark.class, "chat-memory-contention");
+    }
+}
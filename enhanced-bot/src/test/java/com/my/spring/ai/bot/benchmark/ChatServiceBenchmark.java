@@ -0,0 +1,144 @@
+package com.my.spring.ai.bot.benchmark;
+
+import com.my.spring.ai.bot.admission.AdmissionControl;
+import com.my.spring.ai.bot.config.AdmissionControlProperties;
+import com.my.spring.ai.bot.config.ChatMemoryProperties;
+import com.my.spring.ai.bot.config.LlmCallLoggingProperties;
+import com.my.spring.ai.bot.config.SessionMailboxProperties;
+import com.my.spring.ai.bot.memory.BoundedChatMemory;
+import com.my.spring.ai.bot.memory.RollingSummaryChatMemoryAdvisor;
+import com.my.spring.ai.bot.metrics.ChatStreamMetrics;
+import com.my.spring.ai.bot.metrics.LlmCallLoggingAdvisor;
+import com.my.spring.ai.bot.metrics.LlmCallMetricsAdvisor;
+import com.my.spring.ai.bot.service.impl.ChatServiceImpl;
+import com.my.spring.ai.bot.session.SessionMailbox;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.ai.chat.client.ChatClient;
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.prompt.Prompt;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.springframework.ai.chat.client.advisor.AbstractChatMemoryAdvisor.CHAT_MEMORY_CONVERSATION_ID_KEY;
+
+/**
+ * Measures what the application adds on top of the model for one chat turn, against a zero-latency stub model.
+ *
+ * <ul>
+ *     <li>{@code modelOnly}: the stub model called directly, the floor.</li>
+ *     <li>{@code bareChatClient}: a ChatClient without advisors.</li>
+ *     <li>{@code advisorChain}: a ChatClient with the advisors every chat turn runs through (call logging,
+ *     rolling-summary memory, call metrics), without the session mailbox and admission control.</li>
+ *     <li>{@code chatService}: {@link ChatServiceImpl#chat} end to end.</li>
+ * </ul>
+ * Turns rotate over {@value #SESSIONS} sessions so memory reaches its steady state per session.
+ *
+ * Not part of the regular build (the class name is outside the surefire includes). Run it explicitly:
+ * <pre>
+ * mvn test -Dtest=ChatServiceBenchmark
+ * </pre>
+ * Results are printed by JMH and written as JSON to {@code target/jmh-chat-service.json}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ChatServiceBenchmark {
+
+    private static final int SESSIONS = 1024;
+    private static final String MESSAGE = "Tell me a fun fact about Spring Boot";
+
+    private final String[] sessionIds = new String[SESSIONS];
+    private int next;
+
+    private ChatModel chatModel;
+    private BoundedChatMemory chatMemory;
+    private RollingSummaryChatMemoryAdvisor memoryAdvisor;
+    private ChatClient bareChatClient;
+    private ChatClient advisedChatClient;
+    private ChatServiceImpl chatService;
+
+    @Setup
+    public void setUp() {
+        BenchmarkSupport.quietLogging();
+        for (int i = 0; i < SESSIONS; i++) {
+            sessionIds[i] = "bench-" + i;
+        }
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        chatModel = BenchmarkSupport.zeroLatencyChatModel();
+        ChatMemoryProperties memoryProperties = new ChatMemoryProperties();
+        chatMemory = new BoundedChatMemory(memoryProperties);
+        memoryAdvisor = new RollingSummaryChatMemoryAdvisor(chatMemory, chatModel, memoryProperties, meterRegistry);
+        LlmCallLoggingAdvisor loggingAdvisor = new LlmCallLoggingAdvisor(new LlmCallLoggingProperties());
+        LlmCallMetricsAdvisor metricsAdvisor = new LlmCallMetricsAdvisor(meterRegistry);
+
+        bareChatClient = ChatClient.builder(chatModel).build();
+        advisedChatClient = ChatClient.builder(chatModel)
+                .defaultAdvisors(loggingAdvisor, metricsAdvisor, memoryAdvisor)
+                .build();
+        // The same customization the auto-configured builder gets from LLMConfig
+        ChatClient.Builder serviceBuilder = ChatClient.builder(chatModel).defaultAdvisors(loggingAdvisor, metricsAdvisor);
+        chatService = new ChatServiceImpl(chatMemory, serviceBuilder, memoryProperties.getHistoryWindow(),
+                new ChatStreamMetrics(meterRegistry),
+                new SessionMailbox(new SessionMailboxProperties(), meterRegistry),
+                memoryAdvisor,
+                new AdmissionControl(new AdmissionControlProperties(), meterRegistry));
+    }
+
+    @TearDown
+    public void tearDown() {
+        memoryAdvisor.close();
+        chatMemory.close();
+    }
+
+    @Benchmark
+    public ChatResponse modelOnly() {
+        return chatModel.call(new Prompt(MESSAGE));
+    }
+
+    @Benchmark
+    public String bareChatClient() {
+        return bareChatClient.prompt().user(MESSAGE).call().content();
+    }
+
+    @Benchmark
+    public String advisorChain() {
+        String sessionId = nextSession();
+        return advisedChatClient.prompt()
+                .user(MESSAGE)
+                .advisors(a -> a.param(CHAT_MEMORY_CONVERSATION_ID_KEY, sessionId))
+                .call()
+                .content();
+    }
+
+    @Benchmark
+    public String chatService() {
+        return chatService.chat(nextSession(), MESSAGE);
+    }
+
+    private String nextSession() {
+        next = (next + 1) & (SESSIONS - 1);
+        return sessionIds[next];
+    }
+
+    @Test
+    void run() throws Exception {
+        BenchmarkSupport.run(ChatServiceBenchmark.class, "chat-service");
+    }
+}
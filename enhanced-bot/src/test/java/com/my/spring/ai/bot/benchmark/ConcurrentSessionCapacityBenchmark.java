@@ -0,0 +1,201 @@
+package com.my.spring.ai.bot.benchmark;
+
+import com.my.spring.ai.Application;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.model.Generation;
+import org.springframework.ai.chat.prompt.Prompt;
+import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.ai.tool.ToolCallback;
+import org.springframework.ai.tool.ToolCallbackProvider;
+import org.springframework.ai.vectorstore.VectorStore;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Compares how many chat sessions the application serves concurrently on platform versus virtual request threads.
+ *
+ * The chat model is a stub that blocks for a fixed latency, standing in for Ollama, so every open session
+ * holds a request thread for the whole call. With platform threads the number of sessions in flight is
+ * capped by the Tomcat pool; with virtual threads it is limited only by the load.
+ *
+ * Not part of the regular build (the class name is outside the surefire includes). Run it explicitly:
+ * <pre>
+ * mvn test -Dtest=ConcurrentSessionCapacityBenchmark \
+ *     -Dbenchmark.sessions=400 -Dbenchmark.model-latency-ms=500 -Dbenchmark.tomcat-threads=50
+ * </pre>
+ * The virtual-thread run needs a Java 21+ runtime and is skipped otherwise.
+ * Each run prints one {@code RESULT} line with space-separated key=value pairs.
+ */
+class ConcurrentSessionCapacityBenchmark {
+
+    private static final int SESSIONS = Integer.getInteger("benchmark.sessions", 400);
+    private static final long MODEL_LATENCY_MS = Long.getLong("benchmark.model-latency-ms", 500);
+    private static final int TOMCAT_THREADS = Integer.getInteger("benchmark.tomcat-threads", 50);
+
+    private static final String EXCLUDED_AUTO_CONFIGURATIONS = String.join(",",
+            "org.springframework.ai.autoconfigure.ollama.OllamaAutoConfiguration",
+            "org.springframework.ai.autoconfigure.vectorstore.chroma.ChromaVectorStoreAutoConfiguration",
+            "org.springframework.ai.autoconfigure.openai.OpenAiAutoConfiguration",
+            "org.springframework.ai.autoconfigure.openai.OpenAiAudioSpeechAutoConfiguration",
+            "org.springframework.ai.model.chat.client.autoconfigure.ChatClientAutoConfiguration",
+            "org.springframework.ai.autoconfigure.chat.observation.ChatObservationAutoConfiguration",
+            "org.springframework.ai.model.bedrock.titan.autoconfigure.BedrockTitanEmbeddingAutoConfiguration");
+
+    @Test
+    void concurrentSessionCapacity() throws Exception {
+        Result platform = run(false);
+        System.out.println(platform);
+
+        if (Runtime.version().feature() < 21) {
+            System.out.println("RESULT mode=virtual skipped=true reason=java-" + Runtime.version().feature());
+            return;
+        }
+        Result virtual = run(true);
+        System.out.println(virtual);
+    }
+
+    private Result run(boolean virtualThreads) throws Exception {
+        StubChatModel.reset();
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(Application.class, StubModelConfig.class)
+                .properties(
+                        "server.port=0",
+                        "spring.threads.virtual.enabled=" + virtualThreads,
+                        "server.tomcat.threads.max=" + TOMCAT_THREADS,
+                        "spring.autoconfigure.exclude=" + EXCLUDED_AUTO_CONFIGURATIONS,
+                        "chat.memory.summary.enabled=false",
+                        "logging.level.root=WARN",
+                        "logging.level.com.my.spring.ai=WARN")
+                .run()) {
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            return drive(virtualThreads ? "virtual" : "platform", URI.create("http://localhost:" + port + "/api/chat"));
+        }
+    }
+
+    private Result drive(String mode, URI uri) throws Exception {
+        ExecutorService clientExecutor = Executors.newCachedThreadPool();
+        try {
+            HttpClient client = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .executor(clientExecutor)
+                    .build();
+
+            long start = System.nanoTime();
+            List<CompletableFuture<Long>> calls = new ArrayList<>(SESSIONS);
+            for (int i = 0; i < SESSIONS; i++) {
+                HttpRequest request = HttpRequest.newBuilder(uri)
+                        .timeout(Duration.ofMinutes(2))
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString(
+                                "{\"sessionId\":\"bench-" + i + "\",\"message\":\"hello\"}"))
+                        .build();
+                long sent = System.nanoTime();
+                calls.add(client.sendAsync(request, HttpResponse.BodyHandlers.ofString())
+                        .thenApply(response -> {
+                            assertEquals(200, response.statusCode(), response.body());
+                            return System.nanoTime() - sent;
+                        }));
+            }
+            CompletableFuture.allOf(calls.toArray(new CompletableFuture[0])).join();
+            long elapsed = System.nanoTime() - start;
+
+            long[] latencies = calls.stream().mapToLong(CompletableFuture::join).sorted().toArray();
+            return new Result(mode, StubChatModel.peakInFlight.get(), elapsed, latencies);
+        } finally {
+            clientExecutor.shutdownNow();
+        }
+    }
+
+    private record Result(String mode, int peakConcurrentSessions, long elapsedNanos, long[] latencies) {
+
+        @Override
+        public String toString() {
+            double seconds = elapsedNanos / 1e9;
+            return String.format("RESULT mode=%s sessions=%d tomcatThreads=%d modelLatencyMs=%d "
+                            + "peakConcurrentSessions=%d elapsedMs=%d throughputPerSec=%.1f p50Ms=%d p99Ms=%d maxMs=%d",
+                    mode, latencies.length, TOMCAT_THREADS, MODEL_LATENCY_MS, peakConcurrentSessions,
+                    elapsedNanos / 1_000_000, latencies.length / seconds,
+                    percentile(0.50), percentile(0.99), latencies[latencies.length - 1] / 1_000_000);
+        }
+
+        private long percentile(double p) {
+            int index = (int) Math.ceil(p * latencies.length) - 1;
+            return latencies[Math.max(0, index)] / 1_000_000;
+        }
+    }
+
+    @TestConfiguration(proxyBeanMethods = false)
+    static class StubModelConfig {
+
+        // Named like the Ollama bean so ChatBotConfig's primary model resolves to the stub
+        @Bean
+        ChatModel ollamaChatModel() {
+            return new StubChatModel();
+        }
+
+        @Bean
+        EmbeddingModel embeddingModel() {
+            return mock(EmbeddingModel.class);
+        }
+
+        @Bean
+        VectorStore vectorStore() {
+            return mock(VectorStore.class);
+        }
+
+        @Bean
+        ToolCallbackProvider toolCallbackProvider() {
+            ToolCallbackProvider provider = mock(ToolCallbackProvider.class);
+            when(provider.getToolCallbacks()).thenReturn(new ToolCallback[0]);
+            return provider;
+        }
+    }
+
+    /**
+     * Blocks the calling thread for the configured latency and tracks how many calls overlap.
+     */
+    static class StubChatModel implements ChatModel {
+
+        static final AtomicInteger inFlight = new AtomicInteger();
+        static final AtomicInteger peakInFlight = new AtomicInteger();
+
+        static void reset() {
+            inFlight.set(0);
+            peakInFlight.set(0);
+        }
+
+        @Override
+        public ChatResponse call(Prompt prompt) {
+            peakInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(MODEL_LATENCY_MS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                inFlight.decrementAndGet();
+            }
+            return new ChatResponse(List.of(new Generation(new AssistantMessage("ok"))));
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package com.my.spring.ai.bot.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.my.spring.ai.bot.dto.AudioRequest;
+import com.my.spring.ai.bot.dto.AudioResponse;
+import com.my.spring.ai.bot.dto.ChatRequest;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures Jackson reading and writing of the request and response bodies of the chat and voice endpoints,
+ * with an object mapper built the way Spring Boot builds the one behind its message converters.
+ *
+ * The voice payloads carry {@value #AUDIO_BYTES} bytes of audio, about two seconds of 16 kHz 16-bit mono
+ * speech, which Jackson encodes as Base64.
+ *
+ * Not part of the regular build (the class name is outside the surefire includes). Run it explicitly:
+ * <pre>
+ * mvn test -Dtest=DtoJsonBenchmark
+ * </pre>
+ * Results are printed by JMH and written as JSON to {@code target/jmh-dto-json.json}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DtoJsonBenchmark {
+
+    private static final int AUDIO_BYTES = 64 * 1024;
+
+    private ObjectWriter writer;
+    private ObjectReader chatRequestReader;
+    private ObjectReader audioRequestReader;
+    private ObjectReader audioResponseReader;
+
+    private ChatRequest chatRequest;
+    private AudioRequest audioRequest;
+    private AudioResponse audioResponse;
+    private byte[] chatRequestJson;
+    private byte[] audioRequestJson;
+    private byte[] audioResponseJson;
+
+    @Setup
+    public void setUp() throws IOException {
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        writer = objectMapper.writer();
+        chatRequestReader = objectMapper.readerFor(ChatRequest.class);
+        audioRequestReader = objectMapper.readerFor(AudioRequest.class);
+        audioResponseReader = objectMapper.readerFor(AudioResponse.class);
+
+        byte[] audio = new byte[AUDIO_BYTES];
+        new Random(42).nextBytes(audio);
+        chatRequest = new ChatRequest("bench-1", "Tell me a fun fact about Spring Boot");
+        audioRequest = new AudioRequest("bench-1", audio);
+        audioResponse = new AudioResponse(audio, "Spring Boot makes it easy to create stand-alone applications.",
+                "Tell me a fun fact about Spring Boot", "bench-1");
+        chatRequestJson = writer.writeValueAsBytes(chatRequest);
+        audioRequestJson = writer.writeValueAsBytes(audioRequest);
+        audioResponseJson = writer.writeValueAsBytes(audioResponse);
+    }
+
+    @Benchmark
+    public byte[] writeChatRequest() throws IOException {
+        return writer.writeValueAsBytes(chatRequest);
+    }
+
+    @Benchmark
+    public ChatRequest readChatRequest() throws IOException {
+        return chatRequestReader.readValue(chatRequestJson);
+    }
+
+    @Benchmark
+    public byte[] writeAudioRequest() throws IOException {
+        return writer.writeValueAsBytes(audioRequest);
+    }
+
+    @Benchmark
+    public AudioRequest readAudioRequest() throws IOException {
+        return audioRequestReader.readValue(audioRequestJson);
+    }
+
+    @Benchmark
+    public byte[] writeAudioResponse() throws IOException {
+        return writer.writeValueAsBytes(audioResponse);
+    }
+
+    @Benchmark
+    public AudioResponse readAudioResponse() throws IOException {
+        return audioResponseReader.readValue(audioResponseJson);
+    }
+
+    @Test
+    void run() throws Exception {
+        BenchmarkSupport.run(DtoJsonBenchmark.class, "dto-json");
+    }
+}
@@ -0,0 +1,92 @@
+package com.my.spring.ai.bot.benchmark;
+
+import com.my.spring.ai.bot.config.PromptTemplateProperties;
+import com.my.spring.ai.bot.prompt.CompiledPromptTemplate;
+import com.my.spring.ai.bot.prompt.PromptTemplateRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.ai.chat.prompt.PromptTemplate;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.Resource;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares rendering the {@code /generate} prompt the old way, from the template resource on every call
+ * (which is what {@code u.text(resource).param(...)} did inside ChatClient), with the precompiled
+ * template from {@link PromptTemplateRegistry}.
+ *
+ * Not part of the regular build (the class name is outside the surefire includes). Run it explicitly:
+ * <pre>
+ * mvn test -Dtest=PromptTemplateRenderingBenchmark
+ * </pre>
+ * Results are printed by JMH and written as JSON to {@code target/jmh-prompt-template-rendering.json}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PromptTemplateRenderingBenchmark {
+
+    private static final Map<String, Object> MODEL = Map.of("question", "Tell me a fun fact about Spring Boot");
+
+    private Resource resource;
+    private PromptTemplateRegistry registry;
+    private CompiledPromptTemplate compiled;
+
+    @Setup
+    public void setUp() {
+        resource = new ClassPathResource("prompts/llama.st");
+        PromptTemplateProperties properties = new PromptTemplateProperties();
+        registry = new PromptTemplateRegistry(properties, new SimpleMeterRegistry());
+        compiled = registry.get("llama");
+    }
+
+    @TearDown
+    public void tearDown() {
+        registry.close();
+    }
+
+    @Benchmark
+    public String perCallResource() {
+        return new PromptTemplate(resource).render(MODEL);
+    }
+
+    @Benchmark
+    public String precompiled() {
+        return compiled.render(MODEL);
+    }
+
+    @Benchmark
+    public String registryLookupAndRender() {
+        return registry.get("llama").render(MODEL);
+    }
+
+    @Test
+    void run() throws Exception {
+        Options options = new OptionsBuilder()
+                .include(PromptTemplateRenderingBenchmark.class.getSimpleName())
+                .resultFormat(ResultFormatType.JSON)
+                .result("target/jmh-prompt-template-rendering.json")
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,110 @@
+package com.my.spring.ai.bot.benchmark;
+
+import com.my.spring.ai.Application;
+import com.my.spring.ai.bot.loadtest.ConversationScript;
+import com.my.spring.ai.bot.loadtest.LoadDriver;
+import com.my.spring.ai.bot.loadtest.LoadReport;
+import com.my.spring.ai.bot.standin.ChromaStandIn;
+import com.my.spring.ai.bot.standin.KokoroStandIn;
+import com.my.spring.ai.bot.standin.OllamaStandIn;
+import com.my.spring.ai.bot.standin.StandInProfile;
+import com.my.spring.ai.bot.standin.StandInServer;
+import com.my.spring.ai.bot.standin.WhisperStandIn;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.tool.StaticToolCallbackProvider;
+import org.springframework.ai.tool.ToolCallbackProvider;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+
+import java.net.URI;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Runs the whole application against local stand-ins for Ollama, Chroma, Whisper and Kokoro and replays
+ * scripted conversations over HTTP, so throughput and tail latency can be measured end to end without GPUs
+ * or model downloads.
+ *
+ * Not part of the regular build (the class name is outside the surefire includes). Run it explicitly:
+ * <pre>
+ * mvn test -Dtest=StandInLoadBenchmark -Dsurefire.failIfNoSpecifiedTests=false \
+ *     -Dbenchmark.users=16 -Dbenchmark.duration=30s -Dbenchmark.think-time=0 \
+ *     -Dstandin.ollama.latency=lognormal:200ms..2s -Dstandin.ollama.tokens-per-second=40 \
+ *     -Dstandin.chroma.latency=5ms -Dstandin.whisper.latency=uniform:300ms..800ms \
+ *     -Dstandin.kokoro.error-rate=0.01
+ * </pre>
+ * Every stand-in takes {@code standin.<name>.latency}, {@code tokens-per-second}, {@code reply-tokens},
+ * {@code error-rate} and {@code error-status}. Injected errors go through the application's retry and
+ * circuit-breaker handling like real ones, so a high error rate mostly shows up as latency.
+ * MCP chat runs with no tools, as no MCP servers are started.
+ *
+ * Prints one {@code RESULT} line per endpoint plus a total and writes the same numbers to
+ * {@code target/load-stand-in.json}.
+ */
+class StandInLoadBenchmark {
+
+    private static final int USERS = Integer.getInteger("benchmark.users", 16);
+    private static final Duration DURATION = duration("benchmark.duration", "30s");
+    private static final Duration THINK_TIME = duration("benchmark.think-time", "0");
+    private static final String SCRIPTS = System.getProperty("benchmark.scripts", "loadtest/conversations.json");
+
+    // The voice profile excludes the Chroma store for voice-only deployments; here rag and voice run together
+    private static final String EXCLUDED_AUTO_CONFIGURATIONS = String.join(",",
+            "org.springframework.ai.model.chat.client.autoconfigure.ChatClientAutoConfiguration",
+            "org.springframework.ai.autoconfigure.openai.OpenAiAudioSpeechAutoConfiguration");
+
+    @Test
+    void run() throws Exception {
+        try (OllamaStandIn ollama = new OllamaStandIn(StandInProfile.fromSystemProperties("ollama")).start();
+             ChromaStandIn chroma = new ChromaStandIn(StandInProfile.fromSystemProperties("chroma")).start();
+             WhisperStandIn whisper = new WhisperStandIn(StandInProfile.fromSystemProperties("whisper")).start();
+             KokoroStandIn kokoro = new KokoroStandIn(StandInProfile.fromSystemProperties("kokoro")).start();
+             ConfigurableApplicationContext context = new SpringApplicationBuilder(Application.class, NoToolsConfig.class)
+                     .profiles("rag", "voice")
+                     // Arguments rather than default properties, so they win over application.yml
+                     .run("--server.port=0",
+                             "--spring.autoconfigure.exclude=" + EXCLUDED_AUTO_CONFIGURATIONS,
+                             "--spring.ai.ollama.base-url=" + ollama.baseUrl(),
+                             "--spring.ai.vectorstore.chroma.client.host=" + chroma.host(),
+                             "--spring.ai.vectorstore.chroma.client.port=" + chroma.port(),
+                             "--spring.ai.vectorstore.chroma.initialize-schema=true",
+                             // Only transcription goes to the OpenAI-compatible API; chat and embeddings are Ollama's
+                             "--spring.ai.openai.chat.enabled=false",
+                             "--spring.ai.openai.embedding.enabled=false",
+                             "--spring.ai.openai.audio.transcription.base-url=" + whisper.baseUrl(),
+                             "--kokoro.tts.base-url=" + kokoro.baseUrl(),
+                             "--logging.level.root=WARN",
+                             "--logging.level.org.springframework.ai=WARN",
+                             "--logging.level.com.my.spring.ai=WARN")) {
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            List<ConversationScript> scripts = ConversationScript.load(SCRIPTS);
+
+            LoadReport report = new LoadDriver(URI.create("http://localhost:" + port), USERS, DURATION, THINK_TIME)
+                    .run(scripts);
+            System.out.println(report);
+            for (StandInServer standIn : List.of(ollama, chroma, whisper, kokoro)) {
+                System.out.printf("RESULT standIn=%s requests=%d injectedErrors=%d%n",
+                        standIn.getClass().getSimpleName(), standIn.requestCount(), standIn.injectedErrorCount());
+            }
+            report.writeJson(Path.of("target", "load-stand-in.json"));
+        }
+    }
+
+    private static Duration duration(String property, String defaultValue) {
+        return DurationStyle.detectAndParse(System.getProperty(property, defaultValue));
+    }
+
+    @TestConfiguration(proxyBeanMethods = false)
+    static class NoToolsConfig {
+
+        @Bean
+        ToolCallbackProvider toolCallbackProvider() {
+            return new StaticToolCallbackProvider(List.of());
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.my.spring.ai.bot.benchmark;
+
+import com.my.spring.ai.bot.config.EmbeddingsConfig;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.ai.document.Document;
+import org.springframework.ai.transformer.splitter.TextSplitter;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures splitting an ingested document into chunks with the {@link TextSplitter} from {@link EmbeddingsConfig},
+ * the CPU-bound step of document ingestion before the chunks are embedded.
+ *
+ * The text is generated from a fixed seed, so every run splits the same documents.
+ *
+ * Not part of the regular build (the class name is outside the surefire includes). Run it explicitly:
+ * <pre>
+ * mvn test -Dtest=TextSplittingBenchmark
+ * </pre>
+ * Results are printed by JMH and written as JSON to {@code target/jmh-text-splitting.json}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TextSplittingBenchmark {
+
+    private static final String[] WORDS = {
+            "spring", "boot", "application", "context", "bean", "configuration", "vector", "store",
+            "embedding", "model", "the", "a", "of", "and", "to", "is", "with", "for", "chat", "memory"};
+
+    /**
+     * Document size in characters: a paragraph, a page and a long document.
+     */
+    @Param({"1000", "10000", "100000"})
+    public int length;
+
+    private TextSplitter textSplitter;
+    private List<Document> documents;
+
+    @Setup
+    public void setUp() {
+        BenchmarkSupport.quietLogging();
+        textSplitter = new EmbeddingsConfig().textSplitter();
+        documents = List.of(new Document(text(length)));
+    }
+
+    @Benchmark
+    public List<Document> split() {
+        return textSplitter.apply(documents);
+    }
+
+    private static String text(int length) {
+        Random random = new Random(42);
+        StringBuilder text = new StringBuilder(length + 16);
+        int sentence = 0;
+        while (text.length() < length) {
+            text.append(WORDS[random.nextInt(WORDS.length)]);
+            if (++sentence % 12 == 0) {
+                text.append(". ");
+            } else {
+                text.append(' ');
+            }
+        }
+        return text.substring(0, length);
+    }
+
+    @Test
+    void run() throws Exception {
+        BenchmarkSupport.run(TextSplittingBenchmark.class, "text-splitting");
+    }
+}
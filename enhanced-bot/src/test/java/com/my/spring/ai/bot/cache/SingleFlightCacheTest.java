@@ -0,0 +1,250 @@
+package com.my.spring.ai.bot.cache;
+
+import com.my.spring.ai.bot.config.RequestDeadlineProperties;
+import com.my.spring.ai.bot.deadline.RequestDeadlines;
+import com.my.spring.ai.bot.exception.DeadlineExceededException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for SingleFlightCache.
+ */
+class SingleFlightCacheTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private MutableClock clock;
+    private ExecutorService executor;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        clock = new MutableClock();
+        executor = Executors.newCachedThreadPool();
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("A cached value is returned without calling the loader")
+    void get_cachedKey_shouldNotLoadAgain() {
+        SingleFlightCache<String, String> cache = cache(10, Duration.ofMinutes(1));
+        AtomicInteger loads = new AtomicInteger();
+
+        assertEquals("v", cache.get("k", () -> {
+            loads.incrementAndGet();
+            return "v";
+        }));
+        assertEquals("v", cache.get("k", () -> "other" + loads.incrementAndGet()));
+
+        assertEquals(1, loads.get());
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("result", "hit").counter().count());
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("result", "miss").counter().count());
+    }
+
+    @Test
+    @DisplayName("The least recently used entry is evicted when the cache is full")
+    void put_overCapacity_shouldEvictLeastRecentlyUsed() {
+        SingleFlightCache<String, String> cache = cache(2, Duration.ofMinutes(1));
+        cache.put("a", "1");
+        cache.put("b", "2");
+        cache.get("a", () -> "reloaded");
+        cache.put("c", "3");
+
+        assertEquals(2, cache.size());
+        assertEquals("1", cache.get("a", () -> "reloaded"));
+        assertEquals("reloaded", cache.get("b", () -> "reloaded"));
+        assertEquals(2.0, meterRegistry.get("cache.evictions").tag("cause", "size").counter().count());
+    }
+
+    @Test
+    @DisplayName("Expired entries are loaded again")
+    void get_expiredEntry_shouldReload() {
+        SingleFlightCache<String, String> cache = cache(10, Duration.ofSeconds(30));
+        cache.put("k", "old");
+
+        clock.advance(Duration.ofSeconds(31));
+
+        assertEquals("new", cache.get("k", () -> "new"));
+        assertEquals(1.0, meterRegistry.get("cache.evictions").tag("cause", "expired").counter().count());
+    }
+
+    @Test
+    @DisplayName("Concurrent misses for one key share a single load")
+    void get_concurrentMisses_shouldLoadOnce() throws Exception {
+        SingleFlightCache<String, String> cache = cache(10, Duration.ofMinutes(1));
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        Future<String> leader = executor.submit(() -> cache.get("k", () -> {
+            loads.incrementAndGet();
+            loading.countDown();
+            await(release);
+            return "v";
+        }));
+        assertTrue(loading.await(5, TimeUnit.SECONDS));
+        Future<String> follower = executor.submit(() -> cache.get("k", () -> "v" + loads.incrementAndGet()));
+        awaitCoalesced(1);
+        release.countDown();
+
+        assertEquals("v", leader.get(5, TimeUnit.SECONDS));
+        assertEquals("v", follower.get(5, TimeUnit.SECONDS));
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    @DisplayName("A failed load is shared with waiters and not cached")
+    void get_failingLoader_shouldPropagateAndNotCache() throws Exception {
+        SingleFlightCache<String, String> cache = cache(10, Duration.ofMinutes(1));
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        Future<String> leader = executor.submit(() -> cache.get("k", () -> {
+            loading.countDown();
+            await(release);
+            throw new IllegalStateException("model down");
+        }));
+        assertTrue(loading.await(5, TimeUnit.SECONDS));
+        Future<String> follower = executor.submit(() -> cache.get("k", () -> "unused"));
+        awaitCoalesced(1);
+        release.countDown();
+
+        Exception leaderError = assertThrows(Exception.class, () -> leader.get(5, TimeUnit.SECONDS));
+        Exception followerError = assertThrows(Exception.class, () -> follower.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(IllegalStateException.class, leaderError.getCause());
+        assertInstanceOf(IllegalStateException.class, followerError.getCause());
+        assertEquals(0, cache.size());
+        assertEquals("v", cache.get("k", () -> "v"));
+    }
+
+    @Test
+    @DisplayName("Waiters load again when the loading caller's request ends")
+    void get_leaderDeadlineExceeded_shouldLetFollowerLoad() throws Exception {
+        SingleFlightCache<String, String> cache = cache(10, Duration.ofMinutes(1));
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        Future<String> leader = executor.submit(() -> cache.get("k", () -> {
+            loading.countDown();
+            await(release);
+            throw new DeadlineExceededException("leader out of time", null);
+        }));
+        assertTrue(loading.await(5, TimeUnit.SECONDS));
+        Future<String> follower = executor.submit(() -> cache.get("k", () -> "v"));
+        awaitCoalesced(1);
+        release.countDown();
+
+        Exception leaderError = assertThrows(Exception.class, () -> leader.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(DeadlineExceededException.class, leaderError.getCause());
+        assertEquals("v", follower.get(5, TimeUnit.SECONDS));
+        assertEquals("v", cache.get("k", () -> "unused"));
+    }
+
+    @Test
+    @DisplayName("A waiter gives up at its own deadline while the load continues")
+    void get_followerDeadlinePasses_shouldThrowWhileLeaderLoads() throws Exception {
+        SingleFlightCache<String, String> cache = cache(10, Duration.ofMinutes(1));
+        RequestDeadlines requestDeadlines = new RequestDeadlines(new RequestDeadlineProperties(), meterRegistry);
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        Future<String> leader = executor.submit(() -> cache.get("k", () -> {
+            loading.countDown();
+            await(release);
+            return "v";
+        }));
+        assertTrue(loading.await(5, TimeUnit.SECONDS));
+        Future<String> follower = executor.submit(() -> {
+            try (RequestDeadlines.Scope ignored = requestDeadlines.enter(requestDeadlines.resolve("chat", "100ms"))) {
+                return cache.get("k", () -> "unused");
+            }
+        });
+
+        Exception followerError = assertThrows(Exception.class, () -> follower.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(DeadlineExceededException.class, followerError.getCause());
+        release.countDown();
+        assertEquals("v", leader.get(5, TimeUnit.SECONDS));
+        requestDeadlines.destroy();
+    }
+
+    @Test
+    @DisplayName("A cache without capacity always runs the loader")
+    void get_disabled_shouldAlwaysLoad() {
+        SingleFlightCache<String, String> cache = cache(0, Duration.ofMinutes(1));
+        AtomicInteger loads = new AtomicInteger();
+
+        cache.get("k", () -> "v" + loads.incrementAndGet());
+        cache.get("k", () -> "v" + loads.incrementAndGet());
+
+        assertFalse(cache.isEnabled());
+        assertEquals(2, loads.get());
+        assertEquals(0, cache.size());
+    }
+
+    private SingleFlightCache<String, String> cache(int maxEntries, Duration ttl) {
+        return new SingleFlightCache<>("test", maxEntries, ttl, meterRegistry, clock);
+    }
+
+    private void awaitCoalesced(double expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (meterRegistry.get("cache.coalesced").counter().count() < expected) {
+            if (System.nanoTime() > deadline) {
+                fail("Follower did not join the in-flight load within 5s");
+            }
+            Thread.sleep(5);
+        }
+    }
+
+    private static boolean await(CountDownLatch latch) {
+        try {
+            return latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private Instant now = Instant.parse("2025-01-01T00:00:00Z");
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
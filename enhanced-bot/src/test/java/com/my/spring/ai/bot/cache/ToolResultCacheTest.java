@@ -0,0 +1,116 @@
+package com.my.spring.ai.bot.cache;
+
+import com.my.spring.ai.bot.config.ToolResultCacheProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.chat.model.ToolContext;
+import org.springframework.ai.tool.ToolCallback;
+import org.springframework.ai.tool.definition.ToolDefinition;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for ToolResultCache and the caching tool wrapper.
+ */
+class ToolResultCacheTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private ToolResultCacheProperties properties;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        properties = new ToolResultCacheProperties();
+        ToolResultCacheProperties.Tool temperature = new ToolResultCacheProperties.Tool();
+        temperature.setTtl(Duration.ofMinutes(10));
+        properties.getTools().put("getTemperature", temperature);
+    }
+
+    @Test
+    @DisplayName("Calls with equivalent arguments are answered once, and counted as hits")
+    void cached_EquivalentArguments_CallToolOnce() {
+        CountingTool tool = new CountingTool("getTemperature");
+        ToolCallback cached = new ToolResultCache(properties, meterRegistry).wrap(tool);
+
+        String first = cached.call("{\"latitude\": 52.52, \"longitude\": 13.40}");
+        String second = cached.call("{\"longitude\":13.4,\"latitude\":52.520,\"_meta\":{\"timeoutMillis\":900}}");
+        String other = cached.call("{\"latitude\": 48.85, \"longitude\": 2.35}");
+
+        assertEquals(first, second);
+        assertNotEquals(first, other);
+        assertEquals(2, tool.inputs().size());
+        // The tool still gets the deadline metadata of the call that missed
+        assertEquals("{\"latitude\": 52.52, \"longitude\": 13.40}", tool.inputs().get(0));
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("cache", "tool:getTemperature").tag("result", "hit").counter().count());
+        assertEquals(2.0, meterRegistry.get("cache.gets").tag("cache", "tool:getTemperature").tag("result", "miss").counter().count());
+    }
+
+    @Test
+    @DisplayName("Tools that did not opt in, and calls with a tool context, are not cached")
+    void cached_NotOptedIn_CallsThrough() {
+        CountingTool logs = new CountingTool("getRecentLogs");
+        CountingTool temperature = new CountingTool("getTemperature");
+        ToolResultCache toolResultCache = new ToolResultCache(properties, meterRegistry);
+        ToolCallback cached = toolResultCache.wrap(temperature);
+
+        assertSame(logs, toolResultCache.wrap(logs));
+        assertSame(cached, toolResultCache.wrap(cached));
+        cached.call("{}", new ToolContext(Map.of("tenant", "a")));
+        cached.call("{}", new ToolContext(Map.of("tenant", "a")));
+        assertEquals(2, temperature.inputs().size());
+
+        properties.setEnabled(false);
+        assertSame(temperature, new ToolResultCache(properties, meterRegistry).wrap(temperature));
+    }
+
+    @Test
+    @DisplayName("A side-effecting tool listed for caching fails startup")
+    void constructor_NeverCachedToolListed_Fails() {
+        properties.getTools().put("send_greeting_email", new ToolResultCacheProperties.Tool());
+
+        IllegalStateException ex = assertThrows(IllegalStateException.class,
+                () -> new ToolResultCache(properties, meterRegistry));
+        assertTrue(ex.getMessage().contains("send_greeting_email"));
+    }
+
+    @Test
+    @DisplayName("Normalization sorts keys, compares numbers by value, trims strings and drops nulls")
+    void normalize_EquivalentArguments_SameKey() {
+        assertEquals(ToolResultCache.normalize("{\"b\":[1.0,\" x \"],\"a\":{\"d\":2,\"c\":null}}"),
+                ToolResultCache.normalize("{\"a\":{\"d\":2.00},\"b\":[1,\"x\"]}"));
+        assertEquals("{}", ToolResultCache.normalize(""));
+        assertEquals("not json", ToolResultCache.normalize("not json"));
+        // Only the deadline metadata at the top level is left out
+        assertNotEquals(ToolResultCache.normalize("{\"q\":{\"_meta\":1}}"), ToolResultCache.normalize("{\"q\":{}}"));
+    }
+
+    private record CountingTool(String name, List<String> inputs) implements ToolCallback {
+
+        CountingTool(String name) {
+            this(name, new ArrayList<>());
+        }
+
+        @Override
+        public ToolDefinition getToolDefinition() {
+            return ToolDefinition.builder().name(name).description(name).inputSchema("{}").build();
+        }
+
+        @Override
+        public String call(String toolInput) {
+            inputs.add(toolInput);
+            return name + " result " + inputs.size();
+        }
+
+        @Override
+        public String call(String toolInput, ToolContext toolContext) {
+            return call(toolInput);
+        }
+    }
+}
@@ -0,0 +1,382 @@
+package com.my.spring.ai.bot.cancellation;
+
+import com.my.spring.ai.bot.config.RequestCancellationProperties;
+import com.my.spring.ai.bot.exception.RequestCancelledException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.tool.ToolCallback;
+import org.springframework.ai.tool.definition.ToolDefinition;
+import org.springframework.boot.web.embedded.tomcat.TomcatServletWebServerFactory;
+import org.springframework.boot.web.server.WebServer;
+
+import java.io.OutputStream;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for RequestCancellation, its tool wrapper and the Tomcat disconnect probe.
+ */
+class RequestCancellationTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private RequestCancellation requestCancellation;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        RequestCancellationProperties properties = new RequestCancellationProperties();
+        properties.setProbeInterval(Duration.ofMillis(20));
+        requestCancellation = new RequestCancellation(properties, meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        requestCancellation.destroy();
+    }
+
+    @Test
+    @DisplayName("Runs the work on a worker while the request's own thread probes the connection")
+    void call_ClientConnected_ReturnsResult() {
+        Thread requestThread = Thread.currentThread();
+        AtomicInteger probes = new AtomicInteger();
+        AtomicBoolean probedElsewhere = new AtomicBoolean();
+        ClientDisconnectProbe probe = () -> {
+            probedElsewhere.compareAndSet(false, Thread.currentThread() != requestThread);
+            probes.incrementAndGet();
+            return false;
+        };
+        AtomicReference<Thread> worker = new AtomicReference<>();
+        AtomicReference<Thread> nested = new AtomicReference<>();
+
+        try (RequestCancellation.Watch watch = requestCancellation.watch("qa", probe)) {
+            String answer = RequestCancellation.call(() -> {
+                worker.set(Thread.currentThread());
+                // Work already handed off runs where it is
+                RequestCancellation.call(() -> nested.getAndSet(Thread.currentThread()));
+                while (probes.get() < 3) {
+                    sleep(10);
+                }
+                return "answer";
+            });
+
+            assertEquals("answer", answer);
+            assertFalse(watch.isCancelled());
+        }
+
+        assertNotSame(requestThread, worker.get());
+        assertSame(worker.get(), nested.get());
+        assertFalse(probedElsewhere.get());
+        assertTrue(meterRegistry.find("llm.requests.cancelled").counters().isEmpty());
+        assertEquals(0.0, meterRegistry.get("llm.requests.watched").gauge().value());
+    }
+
+    @Test
+    @DisplayName("Interrupts the work and stops waiting for it once the client is gone")
+    void call_ClientDisconnects_CancelsWorkAndCounts() throws Exception {
+        AtomicBoolean disconnected = new AtomicBoolean();
+        CountDownLatch interrupted = new CountDownLatch(1);
+        AtomicBoolean sawCancellation = new AtomicBoolean();
+
+        try (RequestCancellation.Watch watch = requestCancellation.watch("chat", disconnected::get)) {
+            assertThrows(RequestCancelledException.class, () -> RequestCancellation.call(() -> {
+                disconnected.set(true);
+                try {
+                    Thread.sleep(5_000);
+                } catch (InterruptedException e) {
+                    sawCancellation.set(RequestCancellation.isCurrentCancelled());
+                    interrupted.countDown();
+                }
+                return null;
+            }));
+            assertTrue(watch.isCancelled());
+        }
+
+        assertTrue(interrupted.await(5, TimeUnit.SECONDS));
+        assertTrue(sawCancellation.get());
+        assertFalse(Thread.currentThread().isInterrupted());
+        assertEquals(1.0, meterRegistry.get("llm.requests.cancelled").tag("endpoint", "chat").counter().count());
+    }
+
+    @Test
+    @DisplayName("An interrupted request thread stops waiting and interrupts the work")
+    void call_RequestThreadInterrupted_CancelsWork() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch interrupted = new CountDownLatch(1);
+
+        try (RequestCancellation.Watch watch = requestCancellation.watch("generate", () -> false)) {
+            Thread requestThread = Thread.currentThread();
+            new Thread(() -> {
+                awaitQuietly(started);
+                requestThread.interrupt();
+            }).start();
+            assertThrows(RequestCancelledException.class, () -> RequestCancellation.call(() -> {
+                started.countDown();
+                try {
+                    Thread.sleep(5_000);
+                } catch (InterruptedException e) {
+                    interrupted.countDown();
+                }
+                return null;
+            }));
+            // An interrupt the client did not cause is not a cancellation
+            assertFalse(watch.isCancelled());
+        } finally {
+            assertTrue(Thread.interrupted());
+        }
+
+        assertTrue(interrupted.await(5, TimeUnit.SECONDS));
+        assertTrue(meterRegistry.find("llm.requests.cancelled").counters().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Failures of the work reach the caller as they are")
+    void call_WorkFails_Rethrows() {
+        IllegalArgumentException failure = new IllegalArgumentException("bad prompt");
+
+        try (RequestCancellation.Watch ignored = requestCancellation.watch("qa", () -> false)) {
+            assertSame(failure, assertThrows(IllegalArgumentException.class,
+                    () -> RequestCancellation.call(() -> {
+                        throw failure;
+                    })));
+        }
+    }
+
+    @Test
+    @DisplayName("Requests without a probe are not watched and their work runs on their own thread")
+    void watch_NoProbe_NotWatched() {
+        Thread requestThread = Thread.currentThread();
+        try (RequestCancellation.Watch watch = requestCancellation.watch("voice", null)) {
+            assertEquals(0.0, meterRegistry.get("llm.requests.watched").gauge().value());
+            assertSame(requestThread, RequestCancellation.call(Thread::currentThread));
+            assertFalse(watch.isCancelled());
+        }
+        assertSame(requestThread, RequestCancellation.call(Thread::currentThread));
+    }
+
+    @Test
+    @DisplayName("Tools are not called for a cancelled request and the skipped call is counted")
+    void wrap_Cancelled_SkipsTool() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        ToolCallback tool = requestCancellation.wrap(new CountingTool(calls));
+        AtomicBoolean disconnected = new AtomicBoolean();
+        AtomicReference<RuntimeException> skipped = new AtomicReference<>();
+        CountDownLatch done = new CountDownLatch(1);
+
+        try (RequestCancellation.Watch ignored = requestCancellation.watch("mcp-chat", disconnected::get)) {
+            assertThrows(RequestCancelledException.class, () -> RequestCancellation.call(() -> {
+                try {
+                    assertEquals("done", tool.call("{}"));
+                    disconnected.set(true);
+                    while (!RequestCancellation.isCurrentCancelled()) {
+                        Thread.onSpinWait();
+                    }
+                    tool.call("{}");
+                } catch (RuntimeException e) {
+                    skipped.set(e);
+                } finally {
+                    done.countDown();
+                }
+                return null;
+            }));
+        }
+
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertInstanceOf(RequestCancelledException.class, skipped.get());
+        assertEquals(1, calls.get());
+        assertEquals("lookup", tool.getToolDefinition().name());
+        assertEquals(1.0, meterRegistry.get("llm.tool.calls.cancelled").tag("tool", "lookup").counter().count());
+        assertSame(tool, requestCancellation.wrap(tool));
+    }
+
+    @Test
+    @DisplayName("A tool call interrupted for another reason than its request's cancellation is not counted as cancelled")
+    void wrap_InterruptedNotCancelled_NotCounted() {
+        AtomicInteger calls = new AtomicInteger();
+        ToolCallback tool = requestCancellation.wrap(new CountingTool(calls));
+
+        try (RequestCancellation.Watch ignored = requestCancellation.watch("mcp-chat", () -> false)) {
+            Thread.currentThread().interrupt();
+            assertThrows(RequestCancelledException.class, () -> tool.call("{}"));
+        } finally {
+            Thread.interrupted();
+        }
+
+        assertEquals(0, calls.get());
+        assertTrue(meterRegistry.find("llm.tool.calls.cancelled").counters().isEmpty());
+    }
+
+    @Test
+    @DisplayName("A task propagated to another thread sees its request's cancellation there")
+    void propagate_SeesCancellationOnOtherThread() throws Exception {
+        AtomicBoolean disconnected = new AtomicBoolean();
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        AtomicReference<Boolean> before = new AtomicReference<>();
+        AtomicReference<Boolean> after = new AtomicReference<>();
+        AtomicReference<Boolean> unrelated = new AtomicReference<>();
+        CountDownLatch done = new CountDownLatch(1);
+        try (RequestCancellation.Watch ignored = requestCancellation.watch("mcp-chat", disconnected::get)) {
+            assertThrows(RequestCancelledException.class, () -> RequestCancellation.call(() -> {
+                try {
+                    Callable<Boolean> task = RequestCancellation.propagate(RequestCancellation::isCurrentCancelled);
+                    before.set(executor.submit(task).get());
+                    disconnected.set(true);
+                    while (!RequestCancellation.isCurrentCancelled()) {
+                        Thread.onSpinWait();
+                    }
+                    // Waiting for the other thread needs the cancellation's interrupt cleared
+                    while (!Thread.interrupted()) {
+                        Thread.onSpinWait();
+                    }
+                    after.set(executor.submit(task).get());
+                    unrelated.set(executor.submit(RequestCancellation::isCurrentCancelled).get());
+                } catch (Exception e) {
+                    throw new IllegalStateException(e);
+                } finally {
+                    done.countDown();
+                }
+                return null;
+            }));
+            assertTrue(done.await(5, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertFalse(before.get());
+        assertTrue(after.get());
+        assertFalse(unrelated.get());
+    }
+
+    @Test
+    @DisplayName("The Tomcat probe notices a client that closes its connection after sending the request")
+    void valve_ClientCloses_RequestCancelled() throws Exception {
+        CountDownLatch cancelled = new CountDownLatch(1);
+        CountDownLatch interrupted = new CountDownLatch(1);
+        CountDownLatch working = new CountDownLatch(1);
+        HttpServlet servlet = new HttpServlet() {
+            @Override
+            protected void doPost(HttpServletRequest request, HttpServletResponse response) throws java.io.IOException {
+                request.getInputStream().readAllBytes();
+                ClientDisconnectProbe probe = (ClientDisconnectProbe) request.getAttribute(ClientDisconnectProbe.ATTRIBUTE);
+                try (RequestCancellation.Watch ignored = requestCancellation.watch("generate", probe)) {
+                    RequestCancellation.call(() -> {
+                        working.countDown();
+                        try {
+                            Thread.sleep(10_000);
+                        } catch (InterruptedException e) {
+                            interrupted.countDown();
+                        }
+                        return null;
+                    });
+                } catch (RequestCancelledException e) {
+                    cancelled.countDown();
+                }
+            }
+        };
+        TomcatServletWebServerFactory factory = new TomcatServletWebServerFactory(0);
+        factory.addContextValves(new ClientDisconnectValve());
+        WebServer server = factory.getWebServer(context -> context.addServlet("slow", servlet).addMapping("/generate"));
+        server.start();
+        try {
+            byte[] body = "{\"prompt\":\"Tell me a story\"}".getBytes(StandardCharsets.UTF_8);
+            try (Socket socket = new Socket("localhost", server.getPort())) {
+                OutputStream out = socket.getOutputStream();
+                out.write(("POST /generate HTTP/1.1\r\nHost: localhost\r\nContent-Type: application/json\r\n"
+                        + "Content-Length: " + body.length + "\r\n\r\n").getBytes(StandardCharsets.US_ASCII));
+                out.write(body);
+                out.flush();
+                assertTrue(working.await(5, TimeUnit.SECONDS));
+            }
+
+            assertTrue(cancelled.await(5, TimeUnit.SECONDS));
+            assertTrue(interrupted.await(5, TimeUnit.SECONDS));
+            assertEquals(1.0, meterRegistry.get("llm.requests.cancelled").tag("endpoint", "generate").counter().count());
+        } finally {
+            server.stop();
+        }
+    }
+
+    @Test
+    @DisplayName("The Tomcat probe does not cancel a request whose client is still waiting")
+    void valve_ClientWaiting_RequestCompletes() throws Exception {
+        HttpServlet servlet = new HttpServlet() {
+            @Override
+            protected void doGet(HttpServletRequest request, HttpServletResponse response) throws java.io.IOException {
+                ClientDisconnectProbe probe = (ClientDisconnectProbe) request.getAttribute(ClientDisconnectProbe.ATTRIBUTE);
+                String answer;
+                try (RequestCancellation.Watch ignored = requestCancellation.watch("qa", probe)) {
+                    answer = RequestCancellation.call(() -> {
+                        sleep(200);
+                        return "answer";
+                    });
+                } catch (RequestCancelledException e) {
+                    response.setStatus(499);
+                    return;
+                }
+                response.getWriter().write(answer);
+            }
+        };
+        TomcatServletWebServerFactory factory = new TomcatServletWebServerFactory(0);
+        factory.addContextValves(new ClientDisconnectValve());
+        WebServer server = factory.getWebServer(context -> context.addServlet("slow", servlet).addMapping("/qa"));
+        server.start();
+        try (Socket socket = new Socket("localhost", server.getPort())) {
+            socket.getOutputStream().write("GET /qa HTTP/1.1\r\nHost: localhost\r\nConnection: close\r\n\r\n"
+                    .getBytes(StandardCharsets.US_ASCII));
+            String response = new String(socket.getInputStream().readAllBytes(), StandardCharsets.US_ASCII);
+
+            assertTrue(response.startsWith("HTTP/1.1 200"), response);
+            assertTrue(response.endsWith("answer"), response);
+            assertTrue(meterRegistry.find("llm.requests.cancelled").counters().isEmpty());
+        } finally {
+            server.stop();
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private record CountingTool(AtomicInteger calls) implements ToolCallback {
+
+        @Override
+        public ToolDefinition getToolDefinition() {
+            return ToolDefinition.builder().name("lookup").description("Looks things up").inputSchema("{}").build();
+        }
+
+        @Override
+        public String call(String toolInput) {
+            calls.incrementAndGet();
+            return "done";
+        }
+    }
+}
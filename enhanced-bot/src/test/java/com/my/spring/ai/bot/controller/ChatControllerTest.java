@@ -1,5 +1,6 @@
 package com.my.spring.ai.bot.controller;
 import com.my.spring.ai.bot.dto.ChatRequest;
+import com.my.spring.ai.bot.exception.TooManyRequestsException;
 import com.my.spring.ai.bot.service.impl.ChatServiceImpl;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.DisplayName;
@@ -11,8 +12,14 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import reactor.core.publisher.Flux;
 
+import java.time.Duration;
+
+import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -70,6 +77,115 @@ class ChatControllerTest {
         verify(chatService, times(1)).chat(sessionId, userMessage);
     }
 
+    @Test
+    @DisplayName("POST /api/chat/stream - Streams tokens as SSE events")
+    void whenChatStream_withValidRequest_shouldStreamTokenEvents() throws Exception {
+        // --- Arrange (Given) ---
+        String sessionId = "session-123";
+        String userMessage = "Hello, AI!";
+
+        ChatRequest request = ChatRequest.builder()
+                .sessionId(sessionId)
+                .message(userMessage)
+                .build();
+
+        when(chatService.chatStream(sessionId, userMessage)).thenReturn(Flux.just("Hello", ", user"));
+
+        // --- Act (When) ---
+        MvcResult result = mockMvc.perform(post("/api/chat/stream")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // --- Assert (Then) ---
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(content().string(
+                        "event:token\ndata:Hello\n\n" +
+                        "event:token\ndata:, user\n\n" +
+                        "event:done\ndata:\n\n"));
+
+        verify(chatService, times(1)).chatStream(sessionId, userMessage);
+    }
+
+    @Test
+    @DisplayName("POST /api/chat/stream - Leading spaces of tokens are written as they are")
+    void whenChatStream_tokenStartsWithSpace_shouldKeepSpace() throws Exception {
+        ChatRequest request = ChatRequest.builder()
+                .sessionId("session-123")
+                .message("Hello, AI!")
+                .build();
+
+        when(chatService.chatStream(anyString(), anyString())).thenReturn(Flux.just("Hello", " world", "  !"));
+
+        MvcResult result = mockMvc.perform(post("/api/chat/stream")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // The page takes everything after "data:", so the words do not run together
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().string(
+                        "event:token\ndata:Hello\n\n" +
+                        "event:token\ndata: world\n\n" +
+                        "event:token\ndata:  !\n\n" +
+                        "event:done\ndata:\n\n"));
+    }
+
+    @Test
+    @DisplayName("POST /api/chat/stream - Model failure ends the stream with an error event")
+    void whenChatStream_serviceFails_shouldEmitErrorEvent() throws Exception {
+        // --- Arrange (Given) ---
+        ChatRequest request = ChatRequest.builder()
+                .sessionId("session-123")
+                .message("Hello, AI!")
+                .build();
+
+        when(chatService.chatStream(anyString(), anyString()))
+                .thenReturn(Flux.concat(Flux.just("Hel"), Flux.error(new RuntimeException("boom"))));
+
+        // --- Act (When) ---
+        MvcResult result = mockMvc.perform(post("/api/chat/stream")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // --- Assert (Then) ---
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().string(
+                        "event:token\ndata:Hel\n\n" +
+                        "event:error\ndata:{\"status\":500,\"message\":\"AI service failed. Please try again later.\"}\n\n"));
+    }
+
+    @Test
+    @DisplayName("POST /api/chat/stream - Admission rejection ends the stream with a 429 error event and its retry hint")
+    void whenChatStream_admissionRejects_shouldEmitTooManyRequestsEvent() throws Exception {
+        ChatRequest request = ChatRequest.builder()
+                .sessionId("session-123")
+                .message("Hello, AI!")
+                .build();
+
+        when(chatService.chatStream(anyString(), anyString()))
+                .thenReturn(Flux.error(new TooManyRequestsException("The model is busy. Please retry later.", Duration.ofSeconds(2))));
+
+        MvcResult result = mockMvc.perform(post("/api/chat/stream")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().string(
+                        "event:error\ndata:{\"status\":429,\"message\":\"The model is busy. Please retry later.\",\"retryAfter\":2}\n\n"));
+    }
+
     @Test
     @DisplayName("DELETE /api/chat/{sessionId} - Success")
     void whenClearChat_withValidSessionId_shouldReturnOk() throws Exception {
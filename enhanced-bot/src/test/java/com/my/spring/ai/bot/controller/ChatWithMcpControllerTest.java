@@ -1,20 +1,26 @@
 package com.my.spring.ai.bot.controller;
 
 import com.my.spring.ai.bot.dto.ChatRequest;
+import com.my.spring.ai.bot.exception.SupersededMessageException;
+import com.my.spring.ai.bot.exception.TooManyRequestsException;
 import com.my.spring.ai.bot.service.McpChatService;
+import com.my.spring.ai.bot.tools.ToolCatalog;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.ai.autoconfigure.ollama.OllamaAutoConfiguration;
 import org.springframework.ai.autoconfigure.vectorstore.chroma.ChromaVectorStoreAutoConfiguration;
 import org.springframework.ai.tool.ToolCallback;
+import org.springframework.ai.tool.definition.ToolDefinition;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import reactor.core.publisher.Flux;
 
-import java.util.Collections;
+import java.time.Duration;
 import java.util.List;
 
 import static org.mockito.Mockito.*;
@@ -160,22 +166,41 @@ class ChatWithMcpControllerTest {
     @DisplayName("GET /api/mcp/chat/tools - Success: Returns list of available tools")
     void whenListTools_shouldReturnToolsList() throws Exception {
         // --- Arrange ---
-        // Mock service to return a non-empty list of tools
-        // Note: Using empty list for simplicity since mocking internal ToolCallback structure is complex
-        List<ToolCallback> tools = Collections.emptyList();  // Simplified mock
+        ToolCatalog catalog = ToolCatalog.of(List.of(tool("get_weather")), objectMapper);
 
         // Mock service behavior
-        when(mcpChatService.listAvailableMcpTools()).thenReturn(tools);
+        when(mcpChatService.getToolCatalog()).thenReturn(catalog);
 
         // --- Act & Assert ---
         mockMvc.perform(get("/api/mcp/chat/tools")
                         .contentType(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk())
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
-                .andExpect(jsonPath("$").isArray());
+                .andExpect(header().string("ETag", catalog.etag()))
+                .andExpect(jsonPath("$").isArray())
+                .andExpect(jsonPath("$[0].name").value("get_weather"))
+                .andExpect(jsonPath("$[0].inputSchema").value("{}"));
 
         // --- Verify ---
-        verify(mcpChatService, times(1)).listAvailableMcpTools();
+        verify(mcpChatService, times(1)).getToolCatalog();
+    }
+
+    @Test
+    @DisplayName("GET /api/mcp/chat/tools - Success: Unchanged tools answer a conditional GET with 304")
+    void whenListTools_withMatchingETag_shouldReturnNotModified() throws Exception {
+        // --- Arrange ---
+        ToolCatalog catalog = ToolCatalog.of(List.of(tool("get_weather")), objectMapper);
+        when(mcpChatService.getToolCatalog()).thenReturn(catalog);
+
+        // --- Act & Assert ---
+        mockMvc.perform(get("/api/mcp/chat/tools")
+                        .header("If-None-Match", catalog.etag()))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+
+        mockMvc.perform(get("/api/mcp/chat/tools")
+                        .header("If-None-Match", "\"stale\""))
+                .andExpect(status().isOk());
     }
 
     @Test
@@ -183,7 +208,7 @@ class ChatWithMcpControllerTest {
     void whenListTools_andServiceThrowsException_shouldReturnInternalServerError() throws Exception {
         // --- Arrange ---
         // Mock service to throw exception
-        when(mcpChatService.listAvailableMcpTools())
+        when(mcpChatService.getToolCatalog())
                 .thenThrow(new RuntimeException("Failed to retrieve MCP tools"));
 
         // --- Act & Assert ---
@@ -192,7 +217,7 @@ class ChatWithMcpControllerTest {
                 .andExpect(status().isInternalServerError());
 
         // --- Verify ---
-        verify(mcpChatService, times(1)).listAvailableMcpTools();
+        verify(mcpChatService, times(1)).getToolCatalog();
     }
 
     // =========================================================================
@@ -243,4 +268,57 @@ class ChatWithMcpControllerTest {
         verify(mcpChatService, times(1)).chat(sessionId, userMessage);
     }
 
-}
\ No newline at end of file
+    @Test
+    @DisplayName("POST /api/mcp/chat/stream - Admission rejection ends the stream with a 429 error event and its retry hint")
+    void whenChatStream_admissionRejects_shouldEmitTooManyRequestsEvent() throws Exception {
+        ChatRequest request = ChatRequest.builder()
+                .sessionId("session-123")
+                .message("What's the weather?")
+                .build();
+
+        when(mcpChatService.chatStream("session-123", "What's the weather?"))
+                .thenReturn(Flux.error(new TooManyRequestsException("The model is busy. Please retry later.", Duration.ofSeconds(3))));
+
+        MvcResult result = mockMvc.perform(post("/api/mcp/chat/stream")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().string(
+                        "event:error\ndata:{\"status\":429,\"message\":\"The model is busy. Please retry later.\",\"retryAfter\":3}\n\n"));
+    }
+
+    @Test
+    @DisplayName("POST /api/mcp/chat/stream - A superseded message ends the stream with a 409 error event")
+    void whenChatStream_messageSuperseded_shouldEmitConflictEvent() throws Exception {
+        ChatRequest request = ChatRequest.builder()
+                .sessionId("session-123")
+                .message("What's the weather?")
+                .build();
+
+        when(mcpChatService.chatStream("session-123", "What's the weather?"))
+                .thenReturn(Flux.error(new SupersededMessageException("replaced")));
+
+        MvcResult result = mockMvc.perform(post("/api/mcp/chat/stream")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().string(
+                        "event:error\ndata:{\"status\":409,\"message\":\"A newer message for this session replaced this one.\"}\n\n"));
+    }
+
+    private static ToolCallback tool(String name) {
+        ToolCallback tool = mock(ToolCallback.class);
+        when(tool.getToolDefinition()).thenReturn(
+                ToolDefinition.builder().name(name).description("Tool " + name).inputSchema("{}").build());
+        return tool;
+    }
+
+}
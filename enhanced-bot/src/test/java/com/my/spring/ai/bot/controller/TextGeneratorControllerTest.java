@@ -1,8 +1,13 @@
 package com.my.spring.ai.bot.controller;
 
+import com.my.spring.ai.bot.dto.BatchGenerateResult;
 import com.my.spring.ai.bot.dto.GenerateRequest;
 import com.my.spring.ai.bot.dto.GenerateResponse;
+import com.my.spring.ai.bot.exception.InvalidBatchRequestException;
+import com.my.spring.ai.bot.exception.ServiceUnavailableException;
 import com.my.spring.ai.bot.exception.TextGenerationException;
+import com.my.spring.ai.bot.exception.TooManyRequestsException;
+import com.my.spring.ai.bot.service.BatchTextGeneratorService;
 import com.my.spring.ai.bot.service.TextGeneratorService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.DisplayName;
@@ -15,16 +20,24 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import reactor.core.publisher.Flux;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -62,6 +75,9 @@ class TextGeneratorControllerTest {
 
     @MockBean
     private TextGeneratorService textGeneratorService;
+
+    @MockBean
+    private BatchTextGeneratorService batchTextGeneratorService;
     
     @Autowired
     private ObjectMapper objectMapper;
@@ -409,6 +425,81 @@ class TextGeneratorControllerTest {
         verify(textGeneratorService, never()).generateText(any());
     }
     
+    @Test
+    @DisplayName("POST /generate/batch - Streams one NDJSON line per item")
+    void generateBatch_ValidRequests_StreamsNdjson() throws Exception {
+        GenerateRequest second = createValidRequest();
+        second.setPrompt("Second prompt");
+        when(batchTextGeneratorService.generateBatch(anyList())).thenReturn(Flux.just(
+                BatchGenerateResult.success(1, GenerateResponse.simple("second")),
+                BatchGenerateResult.failure(0, "Failed to generate text. Please try again later.")));
+
+        MvcResult result = mockMvc.perform(post("/generate/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(List.of(createValidRequest(), second))))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String body = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                .andReturn().getResponse().getContentAsString();
+
+        List<String> lines = body.lines().toList();
+        assertEquals(2, lines.size());
+        BatchGenerateResult first = objectMapper.readValue(lines.get(0), BatchGenerateResult.class);
+        BatchGenerateResult failed = objectMapper.readValue(lines.get(1), BatchGenerateResult.class);
+        assertEquals(1, first.getIndex());
+        assertEquals("second", first.getResponse().getResponse());
+        assertEquals(0, failed.getIndex());
+        assertNull(failed.getResponse());
+        assertTrue(lines.get(1).contains("\"error\""));
+    }
+
+    @Test
+    @DisplayName("POST /generate/batch - Rejects an empty batch with 400")
+    void generateBatch_EmptyBatch_ReturnsBadRequest() throws Exception {
+        when(batchTextGeneratorService.generateBatch(anyList()))
+                .thenThrow(new InvalidBatchRequestException("Batch must contain at least one request."));
+
+        mockMvc.perform(post("/generate/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[]"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Batch must contain at least one request."));
+    }
+
+    @Test
+    @DisplayName("POST /generate - Returns 429 with Retry-After when admission control rejects the call")
+    void generateText_AdmissionRejected_ReturnsTooManyRequests() throws Exception {
+        when(textGeneratorService.generateText(any(GenerateRequest.class)))
+                .thenThrow(new TooManyRequestsException("Too many concurrent generate requests (queue is full). Please retry later.",
+                        Duration.ofSeconds(3)));
+
+        mockMvc.perform(post("/generate")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(createValidRequest())))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string("Retry-After", "3"))
+                .andExpect(jsonPath("$.error").value("Too Many Requests"));
+    }
+
+    @Test
+    @DisplayName("POST /generate - Returns 503 with Retry-After when the model's circuit is open")
+    void generateText_CircuitOpen_ReturnsServiceUnavailable() throws Exception {
+        when(textGeneratorService.generateText(any(GenerateRequest.class)))
+                .thenThrow(new ServiceUnavailableException("chat-model is unavailable, please retry later",
+                        Duration.ofSeconds(25)));
+
+        mockMvc.perform(post("/generate")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(createValidRequest())))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string("Retry-After", "25"))
+                .andExpect(jsonPath("$.error").value("Service Unavailable"))
+                .andExpect(jsonPath("$.message").value("chat-model is unavailable, please retry later"));
+    }
+
     // Helper methods for test data creation
     
     /**
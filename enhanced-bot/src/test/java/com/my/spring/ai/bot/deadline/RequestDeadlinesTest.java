@@ -0,0 +1,162 @@
+package com.my.spring.ai.bot.deadline;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.my.spring.ai.bot.config.RequestDeadlineProperties;
+import com.my.spring.ai.bot.exception.DeadlineExceededException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.tool.ToolCallback;
+import org.springframework.ai.tool.definition.ToolDefinition;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for RequestDeadlines, Deadline and the deadline-aware tool wrapper.
+ */
+class RequestDeadlinesTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private RequestDeadlineProperties properties;
+    private RequestDeadlines requestDeadlines;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        properties = new RequestDeadlineProperties();
+        properties.setDefaultTimeout(Duration.ofSeconds(60));
+        properties.setMaxTimeout(Duration.ofSeconds(90));
+        properties.setEndpoints(Map.of("voice", Duration.ofSeconds(75)));
+        requestDeadlines = new RequestDeadlines(properties, meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        requestDeadlines.destroy();
+    }
+
+    @Test
+    @DisplayName("Takes the caller's timeout up to the maximum, else the endpoint or global default")
+    void resolve_HeaderAndDefaults() {
+        assertRemaining(60, requestDeadlines.resolve("chat", null));
+        assertRemaining(75, requestDeadlines.resolve("voice", null));
+        assertRemaining(10, requestDeadlines.resolve("chat", "10s"));
+        assertRemaining(2, requestDeadlines.resolve("chat", "2000"));
+        assertRemaining(90, requestDeadlines.resolve("chat", "10m"));
+        assertRemaining(60, requestDeadlines.resolve("chat", "soon"));
+        assertRemaining(60, requestDeadlines.resolve("chat", "-5s"));
+
+        properties.setEnabled(false);
+        assertNull(requestDeadlines.resolve("chat", "10s"));
+    }
+
+    @Test
+    @DisplayName("Binds the deadline to the thread and interrupts it when the deadline passes")
+    void enter_DeadlinePasses_InterruptsAndCounts() {
+        Deadline deadline = requestDeadlines.resolve("qa", "50ms");
+        try (RequestDeadlines.Scope ignored = requestDeadlines.enter(deadline)) {
+            assertSame(deadline, Deadline.current());
+            assertThrows(InterruptedException.class, () -> Thread.sleep(5_000));
+
+            DeadlineExceededException ex = assertThrows(DeadlineExceededException.class, Deadline::checkCurrent);
+            assertTrue(ex.getMessage().contains("qa"));
+        }
+
+        assertNull(Deadline.current());
+        assertFalse(Thread.currentThread().isInterrupted());
+        assertEquals(1.0, meterRegistry.get("llm.requests.deadline.exceeded").tag("endpoint", "qa").counter().count());
+    }
+
+    @Test
+    @DisplayName("A request finished in time is neither interrupted nor counted")
+    void enter_FinishedInTime_NotInterrupted() throws Exception {
+        try (RequestDeadlines.Scope ignored = requestDeadlines.enter(requestDeadlines.resolve("chat", "100ms"))) {
+            Deadline.checkCurrent();
+            Deadline.checkCurrent(new IllegalStateException("unrelated failure"));
+        }
+        Thread.sleep(200);
+
+        assertFalse(Thread.currentThread().isInterrupted());
+        assertTrue(meterRegistry.find("llm.requests.deadline.exceeded").counters().isEmpty());
+    }
+
+    @Test
+    @DisplayName("A stream still running at the deadline fails with DeadlineExceededException")
+    void bound_StreamTooSlow_Fails() {
+        Deadline deadline = requestDeadlines.resolve("chat", "500ms");
+        Flux<Long> slow = Flux.interval(Duration.ofMillis(30));
+
+        List<Long> received = new ArrayList<>();
+        assertThrows(DeadlineExceededException.class,
+                () -> deadline.bound(slow).doOnNext(received::add).blockLast(Duration.ofSeconds(5)));
+        assertFalse(received.isEmpty());
+        assertEquals(1.0, meterRegistry.get("llm.requests.deadline.exceeded").tag("endpoint", "chat").counter().count());
+
+        assertEquals(List.of(1, 2, 3), requestDeadlines.resolve("chat", "1s").bound(Flux.just(1, 2, 3))
+                .collectList().block(Duration.ofSeconds(5)));
+    }
+
+    @Test
+    @DisplayName("Tools get the time left with their arguments and are not called after the deadline")
+    void wrap_PassesTimeLeftAndStopsAfterDeadline() throws Exception {
+        List<String> inputs = new ArrayList<>();
+        ToolCallback tool = requestDeadlines.wrap(new RecordingTool(inputs));
+        assertSame(tool, requestDeadlines.wrap(tool));
+
+        assertEquals("done", tool.call("{\"city\":\"Oslo\"}"));
+        assertEquals("{\"city\":\"Oslo\"}", inputs.get(0));
+
+        try (RequestDeadlines.Scope ignored = requestDeadlines.enter(requestDeadlines.resolve("mcp-chat", "30s"))) {
+            tool.call("{\"city\":\"Oslo\"}");
+        }
+        JsonNode sent = new ObjectMapper().readTree(inputs.get(1));
+        assertEquals("Oslo", sent.get("city").asText());
+        long timeoutMillis = sent.get("_meta").get("timeoutMillis").asLong();
+        assertTrue(timeoutMillis > 25_000 && timeoutMillis <= 30_000, String.valueOf(timeoutMillis));
+
+        try (RequestDeadlines.Scope ignored = requestDeadlines.enter(requestDeadlines.resolve("mcp-chat", "1ms"))) {
+            while (!Thread.interrupted()) {
+                Thread.onSpinWait();
+            }
+            assertThrows(DeadlineExceededException.class, () -> tool.call("{}"));
+        }
+        assertEquals(2, inputs.size());
+    }
+
+    @Test
+    @DisplayName("Arguments that are not a JSON object go to the tool unchanged")
+    void withTimeout_NotAnObject_Unchanged() {
+        assertEquals("[1,2]", DeadlineToolCallback.withTimeout("[1,2]", 1000));
+        assertEquals("not json", DeadlineToolCallback.withTimeout("not json", 1000));
+        assertEquals("{\"_meta\":{\"timeoutMillis\":1000}}", DeadlineToolCallback.withTimeout("", 1000));
+    }
+
+    private static void assertRemaining(long expectedSeconds, Deadline deadline) {
+        long remaining = deadline.remaining().toMillis();
+        assertTrue(remaining > expectedSeconds * 1000 - 1000 && remaining <= expectedSeconds * 1000,
+                "expected about " + expectedSeconds + "s, was " + remaining + "ms");
+    }
+
+    private record RecordingTool(List<String> inputs) implements ToolCallback {
+
+        @Override
+        public ToolDefinition getToolDefinition() {
+            return ToolDefinition.builder().name("weather").description("Current weather").inputSchema("{}").build();
+        }
+
+        @Override
+        public String call(String toolInput) {
+            inputs.add(toolInput);
+            return "done";
+        }
+    }
+}
@@ -0,0 +1,333 @@
+package com.my.spring.ai.bot.hedging;
+
+import com.my.spring.ai.bot.admission.AdmissionControl;
+import com.my.spring.ai.bot.admission.EndpointClass;
+import com.my.spring.ai.bot.cancellation.RequestCancellation;
+import com.my.spring.ai.bot.config.AdmissionControlProperties;
+import com.my.spring.ai.bot.config.HedgingProperties;
+import com.my.spring.ai.bot.config.RequestCancellationProperties;
+import com.my.spring.ai.bot.config.RequestDeadlineProperties;
+import com.my.spring.ai.bot.deadline.Deadline;
+import com.my.spring.ai.bot.deadline.RequestDeadlines;
+import com.my.spring.ai.bot.exception.DeadlineExceededException;
+import com.my.spring.ai.bot.exception.RequestCancelledException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.stubbing.Answer;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.model.Generation;
+import org.springframework.ai.chat.prompt.Prompt;
+import org.springframework.ai.model.tool.ToolCallingChatOptions;
+import org.springframework.ai.tool.ToolCallback;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for HedgedChatModel.
+ */
+class HedgedChatModelTest {
+
+    private static final Prompt PROMPT = new Prompt("hello");
+
+    private SimpleMeterRegistry meterRegistry;
+    private HedgingProperties properties;
+    private ChatModel primary;
+    private ChatModel secondary;
+    private HedgedChatModel model;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        properties = new HedgingProperties();
+        properties.setInitialDelay(Duration.ofMillis(100));
+        properties.setMinDelay(Duration.ofMillis(10));
+        primary = mock(ChatModel.class);
+        secondary = mock(ChatModel.class);
+        when(secondary.call(any(Prompt.class))).thenReturn(response("secondary"));
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (model != null) {
+            model.close();
+        }
+    }
+
+    @Test
+    @DisplayName("Answers from the primary without hedging when it is fast")
+    void call_FastPrimary_NotHedged() {
+        when(primary.call(any(Prompt.class))).thenReturn(response("primary"));
+        model = model();
+
+        assertEquals("primary", answer(model.call(PROMPT)));
+        verify(secondary, never()).call(any(Prompt.class));
+        assertEquals(1.0, count("chat.hedge.calls", "mode", "call", "hedged", "false"));
+    }
+
+    @Test
+    @DisplayName("Hedges a slow primary and cancels it when the secondary answers first")
+    void call_SlowPrimary_SecondaryWinsAndPrimaryIsCancelled() throws Exception {
+        CountDownLatch primaryInterrupted = new CountDownLatch(1);
+        when(primary.call(any(Prompt.class))).thenAnswer(invocation -> {
+            try {
+                Thread.sleep(10_000);
+            } catch (InterruptedException e) {
+                primaryInterrupted.countDown();
+                throw e;
+            }
+            return response("primary");
+        });
+        model = model();
+
+        assertEquals("secondary", answer(model.call(PROMPT)));
+        assertTrue(primaryInterrupted.await(5, TimeUnit.SECONDS), "the losing primary call should be cancelled");
+        assertEquals(1.0, count("chat.hedge.calls", "mode", "call", "hedged", "true"));
+        assertEquals(1.0, count("chat.hedge.wins", "mode", "call", "winner", "secondary"));
+    }
+
+    @Test
+    @DisplayName("Sends the prompt's tools and options, but not the primary's model, to the secondary")
+    void call_Hedged_SecondaryGetsToolsWithoutModel() {
+        when(primary.call(any(Prompt.class))).thenThrow(new IllegalStateException("connection refused"));
+        ToolCallback tool = mock(ToolCallback.class);
+        model = model();
+
+        model.call(new Prompt("hello", ToolCallingChatOptions.builder()
+                .model("llama3.2")
+                .temperature(0.2)
+                .toolCallbacks(tool)
+                .toolContext("user", "u1")
+                .build()));
+
+        verify(secondary).call(argThat((Prompt prompt) -> "hello".equals(prompt.getContents())
+                && prompt.getOptions() instanceof ToolCallingChatOptions options
+                && options.getModel() == null
+                && Double.valueOf(0.2).equals(options.getTemperature())
+                && List.of(tool).equals(options.getToolCallbacks())
+                && "u1".equals(options.getToolContext().get("user"))));
+    }
+
+    @Test
+    @DisplayName("Runs both calls under the caller's deadline")
+    void call_Hedged_RunsUnderCallersDeadline() {
+        AtomicReference<Deadline> primaryDeadline = new AtomicReference<>();
+        AtomicReference<Deadline> secondaryDeadline = new AtomicReference<>();
+        when(primary.call(any(Prompt.class))).thenAnswer(invocation -> {
+            primaryDeadline.set(Deadline.current());
+            throw new IllegalStateException("connection refused");
+        });
+        when(secondary.call(any(Prompt.class))).thenAnswer(invocation -> {
+            secondaryDeadline.set(Deadline.current());
+            return response("secondary");
+        });
+        model = model();
+        RequestDeadlines requestDeadlines = new RequestDeadlines(new RequestDeadlineProperties(), meterRegistry);
+
+        Deadline deadline = requestDeadlines.resolve("chat", "10s");
+        try (RequestDeadlines.Scope ignored = requestDeadlines.enter(deadline)) {
+            assertEquals("secondary", answer(model.call(PROMPT)));
+        } finally {
+            requestDeadlines.destroy();
+        }
+
+        assertSame(deadline, primaryDeadline.get());
+        assertSame(deadline, secondaryDeadline.get());
+    }
+
+    @Test
+    @DisplayName("Runs both calls under the caller's endpoint class")
+    void call_Hedged_RunsUnderCallersEndpointClass() {
+        AtomicReference<EndpointClass> primaryEndpoint = new AtomicReference<>();
+        AtomicReference<EndpointClass> secondaryEndpoint = new AtomicReference<>();
+        when(primary.call(any(Prompt.class))).thenAnswer(invocation -> {
+            primaryEndpoint.set(AdmissionControl.current());
+            throw new IllegalStateException("connection refused");
+        });
+        when(secondary.call(any(Prompt.class))).thenAnswer(invocation -> {
+            secondaryEndpoint.set(AdmissionControl.current());
+            return response("secondary");
+        });
+        model = model();
+        AdmissionControl admissionControl = new AdmissionControl(new AdmissionControlProperties(), meterRegistry);
+
+        assertEquals("secondary", answer(admissionControl.call(EndpointClass.CHAT, () -> model.call(PROMPT))));
+
+        assertEquals(EndpointClass.CHAT, primaryEndpoint.get());
+        assertEquals(EndpointClass.CHAT, secondaryEndpoint.get());
+    }
+
+    @Test
+    @DisplayName("Cancels both calls when the client disconnects, and fails as a cancelled request")
+    void call_ClientDisconnects_CancelsBothCalls() throws Exception {
+        AtomicBoolean disconnected = new AtomicBoolean();
+        CountDownLatch bothCancelled = new CountDownLatch(2);
+        AtomicInteger sawCancellation = new AtomicInteger();
+        Answer<ChatResponse> slow = invocation -> {
+            if (invocation.getMock() == secondary) {
+                disconnected.set(true);
+            }
+            try {
+                Thread.sleep(10_000);
+            } catch (InterruptedException e) {
+                // The hedge thread runs as part of the request, so it sees the request's cancellation
+                try {
+                    RequestCancellation.checkCurrent(null);
+                } catch (RequestCancelledException cancelled) {
+                    sawCancellation.incrementAndGet();
+                }
+                bothCancelled.countDown();
+                throw e;
+            }
+            return response("late");
+        };
+        when(primary.call(any(Prompt.class))).thenAnswer(slow);
+        when(secondary.call(any(Prompt.class))).thenAnswer(slow);
+        properties.setInitialDelay(Duration.ofMillis(10));
+        model = model();
+        RequestCancellationProperties cancellationProperties = new RequestCancellationProperties();
+        cancellationProperties.setProbeInterval(Duration.ofMillis(20));
+        RequestCancellation requestCancellation = new RequestCancellation(cancellationProperties, meterRegistry);
+        AtomicReference<RuntimeException> failure = new AtomicReference<>();
+        CountDownLatch failed = new CountDownLatch(1);
+
+        try (RequestCancellation.Watch ignored = requestCancellation.watch("chat", disconnected::get)) {
+            assertThrows(RequestCancelledException.class, () -> RequestCancellation.call(() -> {
+                try {
+                    return model.call(PROMPT);
+                } catch (RuntimeException e) {
+                    failure.set(e);
+                    failed.countDown();
+                    throw e;
+                }
+            }));
+            assertTrue(failed.await(5, TimeUnit.SECONDS));
+            assertTrue(bothCancelled.await(5, TimeUnit.SECONDS));
+        } finally {
+            requestCancellation.destroy();
+        }
+
+        assertInstanceOf(RequestCancelledException.class, failure.get());
+        assertEquals(2, sawCancellation.get());
+    }
+
+    @Test
+    @DisplayName("Fails with the deadline when it passes while both calls are running")
+    void call_DeadlinePasses_ThrowsDeadlineExceeded() {
+        when(primary.call(any(Prompt.class))).thenAnswer(invocation -> {
+            Thread.sleep(10_000);
+            return response("late");
+        });
+        when(secondary.call(any(Prompt.class))).thenAnswer(invocation -> {
+            Thread.sleep(10_000);
+            return response("late");
+        });
+        properties.setInitialDelay(Duration.ofMillis(10));
+        model = model();
+        RequestDeadlines requestDeadlines = new RequestDeadlines(new RequestDeadlineProperties(), meterRegistry);
+
+        try (RequestDeadlines.Scope ignored = requestDeadlines.enter(requestDeadlines.resolve("chat", "200ms"))) {
+            assertThrows(DeadlineExceededException.class, () -> model.call(PROMPT));
+        } finally {
+            requestDeadlines.destroy();
+        }
+        assertFalse(Thread.currentThread().isInterrupted());
+    }
+
+    @Test
+    @DisplayName("Leaves a slow call to the primary alone when no thread is free for the hedge")
+    void call_PoolBusy_NotHedged() {
+        properties.setThreads(1);
+        when(primary.call(any(Prompt.class))).thenAnswer(invocation -> {
+            Thread.sleep(300);
+            return response("primary");
+        });
+        model = model();
+
+        assertEquals("primary", answer(model.call(PROMPT)));
+        verify(secondary, never()).call(any(Prompt.class));
+        assertEquals(1.0, count("chat.hedge.rejected", "mode", "call"));
+        assertEquals(1.0, count("chat.hedge.calls", "mode", "call", "hedged", "false"));
+    }
+
+    @Test
+    @DisplayName("Hedges at once when the primary fails before the delay")
+    void call_PrimaryFails_SecondaryAnswers() {
+        properties.setInitialDelay(Duration.ofSeconds(30));
+        when(primary.call(any(Prompt.class))).thenThrow(new IllegalStateException("connection refused"));
+        model = model();
+
+        long start = System.nanoTime();
+        assertEquals("secondary", answer(model.call(PROMPT)));
+        assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(10));
+    }
+
+    @Test
+    @DisplayName("Throws the primary's failure when both models fail")
+    void call_BothFail_ThrowsPrimaryFailure() {
+        when(primary.call(any(Prompt.class))).thenThrow(new IllegalStateException("primary down"));
+        when(secondary.call(any(Prompt.class))).thenThrow(new IllegalArgumentException("secondary down"));
+        model = model();
+
+        IllegalStateException ex = assertThrows(IllegalStateException.class, () -> model.call(PROMPT));
+        assertEquals("primary down", ex.getMessage());
+    }
+
+    @Test
+    @DisplayName("Streams from the secondary when the primary's first chunk is late")
+    void stream_SlowFirstChunk_SecondaryWins() {
+        when(primary.stream(any(Prompt.class)))
+                .thenReturn(Flux.just(response("primary")).delayElements(Duration.ofSeconds(10)));
+        when(secondary.stream(any(Prompt.class))).thenReturn(Flux.just(response("sec"), response("ondary")));
+        model = model();
+
+        List<ChatResponse> responses = model.stream(PROMPT).collectList().block(Duration.ofSeconds(5));
+
+        assertEquals(List.of("sec", "ondary"), responses.stream().map(HedgedChatModelTest::answer).toList());
+        assertEquals(1.0, count("chat.hedge.wins", "mode", "stream", "winner", "secondary"));
+    }
+
+    @Test
+    @DisplayName("Takes the hedge delay from the configured percentile of recent latencies")
+    void latencyWindow_ComputesPercentile() {
+        HedgedChatModel.LatencyWindow window = new HedgedChatModel.LatencyWindow(100, 10, 0.9);
+        for (int i = 1; i <= 9; i++) {
+            window.record(i);
+        }
+        assertEquals(-1, window.percentile());
+
+        window.record(10);
+        assertEquals(9, window.percentile());
+    }
+
+    private HedgedChatModel model() {
+        return new HedgedChatModel(primary, secondary, properties, meterRegistry);
+    }
+
+    private double count(String name, String... tags) {
+        return meterRegistry.get(name).tags(tags).counter().count();
+    }
+
+    private static ChatResponse response(String text) {
+        return new ChatResponse(List.of(new Generation(new AssistantMessage(text))));
+    }
+
+    private static String answer(ChatResponse response) {
+        return response.getResult().getOutput().getText();
+    }
+}
@@ -0,0 +1,255 @@
+package com.my.spring.ai.bot.loadbalancer;
+
+import com.my.spring.ai.bot.config.OllamaPoolProperties;
+import com.my.spring.ai.bot.exception.DeadlineExceededException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.model.Generation;
+import org.springframework.ai.chat.prompt.Prompt;
+import org.springframework.ai.retry.NonTransientAiException;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for LoadBalancedChatModel.
+ */
+class LoadBalancedChatModelTest {
+
+    private static final Prompt PROMPT = new Prompt("hello");
+
+    private SimpleMeterRegistry meterRegistry;
+    private MutableClock clock;
+    private OllamaPoolProperties properties;
+    private Map<String, ChatModel> backends;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        clock = new MutableClock();
+        properties = new OllamaPoolProperties();
+        backends = new LinkedHashMap<>();
+        for (String name : List.of("a", "b", "c")) {
+            ChatModel model = mock(ChatModel.class);
+            when(model.call(any(Prompt.class))).thenReturn(response(name));
+            backends.put(name, model);
+        }
+    }
+
+    @Test
+    @DisplayName("Sends a request to the backend with the fewest requests in flight")
+    void call_PicksLeastOutstandingBackend() {
+        LoadBalancedChatModel pool = pool();
+        // Two long streams keep a and b busy
+        Sinks.Many<ChatResponse> busy = Sinks.many().multicast().onBackpressureBuffer();
+        when(backends.get("a").stream(any(Prompt.class))).thenReturn(busy.asFlux());
+        when(backends.get("b").stream(any(Prompt.class))).thenReturn(busy.asFlux());
+        when(backends.get("c").stream(any(Prompt.class))).thenReturn(busy.asFlux());
+        Disposable first = pool.stream(PROMPT).subscribe();
+        Disposable second = pool.stream(PROMPT).subscribe();
+
+        Set<String> busyBackends = new HashSet<>(List.of("a", "b", "c"));
+        busyBackends.remove(answer(pool.call(PROMPT)));
+        assertEquals(2, busyBackends.size(), "the idle backend should have answered");
+        assertEquals(1.0, meterRegistry.get("ollama.backend.outstanding").tag("backend", busyBackends.iterator().next())
+                .gauge().value());
+
+        first.dispose();
+        second.dispose();
+        for (String name : backends.keySet()) {
+            assertEquals(0.0, meterRegistry.get("ollama.backend.outstanding").tag("backend", name).gauge().value());
+        }
+    }
+
+    @Test
+    @DisplayName("Keeps requests with the same affinity key on one backend")
+    void call_WithAffinity_StaysOnOneBackend() {
+        properties.getAffinity().setEnabled(true);
+        LoadBalancedChatModel pool = pool();
+
+        String pinned = BackendAffinity.call("session-1", () -> answer(pool.call(PROMPT)));
+        for (int i = 0; i < 10; i++) {
+            assertEquals(pinned, BackendAffinity.call("session-1", () -> answer(pool.call(PROMPT))));
+        }
+        assertEquals(11.0, meterRegistry.get("ollama.pool.affinity").tag("result", "hit").counter().count());
+    }
+
+    @Test
+    @DisplayName("Moves a pinned request off its backend when that backend is much busier")
+    void stream_WithAffinity_SpillsOverWhenBackendIsBusy() {
+        properties.getAffinity().setEnabled(true);
+        properties.getAffinity().setSpilloverThreshold(1);
+        Sinks.Many<ChatResponse> busy = Sinks.many().multicast().onBackpressureBuffer();
+        backends.values().forEach(model -> when(model.stream(any(Prompt.class))).thenReturn(busy.asFlux()));
+        LoadBalancedChatModel pool = pool();
+
+        Disposable held = BackendAffinity.stream("session-1", pool.stream(PROMPT)).subscribe();
+        String other = BackendAffinity.call("session-1", () -> answer(pool.call(PROMPT)));
+
+        assertEquals(1.0, meterRegistry.get("ollama.pool.affinity").tag("result", "spill").counter().count());
+        assertEquals(0.0, meterRegistry.get("ollama.backend.outstanding").tag("backend", other).gauge().value());
+        held.dispose();
+    }
+
+    @Test
+    @DisplayName("Ejects a backend after consecutive failures and restores it after the ejection time")
+    void call_ConsecutiveFailures_EjectsBackend() {
+        properties.getEjection().setConsecutiveFailures(2);
+        properties.getEjection().setBaseTime(Duration.ofSeconds(30));
+        when(backends.get("b").call(any(Prompt.class))).thenThrow(new IllegalStateException("connection refused"));
+        LoadBalancedChatModel pool = pool();
+
+        int failures = 0;
+        for (int i = 0; i < 9; i++) {
+            try {
+                pool.call(PROMPT);
+            } catch (IllegalStateException e) {
+                failures++;
+            }
+        }
+
+        assertEquals(2, failures);
+        assertEquals(List.of("a", "c"), pool.availableBackends());
+        assertEquals(1.0, meterRegistry.get("ollama.backend.ejections").tag("backend", "b").counter().count());
+        assertEquals(2, meterRegistry.get("ollama.backend.requests")
+                .tags("backend", "b", "mode", "call", "outcome", "error").timer().count());
+
+        clock.advance(Duration.ofSeconds(31));
+        assertEquals(List.of("a", "b", "c"), pool.availableBackends());
+    }
+
+    @Test
+    @DisplayName("Does not eject a backend for client errors")
+    void call_ClientErrors_DoNotEject() {
+        properties.getEjection().setConsecutiveFailures(1);
+        backends.values().forEach(model ->
+                when(model.call(any(Prompt.class))).thenThrow(new NonTransientAiException("400 - bad request")));
+        LoadBalancedChatModel pool = pool();
+
+        for (int i = 0; i < 6; i++) {
+            assertThrows(NonTransientAiException.class, () -> pool.call(PROMPT));
+        }
+        assertEquals(List.of("a", "b", "c"), pool.availableBackends());
+    }
+
+    @Test
+    @DisplayName("Does not count requests cut short by their caller as backend failures")
+    void call_InterruptedOrCancelled_DoesNotCountAsFailure() {
+        properties.getEjection().setConsecutiveFailures(2);
+        ChatModel only = mock(ChatModel.class);
+        when(only.call(any(Prompt.class)))
+                .thenAnswer(invocation -> {
+                    // A losing hedged request: its thread is interrupted and the client aborts the exchange
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException("I/O error");
+                })
+                .thenThrow(new IllegalStateException(new InterruptedException()))
+                .thenThrow(new DeadlineExceededException("deadline passed", null))
+                .thenThrow(new IllegalStateException("connection refused"));
+        LoadBalancedChatModel pool = new LoadBalancedChatModel(Map.of("a", only), properties, meterRegistry, clock);
+
+        try {
+            assertThrows(IllegalStateException.class, () -> pool.call(PROMPT));
+        } finally {
+            assertTrue(Thread.interrupted());
+        }
+        assertThrows(IllegalStateException.class, () -> pool.call(PROMPT));
+        assertThrows(DeadlineExceededException.class, () -> pool.call(PROMPT));
+        // Only this one counts, so it is the first of two consecutive failures
+        assertThrows(IllegalStateException.class, () -> pool.call(PROMPT));
+
+        assertEquals(List.of("a"), pool.availableBackends());
+        assertEquals(0.0, meterRegistry.get("ollama.backend.ejections").tag("backend", "a").counter().count());
+    }
+
+    @Test
+    @DisplayName("Uses every backend again when all of them are ejected")
+    void call_AllEjected_FallsBackToWholePool() {
+        properties.getEjection().setConsecutiveFailures(1);
+        ChatModel only = mock(ChatModel.class);
+        when(only.call(any(Prompt.class))).thenThrow(new IllegalStateException("down")).thenReturn(response("a"));
+        LoadBalancedChatModel pool = new LoadBalancedChatModel(Map.of("a", only), properties, meterRegistry, clock);
+
+        assertThrows(IllegalStateException.class, () -> pool.call(PROMPT));
+        assertTrue(pool.availableBackends().isEmpty());
+        assertEquals("a", answer(pool.call(PROMPT)));
+    }
+
+    @Test
+    @DisplayName("Records per-backend latency and time to first chunk for streams")
+    void stream_RecordsBackendMetrics() {
+        backends.values().forEach(model ->
+                when(model.stream(any(Prompt.class))).thenReturn(Flux.just(response("x"), response("y"))));
+        LoadBalancedChatModel pool = pool();
+
+        List<ChatResponse> responses = pool.stream(PROMPT).collectList().block();
+
+        assertEquals(2, responses.size());
+        long streams = backends.keySet().stream()
+                .mapToLong(name -> meterRegistry.get("ollama.backend.requests")
+                        .tags("backend", name, "mode", "stream", "outcome", "success").timer().count())
+                .sum();
+        long firstChunks = backends.keySet().stream()
+                .mapToLong(name -> meterRegistry.get("ollama.backend.first.chunk")
+                        .tag("backend", name).timer().count())
+                .sum();
+        assertEquals(1, streams);
+        assertEquals(1, firstChunks);
+    }
+
+    private LoadBalancedChatModel pool() {
+        return new LoadBalancedChatModel(backends, properties, meterRegistry, clock);
+    }
+
+    private static ChatResponse response(String text) {
+        return new ChatResponse(List.of(new Generation(new AssistantMessage(text))));
+    }
+
+    private static String answer(ChatResponse response) {
+        return response.getResult().getOutput().getText();
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private Instant now = Instant.parse("2025-01-01T00:00:00Z");
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
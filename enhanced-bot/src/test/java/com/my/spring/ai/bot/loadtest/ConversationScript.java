@@ -0,0 +1,56 @@
+package com.my.spring.ai.bot.loadtest;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.core.io.ClassPathResource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.List;
+
+/**
+ * A conversation the load driver replays: the user turns, in order, against one endpoint and one session.
+ *
+ * @param name     label of the script in reports
+ * @param endpoint the endpoint every turn is sent to
+ * @param turns    the user's messages; for {@code voice}, the length of each decides the size of the audio sent
+ */
+public record ConversationScript(String name, Endpoint endpoint, List<String> turns) {
+
+    public enum Endpoint {
+        @JsonProperty("chat")
+        CHAT("chat"),
+        @JsonProperty("mcp-chat")
+        MCP_CHAT("mcp-chat"),
+        @JsonProperty("qa")
+        QA("qa"),
+        @JsonProperty("generate")
+        GENERATE("generate"),
+        @JsonProperty("voice")
+        VOICE("voice");
+
+        private final String tag;
+
+        Endpoint(String tag) {
+            this.tag = tag;
+        }
+
+        public String tag() {
+            return tag;
+        }
+    }
+
+    /**
+     * Reads a JSON array of scripts from the classpath.
+     */
+    public static List<ConversationScript> load(String resource) {
+        try (InputStream in = new ClassPathResource(resource).getInputStream()) {
+            return new ObjectMapper().readValue(in, new TypeReference<>() {
+            });
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read conversation scripts from " + resource, e);
+        }
+    }
+}
@@ -0,0 +1,193 @@
+package com.my.spring.ai.bot.loadtest;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.my.spring.ai.bot.loadtest.ConversationScript.Endpoint;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Replays conversation scripts against a running enhanced-bot and measures throughput and latency per endpoint.
+ *
+ * Each virtual user is a thread that plays one script after another, each in a fresh session, sending a
+ * turn only once the previous one was answered (closed loop). Users start on different scripts so every
+ * endpoint is under load from the start. No new turns are sent once the duration has passed.
+ */
+@Slf4j
+public class LoadDriver {
+
+    // 16 kHz, 16-bit mono speech at about 15 characters per second
+    private static final int AUDIO_BYTES_PER_CHARACTER = 2_000;
+    private static final Duration REQUEST_TIMEOUT = Duration.ofMinutes(2);
+
+    private final URI baseUri;
+    private final int users;
+    private final Duration duration;
+    private final Duration thinkTime;
+    private final HttpClient client;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    public LoadDriver(URI baseUri, int users, Duration duration, Duration thinkTime) {
+        if (users <= 0) {
+            throw new IllegalArgumentException("At least one virtual user is needed");
+        }
+        this.baseUri = baseUri;
+        this.users = users;
+        this.duration = duration;
+        this.thinkTime = thinkTime;
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+    }
+
+    public LoadReport run(List<ConversationScript> scripts) throws InterruptedException {
+        if (scripts.isEmpty()) {
+            throw new IllegalArgumentException("At least one conversation script is needed");
+        }
+        Map<Endpoint, Recorder> recorders = new EnumMap<>(Endpoint.class);
+        for (Endpoint endpoint : Endpoint.values()) {
+            recorders.put(endpoint, new Recorder());
+        }
+
+        AtomicInteger threadCount = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(users, r -> {
+            Thread thread = new Thread(r, "load-user-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        long start = System.nanoTime();
+        long deadline = start + duration.toNanos();
+        for (int user = 0; user < users; user++) {
+            int userIndex = user;
+            pool.execute(() -> playUser(userIndex, scripts, deadline, recorders));
+        }
+        pool.shutdown();
+        if (!pool.awaitTermination(duration.plus(REQUEST_TIMEOUT).toMillis(), TimeUnit.MILLISECONDS)) {
+            log.warn("Virtual users still running after the request timeout; reporting what completed");
+            pool.shutdownNow();
+        }
+        long elapsed = System.nanoTime() - start;
+
+        List<LoadReport.EndpointStats> endpoints = new ArrayList<>();
+        List<long[]> all = new ArrayList<>();
+        long allErrors = 0;
+        for (Map.Entry<Endpoint, Recorder> entry : recorders.entrySet()) {
+            long[] latencies = entry.getValue().latencies();
+            if (latencies.length > 0) {
+                endpoints.add(LoadReport.EndpointStats.of(entry.getKey().tag(), latencies, entry.getValue().errors.get(), elapsed));
+                all.add(latencies);
+                allErrors += entry.getValue().errors.get();
+            }
+        }
+        long[] total = all.stream().flatMapToLong(Arrays::stream).toArray();
+        return new LoadReport(elapsed / 1_000_000, endpoints, LoadReport.EndpointStats.of("total", total, allErrors, elapsed));
+    }
+
+    private void playUser(int user, List<ConversationScript> scripts, long deadline, Map<Endpoint, Recorder> recorders) {
+        try {
+            for (int iteration = 0; System.nanoTime() < deadline; iteration++) {
+                ConversationScript script = scripts.get((user + iteration) % scripts.size());
+                String sessionId = "load-" + user + "-" + iteration;
+                for (String turn : script.turns()) {
+                    if (System.nanoTime() >= deadline) {
+                        return;
+                    }
+                    send(request(script.endpoint(), sessionId, turn), recorders.get(script.endpoint()));
+                    if (!thinkTime.isZero()) {
+                        Thread.sleep(thinkTime.toMillis());
+                    }
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void send(HttpRequest request, Recorder recorder) throws InterruptedException {
+        long start = System.nanoTime();
+        try {
+            HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+            boolean success = response.statusCode() / 100 == 2;
+            if (!success) {
+                log.debug("{} {} answered {}: {}", request.method(), request.uri().getPath(), response.statusCode(), response.body());
+            }
+            recorder.record(System.nanoTime() - start, success);
+        } catch (IOException e) {
+            log.debug("{} {} failed: {}", request.method(), request.uri().getPath(), e.toString());
+            recorder.record(System.nanoTime() - start, false);
+        }
+    }
+
+    HttpRequest request(Endpoint endpoint, String sessionId, String text) {
+        return switch (endpoint) {
+            case CHAT -> post("/api/chat", Map.of("sessionId", sessionId, "message", text));
+            case MCP_CHAT -> post("/api/mcp/chat", Map.of("sessionId", sessionId, "message", text));
+            case QA -> HttpRequest.newBuilder(baseUri.resolve("/qa?question=" + URLEncoder.encode(text, StandardCharsets.UTF_8)))
+                    .timeout(REQUEST_TIMEOUT)
+                    .GET()
+                    .build();
+            case GENERATE -> post("/generate", Map.of("prompt", text));
+            case VOICE -> post("/api/voice/chat", Map.of("sessionId", sessionId, "voice", audio(text)));
+        };
+    }
+
+    private HttpRequest post(String path, Object body) {
+        try {
+            return HttpRequest.newBuilder(baseUri.resolve(path))
+                    .timeout(REQUEST_TIMEOUT)
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body)))
+                    .build();
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * A silent WAV recording about as long as speaking the text would take.
+     */
+    private static byte[] audio(String text) {
+        int dataLength = text.length() * AUDIO_BYTES_PER_CHARACTER;
+        byte[] wav = new byte[44 + dataLength];
+        System.arraycopy("RIFF".getBytes(StandardCharsets.US_ASCII), 0, wav, 0, 4);
+        System.arraycopy("WAVE".getBytes(StandardCharsets.US_ASCII), 0, wav, 8, 4);
+        return wav;
+    }
+
+    private static final class Recorder {
+
+        private final List<Long> latencies = new ArrayList<>();
+        private final AtomicLong errors = new AtomicLong();
+
+        synchronized void record(long nanos, boolean success) {
+            latencies.add(nanos);
+            if (!success) {
+                errors.incrementAndGet();
+            }
+        }
+
+        synchronized long[] latencies() {
+            return latencies.stream().mapToLong(Long::longValue).toArray();
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.my.spring.ai.bot.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Throughput and latency of a load run, per endpoint and in total.
+ *
+ * @param elapsedMillis wall-clock duration of the run
+ * @param endpoints     one entry per endpoint that received requests
+ * @param total         all requests together
+ */
+public record LoadReport(long elapsedMillis, List<EndpointStats> endpoints, EndpointStats total) {
+
+    /**
+     * @param endpoint         endpoint tag, or {@code total}
+     * @param requests         requests sent
+     * @param errors           requests answered with a non-2xx status or failed in transport
+     * @param throughputPerSec requests completed per second of the run
+     * @param p50Ms            median latency
+     * @param p99Ms            99th percentile latency
+     * @param maxMs            slowest request
+     */
+    public record EndpointStats(String endpoint, int requests, long errors, double throughputPerSec,
+                                double p50Ms, double p99Ms, double maxMs) {
+
+        static EndpointStats of(String endpoint, long[] latencyNanos, long errors, long elapsedNanos) {
+            long[] sorted = latencyNanos.clone();
+            Arrays.sort(sorted);
+            double seconds = elapsedNanos / 1e9;
+            return new EndpointStats(endpoint, sorted.length, errors,
+                    seconds > 0 ? sorted.length / seconds : 0,
+                    millis(percentile(sorted, 0.50)), millis(percentile(sorted, 0.99)),
+                    millis(sorted.length == 0 ? 0 : sorted[sorted.length - 1]));
+        }
+
+        private static long percentile(long[] sorted, double p) {
+            if (sorted.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.ceil(p * sorted.length) - 1;
+            return sorted[Math.max(0, index)];
+        }
+
+        private static double millis(long nanos) {
+            return Math.round(nanos / 10_000.0) / 100.0;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("RESULT endpoint=%s requests=%d errors=%d throughputPerSec=%.1f p50Ms=%.2f p99Ms=%.2f maxMs=%.2f",
+                    endpoint, requests, errors, throughputPerSec, p50Ms, p99Ms, maxMs);
+        }
+    }
+
+    public void writeJson(Path file) throws IOException {
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(file.toFile(), this);
+    }
+
+    /**
+     * One {@code RESULT} line per endpoint and one for the total, as space-separated key=value pairs.
+     */
+    @Override
+    public String toString() {
+        return endpoints.stream().map(EndpointStats::toString).collect(Collectors.joining("\n"))
+                + "\n" + total;
+    }
+}
@@ -0,0 +1,249 @@
+package com.my.spring.ai.bot.mcp;
+
+import com.my.spring.ai.bot.config.McpConnectionProperties;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.tool.ToolCallback;
+import org.springframework.ai.tool.definition.ToolDefinition;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.actuate.health.Status;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for McpConnections and its health contributor.
+ */
+class McpConnectionsTest {
+
+    private final McpConnectionProperties properties = new McpConnectionProperties();
+    private final List<String> connected = new CopyOnWriteArrayList<>();
+    private McpConnections connections;
+
+    @AfterEach
+    void tearDown() {
+        if (connections != null) {
+            connections.stop();
+        }
+    }
+
+    @Test
+    @DisplayName("Connects all servers at once, without blocking start")
+    void start_ConnectsInParallel() throws Exception {
+        // Both servers and the test: neither connection completes before the test has looked
+        CountDownLatch bothStarted = new CountDownLatch(3);
+        FakeConnection splunk = new FakeConnection("splunk-mcp-server", 0, bothStarted, "searchByKeyword");
+        FakeConnection weather = new FakeConnection("weather-mcp-server", 0, bothStarted, "getTemperature");
+        connections = new McpConnections(List.of(splunk, weather), properties, (name, state) -> connected.add(name));
+
+        connections.start();
+        assertEquals(0, connections.readyToolCallbacks().length);
+        bothStarted.countDown();
+
+        await(() -> connections.readyToolCallbacks().length == 2);
+        assertEquals(List.of("searchByKeyword", "getTemperature"), names(connections.readyToolCallbacks()));
+        await(() -> connected.size() == 2);
+    }
+
+    @Test
+    @DisplayName("Offers the tools of connected servers while a failed one is retried with backoff")
+    void start_FailedConnection_RetriedWithBackoff() {
+        properties.setInitialBackoff(Duration.ofMillis(20));
+        FakeConnection splunk = new FakeConnection("splunk-mcp-server", 0, null, "searchByKeyword");
+        FakeConnection email = new FakeConnection("email-mcp-server", 2, null, "send_greeting_email");
+        connections = new McpConnections(List.of(splunk, email), properties, (name, state) -> connected.add(name));
+
+        connections.start();
+        await(() -> connections.status().get("splunk-mcp-server").state() == McpConnections.State.READY);
+        await(() -> connections.status().get("email-mcp-server").state() == McpConnections.State.READY);
+
+        McpConnections.Status status = connections.status().get("email-mcp-server");
+        assertEquals(3, status.attempts());
+        assertEquals(1, status.tools());
+        assertEquals("connection refused", status.lastError());
+        assertEquals(List.of("searchByKeyword", "send_greeting_email"), names(connections.readyToolCallbacks()));
+        await(() -> connected.size() == 2);
+        assertEquals(List.of("splunk-mcp-server", "email-mcp-server"), connected);
+    }
+
+    @Test
+    @DisplayName("Gives up after max-attempts; health reports it degraded, not down")
+    void start_MaxAttempts_FailedAndDegraded() {
+        properties.setInitialBackoff(Duration.ofMillis(10));
+        properties.setMaxAttempts(2);
+        FakeConnection splunk = new FakeConnection("splunk-mcp-server", 0, null, "searchByKeyword");
+        FakeConnection email = new FakeConnection("email-mcp-server", Integer.MAX_VALUE, null, "send_greeting_email");
+        connections = new McpConnections(List.of(splunk, email), properties, (name, state) -> connected.add(name));
+
+        connections.start();
+        await(() -> connections.status().get("email-mcp-server").state() == McpConnections.State.FAILED);
+        await(() -> connections.status().get("splunk-mcp-server").state() == McpConnections.State.READY);
+        assertEquals(2, email.attempts.get());
+
+        McpConnectionsHealth health = new McpConnectionsHealth(connections);
+        Health up = ((HealthIndicator) health.getContributor("splunk-mcp-server")).health();
+        Health degraded = ((HealthIndicator) health.getContributor("email-mcp-server")).health();
+        assertEquals(Status.UP, up.getStatus());
+        assertEquals(McpConnectionsHealth.DEGRADED, degraded.getStatus());
+        assertEquals("FAILED", String.valueOf(degraded.getDetails().get("state")));
+        assertEquals("connection refused", degraded.getDetails().get("lastError"));
+        assertNull(health.getContributor("unknown"));
+        assertEquals(2, health.stream().count());
+    }
+
+    @Test
+    @DisplayName("Lists the tools of a connected server on demand, and reconnects it when listing fails")
+    void readyToolCallbacks_ListingFails_Reconnects() {
+        properties.setInitialBackoff(Duration.ofMillis(10));
+        FakeConnection splunk = new FakeConnection("splunk-mcp-server", 0, null, "searchByKeyword");
+        connections = new McpConnections(List.of(splunk), properties, (name, state) -> connected.add(name + " " + state));
+
+        connections.start();
+        await(() -> connected.size() == 1);
+        splunk.tool = "searchByTime";
+        assertEquals(List.of("searchByTime"), names(connections.readyToolCallbacks()));
+
+        splunk.down = true;
+        assertEquals(0, connections.readyToolCallbacks().length);
+        assertNotEquals(McpConnections.State.READY, connections.status().get("splunk-mcp-server").state());
+        assertEquals("server gone", connections.status().get("splunk-mcp-server").lastError());
+
+        splunk.down = false;
+        await(() -> connected.size() == 3);
+        assertEquals(List.of("splunk-mcp-server READY", "splunk-mcp-server RETRYING", "splunk-mcp-server READY"), connected);
+    }
+
+    @Test
+    @DisplayName("Pings connected servers and checks one whose tool call failed; one that does not answer is reconnected")
+    void healthCheck_ServerGone_Reconnects() {
+        properties.setInitialBackoff(Duration.ofMillis(10));
+        properties.setHealthCheckInterval(Duration.ofMillis(20));
+        FakeConnection splunk = new FakeConnection("splunk-mcp-server", 0, null, "searchByKeyword");
+        connections = new McpConnections(List.of(splunk), properties, (name, state) -> connected.add(name + " " + state));
+
+        connections.start();
+        await(() -> connections.status().get("splunk-mcp-server").state() == McpConnections.State.READY);
+        int attempts = splunk.attempts.get();
+        splunk.down = true;
+        await(() -> connections.status().get("splunk-mcp-server").state() == McpConnections.State.RETRYING);
+        splunk.down = false;
+        await(() -> connections.status().get("splunk-mcp-server").state() == McpConnections.State.READY);
+        assertTrue(splunk.attempts.get() > attempts);
+
+        properties.setHealthCheckInterval(Duration.ZERO);
+        connections.stop();
+        connections = new McpConnections(List.of(splunk), properties, (name, state) -> connected.add(name + " " + state));
+        connections.start();
+        await(() -> connections.readyToolCallbacks().length == 1);
+        ToolCallback tool = connections.readyToolCallbacks()[0];
+        splunk.down = true;
+        assertThrows(IllegalStateException.class, () -> tool.call("{}"));
+        await(() -> connections.status().get("splunk-mcp-server").state() != McpConnections.State.READY);
+    }
+
+    @Test
+    @DisplayName("Backoff doubles with each failure up to the maximum")
+    void backoff_DoublesUpToMax() {
+        properties.setInitialBackoff(Duration.ofSeconds(1));
+        properties.setMaxBackoff(Duration.ofSeconds(5));
+        connections = new McpConnections(List.of(), properties, (name, state) -> connected.add(name));
+
+        assertEquals(Duration.ofSeconds(1), connections.backoff(1));
+        assertEquals(Duration.ofSeconds(2), connections.backoff(2));
+        assertEquals(Duration.ofSeconds(4), connections.backoff(3));
+        assertEquals(Duration.ofSeconds(5), connections.backoff(4));
+        assertEquals(Duration.ofSeconds(5), connections.backoff(100));
+    }
+
+    private static List<String> names(ToolCallback[] tools) {
+        return Arrays.stream(tools).map(tool -> tool.getToolDefinition().name()).toList();
+    }
+
+    private static void await(BooleanSupplier condition) {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "condition not met within 5s");
+            Thread.onSpinWait();
+        }
+    }
+
+    /**
+     * A server that refuses the given number of attempts, then connects; waits on the latch, if any,
+     * until all servers sharing it are connecting. While {@code down} it refuses everything.
+     */
+    private static final class FakeConnection implements McpConnection {
+
+        private final String name;
+        private final int failures;
+        private final CountDownLatch started;
+        private final AtomicInteger attempts = new AtomicInteger();
+        private volatile String tool;
+        private volatile boolean down;
+
+        private FakeConnection(String name, int failures, CountDownLatch started, String tool) {
+            this.name = name;
+            this.failures = failures;
+            this.started = started;
+            this.tool = tool;
+        }
+
+        @Override
+        public String name() {
+            return name;
+        }
+
+        @Override
+        public void initialize() {
+            int attempt = attempts.incrementAndGet();
+            if (down) {
+                throw new IllegalStateException("server gone");
+            }
+            if (attempt <= failures) {
+                throw new IllegalStateException("connection refused");
+            }
+            if (started != null) {
+                started.countDown();
+                try {
+                    assertTrue(started.await(5, TimeUnit.SECONDS), "servers were not connected at once");
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException(e);
+                }
+            }
+        }
+
+        @Override
+        public List<ToolCallback> listTools() {
+            if (down) {
+                throw new IllegalStateException("server gone");
+            }
+            return List.of(new NamedTool(tool, this));
+        }
+    }
+
+    private record NamedTool(String name, FakeConnection server) implements ToolCallback {
+
+        @Override
+        public ToolDefinition getToolDefinition() {
+            return ToolDefinition.builder().name(name).description(name).inputSchema("{}").build();
+        }
+
+        @Override
+        public String call(String toolInput) {
+            if (server.down) {
+                throw new IllegalStateException("server gone");
+            }
+            return "ok";
+        }
+    }
+}
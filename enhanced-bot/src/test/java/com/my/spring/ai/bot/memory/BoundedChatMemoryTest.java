@@ -0,0 +1,187 @@
+package com.my.spring.ai.bot.memory;
+
+import com.my.spring.ai.bot.config.ChatMemoryProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.messages.Message;
+import org.springframework.ai.chat.messages.UserMessage;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for BoundedChatMemory.
+ */
+class BoundedChatMemoryTest {
+
+    private MutableClock clock;
+    private ChatMemoryProperties properties;
+    private BoundedChatMemory memory;
+
+    @BeforeEach
+    void setUp() {
+        clock = new MutableClock(Instant.parse("2025-01-01T00:00:00Z"));
+        properties = new ChatMemoryProperties();
+        properties.setMaxMessagesPerSession(3);
+        properties.setIdleTtl(Duration.ofMinutes(10));
+        properties.setMaxSessions(2);
+        properties.setMaxBytes(DataSize.ofMegabytes(1));
+        // Sweeper disabled: tests drive expiry directly
+        properties.setSweepInterval(Duration.ZERO);
+        memory = new BoundedChatMemory(properties, clock);
+    }
+
+    @AfterEach
+    void tearDown() {
+        memory.close();
+    }
+
+    @Test
+    @DisplayName("Ring buffer keeps only the newest messages per session")
+    void add_beyondPerSessionCap_shouldDropOldestMessages() {
+        memory.add("s1", List.of(new UserMessage("m1"), new AssistantMessage("m2")));
+        memory.add("s1", List.of(new UserMessage("m3"), new AssistantMessage("m4")));
+
+        List<Message> history = memory.get("s1", 10);
+
+        assertEquals(3, history.size());
+        assertEquals(List.of("m2", "m3", "m4"), history.stream().map(Message::getText).toList());
+    }
+
+    @Test
+    @DisplayName("get returns only the last N messages in order")
+    void get_withLastN_shouldReturnTail() {
+        memory.add("s1", List.of(new UserMessage("m1"), new AssistantMessage("m2"), new UserMessage("m3")));
+
+        List<Message> history = memory.get("s1", 2);
+
+        assertEquals(List.of("m2", "m3"), history.stream().map(Message::getText).toList());
+        assertTrue(memory.get("unknown", 10).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Least recently used session is evicted when max sessions is exceeded")
+    void add_beyondMaxSessions_shouldEvictLeastRecentlyUsed() {
+        memory.add("s1", List.of(new UserMessage("a")));
+        memory.add("s2", List.of(new UserMessage("b")));
+        // Touch s1 so s2 becomes the eldest
+        memory.get("s1", 10);
+        memory.add("s3", List.of(new UserMessage("c")));
+
+        assertEquals(2, memory.sessionCount());
+        assertFalse(memory.get("s1", 10).isEmpty());
+        assertTrue(memory.get("s2", 10).isEmpty());
+        assertFalse(memory.get("s3", 10).isEmpty());
+        assertEquals(1, memory.evictionCount(BoundedChatMemory.EvictionReason.SESSIONS));
+    }
+
+    @Test
+    @DisplayName("Sessions are evicted when the byte budget is exceeded")
+    void add_beyondMaxBytes_shouldEvictEldestSession() {
+        properties.setMaxSessions(100);
+        properties.setMaxBytes(DataSize.ofBytes(1_000));
+        memory.close();
+        memory = new BoundedChatMemory(properties, clock);
+
+        memory.add("s1", List.of(new UserMessage("x".repeat(300))));
+        memory.add("s2", List.of(new UserMessage("y".repeat(300))));
+
+        assertTrue(memory.get("s1", 10).isEmpty());
+        assertFalse(memory.get("s2", 10).isEmpty());
+        assertTrue(memory.estimatedBytes() <= 1_000);
+        assertEquals(1, memory.evictionCount(BoundedChatMemory.EvictionReason.BYTES));
+    }
+
+    @Test
+    @DisplayName("Idle sessions expire after the TTL")
+    void expireIdleSessions_shouldRemoveIdleSessionsOnly() {
+        memory.add("old", List.of(new UserMessage("a")));
+        clock.advance(Duration.ofMinutes(8));
+        memory.add("fresh", List.of(new UserMessage("b")));
+        clock.advance(Duration.ofMinutes(5));
+
+        memory.expireIdleSessions();
+
+        assertEquals(1, memory.sessionCount());
+        assertTrue(memory.get("old", 10).isEmpty());
+        assertFalse(memory.get("fresh", 10).isEmpty());
+        assertEquals(1, memory.evictionCount(BoundedChatMemory.EvictionReason.IDLE));
+    }
+
+    @Test
+    @DisplayName("Adding to an idle-expired session starts it fresh")
+    void add_toExpiredSession_shouldStartFresh() {
+        memory.add("s1", List.of(new UserMessage("old")));
+        long oldBytes = memory.estimatedBytes();
+        clock.advance(Duration.ofMinutes(11));
+
+        memory.add("s1", List.of(new UserMessage("new")));
+
+        assertEquals(List.of("new"), memory.get("s1", 10).stream().map(Message::getText).toList());
+        assertEquals(oldBytes, memory.estimatedBytes());
+        assertEquals(1, memory.evictionCount(BoundedChatMemory.EvictionReason.IDLE));
+    }
+
+    @Test
+    @DisplayName("clear removes the session and releases its bytes")
+    void clear_shouldReleaseBytes() {
+        memory.add("s1", List.of(new UserMessage("hello")));
+        assertTrue(memory.estimatedBytes() > 0);
+
+        memory.clear("s1");
+
+        assertEquals(0, memory.sessionCount());
+        assertEquals(0, memory.estimatedBytes());
+    }
+
+    @Test
+    @DisplayName("Gauges report session count and estimated bytes")
+    void bindTo_shouldRegisterGauges() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        memory.bindTo(registry);
+
+        memory.add("s1", List.of(new UserMessage("hello")));
+
+        assertEquals(1.0, registry.get("chat.memory.sessions").gauge().value());
+        assertEquals(memory.estimatedBytes(), (long) registry.get("chat.memory.bytes").gauge().value());
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private Instant now;
+
+        MutableClock(Instant start) {
+            this.now = start;
+        }
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,216 @@
+package com.my.spring.ai.bot.memory;
+
+import com.my.spring.ai.bot.config.ChatMemoryProperties;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.messages.Message;
+import org.springframework.ai.chat.messages.MessageType;
+import org.springframework.ai.chat.messages.UserMessage;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for MappedSegmentChatMemory.
+ */
+class MappedSegmentChatMemoryTest {
+
+    @TempDir
+    Path directory;
+
+    private ChatMemoryProperties properties;
+    private MappedSegmentChatMemory memory;
+
+    @BeforeEach
+    void setUp() {
+        properties = new ChatMemoryProperties();
+        properties.setMaxMessagesPerSession(10);
+        properties.getMapped().setDirectory(directory.toString());
+        properties.getMapped().setSegmentSize(DataSize.ofKilobytes(4));
+        // Background maintenance disabled: tests drive checkpoint/compaction directly
+        properties.getMapped().setForceInterval(Duration.ZERO);
+        properties.getMapped().setCheckpointInterval(Duration.ZERO);
+        properties.getMapped().setCompactionInterval(Duration.ZERO);
+        memory = new MappedSegmentChatMemory(properties);
+    }
+
+    @AfterEach
+    void tearDown() {
+        memory.close();
+    }
+
+    @Test
+    @DisplayName("Messages are read back in order with their types")
+    void addAndGet_shouldRoundTripMessages() {
+        memory.add("s1", List.of(new UserMessage("hello"), new AssistantMessage("hi there")));
+
+        List<Message> history = memory.get("s1", 10);
+
+        assertEquals(2, history.size());
+        assertEquals(MessageType.USER, history.get(0).getMessageType());
+        assertEquals("hello", history.get(0).getText());
+        assertEquals(MessageType.ASSISTANT, history.get(1).getMessageType());
+        assertEquals("hi there", history.get(1).getText());
+        assertEquals(List.of("hi there"), memory.get("s1", 1).stream().map(Message::getText).toList());
+    }
+
+    @Test
+    @DisplayName("clear removes the session from the index")
+    void clear_shouldRemoveSession() {
+        memory.add("s1", List.of(new UserMessage("hello")));
+
+        memory.clear("s1");
+
+        assertTrue(memory.get("s1", 10).isEmpty());
+        assertEquals(0, memory.sessionCount());
+    }
+
+    @Test
+    @DisplayName("History survives a restart using the checkpoint")
+    void reopen_afterClose_shouldRecoverSessions() {
+        memory.add("s1", List.of(new UserMessage("one"), new AssistantMessage("two")));
+        memory.add("s2", List.of(new UserMessage("other")));
+        memory.clear("s2");
+
+        memory.close();
+        memory = new MappedSegmentChatMemory(properties);
+
+        assertEquals(List.of("one", "two"), memory.get("s1", 10).stream().map(Message::getText).toList());
+        assertTrue(memory.get("s2", 10).isEmpty());
+    }
+
+    @Test
+    @DisplayName("After a restart with a larger segment size, the recovered segment rolls over at its own size")
+    void reopen_withLargerSegmentSize_shouldRollOverAtRecoveredSize() {
+        memory.add("s1", List.of(new UserMessage("before")));
+
+        memory.close();
+        properties.getMapped().setSegmentSize(DataSize.ofKilobytes(8));
+        memory = new MappedSegmentChatMemory(properties);
+        String text = "x".repeat(500);
+        for (int i = 0; i < 8; i++) {
+            memory.add("s1", List.of(new UserMessage(text)));
+        }
+
+        assertEquals(2, memory.segmentCount());
+        List<Message> history = memory.get("s1", 10);
+        assertEquals(9, history.size());
+        assertEquals("before", history.get(0).getText());
+        assertEquals(text, history.get(8).getText());
+    }
+
+    @Test
+    @DisplayName("Concurrent checkpoints leave a checkpoint that recovers the latest state")
+    void checkpoint_concurrently_shouldKeepLatestSnapshot() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> checkpoints = new ArrayList<>();
+            for (int i = 0; i < 40; i++) {
+                memory.add("s1", List.of(new UserMessage("m" + i)));
+                checkpoints.add(executor.submit(() -> {
+                    memory.checkpoint();
+                    return null;
+                }));
+            }
+            for (Future<?> checkpoint : checkpoints) {
+                checkpoint.get(5, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        memory.checkpoint();
+
+        memory.close();
+        memory = new MappedSegmentChatMemory(properties);
+
+        assertEquals("m39", memory.get("s1", 1).get(0).getText());
+        assertEquals(10, memory.get("s1", 10).size());
+    }
+
+    @Test
+    @DisplayName("Without a checkpoint the whole log is replayed on recovery")
+    void reopen_withoutCheckpoint_shouldReplayLog() throws Exception {
+        memory.add("s1", List.of(new UserMessage("before")));
+        memory.checkpoint();
+        memory.add("s1", List.of(new AssistantMessage("after")));
+
+        memory.close();
+        // Simulate a lost checkpoint: recovery must fall back to the segment files alone
+        Files.delete(directory.resolve("index.checkpoint"));
+        memory = new MappedSegmentChatMemory(properties);
+
+        assertEquals(List.of("before", "after"), memory.get("s1", 10).stream().map(Message::getText).toList());
+    }
+
+    @Test
+    @DisplayName("Compaction deletes segments that only hold cleared sessions")
+    void compact_shouldReclaimClearedSegments() throws Exception {
+        String text = "x".repeat(500);
+        for (int i = 0; i < 20; i++) {
+            memory.add("dead", List.of(new UserMessage(text)));
+        }
+        memory.add("live", List.of(new UserMessage("keep me")));
+        int segmentsBefore = memory.segmentCount();
+        assertTrue(segmentsBefore > 1);
+
+        memory.clear("dead");
+        memory.compact();
+
+        assertTrue(memory.segmentCount() < segmentsBefore);
+        assertEquals(List.of("keep me"), memory.get("live", 10).stream().map(Message::getText).toList());
+
+        memory.close();
+        memory = new MappedSegmentChatMemory(properties);
+        assertEquals(List.of("keep me"), memory.get("live", 10).stream().map(Message::getText).toList());
+    }
+
+    @Test
+    @DisplayName("Without a checkpoint, recovery after compaction keeps relocated records and tombstones")
+    void reopen_afterCompactionWithoutCheckpoint_shouldRecoverSameState() throws Exception {
+        String text = "x".repeat(500);
+        // Segment 1 stays: mostly live anchors, plus a message of a session cleared later
+        memory.add("cleared", List.of(new UserMessage("gone")));
+        memory.add("live", List.of(new UserMessage("first")));
+        for (int i = 0; i < 7; i++) {
+            memory.add("anchor", List.of(new UserMessage(text)));
+        }
+        // Segment 2 is compacted: filler, two live messages and the tombstone of "cleared"
+        memory.add("filler", List.of(new UserMessage(text)));
+        memory.add("live", List.of(new AssistantMessage("second")));
+        memory.clear("cleared");
+        for (int i = 0; i < 6; i++) {
+            memory.add("filler", List.of(new UserMessage(text)));
+        }
+        memory.add("live", List.of(new UserMessage("third")));
+        memory.add("filler", List.of(new UserMessage(text)));
+        memory.clear("filler");
+        assertEquals(3, memory.segmentCount());
+
+        memory.compact();
+        assertEquals(2, memory.segmentCount());
+
+        memory.close();
+        Files.delete(directory.resolve("index.checkpoint"));
+        memory = new MappedSegmentChatMemory(properties);
+
+        assertEquals(List.of("first", "second", "third"), memory.get("live", 10).stream().map(Message::getText).toList());
+        assertTrue(memory.get("cleared", 10).isEmpty());
+        assertTrue(memory.get("filler", 10).isEmpty());
+        assertEquals(7, memory.get("anchor", 10).size());
+        assertEquals(2, memory.sessionCount());
+    }
+}
@@ -0,0 +1,203 @@
+package com.my.spring.ai.bot.memory;
+
+import com.my.spring.ai.bot.config.ChatMemoryProperties;
+import com.my.spring.ai.bot.dto.PromptTokenUsage;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.chat.client.ChatClient;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.messages.Message;
+import org.springframework.ai.chat.messages.MessageType;
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.model.Generation;
+import org.springframework.ai.chat.prompt.Prompt;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.springframework.ai.chat.client.advisor.AbstractChatMemoryAdvisor.CHAT_MEMORY_CONVERSATION_ID_KEY;
+
+/**
+ * Unit tests for RollingSummaryChatMemoryAdvisor.
+ */
+class RollingSummaryChatMemoryAdvisorTest {
+
+    private static final String LONG_TEXT = "the quick brown fox jumps over the lazy dog ".repeat(10);
+
+    private ChatMemoryProperties properties;
+    private BoundedChatMemory chatMemory;
+    private ChatModel chatModel;
+    private SimpleMeterRegistry meterRegistry;
+    private RollingSummaryChatMemoryAdvisor advisor;
+    private ChatClient chatClient;
+
+    // Prompts sent for chat turns, excluding summary requests
+    private final List<Prompt> chatPrompts = new CopyOnWriteArrayList<>();
+    private volatile boolean failSummaries;
+
+    @BeforeEach
+    void setUp() {
+        properties = new ChatMemoryProperties();
+        properties.setSweepInterval(Duration.ZERO);
+        properties.getSummary().setVerbatimTurns(2);
+        properties.getSummary().setTokenThreshold(50);
+        chatMemory = new BoundedChatMemory(properties);
+        meterRegistry = new SimpleMeterRegistry();
+
+        chatModel = mock(ChatModel.class);
+        when(chatModel.call(any(Prompt.class))).thenAnswer(invocation -> {
+            Prompt prompt = invocation.getArgument(0);
+            if (prompt.getInstructions().get(0).getText().startsWith("You maintain a running summary")) {
+                if (failSummaries) {
+                    throw new IllegalStateException("model unavailable");
+                }
+                return reply("SUMMARY");
+            }
+            chatPrompts.add(prompt);
+            return reply(LONG_TEXT);
+        });
+
+        advisor = new RollingSummaryChatMemoryAdvisor(chatMemory, chatModel, properties, meterRegistry);
+        chatClient = ChatClient.builder(chatModel).defaultAdvisors(advisor).build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        advisor.close();
+        chatMemory.close();
+    }
+
+    @Test
+    @DisplayName("Below the token threshold the whole history is sent verbatim")
+    void belowThreshold_shouldSendFullHistory() {
+        properties.getSummary().setTokenThreshold(100_000);
+        advisor.close();
+        advisor = new RollingSummaryChatMemoryAdvisor(chatMemory, chatModel, properties, meterRegistry);
+        chatClient = ChatClient.builder(chatModel).defaultAdvisors(advisor).build();
+
+        for (int i = 0; i < 4; i++) {
+            turn("s1", "question " + i);
+        }
+
+        // 3 earlier turns as history plus the new user message
+        assertEquals(7, historyOf(lastPrompt()).size());
+        assertEquals(0, advisor.tokenUsage("s1").orElseThrow().getSummarizedMessages());
+    }
+
+    @Test
+    @DisplayName("Older turns are folded into the summary and the prompt shrinks")
+    void aboveThreshold_shouldFoldOlderTurnsIntoSummary() throws Exception {
+        for (int i = 0; i < 4; i++) {
+            turn("s1", "question " + i);
+        }
+        awaitTrue(() -> advisor.tokenUsage("s1").orElseThrow().getSummarizedMessages() > 0);
+
+        turn("s1", "next question");
+
+        List<Message> history = historyOf(lastPrompt());
+        assertEquals(MessageType.SYSTEM, history.get(0).getMessageType());
+        assertTrue(history.get(0).getText().endsWith("SUMMARY"));
+        // Summary, the messages still unsummarized, and the new user message
+        PromptTokenUsage usage = advisor.tokenUsage("s1").orElseThrow();
+        assertTrue(history.size() < 9);
+        assertTrue(usage.getSavedTokens() > 0);
+        assertTrue(usage.getSummaryTokens() > 0);
+        assertTrue(meterRegistry.get("chat.memory.summary.refreshes").counter().count() >= 1);
+        // All messages are still stored; only the prompt is smaller
+        assertEquals(10, chatMemory.get("s1", 100).size());
+    }
+
+    @Test
+    @DisplayName("The verbatim window is never folded")
+    void aboveThreshold_shouldKeepVerbatimTurns() throws Exception {
+        for (int i = 0; i < 4; i++) {
+            turn("s1", "question " + i);
+        }
+        awaitTrue(() -> advisor.tokenUsage("s1").orElseThrow().getSummarizedMessages() > 0);
+
+        turn("s1", "last question");
+
+        List<Message> history = historyOf(lastPrompt());
+        List<String> texts = history.stream().map(Message::getText).toList();
+        assertTrue(texts.contains("question 3"));
+        assertTrue(texts.contains("question 2"));
+        assertFalse(texts.contains("question 0"));
+    }
+
+    @Test
+    @DisplayName("Clearing the session in the store drops its summary")
+    void clearedSession_shouldResetSummary() throws Exception {
+        for (int i = 0; i < 4; i++) {
+            turn("s1", "question " + i);
+        }
+        awaitTrue(() -> advisor.tokenUsage("s1").orElseThrow().getSummarizedMessages() > 0);
+
+        chatMemory.clear("s1");
+        turn("s1", "fresh start");
+
+        assertEquals(1, historyOf(lastPrompt()).size());
+        assertEquals(0, advisor.tokenUsage("s1").orElseThrow().getSummaryTokens());
+    }
+
+    @Test
+    @DisplayName("A failed refresh keeps sending the unsummarized history")
+    void failedRefresh_shouldKeepHistory() throws Exception {
+        failSummaries = true;
+        for (int i = 0; i < 4; i++) {
+            turn("s1", "question " + i);
+        }
+        awaitTrue(() -> meterRegistry.get("chat.memory.summary.failures").counter().count() > 0);
+
+        turn("s1", "next question");
+
+        List<Message> history = historyOf(lastPrompt());
+        assertEquals(MessageType.USER, history.get(0).getMessageType());
+        assertEquals(9, history.size());
+    }
+
+    @Test
+    @DisplayName("Unknown sessions have no token usage")
+    void tokenUsage_unknownSession_shouldBeEmpty() {
+        assertTrue(advisor.tokenUsage("missing").isEmpty());
+    }
+
+    private void turn(String sessionId, String userText) {
+        chatClient.prompt()
+                .user(userText)
+                .advisors(a -> a.param(CHAT_MEMORY_CONVERSATION_ID_KEY, sessionId))
+                .call()
+                .content();
+    }
+
+    private Prompt lastPrompt() {
+        return chatPrompts.get(chatPrompts.size() - 1);
+    }
+
+    private static List<Message> historyOf(Prompt prompt) {
+        return prompt.getInstructions();
+    }
+
+    private static ChatResponse reply(String text) {
+        return new ChatResponse(List.of(new Generation(new AssistantMessage(text))));
+    }
+
+    private static void awaitTrue(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (!condition.getAsBoolean()) {
+            if (System.nanoTime() > deadline) {
+                fail("Condition not met within 5s");
+            }
+            Thread.sleep(10);
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.my.spring.ai.bot.metrics;
+
+import com.my.spring.ai.bot.config.RequestDeadlineProperties;
+import com.my.spring.ai.bot.deadline.RequestDeadlines;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for ChatStreamMetrics.
+ */
+class ChatStreamMetricsTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private ChatStreamMetrics streamMetrics;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        streamMetrics = new ChatStreamMetrics(meterRegistry);
+    }
+
+    @Test
+    @DisplayName("A stream cancelled before it completed counts as a client disconnect")
+    void record_cancelled_shouldCountDisconnect() {
+        Disposable subscription = streamMetrics.record("chat", Flux.never()).subscribe();
+
+        subscription.dispose();
+
+        assertEquals(1.0, meterRegistry.get("llm.requests.cancelled").tag("endpoint", "chat").counter().count());
+    }
+
+    @Test
+    @DisplayName("A stream cancelled once its deadline has passed is not counted as a client disconnect")
+    void record_cancelledAfterDeadline_shouldNotCountDisconnect() {
+        RequestDeadlines requestDeadlines = new RequestDeadlines(new RequestDeadlineProperties(), meterRegistry);
+        try (RequestDeadlines.Scope ignored = requestDeadlines.enter(requestDeadlines.resolve("chat", "1ms"))) {
+            Disposable subscription = streamMetrics.record("chat", Flux.<String>never()).subscribe();
+            // The deadline interrupts the thread as it passes
+            while (!Thread.interrupted()) {
+                Thread.onSpinWait();
+            }
+
+            subscription.dispose();
+        } finally {
+            requestDeadlines.destroy();
+        }
+
+        assertTrue(meterRegistry.find("llm.requests.cancelled").counters().isEmpty());
+    }
+
+    @Test
+    @DisplayName("A completed stream records its token count")
+    void record_completed_shouldCountTokens() {
+        streamMetrics.record("chat", Flux.just("Hi", " there")).blockLast();
+
+        assertEquals(2.0, meterRegistry.get("chat.stream.tokens").tag("endpoint", "chat").summary().totalAmount());
+        assertTrue(meterRegistry.find("llm.requests.cancelled").counters().isEmpty());
+    }
+}
@@ -0,0 +1,184 @@
+package com.my.spring.ai.bot.metrics;
+
+import com.my.spring.ai.bot.admission.AdmissionControl;
+import com.my.spring.ai.bot.admission.EndpointClass;
+import com.my.spring.ai.bot.config.AdmissionControlProperties;
+import com.my.spring.ai.bot.config.LlmCallLoggingProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.slf4j.Logger;
+import org.springframework.ai.chat.client.advisor.api.AdvisedRequest;
+import org.springframework.ai.chat.client.advisor.api.AdvisedResponse;
+import org.springframework.ai.chat.client.advisor.api.CallAroundAdvisorChain;
+import org.springframework.ai.chat.client.advisor.api.StreamAroundAdvisorChain;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.metadata.ChatResponseMetadata;
+import org.springframework.ai.chat.metadata.DefaultUsage;
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.model.Generation;
+import org.springframework.ai.chat.prompt.ChatOptions;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for LlmCallLoggingAdvisor.
+ */
+class LlmCallLoggingAdvisorTest {
+
+    private LlmCallLoggingProperties properties;
+    private Logger callLog;
+    private AdvisedRequest request;
+
+    @BeforeEach
+    void setUp() {
+        properties = new LlmCallLoggingProperties();
+        callLog = mock(Logger.class);
+        when(callLog.isInfoEnabled()).thenReturn(true);
+        request = AdvisedRequest.builder()
+                .chatModel(mock(ChatModel.class))
+                .userText("What is \"RAG\"?\nShort answer please")
+                .chatOptions(ChatOptions.builder().model("llama3.2").build())
+                .build();
+    }
+
+    @Test
+    @DisplayName("Logs nothing for a fast, successful call that is not sampled")
+    void aroundCall_NotSampled_LogsNothing() {
+        properties.setSampleRate(0);
+
+        advisor().aroundCall(request, answering("answer"));
+
+        verify(callLog, never()).info(anyString());
+    }
+
+    @Test
+    @DisplayName("Logs a sampled call as one JSON line with endpoint, model, tokens and escaped bodies")
+    void aroundCall_Sampled_LogsJsonLine() {
+        properties.setSampleRate(1.0);
+        AdmissionControl admissionControl =
+                new AdmissionControl(new AdmissionControlProperties(), new SimpleMeterRegistry());
+
+        admissionControl.call(EndpointClass.QA, () -> advisor().aroundCall(request, answering("answer")));
+
+        String line = loggedLine();
+        assertTrue(line.startsWith("{\"ts\":\"") && line.endsWith("}"));
+        assertTrue(line.contains("\"reason\":\"sampled\""));
+        assertTrue(line.contains("\"endpoint\":\"qa\""));
+        assertTrue(line.contains("\"mode\":\"call\""));
+        assertTrue(line.contains("\"model\":\"llama3.2:3b\""));
+        assertTrue(line.contains("\"promptTokens\":30,\"completionTokens\":12"));
+        assertTrue(line.contains("\"user\":\"What is \\\"RAG\\\"?\\nShort answer please\""));
+        assertTrue(line.contains("\"completion\":\"answer\""));
+        assertFalse(line.contains("\n"));
+    }
+
+    @Test
+    @DisplayName("Always logs slow calls, whatever the sample rate")
+    void aroundCall_Slow_AlwaysLogged() {
+        properties.setSampleRate(0);
+        properties.setSlowThreshold(Duration.ZERO);
+
+        advisor().aroundCall(request, answering("answer"));
+
+        assertTrue(loggedLine().contains("\"reason\":\"slow\""));
+    }
+
+    @Test
+    @DisplayName("Always logs failed calls with the exception type and rethrows")
+    void aroundCall_Failure_AlwaysLogged() {
+        properties.setSampleRate(0);
+        CallAroundAdvisorChain chain = mock(CallAroundAdvisorChain.class);
+        when(chain.nextAroundCall(any())).thenThrow(new IllegalStateException("connection refused"));
+
+        assertThrows(IllegalStateException.class, () -> advisor().aroundCall(request, chain));
+
+        String line = loggedLine();
+        assertTrue(line.contains("\"outcome\":\"error\""));
+        assertTrue(line.contains("\"error\":\"IllegalStateException\""));
+    }
+
+    @Test
+    @DisplayName("Logs a sampled stream once, with the assembled completion and time to first token")
+    void aroundStream_Sampled_LogsAssembledCompletion() {
+        properties.setSampleRate(1.0);
+        StreamAroundAdvisorChain chain = mock(StreamAroundAdvisorChain.class);
+        when(chain.nextAroundStream(any())).thenReturn(Flux.just(
+                advised(response("Hel", 0, 0)), advised(response("lo", 0, 0)), advised(response("", 25, 2))));
+
+        advisor().aroundStream(request, chain).blockLast();
+
+        String line = loggedLine();
+        assertTrue(line.contains("\"mode\":\"stream\""));
+        assertTrue(line.contains("\"ttftMs\":"));
+        assertTrue(line.contains("\"completion\":\"Hello\""));
+        assertTrue(line.contains("\"completionTokens\":2"));
+    }
+
+    @Test
+    @DisplayName("Truncates or hashes bodies longer than the maximum length")
+    void body_TooLong_TruncatedOrHashed() {
+        properties.setMaxBodyLength(5);
+        assertEquals("short", advisor().body("short"));
+        assertEquals("a lon... (11 chars)", advisor().body("a long text"));
+
+        properties.setOverflow(LlmCallLoggingProperties.Overflow.HASH);
+        String hashed = advisor().body("a long text");
+        assertTrue(hashed.matches("sha256:[0-9a-f]{32} \\(11 chars\\)"), hashed);
+        assertEquals(hashed, advisor().body("a long text"));
+    }
+
+    @Test
+    @DisplayName("Passes straight through without building an event when disabled")
+    void disabled_PassesThrough() {
+        properties.setEnabled(false);
+        properties.setSampleRate(1.0);
+        StreamAroundAdvisorChain streamChain = mock(StreamAroundAdvisorChain.class);
+        Flux<AdvisedResponse> stream = Flux.just(advised(response("x", 0, 0)));
+        when(streamChain.nextAroundStream(any())).thenReturn(stream);
+
+        advisor().aroundCall(request, answering("answer"));
+
+        assertSame(stream, advisor().aroundStream(request, streamChain));
+        verify(callLog, never()).info(anyString());
+    }
+
+    private LlmCallLoggingAdvisor advisor() {
+        return new LlmCallLoggingAdvisor(properties, callLog);
+    }
+
+    private String loggedLine() {
+        ArgumentCaptor<String> line = ArgumentCaptor.forClass(String.class);
+        verify(callLog).info(line.capture());
+        return line.getValue();
+    }
+
+    private static CallAroundAdvisorChain answering(String text) {
+        CallAroundAdvisorChain chain = mock(CallAroundAdvisorChain.class);
+        when(chain.nextAroundCall(any())).thenReturn(advised(response(text, 30, 12)));
+        return chain;
+    }
+
+    private static AdvisedResponse advised(ChatResponse response) {
+        return new AdvisedResponse(response, Map.of());
+    }
+
+    private static ChatResponse response(String text, int promptTokens, int completionTokens) {
+        return new ChatResponse(List.of(new Generation(new AssistantMessage(text))),
+                ChatResponseMetadata.builder()
+                        .model("llama3.2:3b")
+                        .usage(new DefaultUsage(promptTokens, completionTokens))
+                        .build());
+    }
+}
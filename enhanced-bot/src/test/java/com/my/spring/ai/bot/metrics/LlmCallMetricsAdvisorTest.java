@@ -0,0 +1,125 @@
+package com.my.spring.ai.bot.metrics;
+
+import com.my.spring.ai.bot.admission.AdmissionControl;
+import com.my.spring.ai.bot.admission.EndpointClass;
+import com.my.spring.ai.bot.config.AdmissionControlProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.chat.client.advisor.api.AdvisedRequest;
+import org.springframework.ai.chat.client.advisor.api.AdvisedResponse;
+import org.springframework.ai.chat.client.advisor.api.CallAroundAdvisorChain;
+import org.springframework.ai.chat.client.advisor.api.StreamAroundAdvisorChain;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.metadata.ChatResponseMetadata;
+import org.springframework.ai.chat.metadata.DefaultUsage;
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.model.Generation;
+import org.springframework.ai.chat.prompt.ChatOptions;
+import reactor.core.publisher.Flux;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for LlmCallMetricsAdvisor.
+ */
+class LlmCallMetricsAdvisorTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private LlmCallMetricsAdvisor advisor;
+    private AdmissionControl admissionControl;
+    private AdvisedRequest request;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        advisor = new LlmCallMetricsAdvisor(meterRegistry);
+        admissionControl = new AdmissionControl(new AdmissionControlProperties(), new SimpleMeterRegistry());
+        request = AdvisedRequest.builder()
+                .chatModel(mock(ChatModel.class))
+                .userText("hello")
+                .chatOptions(ChatOptions.builder().model("llama3.2").build())
+                .build();
+    }
+
+    @Test
+    @DisplayName("Records duration and prompt and completion tokens of a call, tagged with its endpoint and model")
+    void aroundCall_RecordsTokensByEndpointAndModel() {
+        CallAroundAdvisorChain chain = mock(CallAroundAdvisorChain.class);
+        when(chain.nextAroundCall(any())).thenReturn(advised(response("answer", "llama3.2:3b", 30, 12)));
+
+        admissionControl.call(EndpointClass.GENERATE, () -> advisor.aroundCall(request, chain));
+
+        assertEquals(1, meterRegistry.get("llm.call.duration")
+                .tags("endpoint", "generate", "model", "llama3.2:3b", "mode", "call", "outcome", "success")
+                .timer().count());
+        assertEquals(30.0, tokens("generate", "llama3.2:3b", "prompt"));
+        assertEquals(12.0, tokens("generate", "llama3.2:3b", "completion"));
+        assertEquals(1, meterRegistry.get("llm.tokens.per.second").tag("mode", "call").summary().count());
+    }
+
+    @Test
+    @DisplayName("Records time to first token and the usage of the last chunk of a stream")
+    void aroundStream_RecordsFirstTokenAndFinalUsage() {
+        StreamAroundAdvisorChain chain = mock(StreamAroundAdvisorChain.class);
+        when(chain.nextAroundStream(any())).thenReturn(Flux.just(
+                advised(response("Hel", "llama3.2", 0, 0)),
+                advised(response("lo", "llama3.2", 0, 0)),
+                advised(response("", "llama3.2", 25, 2))));
+
+        admissionControl.stream(EndpointClass.CHAT, () -> advisor.aroundStream(request, chain)).blockLast();
+
+        assertEquals(1, meterRegistry.get("llm.time.to.first.token")
+                .tags("endpoint", "chat", "model", "llama3.2").timer().count());
+        assertEquals(25.0, tokens("chat", "llama3.2", "prompt"));
+        assertEquals(2.0, tokens("chat", "llama3.2", "completion"));
+        assertEquals(1, meterRegistry.get("llm.tokens.per.second").tag("mode", "stream").summary().count());
+    }
+
+    @Test
+    @DisplayName("Times failed calls under the requested model without counting tokens")
+    void aroundCall_Failure_RecordsErrorOutcome() {
+        CallAroundAdvisorChain chain = mock(CallAroundAdvisorChain.class);
+        when(chain.nextAroundCall(any())).thenThrow(new IllegalStateException("connection refused"));
+
+        assertThrows(IllegalStateException.class, () -> advisor.aroundCall(request, chain));
+
+        assertEquals(1, meterRegistry.get("llm.call.duration")
+                .tags("endpoint", "other", "model", "llama3.2", "outcome", "error").timer().count());
+        assertTrue(meterRegistry.find("llm.tokens").meters().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Treats a response without usage as unknown rather than zero tokens")
+    void llmUsage_WithoutUsage_IsUnknown() {
+        LlmUsage usage = LlmUsage.of(new ChatResponse(List.of(new Generation(new AssistantMessage("x")))));
+
+        assertNull(usage.totalTokens());
+        assertEquals("llama3.2", usage.withDefaultModel("llama3.2").model());
+        assertEquals(42, LlmUsage.of(response("x", "m", 30, 12)).totalTokens());
+    }
+
+    private double tokens(String endpoint, String model, String type) {
+        return meterRegistry.get("llm.tokens").tags("endpoint", endpoint, "model", model, "type", type)
+                .summary().totalAmount();
+    }
+
+    private static AdvisedResponse advised(ChatResponse response) {
+        return new AdvisedResponse(response, Map.of());
+    }
+
+    private static ChatResponse response(String text, String model, int promptTokens, int completionTokens) {
+        return new ChatResponse(List.of(new Generation(new AssistantMessage(text))),
+                ChatResponseMetadata.builder()
+                        .model(model)
+                        .usage(new DefaultUsage(promptTokens, completionTokens))
+                        .build());
+    }
+}
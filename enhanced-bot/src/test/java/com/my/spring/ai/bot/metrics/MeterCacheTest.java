@@ -0,0 +1,41 @@
+package com.my.spring.ai.bot.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for MeterCache.
+ */
+class MeterCacheTest {
+
+    @Test
+    @DisplayName("Registers one meter per tag combination, on first use, and returns it from then on")
+    void get_RegistersOncePerTags() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        AtomicInteger registrations = new AtomicInteger();
+        MeterCache<Outcome, Counter> counters = new MeterCache<>(outcome -> {
+            registrations.incrementAndGet();
+            return Counter.builder("llm.tool.calls").tag("tool", outcome.tool()).tag("outcome", outcome.outcome())
+                    .register(meterRegistry);
+        });
+
+        Counter success = counters.get(new Outcome("getTemperature", "success"));
+        success.increment();
+        counters.get(new Outcome("getTemperature", "success")).increment();
+        counters.get(new Outcome("getTemperature", "error")).increment();
+
+        assertSame(success, counters.get(new Outcome("getTemperature", "success")));
+        assertEquals(2, registrations.get());
+        assertEquals(2.0, meterRegistry.get("llm.tool.calls").tag("outcome", "success").counter().count());
+        assertEquals(1.0, meterRegistry.get("llm.tool.calls").tag("outcome", "error").counter().count());
+    }
+
+    private record Outcome(String tool, String outcome) {
+    }
+}
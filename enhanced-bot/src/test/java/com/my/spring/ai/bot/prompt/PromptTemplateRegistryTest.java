@@ -0,0 +1,142 @@
+package com.my.spring.ai.bot.prompt;
+
+import com.my.spring.ai.bot.config.PromptTemplateProperties;
+import com.my.spring.ai.bot.exception.PromptTemplateNotFoundException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for PromptTemplateRegistry and CompiledPromptTemplate.
+ */
+class PromptTemplateRegistryTest {
+
+    @TempDir
+    Path directory;
+
+    private PromptTemplateProperties properties;
+    private SimpleMeterRegistry meterRegistry;
+    private PromptTemplateRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        properties = new PromptTemplateProperties();
+        // Reloads are triggered by the tests themselves
+        properties.setReloadInterval(Duration.ZERO);
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (registry != null) {
+            registry.close();
+        }
+    }
+
+    @Test
+    @DisplayName("Bundled templates are available by name and blank names resolve to the default")
+    void get_bundledTemplate_shouldRender() {
+        registry = new PromptTemplateRegistry(properties, meterRegistry);
+
+        CompiledPromptTemplate template = registry.get(null);
+
+        assertEquals("llama", template.getName());
+        assertSame(template, registry.get("llama"));
+        assertTrue(template.render(Map.of("question", "Why?")).endsWith("Question: Why?"));
+        assertThrows(PromptTemplateNotFoundException.class, () -> registry.get("missing"));
+    }
+
+    @Test
+    @DisplayName("Directory templates are added and override bundled ones")
+    void get_directoryTemplates_shouldOverrideBundled() throws Exception {
+        Files.writeString(directory.resolve("llama.st"), "Override: {question}");
+        Files.writeString(directory.resolve("terse.st"), "Answer in one word: {question}");
+        properties.setDirectory(directory.toString());
+        registry = new PromptTemplateRegistry(properties, meterRegistry);
+
+        assertEquals("Override: hi", registry.get("llama").render(Map.of("question", "hi")));
+        assertEquals("Answer in one word: hi", registry.get("terse").render(Map.of("question", "hi")));
+    }
+
+    @Test
+    @DisplayName("A changed file is recompiled while unchanged templates are kept")
+    void reload_changedFile_shouldRecompileOnlyThatTemplate() throws Exception {
+        Path terse = directory.resolve("terse.st");
+        Files.writeString(terse, "v1 {question}");
+        properties.setDirectory(directory.toString());
+        registry = new PromptTemplateRegistry(properties, meterRegistry);
+        CompiledPromptTemplate llama = registry.get("llama");
+        String oldVersion = registry.get("terse").getVersion();
+
+        Files.writeString(terse, "v2 {question}");
+        Files.setLastModifiedTime(terse, FileTime.from(Instant.now().plusSeconds(10)));
+        registry.reload();
+
+        assertEquals("v2 q", registry.get("terse").render(Map.of("question", "q")));
+        assertNotEquals(oldVersion, registry.get("terse").getVersion());
+        assertSame(llama, registry.get("llama"));
+        assertEquals(1.0, meterRegistry.get("prompt.templates.reloads").counter().count());
+    }
+
+    @Test
+    @DisplayName("A template that no longer compiles keeps serving its previous version")
+    void reload_invalidTemplate_shouldKeepPreviousVersion() throws Exception {
+        Path terse = directory.resolve("terse.st");
+        Files.writeString(terse, "ok {question}");
+        properties.setDirectory(directory.toString());
+        registry = new PromptTemplateRegistry(properties, meterRegistry);
+
+        Files.writeString(terse, "broken {question");
+        Files.setLastModifiedTime(terse, FileTime.from(Instant.now().plusSeconds(10)));
+        registry.reload();
+
+        assertEquals("ok q", registry.get("terse").render(Map.of("question", "q")));
+        assertEquals(1.0, meterRegistry.get("prompt.templates.reload.failures").counter().count());
+    }
+
+    @Test
+    @DisplayName("Concurrent renders of one template do not share attribute values")
+    void render_concurrently_shouldIsolateCalls() throws Exception {
+        CompiledPromptTemplate template = new CompiledPromptTemplate("t", "{a}-{b}");
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Boolean>> results = IntStream.range(0, 2000)
+                    .mapToObj(i -> executor.submit(() ->
+                            template.render(Map.of("a", i, "b", -i)).equals(i + "-" + -i)))
+                    .toList();
+            for (Future<Boolean> result : results) {
+                assertTrue(result.get(5, TimeUnit.SECONDS));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("Rendering without a variable the template uses fails")
+    void render_missingVariable_shouldThrow() {
+        CompiledPromptTemplate template = new CompiledPromptTemplate("t", "Question: {question}");
+
+        assertEquals(Set.of("question"), template.getVariables());
+        assertThrows(IllegalArgumentException.class, () -> template.render(Map.of()));
+    }
+}
@@ -0,0 +1,230 @@
+package com.my.spring.ai.bot.resilience;
+
+import com.my.spring.ai.bot.config.CircuitBreakerProperties;
+import com.my.spring.ai.bot.exception.DeadlineExceededException;
+import com.my.spring.ai.bot.exception.RequestCancelledException;
+import com.my.spring.ai.bot.exception.ServiceUnavailableException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.model.Generation;
+import org.springframework.ai.chat.prompt.ChatOptions;
+import org.springframework.ai.chat.prompt.Prompt;
+import org.springframework.ai.retry.NonTransientAiException;
+import org.springframework.web.client.ResourceAccessException;
+import reactor.core.publisher.Flux;
+
+import java.io.InterruptedIOException;
+import java.net.SocketTimeoutException;
+import java.nio.channels.ClosedByInterruptException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for CircuitBreaker and CircuitBreakingChatModel.
+ */
+class CircuitBreakerTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private MutableClock clock;
+    private CircuitBreakerProperties.Breaker properties;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        clock = new MutableClock();
+        properties = new CircuitBreakerProperties.Breaker();
+        properties.setWindowSize(4);
+        properties.setMinimumCalls(4);
+        properties.setFailureRateThreshold(0.5);
+        properties.setOpenDuration(Duration.ofSeconds(30));
+        properties.setHalfOpenProbes(2);
+    }
+
+    @Test
+    @DisplayName("Opens once the failure rate over the window reaches the threshold")
+    void execute_FailureRateReached_Opens() {
+        CircuitBreaker breaker = breaker();
+
+        succeed(breaker);
+        fail(breaker);
+        succeed(breaker);
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState(), "too few calls to judge");
+
+        fail(breaker);
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertEquals(1.0, meterRegistry.get("circuit.breaker.state").tag("name", "test").gauge().value());
+    }
+
+    @Test
+    @DisplayName("Fails fast without calling the dependency while open, with Retry-After of the remaining open time")
+    void execute_Open_FailsFast() {
+        CircuitBreaker breaker = breaker();
+        tripOpen(breaker);
+        clock.advance(Duration.ofSeconds(10));
+        AtomicInteger calls = new AtomicInteger();
+
+        ServiceUnavailableException ex = assertThrows(ServiceUnavailableException.class,
+                () -> breaker.execute(calls::incrementAndGet));
+
+        assertEquals(0, calls.get());
+        assertEquals(Duration.ofSeconds(20), ex.getRetryAfter());
+        assertEquals(1.0, meterRegistry.get("circuit.breaker.calls")
+                .tags("name", "test", "outcome", "rejected").counter().count());
+    }
+
+    @Test
+    @DisplayName("Closes after the open duration when the half-open probes succeed")
+    void execute_HalfOpenProbesSucceed_Closes() {
+        CircuitBreaker breaker = breaker();
+        tripOpen(breaker);
+        clock.advance(Duration.ofSeconds(31));
+
+        succeed(breaker);
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+        succeed(breaker);
+
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+        assertEquals(0.0, breaker.getFailureRate());
+    }
+
+    @Test
+    @DisplayName("Reopens when a half-open probe fails")
+    void execute_HalfOpenProbeFails_Reopens() {
+        CircuitBreaker breaker = breaker();
+        tripOpen(breaker);
+        clock.advance(Duration.ofSeconds(31));
+
+        fail(breaker);
+
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertThrows(ServiceUnavailableException.class, () -> breaker.execute(() -> "x"));
+    }
+
+    @Test
+    @DisplayName("Does not count client errors as failures")
+    void execute_ClientErrors_DoNotOpen() {
+        CircuitBreaker breaker = breaker();
+
+        for (int i = 0; i < 8; i++) {
+            assertThrows(NonTransientAiException.class, () -> breaker.execute(() -> {
+                throw new NonTransientAiException("400 - model not found");
+            }));
+        }
+
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+    }
+
+    @Test
+    @DisplayName("Ignores calls cut short by their caller's deadline, cancellation or interrupt, also as causes")
+    void classify_CallerGaveUp_Ignored() {
+        assertEquals(CircuitBreaker.Outcome.IGNORED, CircuitBreaker.classify(new DeadlineExceededException("late", null)));
+        assertEquals(CircuitBreaker.Outcome.IGNORED, CircuitBreaker.classify(new RequestCancelledException("gone")));
+        assertEquals(CircuitBreaker.Outcome.IGNORED, CircuitBreaker.classify(new CancellationException()));
+        assertEquals(CircuitBreaker.Outcome.IGNORED,
+                CircuitBreaker.classify(new ResourceAccessException("I/O error", new InterruptedIOException())));
+        assertEquals(CircuitBreaker.Outcome.IGNORED,
+                CircuitBreaker.classify(new IllegalStateException(new ClosedByInterruptException())));
+        assertEquals(CircuitBreaker.Outcome.IGNORED,
+                CircuitBreaker.classify(new RuntimeException(new InterruptedException())));
+
+        // A read timeout is the dependency's failure
+        assertEquals(CircuitBreaker.Outcome.FAILURE,
+                CircuitBreaker.classify(new ResourceAccessException("I/O error", new SocketTimeoutException("Read timed out"))));
+        assertEquals(CircuitBreaker.Outcome.FAILURE, CircuitBreaker.classify(new IllegalStateException("down")));
+    }
+
+    @Test
+    @DisplayName("Records a failed stream and fails the next subscription fast once open")
+    void stream_Failures_Open() {
+        CircuitBreaker breaker = breaker();
+        for (int i = 0; i < 4; i++) {
+            Flux<String> failing = breaker.stream(() -> Flux.error(new IllegalStateException("connection refused")));
+            assertThrows(IllegalStateException.class, () -> failing.collectList().block());
+        }
+
+        Flux<String> next = breaker.stream(() -> Flux.just("never"));
+        assertThrows(ServiceUnavailableException.class, () -> next.collectList().block());
+    }
+
+    @Test
+    @DisplayName("Answers from the fallback model without the primary's options while the chat model circuit is open")
+    void chatModel_Open_UsesFallback() {
+        ChatModel primary = mock(ChatModel.class);
+        ChatModel fallback = mock(ChatModel.class);
+        when(primary.call(any(Prompt.class))).thenThrow(new IllegalStateException("connection refused"));
+        when(fallback.call(any(Prompt.class))).thenReturn(
+                new ChatResponse(List.of(new Generation(new AssistantMessage("fallback")))));
+        CircuitBreaker breaker = breaker();
+        CircuitBreakingChatModel model = new CircuitBreakingChatModel(primary, breaker, fallback);
+        Prompt prompt = new Prompt("hello", ChatOptions.builder().model("llama3.2").build());
+
+        for (int i = 0; i < 4; i++) {
+            assertThrows(IllegalStateException.class, () -> model.call(prompt));
+        }
+        ChatResponse response = model.call(prompt);
+
+        assertEquals("fallback", response.getResult().getOutput().getText());
+        verify(primary, times(4)).call(any(Prompt.class));
+        verify(fallback).call(argThat((Prompt p) -> p.getOptions() == null && "hello".equals(p.getContents())));
+    }
+
+    private CircuitBreaker breaker() {
+        return new CircuitBreaker("test", properties, true, meterRegistry, clock);
+    }
+
+    private void tripOpen(CircuitBreaker breaker) {
+        for (int i = 0; i < 4; i++) {
+            fail(breaker);
+        }
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+    }
+
+    private static void succeed(CircuitBreaker breaker) {
+        breaker.execute(() -> "ok");
+    }
+
+    private static void fail(CircuitBreaker breaker) {
+        assertThrows(IllegalStateException.class, () -> breaker.execute(() -> {
+            throw new IllegalStateException("connection refused");
+        }));
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private Instant now = Instant.parse("2025-01-01T00:00:00Z");
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package com.my.spring.ai.bot.service;
+
+import com.my.spring.ai.bot.config.GenerateBatchProperties;
+import com.my.spring.ai.bot.dto.BatchGenerateResult;
+import com.my.spring.ai.bot.dto.GenerateRequest;
+import com.my.spring.ai.bot.dto.GenerateResponse;
+import com.my.spring.ai.bot.exception.InvalidBatchRequestException;
+import com.my.spring.ai.bot.exception.TextGenerationException;
+import com.my.spring.ai.bot.service.impl.BatchTextGeneratorServiceImpl;
+import jakarta.validation.Validation;
+import jakarta.validation.ValidatorFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for BatchTextGeneratorServiceImpl.
+ */
+class BatchTextGeneratorServiceImplTest {
+
+    private TextGeneratorService textGeneratorService;
+    private GenerateBatchProperties properties;
+    private ValidatorFactory validatorFactory;
+    private BatchTextGeneratorServiceImpl service;
+
+    @BeforeEach
+    void setUp() {
+        textGeneratorService = mock(TextGeneratorService.class);
+        properties = new GenerateBatchProperties();
+        validatorFactory = Validation.buildDefaultValidatorFactory();
+        service = new BatchTextGeneratorServiceImpl(textGeneratorService, validatorFactory.getValidator(), properties);
+    }
+
+    @AfterEach
+    void tearDown() {
+        validatorFactory.close();
+    }
+
+    @Test
+    @DisplayName("Every item yields one result tagged with its input index")
+    void generateBatch_validRequests_shouldReturnIndexedResults() {
+        when(textGeneratorService.generateText(any())).thenAnswer(invocation ->
+                GenerateResponse.simple("echo " + invocation.<GenerateRequest>getArgument(0).getPrompt()));
+
+        List<BatchGenerateResult> results = service.generateBatch(requests("a", "b", "c"))
+                .collectList()
+                .block(Duration.ofSeconds(5));
+
+        assertNotNull(results);
+        List<BatchGenerateResult> sorted = results.stream()
+                .sorted(Comparator.comparingInt(BatchGenerateResult::getIndex))
+                .toList();
+        assertEquals(List.of(0, 1, 2), sorted.stream().map(BatchGenerateResult::getIndex).toList());
+        assertEquals("echo b", sorted.get(1).getResponse().getResponse());
+    }
+
+    @Test
+    @DisplayName("A failing or invalid item is reported inline without aborting the batch")
+    void generateBatch_failingItems_shouldBeIsolated() {
+        when(textGeneratorService.generateText(any())).thenAnswer(invocation -> {
+            GenerateRequest request = invocation.getArgument(0);
+            if (request.getPrompt().equals("boom")) {
+                throw new TextGenerationException("Failed to generate text: connection refused");
+            }
+            return GenerateResponse.simple("ok");
+        });
+
+        List<BatchGenerateResult> results = service.generateBatch(requests("ok", "boom", " "))
+                .collectList()
+                .block(Duration.ofSeconds(5));
+
+        assertNotNull(results);
+        assertEquals(3, results.size());
+        BatchGenerateResult failed = byIndex(results, 1);
+        assertNull(failed.getResponse());
+        assertEquals("Failed to generate text. Please try again later.", failed.getError());
+        BatchGenerateResult invalid = byIndex(results, 2);
+        assertTrue(invalid.getError().startsWith("prompt: "));
+        assertEquals("ok", byIndex(results, 0).getResponse().getResponse());
+        // The invalid item never reaches the model
+        verify(textGeneratorService, times(2)).generateText(any());
+    }
+
+    @Test
+    @DisplayName("No more than the configured number of items run at once")
+    void generateBatch_manyItems_shouldRespectConcurrency() {
+        properties.setConcurrency(3);
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger peak = new AtomicInteger();
+        when(textGeneratorService.generateText(any())).thenAnswer(invocation -> {
+            peak.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(20);
+            } finally {
+                inFlight.decrementAndGet();
+            }
+            return GenerateResponse.simple("ok");
+        });
+
+        List<BatchGenerateResult> results = service.generateBatch(
+                        requests(IntStream.range(0, 20).mapToObj(i -> "p" + i).toArray(String[]::new)))
+                .collectList()
+                .block(Duration.ofSeconds(10));
+
+        assertNotNull(results);
+        assertEquals(20, results.size());
+        assertTrue(peak.get() <= 3, "peak concurrency was " + peak.get());
+        assertTrue(peak.get() > 1, "items should run in parallel");
+    }
+
+    @Test
+    @DisplayName("Empty and oversized batches are rejected up front")
+    void generateBatch_invalidBatchSize_shouldThrow() {
+        properties.setMaxItems(2);
+
+        assertThrows(InvalidBatchRequestException.class, () -> service.generateBatch(List.of()));
+        assertThrows(InvalidBatchRequestException.class, () -> service.generateBatch(requests("a", "b", "c")));
+        verifyNoInteractions(textGeneratorService);
+    }
+
+    private static List<GenerateRequest> requests(String... prompts) {
+        return Arrays.stream(prompts).map(prompt -> {
+            GenerateRequest request = new GenerateRequest();
+            request.setPrompt(prompt);
+            return request;
+        }).toList();
+    }
+
+    private static BatchGenerateResult byIndex(List<BatchGenerateResult> results, int index) {
+        return results.stream().filter(r -> r.getIndex() == index).findFirst().orElseThrow();
+    }
+}
@@ -1,7 +1,22 @@
 package com.my.spring.ai.bot.service;
 
+import com.my.spring.ai.bot.admission.AdmissionControl;
+import com.my.spring.ai.bot.cancellation.RequestCancellation;
+import com.my.spring.ai.bot.config.AdmissionControlProperties;
+import com.my.spring.ai.bot.config.RequestCancellationProperties;
+import com.my.spring.ai.bot.config.RequestDeadlineProperties;
+import com.my.spring.ai.bot.config.SessionMailboxProperties;
+import com.my.spring.ai.bot.deadline.RequestDeadlines;
+import com.my.spring.ai.bot.dto.PromptTokenUsage;
 import com.my.spring.ai.bot.exception.ConversationNotFoundException;
+import com.my.spring.ai.bot.exception.DeadlineExceededException;
+import com.my.spring.ai.bot.exception.RequestCancelledException;
+import com.my.spring.ai.bot.exception.TooManyRequestsException;
+import com.my.spring.ai.bot.memory.RollingSummaryChatMemoryAdvisor;
+import com.my.spring.ai.bot.metrics.ChatStreamMetrics;
 import com.my.spring.ai.bot.service.impl.ChatServiceImpl;
+import com.my.spring.ai.bot.session.SessionMailbox;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -10,13 +25,15 @@ import org.mockito.Captor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.ai.chat.client.ChatClient;
-import org.springframework.ai.chat.client.advisor.MessageChatMemoryAdvisor;
 import org.springframework.ai.chat.memory.ChatMemory;
 import org.springframework.ai.chat.messages.Message;
 import org.springframework.ai.chat.messages.SystemMessage;
+import reactor.core.publisher.Flux;
 
+import java.time.Duration;
 import java.util.Collections;
 import java.util.List;
+import java.util.Optional;
 import java.util.function.Consumer;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -45,23 +62,34 @@ class ChatServiceImplTest {
     @Mock
     private ChatClient.CallResponseSpec call;
 
+    @Mock
+    private ChatClient.StreamResponseSpec stream;
+
+    @Mock
+    private RollingSummaryChatMemoryAdvisor memoryAdvisor;
+
     @Captor
     private ArgumentCaptor<Consumer<ChatClient.AdvisorSpec>> advisorSpecCaptor;
 
     @Captor
     private ArgumentCaptor<String> conversationIdCaptor;
 
+    private SimpleMeterRegistry meterRegistry;
+
     private ChatServiceImpl chatService;
 
     @BeforeEach
     void setUp() {
         // Mock the builder chain to return the mocked ChatClient
         when(chatClientBuilder.defaultSystem(anyString())).thenReturn(chatClientBuilder);
-        when(chatClientBuilder.defaultAdvisors(any(MessageChatMemoryAdvisor.class))).thenReturn(chatClientBuilder);
+        when(chatClientBuilder.defaultAdvisors(any(RollingSummaryChatMemoryAdvisor.class))).thenReturn(chatClientBuilder);
         when(chatClientBuilder.build()).thenReturn(chatClient);
 
         // Instantiate the service under test
-        chatService = new ChatServiceImpl(chatMemory, chatClientBuilder, LAST_ENTRIES_COUNT);
+        meterRegistry = new SimpleMeterRegistry();
+        chatService = new ChatServiceImpl(chatMemory, chatClientBuilder, LAST_ENTRIES_COUNT,
+                new ChatStreamMetrics(meterRegistry), new SessionMailbox(new SessionMailboxProperties(), meterRegistry),
+                memoryAdvisor, new AdmissionControl(new AdmissionControlProperties(), meterRegistry));
     }
 
     private void mockChatClientChain() {
@@ -199,4 +227,119 @@ class ChatServiceImplTest {
         verify(chatMemory).get(sessionId, LAST_ENTRIES_COUNT);
         verify(chatMemory, never()).clear(sessionId);
     }
+
+    @Test
+    void testChatStream_EmitsTokensAndRecordsMetrics() {
+        String sessionId = "stream-session";
+        String userMessage = "Hello";
+
+        when(chatClient.prompt()).thenReturn(prompt);
+        when(prompt.user(userMessage)).thenReturn(prompt);
+        when(prompt.advisors(any(Consumer.class))).thenReturn(prompt);
+        when(prompt.stream()).thenReturn(stream);
+        when(stream.content()).thenReturn(Flux.just("Hi", " there", "!"));
+
+        List<String> tokens = chatService.chatStream(sessionId, userMessage).collectList().block();
+
+        assertEquals(List.of("Hi", " there", "!"), tokens);
+        verify(prompt).advisors(advisorSpecCaptor.capture());
+        ChatClient.AdvisorSpec advisorSpec = mock(ChatClient.AdvisorSpec.class);
+        advisorSpecCaptor.getValue().accept(advisorSpec);
+        verify(advisorSpec).param(eq(CHAT_MEMORY_CONVERSATION_ID_KEY), eq(sessionId));
+
+        assertEquals(1, meterRegistry.get("chat.stream.time.to.first.token").tag("endpoint", "chat").timer().count());
+        assertEquals(3.0, meterRegistry.get("chat.stream.tokens").tag("endpoint", "chat").summary().totalAmount());
+    }
+
+    @Test
+    void testChatStream_ModelFailure_MapsToRuntimeException() {
+        when(chatClient.prompt()).thenReturn(prompt);
+        when(prompt.user(anyString())).thenReturn(prompt);
+        when(prompt.advisors(any(Consumer.class))).thenReturn(prompt);
+        when(prompt.stream()).thenReturn(stream);
+        when(stream.content()).thenReturn(Flux.error(new IllegalStateException("connection reset")));
+
+        RuntimeException exception = assertThrows(
+                RuntimeException.class,
+                () -> chatService.chatStream("s1", "Hello").blockLast()
+        );
+
+        assertEquals("AI service failed. Please try again later.", exception.getMessage());
+    }
+
+    @Test
+    void testChatStream_Rejection_IsNotMapped() {
+        when(chatClient.prompt()).thenReturn(prompt);
+        when(prompt.user(anyString())).thenReturn(prompt);
+        when(prompt.advisors(any(Consumer.class))).thenReturn(prompt);
+        when(prompt.stream()).thenReturn(stream);
+        TooManyRequestsException rejection = new TooManyRequestsException("busy", Duration.ofSeconds(1));
+        when(stream.content()).thenReturn(Flux.error(rejection));
+
+        TooManyRequestsException exception = assertThrows(
+                TooManyRequestsException.class,
+                () -> chatService.chatStream("s1", "Hello").blockLast()
+        );
+
+        assertSame(rejection, exception);
+    }
+
+    @Test
+    void testChatStream_EmptyMessage_ThrowsException() {
+        assertThrows(IllegalArgumentException.class, () -> chatService.chatStream("s1", " "));
+        verify(chatClient, never()).prompt();
+    }
+
+    @Test
+    void testChat_DeadlinePassed_ThrowsWithoutCallingModel() {
+        RequestDeadlines requestDeadlines = new RequestDeadlines(new RequestDeadlineProperties(), meterRegistry);
+        try (RequestDeadlines.Scope ignored = requestDeadlines.enter(requestDeadlines.resolve("chat", "1ms"))) {
+            // The deadline interrupts the thread as it passes
+            while (!Thread.interrupted()) {
+                Thread.onSpinWait();
+            }
+
+            assertThrows(DeadlineExceededException.class, () -> chatService.chat("s1", "Hello"));
+        } finally {
+            requestDeadlines.destroy();
+        }
+
+        verify(chatClient, never()).prompt();
+        assertEquals(1.0, meterRegistry.get("llm.requests.deadline.exceeded").tag("endpoint", "chat").counter().count());
+    }
+
+    @Test
+    void testChat_ClientDisconnected_ThrowsRequestCancelled() {
+        mockChatClientChain();
+        when(call.content()).thenAnswer(invocation -> {
+            // The model call is aborted by the interrupt, which its HTTP client clears
+            Thread.sleep(5_000);
+            return "Mocked AI Response";
+        });
+        RequestCancellationProperties properties = new RequestCancellationProperties();
+        properties.setProbeInterval(Duration.ofMillis(20));
+        RequestCancellation requestCancellation = new RequestCancellation(properties, meterRegistry);
+        try (RequestCancellation.Watch ignored = requestCancellation.watch("chat", () -> true)) {
+            assertThrows(RequestCancelledException.class, () -> chatService.chat("s1", "Hello"));
+        } finally {
+            requestCancellation.destroy();
+        }
+
+        assertFalse(Thread.currentThread().isInterrupted());
+    }
+
+    @Test
+    void testGetPromptTokenUsage_KnownSession() {
+        PromptTokenUsage usage = new PromptTokenUsage("s1", 120, 40, 900, 860, 12);
+        when(memoryAdvisor.tokenUsage("s1")).thenReturn(Optional.of(usage));
+
+        assertSame(usage, chatService.getPromptTokenUsage("s1"));
+    }
+
+    @Test
+    void testGetPromptTokenUsage_UnknownSession_ThrowsException() {
+        when(memoryAdvisor.tokenUsage("missing")).thenReturn(Optional.empty());
+
+        assertThrows(ConversationNotFoundException.class, () -> chatService.getPromptTokenUsage("missing"));
+    }
 }
@@ -1,6 +1,16 @@
 package com.my.spring.ai.bot.service;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.my.spring.ai.bot.admission.AdmissionControl;
+import com.my.spring.ai.bot.config.AdmissionControlProperties;
+import com.my.spring.ai.bot.config.SessionMailboxProperties;
+import com.my.spring.ai.bot.config.ToolSelectionProperties;
+import com.my.spring.ai.bot.metrics.ChatStreamMetrics;
 import com.my.spring.ai.bot.service.impl.McpChatServiceImpl;
+import com.my.spring.ai.bot.session.SessionMailbox;
+import com.my.spring.ai.bot.tools.ToolRegistry;
+import com.my.spring.ai.bot.tools.ToolSelector;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -11,6 +21,7 @@ import org.springframework.ai.chat.client.ChatClient;
 import org.springframework.ai.chat.memory.ChatMemory;
 import org.springframework.ai.tool.ToolCallback;
 import org.springframework.ai.tool.ToolCallbackProvider;
+import org.springframework.ai.tool.definition.ToolDefinition;
 
 import java.util.List;
 
@@ -54,22 +65,25 @@ class McpChatServiceImplTest {
         when(chatClientBuilder.defaultSystem(anyString())).thenReturn(chatClientBuilder);
         when(chatClientBuilder.defaultAdvisors(any(org.springframework.ai.chat.client.advisor.MessageChatMemoryAdvisor.class)))
                 .thenReturn(chatClientBuilder);
-        when(chatClientBuilder.defaultTools(any(ToolCallback[].class))).thenReturn(chatClientBuilder);
         when(chatClientBuilder.build()).thenReturn(chatClient);
 
-        // Mock tool callback provider to return empty array by default
-        when(toolCallbackProvider.getToolCallbacks()).thenReturn(new ToolCallback[0]);
+        // The registry reads each tool's definition when it lists the tools
+        lenient().when(toolCallback1.getToolDefinition()).thenReturn(definition("weather"));
+        lenient().when(toolCallback2.getToolDefinition()).thenReturn(definition("email"));
+        lenient().when(toolCallback3.getToolDefinition()).thenReturn(definition("splunk"));
 
         // Instantiate the service under test
+        ToolRegistry toolRegistry = new ToolRegistry(toolCallbackProvider, new ObjectMapper(), new SimpleMeterRegistry());
         mcpChatService = new McpChatServiceImpl(
                 chatMemory,
                 chatClientBuilder,
                 LAST_ENTRIES_COUNT,
-                toolCallbackProvider
+                toolRegistry,
+                new ToolSelector(toolRegistry, null, new ToolSelectionProperties(), new SimpleMeterRegistry()),
+                new ChatStreamMetrics(new SimpleMeterRegistry()),
+                new SessionMailbox(new SessionMailboxProperties(), new SimpleMeterRegistry()),
+                new AdmissionControl(new AdmissionControlProperties(), new SimpleMeterRegistry())
         );
-
-        // Reset the mock to clear invocations from constructor
-        reset(toolCallbackProvider);
     }
 
     // =========================================================================
@@ -159,8 +173,8 @@ class McpChatServiceImplTest {
     }
 
     @Test
-    @DisplayName("listAvailableMcpTools - Success: Multiple calls return independent lists")
-    void whenListAvailableMcpTools_calledMultipleTimes_shouldReturnIndependentLists() {
+    @DisplayName("listAvailableMcpTools - Success: Multiple calls are served from one listing")
+    void whenListAvailableMcpTools_calledMultipleTimes_shouldListToolsOnce() {
         // --- Arrange ---
         ToolCallback[] toolCallbacks = new ToolCallback[]{toolCallback1, toolCallback2};
         when(toolCallbackProvider.getToolCallbacks()).thenReturn(toolCallbacks);
@@ -181,8 +195,8 @@ class McpChatServiceImplTest {
         }
 
         // --- Verify ---
-        // Should be called twice (once for each invocation)
-        verify(toolCallbackProvider, times(2)).getToolCallbacks();
+        // The registry lists the tools once and serves both calls from that listing
+        verify(toolCallbackProvider, times(1)).getToolCallbacks();
     }
 
     @Test
@@ -191,12 +205,41 @@ class McpChatServiceImplTest {
         // --- Arrange ---
         when(toolCallbackProvider.getToolCallbacks()).thenReturn(null);
 
-        // --- Act & Assert ---
-        // This should throw NullPointerException since Arrays.stream(null) throws NPE
-        assertThrows(NullPointerException.class, () -> mcpChatService.listAvailableMcpTools(),
-                "Should throw NullPointerException when provider returns null array");
+        // --- Act ---
+        List<ToolCallback> result = mcpChatService.listAvailableMcpTools();
+
+        // --- Assert ---
+        assertTrue(result.isEmpty(), "A provider without tools should give an empty list");
 
         // --- Verify ---
         verify(toolCallbackProvider, times(1)).getToolCallbacks();
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("getToolCatalog - Success: Tools are listed again only after the registry is invalidated")
+    void whenToolsChange_shouldServeNewCatalogAfterInvalidation() {
+        // --- Arrange ---
+        ToolRegistry toolRegistry = new ToolRegistry(toolCallbackProvider, new ObjectMapper(), new SimpleMeterRegistry());
+        when(toolCallbackProvider.getToolCallbacks())
+                .thenReturn(new ToolCallback[]{toolCallback1})
+                .thenReturn(new ToolCallback[]{toolCallback1, toolCallback2});
+
+        // --- Act ---
+        var first = toolRegistry.catalog();
+        var cached = toolRegistry.catalog();
+        toolRegistry.invalidate("test");
+        var changed = toolRegistry.catalog();
+
+        // --- Assert ---
+        assertSame(first, cached, "The catalog should be reused until invalidated");
+        assertEquals(2, changed.callbacks().size(), "The new catalog should have the changed tools");
+        assertNotEquals(first.etag(), changed.etag(), "The ETag should change with the tools");
+
+        // --- Verify ---
+        verify(toolCallbackProvider, times(2)).getToolCallbacks();
+    }
+
+    private static ToolDefinition definition(String name) {
+        return ToolDefinition.builder().name(name).description(name + " tool").inputSchema("{}").build();
+    }
+}
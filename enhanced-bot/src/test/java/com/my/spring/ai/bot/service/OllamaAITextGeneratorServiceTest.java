@@ -1,9 +1,16 @@
 package com.my.spring.ai.bot.service;
 
+import com.my.spring.ai.bot.admission.AdmissionControl;
+import com.my.spring.ai.bot.cache.SingleFlightCache;
+import com.my.spring.ai.bot.config.AdmissionControlProperties;
+import com.my.spring.ai.bot.config.PromptTemplateProperties;
 import com.my.spring.ai.bot.dto.GenerateRequest;
 import com.my.spring.ai.bot.dto.GenerateResponse;
+import com.my.spring.ai.bot.exception.PromptTemplateNotFoundException;
 import com.my.spring.ai.bot.exception.TextGenerationException;
+import com.my.spring.ai.bot.prompt.PromptTemplateRegistry;
 import com.my.spring.ai.bot.service.impl.OllamaAITextGeneratorService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -11,13 +18,19 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.ai.chat.client.ChatClient;
-import org.springframework.core.io.Resource;
-import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.metadata.ChatResponseMetadata;
+import org.springframework.ai.chat.metadata.DefaultUsage;
+import org.springframework.ai.chat.model.Generation;
+import org.springframework.ai.chat.prompt.ChatOptions;
+import org.springframework.ai.chat.model.ChatModel;
 
-import java.util.function.Consumer;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
-import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.*;
 import static org.mockito.MockitoAnnotations.openMocks;
 
@@ -31,7 +44,9 @@ class OllamaAITextGeneratorServiceTest {
     private ChatClient chatClient;
 
     @Mock
-    private Resource promptResource; // Mock the injected resource
+    private ChatModel chatModel;
+
+    private SimpleMeterRegistry meterRegistry;
 
     private OllamaAITextGeneratorService service;
 
@@ -39,8 +54,6 @@ class OllamaAITextGeneratorServiceTest {
     @Mock
     private ChatClient.ChatClientRequestSpec promptSpec;
     @Mock
-    private ChatClient.PromptUserSpec userSpec;
-    @Mock
     private ChatClient.ChatClientRequestSpec callSpec;
     @Mock
     private ChatClient.CallResponseSpec chatResponse;
@@ -55,11 +68,13 @@ class OllamaAITextGeneratorServiceTest {
         
         // For now, we'll throw an exception to remind students to implement
         // Initialize the service with the mocked ChatClient
-        service = new OllamaAITextGeneratorService(chatClient);
-
-        // Manually inject the mocked @Value resource field
-        // This is necessary because we are not using a Spring Context
-        ReflectionTestUtils.setField(service, "promptResource", promptResource);
+        meterRegistry = new SimpleMeterRegistry();
+        SingleFlightCache<String, GenerateResponse> cache =
+                new SingleFlightCache<>("generate", 100, Duration.ofMinutes(10), meterRegistry);
+        // The bundled classpath:/prompts templates, compiled once
+        PromptTemplateRegistry templates = new PromptTemplateRegistry(new PromptTemplateProperties(), meterRegistry);
+        service = new OllamaAITextGeneratorService(chatClient, chatModel, cache, templates,
+                new AdmissionControl(new AdmissionControlProperties(), new SimpleMeterRegistry()));
     }
     
     // TODO for students: Implement these test methods
@@ -104,14 +119,10 @@ class OllamaAITextGeneratorServiceTest {
 
         // Mock the entire ChatClient fluent API chain
         when(chatClient.prompt()).thenReturn(promptSpec);
-        // Handle the lambda passed to .user()
-        when(promptSpec.user(any(Consumer.class))).thenAnswer(invocation -> {
-            Consumer<ChatClient.PromptUserSpec> userConsumer = invocation.getArgument(0);
-            userConsumer.accept(userSpec); // Execute the lambda on our mock UserSpec
-            return callSpec; // Return the next step in the chain
-        });
+        // The template is rendered before the call, so .user() receives plain text
+        when(promptSpec.user(anyString())).thenReturn(callSpec);
         when(callSpec.call()).thenReturn(chatResponse);
-        when(chatResponse.content()).thenReturn(mockApiResponse);
+        when(chatResponse.chatResponse()).thenReturn(modelResponse(mockApiResponse));
 
         // 2. ACT: Call the service method
         GenerateResponse response = service.generateText(request);
@@ -120,17 +131,19 @@ class OllamaAITextGeneratorServiceTest {
         assertNotNull(response);
         assertEquals(mockApiResponse, response.getResponse());
         assertNotNull(response.getTimestamp());
-        assertEquals("gpt-3.5-turbo", response.getModel()); // Matches service TODO
+        assertEquals("llama3.2", response.getModel());
+        assertEquals(42, response.getTokensUsed());
 
         // Verify the ChatClient chain was called correctly
         verify(chatClient, times(1)).prompt();
-        verify(promptSpec, times(1)).user(any(Consumer.class));
+        verify(promptSpec, times(1)).user(anyString());
         verify(callSpec, times(1)).call();
-        verify(chatResponse, times(1)).content();
+        verify(chatResponse, times(1)).chatResponse();
 
-        // Verify the lambda's internal calls
-        verify(userSpec, times(1)).text(promptResource);
-        verify(userSpec, times(1)).param("question", request.getPrompt());
+        // Verify the prompt was wrapped in the default template
+        verify(promptSpec).user(argThat((String text) ->
+                text.startsWith("Answer the question at the end.")
+                        && text.endsWith("Question: " + request.getPrompt())));
     }
     
     @Test
@@ -288,6 +301,51 @@ class OllamaAITextGeneratorServiceTest {
         assertEquals(rateLimitError, exception.getCause());
     }
     
+    @Test
+    @DisplayName("Should answer a repeated prompt from the cache")
+    void generateText_RepeatedPrompt_UsesCache() {
+        stubChatClient("Cached answer");
+        GenerateRequest first = createValidRequest();
+        GenerateRequest second = new GenerateRequest();
+        // Differs only in whitespace, so it normalizes to the same key
+        second.setPrompt("  Tell me a fun fact   about Spring Boot ");
+
+        GenerateResponse firstResponse = service.generateText(first);
+        GenerateResponse secondResponse = service.generateText(second);
+
+        assertEquals("Cached answer", firstResponse.getResponse());
+        assertEquals("Cached answer", secondResponse.getResponse());
+        verify(chatClient, times(1)).prompt();
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("result", "hit").counter().count());
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("result", "miss").counter().count());
+    }
+
+    @Test
+    @DisplayName("Should call the model again when the request bypasses the cache")
+    void generateText_BypassCache_CallsModelAndRefreshesEntry() {
+        stubChatClient("First answer", "Fresh answer");
+        service.generateText(createValidRequest());
+
+        GenerateRequest bypass = createValidRequest();
+        bypass.setBypassCache(true);
+        GenerateResponse bypassResponse = service.generateText(bypass);
+        GenerateResponse cachedResponse = service.generateText(createValidRequest());
+
+        assertEquals("Fresh answer", bypassResponse.getResponse());
+        assertEquals("Fresh answer", cachedResponse.getResponse());
+        verify(chatClient, times(2)).prompt();
+    }
+
+    @Test
+    @DisplayName("Should reject an unknown prompt template before calling the model")
+    void generateText_UnknownTemplate_ThrowsNotFound() {
+        GenerateRequest request = createValidRequest();
+        request.setTemplate("missing");
+
+        assertThrows(PromptTemplateNotFoundException.class, () -> service.generateText(request));
+        verify(chatClient, never()).prompt();
+    }
+
     @Test
     @DisplayName("Should validate prompt length at service level")
     void generateText_PromptTooLong_ThrowsException() {
@@ -308,7 +366,20 @@ class OllamaAITextGeneratorServiceTest {
         // - Model name
         // - Token usage (if available)
         // - Other relevant metadata
-        
+        // A response without metadata: the model name comes from the configured options,
+        // and the token usage stays unknown rather than zero
+        when(chatClient.prompt()).thenReturn(promptSpec);
+        when(promptSpec.user(anyString())).thenReturn(callSpec);
+        when(callSpec.call()).thenReturn(chatResponse);
+        when(chatResponse.chatResponse()).thenReturn(new org.springframework.ai.chat.model.ChatResponse(
+                List.of(new Generation(new AssistantMessage("answer")))));
+        when(chatModel.getDefaultOptions()).thenReturn(ChatOptions.builder().model("mistral").build());
+
+        GenerateResponse response = service.generateText(createValidRequest());
+
+        assertNotNull(response.getTimestamp());
+        assertEquals("mistral", response.getModel());
+        assertNull(response.getTokensUsed());
     }
     
     @Test
@@ -360,6 +431,25 @@ class OllamaAITextGeneratorServiceTest {
     }
     
     // Helper methods for test data creation
+
+    private void stubChatClient(String content, String... moreContent) {
+        when(chatClient.prompt()).thenReturn(promptSpec);
+        when(promptSpec.user(anyString())).thenReturn(callSpec);
+        when(callSpec.call()).thenReturn(chatResponse);
+        org.springframework.ai.chat.model.ChatResponse[] more = Arrays.stream(moreContent)
+                .map(OllamaAITextGeneratorServiceTest::modelResponse)
+                .toArray(org.springframework.ai.chat.model.ChatResponse[]::new);
+        when(chatResponse.chatResponse()).thenReturn(modelResponse(content), more);
+    }
+
+    /**
+     * A model response as Ollama reports it: the text, the model name and the token usage.
+     */
+    private static org.springframework.ai.chat.model.ChatResponse modelResponse(String text) {
+        return new org.springframework.ai.chat.model.ChatResponse(
+                List.of(new Generation(new AssistantMessage(text))),
+                ChatResponseMetadata.builder().model("llama3.2").usage(new DefaultUsage(30, 12)).build());
+    }
     
     /**
      * Creates a valid GenerateRequest for testing
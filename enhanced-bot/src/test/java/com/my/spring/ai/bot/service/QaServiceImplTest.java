@@ -1,9 +1,12 @@
 package com.my.spring.ai.bot.service;
 
+import com.my.spring.ai.bot.admission.AdmissionControl;
+import com.my.spring.ai.bot.config.AdmissionControlProperties;
 import com.my.spring.ai.bot.config.ApplicationContextHolder;
 import com.my.spring.ai.bot.dto.AnswerResponse;
 import com.my.spring.ai.bot.exception.TextGenerationException;
 import com.my.spring.ai.bot.service.impl.QaServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -13,8 +16,16 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.ai.chat.client.ChatClient;
 import org.springframework.ai.chat.client.ChatClient.ChatClientRequestSpec;
 import org.springframework.ai.chat.client.ChatClient.CallResponseSpec;
+import org.springframework.ai.chat.client.advisor.QuestionAnswerAdvisor;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.metadata.ChatResponseMetadata;
+import org.springframework.ai.chat.metadata.DefaultUsage;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.model.Generation;
 import org.springframework.ai.vectorstore.VectorStore;
 
+import java.util.List;
+
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyList;
@@ -52,11 +63,12 @@ class QaServiceImplTest {
     @BeforeEach
     void setUp() {
         // Create the service with mocked dependencies
-        qaService = new QaServiceImpl(context, chatClientBuilder);
+        qaService = new QaServiceImpl(context, chatClientBuilder,
+                new AdmissionControl(new AdmissionControlProperties(), new SimpleMeterRegistry()));
 
         // Mock the ChatClient.Builder to return the mocked ChatClient
         // Using lenient() to avoid strict stubbing issues since defaultAdvisors has multiple overloads
-        lenient().when(chatClientBuilder.defaultAdvisors(any(), any())).thenReturn(chatClientBuilder);
+        lenient().when(chatClientBuilder.defaultAdvisors(any(QuestionAnswerAdvisor.class))).thenReturn(chatClientBuilder);
         lenient().when(chatClientBuilder.defaultAdvisors(anyList())).thenReturn(chatClientBuilder);
         lenient().when(context.getBean(eq(VectorStore.class))).thenReturn(vectorStore);
 
@@ -94,7 +106,7 @@ class QaServiceImplTest {
         when(chatClient.prompt()).thenReturn(requestSpec);
         when(requestSpec.user(question)).thenReturn(userSpec);
         when(userSpec.call()).thenReturn(responseSpec);
-        when(responseSpec.content()).thenReturn(null);
+        when(responseSpec.chatResponse()).thenReturn(null);
 
         AnswerResponse response = qaService.getAnswer(question);
         assertNull(response.getAnswer(), "Should return null if content is null");
@@ -107,7 +119,7 @@ class QaServiceImplTest {
         when(chatClient.prompt()).thenReturn(requestSpec);
         when(requestSpec.user(anyString())).thenReturn(userSpec);
         when(userSpec.call()).thenReturn(responseSpec);
-        when(responseSpec.content()).thenReturn("answer");
+        when(responseSpec.chatResponse()).thenReturn(modelResponse("answer"));
 
         AnswerResponse response1 = qaService.getAnswer("Question 1?");
         AnswerResponse response2 = qaService.getAnswer("Question 2?");
@@ -130,7 +142,7 @@ class QaServiceImplTest {
         when(chatClient.prompt()).thenReturn(requestSpec);
         when(requestSpec.user(question)).thenReturn(userSpec);
         when(userSpec.call()).thenReturn(responseSpec);
-        when(responseSpec.content()).thenReturn(expectedAnswer);
+        when(responseSpec.chatResponse()).thenReturn(modelResponse(expectedAnswer));
 
         // When: Getting answer for the question
         AnswerResponse response = qaService.getAnswer(question);
@@ -139,12 +151,14 @@ class QaServiceImplTest {
         assertNotNull(response, "Response should not be null");
         assertNotNull(response.getAnswer(), "Answer should not be null");
         assertEquals(expectedAnswer, response.getAnswer(), "Answer should match expected value");
+        assertEquals("llama3.2", response.getModel(), "Model should come from the response metadata");
+        assertEquals(42, response.getTokensUsed(), "Tokens should be prompt plus completion tokens");
 
         // Verify the ChatClient was called with correct parameters
         verify(chatClient, times(1)).prompt();
         verify(requestSpec, times(1)).user(question);
         verify(userSpec, times(1)).call();
-        verify(responseSpec, times(1)).content();
+        verify(responseSpec, times(1)).chatResponse();
     }
 
     @Test
@@ -189,7 +203,7 @@ class QaServiceImplTest {
         verify(chatClient, times(1)).prompt();
         verify(requestSpec, times(1)).user(question);
         verify(userSpec, times(1)).call();
-        verify(responseSpec, never()).content(); // Should not reach content() call
+        verify(responseSpec, never()).chatResponse(); // Should not reach chatResponse() call
     }
 
     @Test
@@ -205,7 +219,7 @@ class QaServiceImplTest {
         when(chatClient.prompt()).thenReturn(requestSpec);
         when(requestSpec.user(longQuestion)).thenReturn(userSpec);
         when(userSpec.call()).thenReturn(responseSpec);
-        when(responseSpec.content()).thenReturn(answer);
+        when(responseSpec.chatResponse()).thenReturn(modelResponse(answer));
 
         // When: Getting answer for long question
         AnswerResponse response = qaService.getAnswer(longQuestion);
@@ -230,7 +244,7 @@ class QaServiceImplTest {
         when(chatClient.prompt()).thenReturn(requestSpec);
         when(requestSpec.user(questionWithSpecialChars)).thenReturn(userSpec);
         when(userSpec.call()).thenReturn(responseSpec);
-        when(responseSpec.content()).thenReturn(answer);
+        when(responseSpec.chatResponse()).thenReturn(modelResponse(answer));
 
         // When: Getting answer for question with special characters
         AnswerResponse response = qaService.getAnswer(questionWithSpecialChars);
@@ -242,4 +256,12 @@ class QaServiceImplTest {
         // Verify the question with special characters was processed
         verify(requestSpec, times(1)).user(questionWithSpecialChars);
     }
-}
\ No newline at end of file
+
+    /**
+     * A model response as Ollama reports it: the text, the model name and the token usage.
+     */
+    private static ChatResponse modelResponse(String text) {
+        return new ChatResponse(List.of(new Generation(new AssistantMessage(text))),
+                ChatResponseMetadata.builder().model("llama3.2").usage(new DefaultUsage(30, 12)).build());
+    }
+}
@@ -1,9 +1,12 @@
 package com.my.spring.ai.bot.service;
 
+import com.my.spring.ai.bot.admission.AdmissionControl;
+import com.my.spring.ai.bot.config.AdmissionControlProperties;
 import com.my.spring.ai.bot.dto.AudioResponse;
 import com.my.spring.ai.bot.exception.SpeechGenerationException;
 import com.my.spring.ai.bot.exception.TextGenerationException;
 import com.my.spring.ai.bot.service.impl.VoicePipelineServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -33,7 +36,8 @@ class VoicePipelineServiceImplTest {
         voicePipelineService = new VoicePipelineServiceImpl(
                 chatService,
                 speechToTextService,
-                textToSpeechService
+                textToSpeechService,
+                new AdmissionControl(new AdmissionControlProperties(), new SimpleMeterRegistry())
         );
     }
 
@@ -0,0 +1,254 @@
+package com.my.spring.ai.bot.session;
+
+import com.my.spring.ai.bot.config.RequestDeadlineProperties;
+import com.my.spring.ai.bot.config.SessionMailboxProperties;
+import com.my.spring.ai.bot.deadline.RequestDeadlines;
+import com.my.spring.ai.bot.exception.DeadlineExceededException;
+import com.my.spring.ai.bot.exception.RequestCancelledException;
+import com.my.spring.ai.bot.exception.SupersededMessageException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for SessionMailbox.
+ */
+class SessionMailboxTest {
+
+    private SessionMailboxProperties properties;
+    private SimpleMeterRegistry meterRegistry;
+    private SessionMailbox mailbox;
+    private ExecutorService executor;
+
+    @BeforeEach
+    void setUp() {
+        properties = new SessionMailboxProperties();
+        meterRegistry = new SimpleMeterRegistry();
+        mailbox = new SessionMailbox(properties, meterRegistry);
+        executor = Executors.newCachedThreadPool();
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("Turns of one session run one at a time in arrival order")
+    void submit_sameSession_shouldRunInOrder() throws Exception {
+        List<String> order = new CopyOnWriteArrayList<>();
+        CountDownLatch release = new CountDownLatch(1);
+
+        Future<String> first = executor.submit(() -> mailbox.submit("s1", () -> {
+            order.add("first");
+            await(release);
+            return "first";
+        }));
+        awaitTrue(() -> order.contains("first"));
+        Future<String> second = executor.submit(() -> mailbox.submit("s1", () -> record(order, "second")));
+        awaitTrue(() -> queued() == 1);
+        Future<String> third = executor.submit(() -> mailbox.submit("s1", () -> record(order, "third")));
+        awaitTrue(() -> queued() == 2);
+
+        // Nothing queued may start while the first turn is running
+        assertEquals(List.of("first"), order);
+        release.countDown();
+
+        assertEquals("first", first.get(5, TimeUnit.SECONDS));
+        assertEquals("second", second.get(5, TimeUnit.SECONDS));
+        assertEquals("third", third.get(5, TimeUnit.SECONDS));
+        assertEquals(List.of("first", "second", "third"), order);
+        assertEquals(3, meterRegistry.get("chat.session.mailbox.wait").timer().count());
+        assertEquals(0.0, meterRegistry.get("chat.session.mailbox.sessions").gauge().value());
+    }
+
+    @Test
+    @DisplayName("Different sessions run in parallel")
+    void submit_differentSessions_shouldRunConcurrently() throws Exception {
+        CountDownLatch bothRunning = new CountDownLatch(2);
+
+        Future<Boolean> a = executor.submit(() -> mailbox.submit("a", () -> {
+            bothRunning.countDown();
+            return await(bothRunning);
+        }));
+        Future<Boolean> b = executor.submit(() -> mailbox.submit("b", () -> {
+            bothRunning.countDown();
+            return await(bothRunning);
+        }));
+
+        assertTrue(a.get(5, TimeUnit.SECONDS));
+        assertTrue(b.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    @DisplayName("Latest wins drops queued messages overtaken by a newer one")
+    void submit_latestWins_shouldDropSupersededMessages() throws Exception {
+        properties.setPolicy(SessionMailboxProperties.Policy.LATEST_WINS);
+        meterRegistry = new SimpleMeterRegistry();
+        mailbox = new SessionMailbox(properties, meterRegistry);
+        List<String> order = new CopyOnWriteArrayList<>();
+        CountDownLatch release = new CountDownLatch(1);
+
+        Future<String> running = executor.submit(() -> mailbox.submit("s1", () -> {
+            order.add("running");
+            await(release);
+            return "running";
+        }));
+        awaitTrue(() -> order.contains("running"));
+        Future<String> stale = executor.submit(() -> mailbox.submit("s1", () -> record(order, "stale")));
+        awaitTrue(() -> queued() == 1);
+        Future<String> latest = executor.submit(() -> mailbox.submit("s1", () -> record(order, "latest")));
+        awaitTrue(() -> queued() == 2);
+        release.countDown();
+
+        // The message already running is never dropped
+        assertEquals("running", running.get(5, TimeUnit.SECONDS));
+        Exception e = assertThrows(Exception.class, () -> stale.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(SupersededMessageException.class, e.getCause());
+        assertEquals("latest", latest.get(5, TimeUnit.SECONDS));
+        assertEquals(List.of("running", "latest"), order);
+        assertEquals(1.0, meterRegistry.get("chat.session.mailbox.superseded").counter().count());
+    }
+
+    @Test
+    @DisplayName("A failing turn still lets the next one run")
+    void submit_failingTurn_shouldReleaseSession() {
+        assertThrows(IllegalStateException.class, () -> mailbox.submit("s1", () -> {
+            throw new IllegalStateException("model failed");
+        }));
+
+        assertEquals("next", mailbox.submit("s1", () -> "next"));
+        assertEquals(0.0, meterRegistry.get("chat.session.mailbox.sessions").gauge().value());
+    }
+
+    @Test
+    @DisplayName("An interrupted waiter leaves the queue and the turns behind it still run")
+    void enter_interruptedWhileWaiting_shouldThrowAndHandOn() throws Exception {
+        List<String> order = new CopyOnWriteArrayList<>();
+        CountDownLatch release = new CountDownLatch(1);
+
+        Future<String> first = executor.submit(() -> mailbox.submit("s1", () -> {
+            order.add("first");
+            await(release);
+            return "first";
+        }));
+        awaitTrue(() -> order.contains("first"));
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        Thread cancelled = new Thread(() -> {
+            try {
+                mailbox.submit("s1", () -> record(order, "cancelled"));
+            } catch (RuntimeException e) {
+                failure.set(e);
+            }
+        });
+        cancelled.start();
+        awaitTrue(() -> queued() == 1);
+        Future<String> third = executor.submit(() -> mailbox.submit("s1", () -> record(order, "third")));
+        awaitTrue(() -> queued() == 2);
+
+        cancelled.interrupt();
+        cancelled.join(5_000);
+        assertInstanceOf(RequestCancelledException.class, failure.get());
+        assertEquals(1.0, queued());
+        release.countDown();
+
+        assertEquals("first", first.get(5, TimeUnit.SECONDS));
+        assertEquals("third", third.get(5, TimeUnit.SECONDS));
+        assertEquals(List.of("first", "third"), order);
+        assertEquals(0.0, meterRegistry.get("chat.session.mailbox.sessions").gauge().value());
+    }
+
+    @Test
+    @DisplayName("A waiter whose deadline passes fails with DeadlineExceededException")
+    void enter_deadlinePassesWhileWaiting_shouldThrow() throws Exception {
+        RequestDeadlines requestDeadlines = new RequestDeadlines(new RequestDeadlineProperties(), new SimpleMeterRegistry());
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch running = new CountDownLatch(1);
+        try {
+            Future<String> first = executor.submit(() -> mailbox.submit("s1", () -> {
+                running.countDown();
+                await(release);
+                return "first";
+            }));
+            assertTrue(await(running));
+            Future<String> late = executor.submit(() -> {
+                try (RequestDeadlines.Scope ignored = requestDeadlines.enter(requestDeadlines.resolve("chat", "100ms"))) {
+                    return mailbox.submit("s1", () -> "late");
+                }
+            });
+
+            ExecutionException e = assertThrows(ExecutionException.class, () -> late.get(5, TimeUnit.SECONDS));
+            assertInstanceOf(DeadlineExceededException.class, e.getCause());
+            assertEquals(0.0, queued());
+
+            release.countDown();
+            assertEquals("first", first.get(5, TimeUnit.SECONDS));
+            assertEquals("next", mailbox.submit("s1", () -> "next"));
+        } finally {
+            requestDeadlines.destroy();
+        }
+    }
+
+    @Test
+    @DisplayName("When disabled, turns of one session run concurrently")
+    void submit_disabled_shouldNotSerialize() throws Exception {
+        properties.setEnabled(false);
+        mailbox = new SessionMailbox(properties, new SimpleMeterRegistry());
+        CountDownLatch bothRunning = new CountDownLatch(2);
+
+        Future<Boolean> a = executor.submit(() -> mailbox.submit("s1", () -> {
+            bothRunning.countDown();
+            return await(bothRunning);
+        }));
+        Future<Boolean> b = executor.submit(() -> mailbox.submit("s1", () -> {
+            bothRunning.countDown();
+            return await(bothRunning);
+        }));
+
+        assertTrue(a.get(5, TimeUnit.SECONDS));
+        assertTrue(b.get(5, TimeUnit.SECONDS));
+    }
+
+    private double queued() {
+        return meterRegistry.get("chat.session.mailbox.queued").gauge().value();
+    }
+
+    private static String record(List<String> order, String name) {
+        order.add(name);
+        return name;
+    }
+
+    private static boolean await(CountDownLatch latch) {
+        try {
+            return latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private static void awaitTrue(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            if (System.nanoTime() > deadline) {
+                fail("Condition not met within 5s");
+            }
+            Thread.sleep(5);
+        }
+    }
+}
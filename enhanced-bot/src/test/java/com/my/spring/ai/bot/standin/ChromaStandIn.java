@@ -0,0 +1,211 @@
+package com.my.spring.ai.bot.standin;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.sun.net.httpserver.HttpExchange;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Stands in for Chroma's v1 REST API as used by {@code ChromaVectorStore}: collections, upsert, delete,
+ * count, get and query.
+ *
+ * Collections live in memory and queries are exact cosine searches over every entry. Metadata filters
+ * ({@code where}) are accepted but not applied.
+ */
+public class ChromaStandIn extends StandInServer {
+
+    private static final String COLLECTIONS = "/api/v1/collections";
+
+    private final Map<String, Collection> collectionsByName = new ConcurrentHashMap<>();
+    private final Map<String, Collection> collectionsById = new ConcurrentHashMap<>();
+
+    private record Entry(String id, float[] embedding, String document, Map<String, Object> metadata) {
+    }
+
+    private record Collection(String id, String name, Map<String, Object> metadata, Map<String, Entry> entries) {
+
+        Map<String, Object> toJson() {
+            Map<String, Object> json = new LinkedHashMap<>();
+            json.put("id", id);
+            json.put("name", name);
+            json.put("metadata", metadata);
+            return json;
+        }
+    }
+
+    public ChromaStandIn(StandInProfile profile) {
+        super("chroma", profile);
+        route("/api/v1/heartbeat", exchange -> sendJson(exchange, 200, Map.of("nanosecond heartbeat", System.nanoTime())));
+        route(COLLECTIONS, this::collections);
+    }
+
+    /**
+     * Number of entries in the named collection, 0 when it does not exist.
+     */
+    public int size(String collectionName) {
+        Collection collection = collectionsByName.get(collectionName);
+        return collection == null ? 0 : collection.entries().size();
+    }
+
+    private void collections(HttpExchange exchange) throws IOException {
+        String method = exchange.getRequestMethod();
+        String[] path = exchange.getRequestURI().getPath().substring(COLLECTIONS.length()).split("/");
+        // path[0] is empty; path[1] the collection name or id; path[2] the operation
+        if (path.length <= 1) {
+            if ("POST".equals(method)) {
+                createCollection(exchange);
+            } else {
+                sendJson(exchange, 200, collectionsByName.values().stream().map(Collection::toJson).toList());
+            }
+            return;
+        }
+        if (path.length == 2) {
+            if ("DELETE".equals(method)) {
+                Collection removed = collectionsByName.remove(path[1]);
+                if (removed != null) {
+                    collectionsById.remove(removed.id());
+                }
+                sendJson(exchange, 200, Map.of());
+            } else {
+                Collection collection = collectionsByName.get(path[1]);
+                if (collection == null) {
+                    notFound(exchange, path[1]);
+                } else {
+                    sendJson(exchange, 200, collection.toJson());
+                }
+            }
+            return;
+        }
+        Collection collection = collectionsById.get(path[1]);
+        if (collection == null) {
+            notFound(exchange, path[1]);
+            return;
+        }
+        switch (path[2]) {
+            case "add", "upsert" -> upsert(exchange, collection);
+            case "delete" -> delete(exchange, collection);
+            case "count" -> sendJson(exchange, 200, collection.entries().size());
+            case "get" -> get(exchange, collection);
+            case "query" -> query(exchange, collection);
+            default -> sendJson(exchange, 404, Map.of("error", "Unknown operation " + path[2]));
+        }
+    }
+
+    private void createCollection(HttpExchange exchange) throws IOException {
+        JsonNode request = readJson(exchange);
+        String name = request.path("name").asText();
+        @SuppressWarnings("unchecked")
+        Map<String, Object> metadata = request.hasNonNull("metadata")
+                ? objectMapper.convertValue(request.get("metadata"), Map.class) : null;
+        Collection collection = collectionsByName.computeIfAbsent(name, n -> {
+            Collection created = new Collection(UUID.randomUUID().toString(), n, metadata, new ConcurrentHashMap<>());
+            collectionsById.put(created.id(), created);
+            return created;
+        });
+        sendJson(exchange, 200, collection.toJson());
+    }
+
+    private void upsert(HttpExchange exchange, Collection collection) throws IOException {
+        JsonNode request = readJson(exchange);
+        JsonNode ids = request.path("ids");
+        for (int i = 0; i < ids.size(); i++) {
+            String id = ids.get(i).asText();
+            float[] embedding = objectMapper.convertValue(request.path("embeddings").get(i), float[].class);
+            String document = request.path("documents").path(i).asText(null);
+            @SuppressWarnings("unchecked")
+            Map<String, Object> metadata = objectMapper.convertValue(request.path("metadatas").path(i), Map.class);
+            collection.entries().put(id, new Entry(id, embedding, document, metadata));
+        }
+        sendJson(exchange, 200, true);
+    }
+
+    private void delete(HttpExchange exchange, Collection collection) throws IOException {
+        JsonNode request = readJson(exchange);
+        List<String> deleted = new ArrayList<>();
+        for (JsonNode id : request.path("ids")) {
+            if (collection.entries().remove(id.asText()) != null) {
+                deleted.add(id.asText());
+            }
+        }
+        sendJson(exchange, 200, deleted);
+    }
+
+    private void get(HttpExchange exchange, Collection collection) throws IOException {
+        JsonNode request = readJson(exchange);
+        List<Entry> found = new ArrayList<>();
+        if (request.path("ids").isArray() && !request.path("ids").isEmpty()) {
+            for (JsonNode id : request.path("ids")) {
+                Entry entry = collection.entries().get(id.asText());
+                if (entry != null) {
+                    found.add(entry);
+                }
+            }
+        } else {
+            found.addAll(collection.entries().values());
+        }
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("ids", found.stream().map(Entry::id).toList());
+        response.put("embeddings", found.stream().map(Entry::embedding).toList());
+        response.put("documents", found.stream().map(Entry::document).toList());
+        response.put("metadatas", found.stream().map(Entry::metadata).toList());
+        sendJson(exchange, 200, response);
+    }
+
+    private void query(HttpExchange exchange, Collection collection) throws IOException {
+        JsonNode request = readJson(exchange);
+        int limit = request.path("n_results").asInt(10);
+        List<List<String>> ids = new ArrayList<>();
+        List<List<float[]>> embeddings = new ArrayList<>();
+        List<List<String>> documents = new ArrayList<>();
+        List<List<Map<String, Object>>> metadatas = new ArrayList<>();
+        List<List<Double>> distances = new ArrayList<>();
+        for (JsonNode queryNode : request.path("query_embeddings")) {
+            float[] query = objectMapper.convertValue(queryNode, float[].class);
+            List<Map.Entry<Entry, Double>> nearest = collection.entries().values().stream()
+                    .map(entry -> Map.entry(entry, cosineDistance(query, entry.embedding())))
+                    .sorted(Comparator.comparingDouble(Map.Entry::getValue))
+                    .limit(limit)
+                    .toList();
+            ids.add(nearest.stream().map(e -> e.getKey().id()).toList());
+            embeddings.add(nearest.stream().map(e -> e.getKey().embedding()).toList());
+            documents.add(nearest.stream().map(e -> e.getKey().document()).toList());
+            metadatas.add(nearest.stream().map(e -> e.getKey().metadata()).toList());
+            distances.add(nearest.stream().map(Map.Entry::getValue).toList());
+        }
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("ids", ids);
+        response.put("embeddings", embeddings);
+        response.put("documents", documents);
+        response.put("metadatas", metadatas);
+        response.put("distances", distances);
+        sendJson(exchange, 200, response);
+    }
+
+    private void notFound(HttpExchange exchange, String collection) throws IOException {
+        // Chroma 0.5 answers 400 with the reason in "message", which is what ChromaApi matches on
+        sendJson(exchange, 400, Map.of("error", "InvalidCollection",
+                "message", "Collection " + collection + " does not exist."));
+    }
+
+    private static double cosineDistance(float[] a, float[] b) {
+        if (a == null || b == null || a.length != b.length) {
+            return 2;
+        }
+        double dot = 0;
+        double normA = 0;
+        double normB = 0;
+        for (int i = 0; i < a.length; i++) {
+            dot += a[i] * b[i];
+            normA += a[i] * a[i];
+            normB += b[i] * b[i];
+        }
+        return normA == 0 || normB == 0 ? 1 : 1 - dot / Math.sqrt(normA * normB);
+    }
+}
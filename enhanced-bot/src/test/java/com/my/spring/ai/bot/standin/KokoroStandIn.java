@@ -0,0 +1,42 @@
+package com.my.spring.ai.bot.standin;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.sun.net.httpserver.HttpExchange;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Stands in for Kokoro's OpenAI-compatible {@code /v1/audio/speech}.
+ *
+ * Answers with {@value #BYTES_PER_CHARACTER} bytes of noise per input character behind an ID3 header,
+ * about the size of 128 kbit/s MP3 speech, after taking as long as the input's words take at the
+ * profile's token rate.
+ */
+public class KokoroStandIn extends StandInServer {
+
+    public static final int BYTES_PER_CHARACTER = 1_000;
+
+    public KokoroStandIn(StandInProfile profile) {
+        super("kokoro", profile);
+        route("/v1/audio/speech", this::speech);
+    }
+
+    private void speech(HttpExchange exchange) throws IOException, InterruptedException {
+        JsonNode request = readJson(exchange);
+        String input = request.path("input").asText("");
+        if (input.isBlank()) {
+            sendJson(exchange, 422, Map.of("detail", "input must not be empty"));
+            return;
+        }
+        generate(input.split("\\s+").length);
+
+        byte[] audio = new byte[Math.max(16, input.length() * BYTES_PER_CHARACTER)];
+        ThreadLocalRandom.current().nextBytes(audio);
+        audio[0] = 'I';
+        audio[1] = 'D';
+        audio[2] = '3';
+        send(exchange, 200, "audio/mpeg", audio);
+    }
+}
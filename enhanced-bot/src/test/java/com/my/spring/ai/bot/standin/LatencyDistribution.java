@@ -0,0 +1,76 @@
+package com.my.spring.ai.bot.standin;
+
+import org.springframework.boot.convert.DurationStyle;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * How long a stand-in server waits before it answers.
+ *
+ * Specs as accepted by {@link #parse(String)}:
+ * <ul>
+ *     <li>{@code 0} or {@code 150ms}: always the same delay</li>
+ *     <li>{@code uniform:50ms..300ms}: uniformly between the two bounds</li>
+ *     <li>{@code lognormal:400ms..3s}: log-normal with the given median and 99th percentile, the long-tailed
+ *     shape of real model latencies</li>
+ * </ul>
+ */
+@FunctionalInterface
+public interface LatencyDistribution {
+
+    // 99th percentile of the standard normal distribution
+    double Z_99 = 2.326;
+
+    Duration sample();
+
+    static LatencyDistribution none() {
+        return () -> Duration.ZERO;
+    }
+
+    static LatencyDistribution fixed(Duration delay) {
+        return () -> delay;
+    }
+
+    static LatencyDistribution uniform(Duration min, Duration max) {
+        long minNanos = min.toNanos();
+        long maxNanos = max.toNanos();
+        if (maxNanos < minNanos) {
+            throw new IllegalArgumentException("Uniform latency needs min <= max: " + min + ".." + max);
+        }
+        return () -> Duration.ofNanos(minNanos + (long) (ThreadLocalRandom.current().nextDouble() * (maxNanos - minNanos)));
+    }
+
+    static LatencyDistribution logNormal(Duration median, Duration p99) {
+        if (median.isZero() || median.isNegative() || p99.compareTo(median) < 0) {
+            throw new IllegalArgumentException("Log-normal latency needs 0 < median <= p99: " + median + ".." + p99);
+        }
+        double mu = Math.log(median.toNanos());
+        double sigma = Math.log((double) p99.toNanos() / median.toNanos()) / Z_99;
+        return () -> Duration.ofNanos((long) Math.exp(mu + sigma * ThreadLocalRandom.current().nextGaussian()));
+    }
+
+    static LatencyDistribution parse(String spec) {
+        String value = spec.trim();
+        int colon = value.indexOf(':');
+        if (colon < 0) {
+            Duration delay = duration(value);
+            return delay.isZero() ? none() : fixed(delay);
+        }
+        String kind = value.substring(0, colon);
+        String[] bounds = value.substring(colon + 1).split("\\.\\.");
+        if (bounds.length != 2) {
+            throw new IllegalArgumentException("Latency '" + spec + "' needs two bounds, e.g. " + kind + ":50ms..300ms");
+        }
+        return switch (kind) {
+            case "uniform" -> uniform(duration(bounds[0]), duration(bounds[1]));
+            case "lognormal" -> logNormal(duration(bounds[0]), duration(bounds[1]));
+            default -> throw new IllegalArgumentException("Unknown latency distribution '" + kind + "' in '" + spec + "'");
+        };
+    }
+
+    private static Duration duration(String value) {
+        String trimmed = value.trim();
+        return "0".equals(trimmed) ? Duration.ZERO : DurationStyle.detectAndParse(trimmed);
+    }
+}
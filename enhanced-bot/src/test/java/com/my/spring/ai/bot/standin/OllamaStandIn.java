@@ -0,0 +1,137 @@
+package com.my.spring.ai.bot.standin;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.sun.net.httpserver.HttpExchange;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Stands in for Ollama: {@code /api/chat} (blocking and NDJSON streaming), {@code /api/embed} and {@code /api/tags}.
+ *
+ * Replies are {@code replyTokens} words of canned text; a streamed reply sends one word per chunk at the
+ * profile's token rate and reports token counts on the final chunk, as Ollama does. Embeddings are
+ * deterministic bags of hashed words, so texts sharing words are close to each other.
+ */
+public class OllamaStandIn extends StandInServer {
+
+    public static final int EMBEDDING_DIMENSIONS = 768;
+
+    private static final String[] REPLY_WORDS = (
+            "Spring Boot makes it easy to create stand-alone production-grade applications that you can just run "
+                    + "with sensible defaults embedded servers and no code generation so most applications need very "
+                    + "little configuration").split(" ");
+
+    public OllamaStandIn(StandInProfile profile) {
+        super("ollama", profile);
+        route("/api/chat", this::chat);
+        route("/api/embed", this::embed);
+        route("/api/tags", exchange -> sendJson(exchange, 200, Map.of("models", List.of())));
+    }
+
+    private void chat(HttpExchange exchange) throws IOException, InterruptedException {
+        JsonNode request = readJson(exchange);
+        String model = request.path("model").asText("stand-in");
+        int promptTokens = 0;
+        for (JsonNode message : request.path("messages")) {
+            promptTokens += estimateTokens(message.path("content").asText(""));
+        }
+        int replyTokens = getProfile().getReplyTokens();
+        long start = System.nanoTime();
+
+        if (!request.path("stream").asBoolean(false)) {
+            generate(replyTokens);
+            StringBuilder content = new StringBuilder();
+            for (int i = 0; i < replyTokens; i++) {
+                content.append(i == 0 ? "" : " ").append(word(i));
+            }
+            sendJson(exchange, 200, chunk(model, content.toString(), true, promptTokens, replyTokens, System.nanoTime() - start));
+            return;
+        }
+
+        exchange.getResponseHeaders().set("Content-Type", "application/x-ndjson");
+        exchange.sendResponseHeaders(200, 0);
+        try (OutputStream out = exchange.getResponseBody()) {
+            for (int i = 0; i < replyTokens; i++) {
+                generate(1);
+                writeLine(out, chunk(model, (i == 0 ? "" : " ") + word(i), false, 0, 0, 0));
+            }
+            writeLine(out, chunk(model, "", true, promptTokens, replyTokens, System.nanoTime() - start));
+        }
+    }
+
+    private void embed(HttpExchange exchange) throws IOException {
+        JsonNode request = readJson(exchange);
+        JsonNode input = request.path("input");
+        List<float[]> embeddings = new ArrayList<>();
+        if (input.isArray()) {
+            input.forEach(text -> embeddings.add(embedding(text.asText())));
+        } else {
+            embeddings.add(embedding(input.asText()));
+        }
+        sendJson(exchange, 200, Map.of("model", request.path("model").asText("stand-in"), "embeddings", embeddings));
+    }
+
+    /**
+     * The embedding this stand-in returns for the text.
+     */
+    public static float[] embedding(String text) {
+        float[] vector = new float[EMBEDDING_DIMENSIONS];
+        for (String word : text.toLowerCase().split("\\W+")) {
+            if (!word.isEmpty()) {
+                vector[Math.floorMod(word.hashCode(), EMBEDDING_DIMENSIONS)] += 1;
+            }
+        }
+        double norm = 0;
+        for (float v : vector) {
+            norm += v * v;
+        }
+        if (norm == 0) {
+            vector[0] = 1;
+            return vector;
+        }
+        float scale = (float) (1 / Math.sqrt(norm));
+        for (int i = 0; i < vector.length; i++) {
+            vector[i] *= scale;
+        }
+        return vector;
+    }
+
+    private static Map<String, Object> chunk(String model, String content, boolean done,
+                                             int promptTokens, int completionTokens, long durationNanos) {
+        Map<String, Object> chunk = new LinkedHashMap<>();
+        chunk.put("model", model);
+        chunk.put("created_at", Instant.now().toString());
+        chunk.put("message", Map.of("role", "assistant", "content", content));
+        chunk.put("done", done);
+        if (done) {
+            chunk.put("done_reason", "stop");
+            chunk.put("total_duration", durationNanos);
+            chunk.put("load_duration", 0);
+            chunk.put("prompt_eval_count", promptTokens);
+            chunk.put("prompt_eval_duration", 0);
+            chunk.put("eval_count", completionTokens);
+            chunk.put("eval_duration", durationNanos);
+        }
+        return chunk;
+    }
+
+    private void writeLine(OutputStream out, Object chunk) throws IOException {
+        out.write(objectMapper.writeValueAsBytes(chunk));
+        out.write('\n');
+        out.flush();
+    }
+
+    private static String word(int i) {
+        return REPLY_WORDS[i % REPLY_WORDS.length];
+    }
+
+    static int estimateTokens(String text) {
+        return text.isEmpty() ? 0 : Math.max(1, text.length() / 4);
+    }
+}
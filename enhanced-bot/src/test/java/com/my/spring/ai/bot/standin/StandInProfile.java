@@ -0,0 +1,54 @@
+package com.my.spring.ai.bot.standin;
+
+import lombok.Data;
+
+/**
+ * Behaviour of a stand-in server: how long it takes to answer, how fast it produces tokens and how often it fails.
+ */
+@Data
+public class StandInProfile {
+
+    /**
+     * Delay before the first byte of every answer.
+     */
+    private LatencyDistribution latency = LatencyDistribution.none();
+
+    /**
+     * Generation speed in tokens per second, 0 for no pacing. Ollama streams one token per chunk at this rate,
+     * Whisper and Kokoro take as long as producing their output at this rate would.
+     */
+    private double tokensPerSecond = 0;
+
+    /**
+     * Length of a generated reply or transcript, in tokens.
+     */
+    private int replyTokens = 40;
+
+    /**
+     * Fraction of requests answered with {@link #errorStatus} instead, between 0 and 1.
+     */
+    private double errorRate = 0;
+
+    /**
+     * Status of injected failures.
+     */
+    private int errorStatus = 500;
+
+    /**
+     * Reads {@code standin.<name>.latency}, {@code .tokens-per-second}, {@code .reply-tokens},
+     * {@code .error-rate} and {@code .error-status} from the system properties, with the defaults above.
+     */
+    public static StandInProfile fromSystemProperties(String name) {
+        String prefix = "standin." + name + ".";
+        StandInProfile profile = new StandInProfile();
+        String latency = System.getProperty(prefix + "latency");
+        if (latency != null) {
+            profile.setLatency(LatencyDistribution.parse(latency));
+        }
+        profile.setTokensPerSecond(Double.parseDouble(System.getProperty(prefix + "tokens-per-second", "0")));
+        profile.setReplyTokens(Integer.getInteger(prefix + "reply-tokens", profile.getReplyTokens()));
+        profile.setErrorRate(Double.parseDouble(System.getProperty(prefix + "error-rate", "0")));
+        profile.setErrorStatus(Integer.getInteger(prefix + "error-status", profile.getErrorStatus()));
+        return profile;
+    }
+}
@@ -0,0 +1,178 @@
+package com.my.spring.ai.bot.standin;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-process HTTP server on a free loopback port, standing in for one of the model servers in load tests.
+ *
+ * Every request first rolls for an injected failure, then waits for the profile's latency, then is answered
+ * by the route. The profile can be swapped while the server runs.
+ */
+@Slf4j
+public abstract class StandInServer implements AutoCloseable {
+
+    protected final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final String name;
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private volatile StandInProfile profile;
+
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong injectedErrors = new AtomicLong();
+
+    protected StandInServer(String name, StandInProfile profile) {
+        this.name = name;
+        this.profile = profile;
+        try {
+            this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not open the " + name + " stand-in", e);
+        }
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = Executors.newCachedThreadPool(r -> {
+            Thread thread = new Thread(r, name + "-standin-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.server.setExecutor(executor);
+    }
+
+    @FunctionalInterface
+    protected interface Route {
+        void handle(HttpExchange exchange) throws IOException, InterruptedException;
+    }
+
+    /**
+     * Serves every path under {@code path} with the route.
+     */
+    protected void route(String path, Route route) {
+        server.createContext(path, exchange -> {
+            requests.incrementAndGet();
+            try {
+                StandInProfile current = profile;
+                if (current.getErrorRate() > 0 && ThreadLocalRandom.current().nextDouble() < current.getErrorRate()) {
+                    injectedErrors.incrementAndGet();
+                    sendJson(exchange, current.getErrorStatus(), Map.of("error", "injected " + name + " failure"));
+                    return;
+                }
+                pause(current.getLatency().sample());
+                route.handle(exchange);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (Exception e) {
+                log.warn("{} stand-in failed on {}", name, exchange.getRequestURI(), e);
+            } finally {
+                exchange.close();
+            }
+        });
+    }
+
+    public <T extends StandInServer> T start() {
+        server.start();
+        log.info("{} stand-in listening on {}", name, baseUrl());
+        @SuppressWarnings("unchecked")
+        T self = (T) this;
+        return self;
+    }
+
+    public String baseUrl() {
+        return "http://" + server.getAddress().getHostString() + ":" + server.getAddress().getPort();
+    }
+
+    public String host() {
+        return "http://" + server.getAddress().getHostString();
+    }
+
+    public int port() {
+        return server.getAddress().getPort();
+    }
+
+    public StandInProfile getProfile() {
+        return profile;
+    }
+
+    public void setProfile(StandInProfile profile) {
+        this.profile = profile;
+    }
+
+    public long requestCount() {
+        return requests.get();
+    }
+
+    public long injectedErrorCount() {
+        return injectedErrors.get();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    /**
+     * Waits as long as producing {@code tokens} tokens takes at the profile's token rate.
+     */
+    protected void generate(int tokens) throws InterruptedException {
+        double rate = profile.getTokensPerSecond();
+        if (rate > 0 && tokens > 0) {
+            pause(Duration.ofNanos((long) (tokens / rate * 1_000_000_000L)));
+        }
+    }
+
+    protected static void pause(Duration delay) throws InterruptedException {
+        if (!delay.isZero() && !delay.isNegative()) {
+            TimeUnit.NANOSECONDS.sleep(delay.toNanos());
+        }
+    }
+
+    protected JsonNode readJson(HttpExchange exchange) throws IOException {
+        try (InputStream body = exchange.getRequestBody()) {
+            return objectMapper.readTree(body);
+        }
+    }
+
+    protected static byte[] readBytes(HttpExchange exchange) throws IOException {
+        try (InputStream body = exchange.getRequestBody()) {
+            return body.readAllBytes();
+        }
+    }
+
+    protected void sendJson(HttpExchange exchange, int status, Object body) throws IOException {
+        send(exchange, status, "application/json", objectMapper.writeValueAsBytes(body));
+    }
+
+    protected static void sendText(HttpExchange exchange, int status, String body) throws IOException {
+        send(exchange, status, "text/plain; charset=utf-8", body.getBytes(StandardCharsets.UTF_8));
+    }
+
+    protected static void send(HttpExchange exchange, int status, String contentType, byte[] body) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", contentType);
+        exchange.sendResponseHeaders(status, body.length == 0 ? -1 : body.length);
+        if (body.length > 0) {
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        }
+    }
+}
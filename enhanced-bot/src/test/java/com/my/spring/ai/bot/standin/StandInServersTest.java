@@ -0,0 +1,70 @@
+package com.my.spring.ai.bot.standin;
+
+import com.my.spring.ai.bot.client.speech.KokoroTtsClient;
+import com.my.spring.ai.bot.config.CircuitBreakerProperties;
+import com.my.spring.ai.bot.config.KokoroTTSOptions;
+import com.my.spring.ai.bot.resilience.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.audio.transcription.AudioTranscriptionPrompt;
+import org.springframework.ai.openai.OpenAiAudioTranscriptionModel;
+import org.springframework.ai.openai.api.OpenAiAudioApi;
+import org.springframework.core.io.ByteArrayResource;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks that the stand-ins speak the protocols the real Spring AI clients expect.
+ */
+class StandInServersTest {
+
+    @Test
+    @DisplayName("Whisper stand-in transcribes uploads to the configured number of words")
+    void whisperTranscription() {
+        StandInProfile profile = new StandInProfile();
+        profile.setReplyTokens(5);
+        try (WhisperStandIn whisper = new WhisperStandIn(profile).start()) {
+            OpenAiAudioTranscriptionModel model = new OpenAiAudioTranscriptionModel(
+                    OpenAiAudioApi.builder().baseUrl(whisper.baseUrl()).apiKey("unused").build());
+
+            String text = model.call(new AudioTranscriptionPrompt(new ByteArrayResource(new byte[1024]) {
+                @Override
+                public String getFilename() {
+                    return "voice.wav";
+                }
+            })).getResult().getOutput();
+            assertEquals("what is a fun fact", text);
+        }
+    }
+
+    @Test
+    @DisplayName("Kokoro stand-in returns audio sized by the input")
+    void kokoroSpeech() {
+        try (KokoroStandIn kokoro = new KokoroStandIn(new StandInProfile()).start()) {
+            KokoroTtsClient client = new KokoroTtsClient(kokoro.baseUrl(),
+                    new CircuitBreakerRegistry(new CircuitBreakerProperties(), new SimpleMeterRegistry()));
+
+            byte[] audio = client.textToSpeech("Hello there", new KokoroTTSOptions());
+            assertEquals("Hello there".length() * KokoroStandIn.BYTES_PER_CHARACTER, audio.length);
+            assertEquals('I', audio[0]);
+        }
+    }
+
+    @Test
+    @DisplayName("Latency specs parse to fixed, uniform and log-normal distributions")
+    void latencySpecs() {
+        assertEquals(Duration.ZERO, LatencyDistribution.parse("0").sample());
+        assertEquals(Duration.ofMillis(150), LatencyDistribution.parse("150ms").sample());
+
+        for (int i = 0; i < 100; i++) {
+            Duration uniform = LatencyDistribution.parse("uniform:10ms..20ms").sample();
+            assertTrue(uniform.compareTo(Duration.ofMillis(10)) >= 0 && uniform.compareTo(Duration.ofMillis(20)) <= 0);
+            assertFalse(LatencyDistribution.parse("lognormal:10ms..100ms").sample().isNegative());
+        }
+        assertThrows(IllegalArgumentException.class, () -> LatencyDistribution.parse("uniform:20ms"));
+        assertThrows(IllegalArgumentException.class, () -> LatencyDistribution.parse("pareto:1ms..2ms"));
+    }
+}
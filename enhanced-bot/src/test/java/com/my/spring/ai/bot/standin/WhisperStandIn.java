@@ -0,0 +1,49 @@
+package com.my.spring.ai.bot.standin;
+
+import com.sun.net.httpserver.HttpExchange;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Stands in for an OpenAI-compatible Whisper server: {@code /v1/audio/transcriptions}.
+ *
+ * Every upload is transcribed to the same {@code replyTokens}-word sentence, in the requested
+ * {@code response_format} ({@code json} by default, {@code text} as plain text).
+ */
+public class WhisperStandIn extends StandInServer {
+
+    public static final String TRANSCRIPT_WORDS = "what is a fun fact about spring boot and how do i start a new project";
+
+    private static final Pattern RESPONSE_FORMAT =
+            Pattern.compile("name=\"response_format\"\\r\\n(?:[^\\r\\n]*\\r\\n)*\\r\\n([a-z_]+)");
+
+    public WhisperStandIn(StandInProfile profile) {
+        super("whisper", profile);
+        route("/v1/audio/transcriptions", this::transcribe);
+    }
+
+    private void transcribe(HttpExchange exchange) throws IOException, InterruptedException {
+        // Multipart form; only the response format is of interest, the audio is not decoded
+        String form = new String(readBytes(exchange), StandardCharsets.ISO_8859_1);
+        Matcher format = RESPONSE_FORMAT.matcher(form);
+        String responseFormat = format.find() ? format.group(1) : "json";
+
+        int words = getProfile().getReplyTokens();
+        generate(words);
+        String[] vocabulary = TRANSCRIPT_WORDS.split(" ");
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < words; i++) {
+            text.append(i == 0 ? "" : " ").append(vocabulary[i % vocabulary.length]);
+        }
+
+        if ("text".equals(responseFormat) || "srt".equals(responseFormat) || "vtt".equals(responseFormat)) {
+            sendText(exchange, 200, text.toString());
+        } else {
+            sendJson(exchange, 200, Map.of("text", text.toString()));
+        }
+    }
+}
@@ -0,0 +1,199 @@
+package com.my.spring.ai.bot.tools;
+
+import com.my.spring.ai.bot.cancellation.RequestCancellation;
+import com.my.spring.ai.bot.config.RequestCancellationProperties;
+import com.my.spring.ai.bot.config.RequestDeadlineProperties;
+import com.my.spring.ai.bot.config.ToolExecutionProperties;
+import com.my.spring.ai.bot.deadline.Deadline;
+import com.my.spring.ai.bot.deadline.RequestDeadlines;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.messages.ToolResponseMessage;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.model.Generation;
+import org.springframework.ai.chat.prompt.Prompt;
+import org.springframework.ai.model.function.FunctionCallback;
+import org.springframework.ai.model.tool.DefaultToolCallingManager;
+import org.springframework.ai.model.tool.ToolCallingChatOptions;
+import org.springframework.ai.model.tool.ToolExecutionResult;
+import org.springframework.ai.tool.ToolCallback;
+import org.springframework.ai.tool.definition.ToolDefinition;
+import org.springframework.ai.tool.execution.DefaultToolExecutionExceptionProcessor;
+import org.springframework.ai.tool.resolution.DelegatingToolCallbackResolver;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for ParallelToolCallingManager.
+ */
+class ParallelToolCallingManagerTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private ToolExecutionProperties properties;
+    private ParallelToolCallingManager manager;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        properties = new ToolExecutionProperties();
+        properties.setThreads(4);
+        properties.setTimeout(Duration.ofSeconds(5));
+        var resolver = new DelegatingToolCallbackResolver(List.of());
+        var processor = DefaultToolExecutionExceptionProcessor.builder().build();
+        manager = new ParallelToolCallingManager(
+                DefaultToolCallingManager.builder().toolCallbackResolver(resolver).toolExecutionExceptionProcessor(processor).build(),
+                resolver, processor, properties, meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        manager.destroy();
+    }
+
+    @Test
+    @DisplayName("Calls of one turn run concurrently and answer in the order the model asked")
+    void executeToolCalls_RunsConcurrentlyInOrder() {
+        Prompt prompt = prompt(new SleepingTool("extractLogs", 300, "logs"), new SleepingTool("getTemperature", 100, "12C"));
+
+        long start = System.nanoTime();
+        ToolExecutionResult result = manager.executeToolCalls(prompt, toolCalls("extractLogs", "getTemperature"));
+        long elapsedMillis = Duration.ofNanos(System.nanoTime() - start).toMillis();
+
+        assertTrue(elapsedMillis < 380, "calls should overlap, took " + elapsedMillis + "ms");
+        List<ToolResponseMessage.ToolResponse> responses = responses(result);
+        assertEquals(List.of("extractLogs", "getTemperature"), responses.stream().map(ToolResponseMessage.ToolResponse::name).toList());
+        assertEquals(List.of("logs", "12C"), responses.stream().map(ToolResponseMessage.ToolResponse::responseData).toList());
+        assertEquals(List.of("call-0", "call-1"), responses.stream().map(ToolResponseMessage.ToolResponse::id).toList());
+        assertEquals(1, meterRegistry.get("llm.tool.calls").tag("tool", "extractLogs").tag("outcome", "success").timer().count());
+    }
+
+    @Test
+    @DisplayName("A call over its tool's timeout gives the model an error result and is counted as a timeout")
+    void executeToolCalls_SlowTool_TimesOut() {
+        properties.setTimeouts(Map.of("extractLogs", Duration.ofMillis(100)));
+        Prompt prompt = prompt(new SleepingTool("extractLogs", 5_000, "logs"), new SleepingTool("getTemperature", 10, "12C"));
+
+        long start = System.nanoTime();
+        List<ToolResponseMessage.ToolResponse> responses = responses(manager.executeToolCalls(prompt, toolCalls("extractLogs", "getTemperature")));
+
+        assertTrue(Duration.ofNanos(System.nanoTime() - start).toMillis() < 2_000);
+        assertTrue(responses.get(0).responseData().contains("did not answer within"), responses.get(0).responseData());
+        assertEquals("12C", responses.get(1).responseData());
+        assertEquals(1, meterRegistry.get("llm.tool.calls").tag("tool", "extractLogs").tag("outcome", "timeout").timer().count());
+    }
+
+    @Test
+    @DisplayName("A call interrupted by its timeout is not counted as cancelled by the client")
+    void executeToolCalls_TimeoutIsNotCancellation() {
+        properties.setTimeouts(Map.of("extractLogs", Duration.ofMillis(100)));
+        RequestCancellation requestCancellation = new RequestCancellation(new RequestCancellationProperties(), meterRegistry);
+        ToolCallback tool = requestCancellation.wrap(new SleepingTool("extractLogs", 5_000, "logs"));
+        try (RequestCancellation.Watch ignored = requestCancellation.watch("mcp-chat", () -> false)) {
+            manager.executeToolCalls(prompt(tool), toolCalls("extractLogs"));
+        } finally {
+            requestCancellation.destroy();
+        }
+
+        assertEquals(1, meterRegistry.get("llm.tool.calls").tag("tool", "extractLogs").tag("outcome", "timeout").timer().count());
+        assertTrue(meterRegistry.find("llm.tool.calls.cancelled").counters().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Calls beyond the executor's threads and queue are not run and give the model an error result at once")
+    void executeToolCalls_Saturated_RejectsCall() {
+        manager.destroy();
+        properties.setThreads(1);
+        properties.setQueueCapacity(1);
+        var resolver = new DelegatingToolCallbackResolver(List.of());
+        var processor = DefaultToolExecutionExceptionProcessor.builder().build();
+        manager = new ParallelToolCallingManager(
+                DefaultToolCallingManager.builder().toolCallbackResolver(resolver).toolExecutionExceptionProcessor(processor).build(),
+                resolver, processor, properties, meterRegistry);
+        SleepingTool tool = new SleepingTool("getTemperature", 200, "12C");
+
+        List<ToolResponseMessage.ToolResponse> responses = responses(manager.executeToolCalls(prompt(tool),
+                toolCalls("getTemperature", "getTemperature", "getTemperature")));
+
+        assertEquals("12C", responses.get(0).responseData());
+        assertEquals("12C", responses.get(1).responseData());
+        assertTrue(responses.get(2).responseData().contains("too many tool calls"), responses.get(2).responseData());
+        assertEquals(2, tool.deadlines().size());
+        assertEquals(1, meterRegistry.get("llm.tool.calls").tag("tool", "getTemperature").tag("outcome", "rejected").timer().count());
+    }
+
+    @Test
+    @DisplayName("Calls run with the deadline of the request that asked for them")
+    void executeToolCalls_PropagatesDeadline() {
+        RequestDeadlines requestDeadlines = new RequestDeadlines(new RequestDeadlineProperties(), meterRegistry);
+        SleepingTool tool = new SleepingTool("getTemperature", 0, "12C");
+        Deadline deadline = requestDeadlines.resolve("mcp-chat", "30s");
+        try (RequestDeadlines.Scope ignored = requestDeadlines.enter(deadline)) {
+            manager.executeToolCalls(prompt(tool), toolCalls("getTemperature", "getTemperature"));
+        } finally {
+            requestDeadlines.destroy();
+        }
+        assertEquals(List.of(deadline, deadline), tool.deadlines());
+    }
+
+    @Test
+    @DisplayName("A turn asking for an unknown tool fails before any tool is called")
+    void executeToolCalls_UnknownTool_Fails() {
+        SleepingTool tool = new SleepingTool("getTemperature", 0, "12C");
+
+        IllegalStateException ex = assertThrows(IllegalStateException.class,
+                () -> manager.executeToolCalls(prompt(tool), toolCalls("getTemperature", "sendEmail")));
+
+        assertTrue(ex.getMessage().contains("sendEmail"));
+        assertTrue(tool.deadlines().isEmpty());
+    }
+
+    private static Prompt prompt(FunctionCallback... tools) {
+        return new Prompt("What is going on?", ToolCallingChatOptions.builder().toolCallbacks(tools).build());
+    }
+
+    private static ChatResponse toolCalls(String... names) {
+        List<AssistantMessage.ToolCall> calls = new java.util.ArrayList<>();
+        for (int i = 0; i < names.length; i++) {
+            calls.add(new AssistantMessage.ToolCall("call-" + i, "function", names[i], "{}"));
+        }
+        return new ChatResponse(List.of(new Generation(new AssistantMessage("", Map.of(), calls))));
+    }
+
+    private static List<ToolResponseMessage.ToolResponse> responses(ToolExecutionResult result) {
+        var history = result.conversationHistory();
+        return ((ToolResponseMessage) history.get(history.size() - 1)).getResponses();
+    }
+
+    private record SleepingTool(String name, long sleepMillis, String result, List<Deadline> deadlines) implements ToolCallback {
+
+        SleepingTool(String name, long sleepMillis, String result) {
+            this(name, sleepMillis, result, new CopyOnWriteArrayList<>());
+        }
+
+        @Override
+        public ToolDefinition getToolDefinition() {
+            return ToolDefinition.builder().name(name).description(name).inputSchema("{}").build();
+        }
+
+        @Override
+        public String call(String toolInput) {
+            deadlines.add(Deadline.current());
+            try {
+                Thread.sleep(sleepMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("interrupted", e);
+            }
+            return result;
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.my.spring.ai.bot.tools;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.tool.ToolCallback;
+import org.springframework.ai.tool.ToolCallbackProvider;
+import org.springframework.ai.tool.definition.ToolDefinition;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for ToolCallbackWrappingBeanPostProcessor.
+ */
+class ToolCallbackWrappingBeanPostProcessorTest {
+
+    @Test
+    @DisplayName("Tools are wrapped in order, the first wrapper innermost, and the provider only once")
+    void postProcess_WrapsInOrder() {
+        List<String> calls = new ArrayList<>();
+        ToolCallbackWrappingBeanPostProcessor postProcessor = new ToolCallbackWrappingBeanPostProcessor(List.of(
+                provider(tool -> new TracingTool(tool, "cache", calls)),
+                provider(tool -> new TracingTool(tool, "deadline", calls))));
+        ToolCallback tool = tool("getTemperature", calls);
+
+        ToolCallbackProvider wrapped = (ToolCallbackProvider) postProcessor.postProcessAfterInitialization(
+                (ToolCallbackProvider) () -> new ToolCallback[]{tool}, "tools");
+
+        assertEquals("12C", wrapped.getToolCallbacks()[0].call("{}"));
+        assertEquals(List.of("deadline", "cache", "getTemperature"), calls);
+        assertEquals("getTemperature", ((ToolCallback) wrapped.getToolCallbacks()[0]).getToolDefinition().name());
+        assertSame(wrapped, postProcessor.postProcessAfterInitialization(wrapped, "tools"));
+        assertEquals("not a provider", postProcessor.postProcessAfterInitialization("not a provider", "other"));
+    }
+
+    @Test
+    @DisplayName("A tool listed again keeps its wrapper; only tools not listed before are wrapped")
+    void getToolCallbacks_WrapsEachToolOnce() {
+        AtomicInteger wraps = new AtomicInteger();
+        ToolCallbackWrappingBeanPostProcessor postProcessor = new ToolCallbackWrappingBeanPostProcessor(List.of(
+                provider(tool -> {
+                    wraps.incrementAndGet();
+                    return new TracingTool(tool, "cache", new ArrayList<>());
+                })));
+        ToolCallback logs = tool("getRecentLogs", new ArrayList<>());
+        ToolCallback temperature = tool("getTemperature", new ArrayList<>());
+        List<ToolCallback[]> listings = List.of(new ToolCallback[]{logs}, new ToolCallback[]{logs, temperature});
+        AtomicInteger listing = new AtomicInteger();
+        ToolCallbackProvider wrapped = (ToolCallbackProvider) postProcessor.postProcessAfterInitialization(
+                (ToolCallbackProvider) () -> listings.get(Math.min(listing.getAndIncrement(), 1)), "tools");
+
+        var first = wrapped.getToolCallbacks();
+        var second = wrapped.getToolCallbacks();
+        var third = wrapped.getToolCallbacks();
+
+        assertSame(first[0], second[0]);
+        assertSame(second[1], third[1]);
+        assertEquals(2, wraps.get());
+    }
+
+    private static ObjectProvider<ToolCallbackWrapper> provider(ToolCallbackWrapper wrapper) {
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        beanFactory.registerSingleton("wrapper", wrapper);
+        return beanFactory.getBeanProvider(ToolCallbackWrapper.class);
+    }
+
+    private static ToolCallback tool(String name, List<String> calls) {
+        return new ToolCallback() {
+            @Override
+            public ToolDefinition getToolDefinition() {
+                return ToolDefinition.builder().name(name).description(name).inputSchema("{}").build();
+            }
+
+            @Override
+            public String call(String toolInput) {
+                calls.add(name);
+                return "12C";
+            }
+        };
+    }
+
+    private record TracingTool(ToolCallback delegate, String name, List<String> calls) implements ToolCallback {
+
+        @Override
+        public ToolDefinition getToolDefinition() {
+            return delegate.getToolDefinition();
+        }
+
+        @Override
+        public String call(String toolInput) {
+            calls.add(name);
+            return delegate.call(toolInput);
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.my.spring.ai.bot.tools;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.model.function.FunctionCallback;
+import org.springframework.ai.tool.ToolCallback;
+import org.springframework.ai.tool.definition.ToolDefinition;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for ToolRegistry.
+ */
+class ToolRegistryTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private AtomicInteger listings;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        listings = new AtomicInteger();
+    }
+
+    @Test
+    @DisplayName("The catalog is listed once and kept until invalidated")
+    void catalog_shouldBeKeptUntilInvalidated() {
+        ToolRegistry registry = new ToolRegistry(() -> list(() -> {
+        }), new ObjectMapper(), meterRegistry);
+
+        registry.catalog();
+        registry.catalog();
+        assertEquals(1, listings.get());
+
+        registry.invalidate("test");
+        registry.catalog();
+        assertEquals(2, listings.get());
+        assertEquals(2.0, meterRegistry.get("mcp.tools.refreshes").counter().count());
+    }
+
+    @Test
+    @DisplayName("A catalog listed while the tools are invalidated is not kept")
+    void catalog_invalidatedWhileListing_shouldNotBeKept() {
+        ToolRegistry[] registry = new ToolRegistry[1];
+        registry[0] = new ToolRegistry(() -> list(() -> {
+            if (listings.get() == 1) {
+                registry[0].invalidate("changed during listing");
+            }
+        }), new ObjectMapper(), meterRegistry);
+
+        assertEquals(1, registry[0].getToolCallbacks().size());
+        registry[0].catalog();
+        registry[0].catalog();
+
+        assertEquals(2, listings.get());
+    }
+
+    @Test
+    @DisplayName("Requests arriving while the tools are listed wait for that listing")
+    void catalog_concurrentRequests_shouldListOnce() throws Exception {
+        CountDownLatch listing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ToolRegistry registry = new ToolRegistry(() -> list(() -> {
+            listing.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }), new ObjectMapper(), meterRegistry);
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<ToolCatalog>> catalogs = new ArrayList<>();
+            catalogs.add(executor.submit(registry::catalog));
+            assertTrue(listing.await(5, TimeUnit.SECONDS));
+            for (int i = 0; i < 3; i++) {
+                catalogs.add(executor.submit(registry::catalog));
+            }
+            release.countDown();
+            for (Future<ToolCatalog> catalog : catalogs) {
+                assertSame(catalogs.get(0).get(5, TimeUnit.SECONDS), catalog.get(5, TimeUnit.SECONDS));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(1, listings.get());
+    }
+
+    private FunctionCallback[] list(Runnable whileListing) {
+        listings.incrementAndGet();
+        whileListing.run();
+        ToolCallback tool = mock(ToolCallback.class);
+        when(tool.getToolDefinition()).thenReturn(ToolDefinition.builder()
+                .name("getTemperature").description("Current temperature").inputSchema("{}").build());
+        return new FunctionCallback[]{tool};
+    }
+}
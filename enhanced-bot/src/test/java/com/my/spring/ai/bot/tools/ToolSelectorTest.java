@@ -0,0 +1,174 @@
+package com.my.spring.ai.bot.tools;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.my.spring.ai.bot.config.ToolSelectionProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.ai.model.function.FunctionCallback;
+import org.springframework.ai.tool.StaticToolCallbackProvider;
+import org.springframework.ai.tool.ToolCallback;
+import org.springframework.ai.tool.definition.ToolDefinition;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for ToolSelector.
+ */
+class ToolSelectorTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private ToolSelectionProperties properties;
+    private EmbeddingModel embeddingModel;
+    private ToolRegistry toolRegistry;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        properties = new ToolSelectionProperties();
+        properties.setTopK(2);
+        embeddingModel = mock(EmbeddingModel.class);
+        // One dimension per topic: logs, weather, email
+        when(embeddingModel.embed(anyList())).thenReturn(List.of(
+                new float[]{1, 0, 0}, new float[]{0.9f, 0.1f, 0}, new float[]{0, 1, 0}, new float[]{0, 0, 1}));
+        toolRegistry = new ToolRegistry(new StaticToolCallbackProvider(List.<FunctionCallback>of(
+                tool("getRecentLogs", "Recent Splunk logs " + "x ".repeat(200)),
+                tool("searchByKeyword", "Search Splunk logs by keyword"),
+                tool("getTemperature", "Temperature at a location"),
+                tool("send_greeting_email", "Send a greeting email"))),
+                new ObjectMapper(), meterRegistry);
+    }
+
+    @Test
+    @DisplayName("Sends the top-k tools closest to the message, in registry order, and records the tokens saved")
+    void select_TopKByEmbedding() {
+        when(embeddingModel.embed(anyString())).thenReturn(new float[]{0.2f, 1, 0});
+        ToolSelector selector = new ToolSelector(toolRegistry, embeddingModel, properties, meterRegistry);
+
+        assertEquals(List.of("searchByKeyword", "getTemperature"), names(selector.select("Is it cold in Oslo?")));
+        names(selector.select("Any errors in the logs?"));
+
+        // The tools are embedded once, the message on every turn
+        verify(embeddingModel, times(1)).embed(anyList());
+        verify(embeddingModel, times(2)).embed(anyString());
+        assertTrue(meterRegistry.get("mcp.tools.prompt.tokens.saved").summary().totalAmount() > 0);
+        assertEquals(2, meterRegistry.get("mcp.tools.prompt.tokens").summary().count());
+    }
+
+    @Test
+    @DisplayName("Sends all tools when no tool is similar enough or embedding the message fails")
+    void select_FallsBackToAllTools() {
+        properties.setMinSimilarity(0.5);
+        when(embeddingModel.embed(anyString()))
+                .thenReturn(new float[]{-1, -1, -1})
+                .thenThrow(new IllegalStateException("embedding server down"));
+        ToolSelector selector = new ToolSelector(toolRegistry, embeddingModel, properties, meterRegistry);
+
+        assertEquals(4, selector.select("Hello").size());
+        assertEquals(4, selector.select("Hello again").size());
+
+        assertEquals(1.0, meterRegistry.get("mcp.tools.selection.fallbacks").tag("reason", "no-match").counter().count());
+        assertEquals(1.0, meterRegistry.get("mcp.tools.selection.fallbacks").tag("reason", "error").counter().count());
+        assertEquals(0.0, meterRegistry.get("mcp.tools.prompt.tokens.saved").summary().max());
+    }
+
+    @Test
+    @DisplayName("Without an embedding model, or with no more tools than top-k, all tools are sent without embedding")
+    void select_NothingToChoose_AllTools() {
+        assertEquals(4, new ToolSelector(toolRegistry, null, properties, meterRegistry).select("Hi").size());
+
+        properties.setTopK(4);
+        assertEquals(4, new ToolSelector(toolRegistry, embeddingModel, properties, meterRegistry).select("Hi").size());
+        verifyNoInteractions(embeddingModel);
+    }
+
+    @Test
+    @DisplayName("After the tools could not be embedded, they are embedded again only once retry-after has passed")
+    void select_EmbeddingToolsFails_RetriesAfterBackoff() throws InterruptedException {
+        properties.setRetryAfter(Duration.ofMillis(200));
+        when(embeddingModel.embed(anyList()))
+                .thenThrow(new IllegalStateException("embedding server down"))
+                .thenReturn(List.of(new float[]{1, 0, 0}, new float[]{0.9f, 0.1f, 0}, new float[]{0, 1, 0}, new float[]{0, 0, 1}));
+        when(embeddingModel.embed(anyString())).thenReturn(new float[]{0.2f, 1, 0});
+        ToolSelector selector = new ToolSelector(toolRegistry, embeddingModel, properties, meterRegistry);
+
+        assertEquals(4, selector.select("Is it cold in Oslo?").size());
+        assertEquals(4, selector.select("Is it cold in Oslo?").size());
+        verify(embeddingModel, times(1)).embed(anyList());
+
+        Thread.sleep(250);
+        assertEquals(List.of("searchByKeyword", "getTemperature"), names(selector.select("Is it cold in Oslo?")));
+        verify(embeddingModel, times(2)).embed(anyList());
+    }
+
+    @Test
+    @DisplayName("Concurrent requests for a new catalog embed its tools once")
+    void select_Concurrent_EmbedsToolsOnce() throws Exception {
+        CountDownLatch embedding = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(embeddingModel.embed(anyList())).thenAnswer(invocation -> {
+            embedding.countDown();
+            release.await();
+            return List.of(new float[]{1, 0, 0}, new float[]{0.9f, 0.1f, 0}, new float[]{0, 1, 0}, new float[]{0, 0, 1});
+        });
+        when(embeddingModel.embed(anyString())).thenReturn(new float[]{0.2f, 1, 0});
+        ToolSelector selector = new ToolSelector(toolRegistry, embeddingModel, properties, meterRegistry);
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<List<ToolCallback>>> selections = new ArrayList<>();
+            selections.add(executor.submit(() -> selector.select("Is it cold in Oslo?")));
+            assertTrue(embedding.await(5, TimeUnit.SECONDS));
+            for (int i = 0; i < 3; i++) {
+                selections.add(executor.submit(() -> selector.select("Is it cold in Oslo?")));
+            }
+            release.countDown();
+            for (Future<List<ToolCallback>> selection : selections) {
+                assertEquals(List.of("searchByKeyword", "getTemperature"), names(selection.get(5, TimeUnit.SECONDS)));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        verify(embeddingModel, times(1)).embed(anyList());
+    }
+
+    @Test
+    @DisplayName("Cosine similarity of orthogonal, equal and empty vectors")
+    void cosine() {
+        assertEquals(0.0, ToolSelector.cosine(new float[]{1, 0}, new float[]{0, 1}), 1e-9);
+        assertEquals(1.0, ToolSelector.cosine(new float[]{2, 2}, new float[]{1, 1}), 1e-9);
+        assertEquals(0.0, ToolSelector.cosine(new float[]{0, 0}, new float[]{1, 1}), 1e-9);
+    }
+
+    private static List<String> names(List<ToolCallback> tools) {
+        return tools.stream().map(tool -> tool.getToolDefinition().name()).toList();
+    }
+
+    private static ToolCallback tool(String name, String description) {
+        return new ToolCallback() {
+            @Override
+            public ToolDefinition getToolDefinition() {
+                return ToolDefinition.builder().name(name).description(description).inputSchema("{}").build();
+            }
+
+            @Override
+            public String call(String toolInput) {
+                return name;
+            }
+        };
+    }
+}
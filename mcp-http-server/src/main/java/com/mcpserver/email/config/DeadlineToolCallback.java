@@ -0,0 +1,70 @@
+package com.mcpserver.email.config;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mcpserver.deadline.ToolCallDeadline;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.ai.chat.model.ToolContext;
+import org.springframework.ai.tool.ToolCallback;
+import org.springframework.ai.tool.definition.ToolDefinition;
+import org.springframework.ai.tool.metadata.ToolMetadata;
+
+import java.util.Map;
+
+/**
+ * Honours the deadline an MCP client sends with a tool call.
+ *
+ * The client sends the time it has left as {@code "_meta": {"timeoutMillis": ...}} among the arguments,
+ * read by {@link ToolCallDeadline}.
+ * A call with no time left is not started: the client has given up on the answer, and an email sent
+ * for an abandoned request cannot be taken back. Once started, a send is left to finish, for the same
+ * reason. The {@code _meta} argument is removed before the tool's own arguments are bound.
+ */
+@Slf4j
+public class DeadlineToolCallback implements ToolCallback {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+    private static final TypeReference<Map<String, Object>> ARGUMENTS = new TypeReference<>() {
+    };
+
+    private final ToolCallback delegate;
+
+    public DeadlineToolCallback(ToolCallback delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public ToolDefinition getToolDefinition() {
+        return delegate.getToolDefinition();
+    }
+
+    @Override
+    public ToolMetadata getToolMetadata() {
+        return delegate.getToolMetadata();
+    }
+
+    @Override
+    public String call(String toolInput) {
+        return call(toolInput, null);
+    }
+
+    @Override
+    public String call(String toolInput, ToolContext toolContext) {
+        String input = toolInput;
+        try {
+            Map<String, Object> arguments = OBJECT_MAPPER.readValue(toolInput, ARGUMENTS);
+            if (arguments != null && arguments.containsKey(ToolCallDeadline.META)) {
+                Long timeoutMillis = ToolCallDeadline.removeFrom(arguments);
+                if (timeoutMillis != null && timeoutMillis <= 0) {
+                    log.warn("Not calling {}: the caller's deadline has passed", getToolDefinition().name());
+                    throw new IllegalStateException("Deadline exceeded before the tool was called");
+                }
+                input = OBJECT_MAPPER.writeValueAsString(arguments);
+            }
+        } catch (JsonProcessingException e) {
+            // Not JSON arguments; the tool reports them as invalid itself
+        }
+        return toolContext == null ? delegate.call(input) : delegate.call(input, toolContext);
+    }
+}
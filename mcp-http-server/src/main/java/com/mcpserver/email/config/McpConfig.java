@@ -1,19 +1,28 @@
 package com.mcpserver.email.config;
 
 import com.mcpserver.email.tool.EmailGreetingTools;
+import org.springframework.ai.tool.StaticToolCallbackProvider;
+import org.springframework.ai.tool.ToolCallback;
 import org.springframework.ai.tool.ToolCallbackProvider;
 import org.springframework.ai.tool.method.MethodToolCallbackProvider;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import java.util.Arrays;
+
 @Configuration
 public class McpConfig {
 
     @Bean
     public ToolCallbackProvider userTools(EmailGreetingTools emailGreetingTools) {
-        return MethodToolCallbackProvider.builder()
+        ToolCallback[] tools = MethodToolCallbackProvider.builder()
                 .toolObjects(emailGreetingTools)
-                .build();
+                .build()
+                .getToolCallbacks();
+        // Every tool honours the deadline its caller sends
+        return new StaticToolCallbackProvider(Arrays.stream(tools)
+                .map(DeadlineToolCallback::new)
+                .toArray(ToolCallback[]::new));
     }
 
 }
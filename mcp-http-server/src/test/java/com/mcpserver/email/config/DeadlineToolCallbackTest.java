@@ -0,0 +1,56 @@
+package com.mcpserver.email.config;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.tool.ToolCallback;
+import org.springframework.ai.tool.definition.ToolDefinition;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for DeadlineToolCallback.
+ */
+class DeadlineToolCallbackTest {
+
+    private ToolCallback tool;
+    private DeadlineToolCallback callback;
+
+    @BeforeEach
+    void setUp() {
+        tool = mock(ToolCallback.class);
+        when(tool.getToolDefinition()).thenReturn(ToolDefinition.builder()
+                .name("send_greeting_email").description("Send a greeting email").inputSchema("{}").build());
+        when(tool.call(anyString())).thenReturn("sent");
+        callback = new DeadlineToolCallback(tool);
+    }
+
+    @Test
+    @DisplayName("call - The _meta argument is removed before the tool is called")
+    void whenCallCarriesTimeLeft_shouldCallToolWithoutMeta() {
+        assertEquals("sent", callback.call("{\"to\":\"a@b.c\",\"_meta\":{\"timeoutMillis\":\"5000\"}}"));
+
+        verify(tool).call("{\"to\":\"a@b.c\"}");
+    }
+
+    @Test
+    @DisplayName("call - A call whose deadline has passed is not started")
+    void whenDeadlinePassed_shouldNotCallTool() {
+        assertThrows(IllegalStateException.class,
+                () -> callback.call("{\"to\":\"a@b.c\",\"_meta\":{\"timeoutMillis\":0}}"));
+
+        verify(tool, never()).call(anyString());
+    }
+
+    @Test
+    @DisplayName("call - Arguments without _meta, or not a JSON object, are passed on unchanged")
+    void whenNoMeta_shouldPassInputUnchanged() {
+        callback.call("{ \"to\": \"a@b.c\" }");
+        callback.call("not json");
+
+        verify(tool).call("{ \"to\": \"a@b.c\" }");
+        verify(tool).call("not json");
+    }
+}
@@ -1,11 +1,14 @@
 package com.mcpserver.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.time.Instant;
+
 /**
  * Request DTO for extracting Splunk logs
  */
@@ -54,4 +57,11 @@ public class SplunkLogRequest {
      */
     @JsonProperty("sourcetype")
     private String sourcetype;
+
+    /**
+     * Time by which the caller needs the results (optional); the search job is cancelled once it passes.
+     * Set from the MCP tool call, not from request bodies.
+     */
+    @JsonIgnore
+    private Instant deadline;
 }
\ No newline at end of file
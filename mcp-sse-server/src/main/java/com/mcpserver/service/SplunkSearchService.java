@@ -14,6 +14,7 @@ import reactor.core.scheduler.Schedulers;
 
 import java.io.InputStream;
 import java.time.Duration;
+import java.time.Instant;
 import java.util.*;
 import java.util.concurrent.TimeUnit;
 
@@ -53,8 +54,12 @@ public class SplunkSearchService {
     private SplunkLogResponse executeSearch(SplunkLogRequest request) {
         long startTime = System.currentTimeMillis();
 
+        Job job = null;
         try {
             String query = buildSearchQuery(request);
+            if (request.getDeadline() != null && !Instant.now().isBefore(request.getDeadline())) {
+                throw new RuntimeException("Request deadline exceeded before the search started");
+            }
             log.info("Executing Splunk search: {}", query);
 
             JobArgs jobArgs = new JobArgs();
@@ -67,10 +72,10 @@ public class SplunkSearchService {
                 jobArgs.setLatestTime(request.getEndTime());
             }
 
-            Job job = splunkService.getJobs().create(query, jobArgs);
+            job = splunkService.getJobs().create(query, jobArgs);
 
             // Wait for job to complete
-            waitForJobCompletion(job);
+            waitForJobCompletion(job, request.getDeadline());
 
             // Get results
             JobResultsArgs resultsArgs = new JobResultsArgs();
@@ -93,6 +98,10 @@ public class SplunkSearchService {
 
         } catch (Exception e) {
             log.error("Error executing Splunk search", e);
+            if (e instanceof InterruptedException) {
+                cancelJob(job);
+                Thread.currentThread().interrupt();
+            }
             long executionTime = System.currentTimeMillis() - startTime;
 
             return SplunkLogResponse.builder()
@@ -144,18 +153,38 @@ public class SplunkSearchService {
     }
 
     /**
-     * Wait for Splunk job to complete
+     * Wait for Splunk job to complete, up to the search timeout or the caller's deadline, whichever
+     * comes first. A job given up on is cancelled so it stops using Splunk's search slots.
      */
-    private void waitForJobCompletion(Job job) throws InterruptedException {
-        int maxWaitSeconds = splunkProperties.getSearchTimeout();
-        int elapsedSeconds = 0;
+    private void waitForJobCompletion(Job job, Instant deadline) throws InterruptedException {
+        Instant searchTimeout = Instant.now().plusSeconds(splunkProperties.getSearchTimeout());
+        boolean deadlineFirst = deadline != null && deadline.isBefore(searchTimeout);
+        Instant giveUpAt = deadlineFirst ? deadline : searchTimeout;
 
         while (!job.isDone()) {
-            if (elapsedSeconds >= maxWaitSeconds) {
-                throw new RuntimeException("Search timeout exceeded");
+            long remainingMillis = Duration.between(Instant.now(), giveUpAt).toMillis();
+            if (remainingMillis <= 0) {
+                cancelJob(job);
+                throw new RuntimeException(deadlineFirst
+                        ? "Request deadline exceeded; the search was cancelled"
+                        : "Search timeout exceeded");
             }
-            TimeUnit.MILLISECONDS.sleep(500);
-            elapsedSeconds++;
+            TimeUnit.MILLISECONDS.sleep(Math.min(500, remainingMillis));
+        }
+    }
+
+    /**
+     * Cancel a search job that is no longer waited for
+     */
+    private void cancelJob(Job job) {
+        if (job == null) {
+            return;
+        }
+        try {
+            job.cancel();
+            log.info("Cancelled Splunk search job {}", job.getSid());
+        } catch (Exception e) {
+            log.warn("Could not cancel Splunk search job: {}", e.getMessage());
         }
     }
 
@@ -1,6 +1,7 @@
 package com.mcpserver.tools;
 
 import com.mcpserver.dto.SplunkLogRequest;
+import com.mcpserver.deadline.ToolCallDeadline;
 import com.mcpserver.dto.SplunkLogResponse;
 import com.mcpserver.service.SplunkSearchService;
 import io.modelcontextprotocol.spec.McpSchema;
@@ -10,6 +11,7 @@ import org.springaicommunity.mcp.annotation.McpTool;
 import org.springframework.stereotype.Component;
 import reactor.core.publisher.Mono;
 
+import java.time.Instant;
 import java.util.Map;
 
 /**
@@ -39,6 +41,7 @@ public class SplunkMcpTools {
      * @param limit      Maximum number of log entries to return (Default: 100, Max: 10000)
      * @param index      Splunk index to search (e.g., 'main', 'security')
      * @param sourcetype Source type filter (e.g., 'access_combined', 'syslog')
+     * @param toolRequest The MCP call itself, carrying the caller's deadline
      * @return Mono containing the search results
      */
     @McpTool(
@@ -80,7 +83,8 @@ public class SplunkMcpTools {
             String endTime,
             Integer limit,
             String index,
-            String sourcetype
+            String sourcetype,
+            McpSchema.CallToolRequest toolRequest
     ) {
         log.info("MCP Tool invoked: extractLogs with query={}, startTime={}, endTime={}, limit={}",
                 query, startTime, endTime, limit);
@@ -92,6 +96,7 @@ public class SplunkMcpTools {
                 .limit(limit != null ? Math.min(limit, 10000) : 100)
                 .index(index)
                 .sourcetype(sourcetype)
+                .deadline(deadline(toolRequest))
                 .build();
 
         return splunkSearchService.searchLogs(request).map(response ->
@@ -149,6 +154,7 @@ public class SplunkMcpTools {
      *
      * @param timeRange Time range for recent logs (e.g., '1h', '24h', '7d'). Default: '1h'
      * @param limit Maximum number of logs to return. Default: 50
+     * @param toolRequest The MCP call itself, carrying the caller's deadline
      * @return Mono containing the search results
      */
     @McpTool(
@@ -183,7 +189,8 @@ public class SplunkMcpTools {
     )
     public Mono<SplunkLogResponse> getRecentLogs(
             String timeRange,
-            Integer limit
+            Integer limit,
+            McpSchema.CallToolRequest toolRequest
     ) {
         log.info("MCP Tool invoked: getRecentLogs with timeRange={}, limit={}", timeRange, limit);
 
@@ -194,6 +201,7 @@ public class SplunkMcpTools {
                 .startTime(startTime)
                 .endTime("now")
                 .limit(limit != null ? limit : 50)
+                .deadline(deadline(toolRequest))
                 .build();
 
         return splunkSearchService.searchLogs(request);
@@ -208,6 +216,7 @@ public class SplunkMcpTools {
      * @param keyword Keyword or phrase to search for (e.g., 'error', 'exception')
      * @param timeRange Time range to search (e.g., '1h', '24h', '7d'). Default: '24h'
      * @param limit Maximum number of results. Default: 100
+     * @param toolRequest The MCP call itself, carrying the caller's deadline
      * @return Mono containing the search results
      */
     @McpTool(
@@ -252,7 +261,8 @@ public class SplunkMcpTools {
     public Mono<SplunkLogResponse> searchByKeyword(
             String keyword,
             String timeRange,
-            Integer limit
+            Integer limit,
+            McpSchema.CallToolRequest toolRequest
     ) {
         log.info("MCP Tool invoked: searchByKeyword with keyword={}, timeRange={}, limit={}",
                 keyword, timeRange, limit);
@@ -265,8 +275,16 @@ public class SplunkMcpTools {
                 .startTime(startTime)
                 .endTime("now")
                 .limit(limit != null ? limit : 100)
+                .deadline(deadline(toolRequest))
                 .build();
 
         return splunkSearchService.searchLogs(request);
     }
-}
\ No newline at end of file
+
+    /**
+     * The deadline the caller sent with the call, null when it sent none or the call is not at hand.
+     */
+    private static Instant deadline(McpSchema.CallToolRequest toolRequest) {
+        return toolRequest == null ? null : ToolCallDeadline.deadline(toolRequest.meta(), toolRequest.arguments());
+    }
+}
@@ -15,6 +15,7 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
 
+import java.time.Instant;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
@@ -87,7 +88,7 @@ class SplunkMcpToolsTest {
 
         // --- Act & Assert ---
         Mono<McpSchema.CallToolResult> result = splunkMcpTools.extractLogs(
-                query, startTime, endTime, limit, index, sourcetype);
+                query, startTime, endTime, limit, index, sourcetype, null);
 
         StepVerifier.create(result)
                 .assertNext(callToolResult -> {
@@ -146,7 +147,7 @@ class SplunkMcpToolsTest {
 
         // --- Act & Assert ---
         Mono<McpSchema.CallToolResult> result = splunkMcpTools.extractLogs(
-                query, startTime, endTime, limit, null, null);
+                query, startTime, endTime, limit, null, null, null);
 
         StepVerifier.create(result)
                 .assertNext(callToolResult -> {
@@ -259,7 +260,7 @@ class SplunkMcpToolsTest {
                 .thenReturn(Mono.just(mockResponse));
 
         // --- Act & Assert ---
-        Mono<SplunkLogResponse> result = splunkMcpTools.getRecentLogs(timeRange, limit);
+        Mono<SplunkLogResponse> result = splunkMcpTools.getRecentLogs(timeRange, limit, null);
 
         StepVerifier.create(result)
                 .assertNext(response -> {
@@ -307,7 +308,7 @@ class SplunkMcpToolsTest {
                 .thenReturn(Mono.just(errorResponse));
 
         // --- Act & Assert ---
-        Mono<SplunkLogResponse> result = splunkMcpTools.getRecentLogs(timeRange, limit);
+        Mono<SplunkLogResponse> result = splunkMcpTools.getRecentLogs(timeRange, limit, null);
 
         StepVerifier.create(result)
                 .assertNext(response -> {
@@ -367,7 +368,7 @@ class SplunkMcpToolsTest {
                 .thenReturn(Mono.just(mockResponse));
 
         // --- Act & Assert ---
-        Mono<SplunkLogResponse> result = splunkMcpTools.searchByKeyword(keyword, timeRange, limit);
+        Mono<SplunkLogResponse> result = splunkMcpTools.searchByKeyword(keyword, timeRange, limit, null);
 
         StepVerifier.create(result)
                 .assertNext(response -> {
@@ -417,7 +418,7 @@ class SplunkMcpToolsTest {
                 .thenReturn(Mono.just(mockResponse));
 
         // --- Act & Assert ---
-        Mono<SplunkLogResponse> result = splunkMcpTools.searchByKeyword(keyword, timeRange, limit);
+        Mono<SplunkLogResponse> result = splunkMcpTools.searchByKeyword(keyword, timeRange, limit, null);
 
         StepVerifier.create(result)
                 .assertNext(response -> {
@@ -457,7 +458,7 @@ class SplunkMcpToolsTest {
 
         // --- Act & Assert ---
         Mono<McpSchema.CallToolResult> result = splunkMcpTools.extractLogs(
-                null, null, null, null, null, null);
+                null, null, null, null, null, null, null);
 
         StepVerifier.create(result)
                 .assertNext(callToolResult -> {
@@ -495,7 +496,7 @@ class SplunkMcpToolsTest {
 
         // --- Act & Assert ---
         Mono<McpSchema.CallToolResult> result = splunkMcpTools.extractLogs(
-                null, null, null, excessiveLimit, null, null);
+                null, null, null, excessiveLimit, null, null, null);
 
         StepVerifier.create(result).expectNextCount(1).verifyComplete();
 
@@ -524,7 +525,7 @@ class SplunkMcpToolsTest {
                 .thenReturn(Mono.just(mockResponse));
 
         // --- Act & Assert ---
-        Mono<SplunkLogResponse> result = splunkMcpTools.getRecentLogs(null, null);
+        Mono<SplunkLogResponse> result = splunkMcpTools.getRecentLogs(null, null, null);
 
         StepVerifier.create(result).expectNextCount(1).verifyComplete();
 
@@ -556,7 +557,7 @@ class SplunkMcpToolsTest {
                 .thenReturn(Mono.just(mockResponse));
 
         // --- Act & Assert ---
-        Mono<SplunkLogResponse> result = splunkMcpTools.searchByKeyword(keyword, null, null);
+        Mono<SplunkLogResponse> result = splunkMcpTools.searchByKeyword(keyword, null, null, null);
 
         StepVerifier.create(result).expectNextCount(1).verifyComplete();
 
@@ -568,4 +569,45 @@ class SplunkMcpToolsTest {
         assertEquals("-24h", capturedRequest.getStartTime(), "Default time range should be 24h");
         assertEquals(100, capturedRequest.getLimit(), "Default limit should be 100");
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Deadline: the caller's time left becomes the search deadline")
+    void whenToolCallCarriesTimeout_shouldSetSearchDeadline() {
+        // --- Arrange ---
+        SplunkLogResponse mockResponse = SplunkLogResponse.builder()
+                .query("search index=main")
+                .totalCount(0L)
+                .returnedCount(0)
+                .events(Collections.emptyList())
+                .executionTimeMs(50L)
+                .status("SUCCESS")
+                .build();
+
+        when(splunkSearchService.searchLogs(any(SplunkLogRequest.class)))
+                .thenReturn(Mono.just(mockResponse));
+
+        McpSchema.CallToolRequest withRequestMeta = new McpSchema.CallToolRequest(
+                "getRecentLogs", Map.of(), Map.of("timeoutMillis", 30_000));
+        McpSchema.CallToolRequest withArgumentMeta = new McpSchema.CallToolRequest(
+                "getRecentLogs", Map.of("_meta", Map.of("timeoutMillis", 30_000)));
+
+        // --- Act ---
+        Instant before = Instant.now();
+        StepVerifier.create(splunkMcpTools.getRecentLogs(null, null, withRequestMeta)).expectNextCount(1).verifyComplete();
+        StepVerifier.create(splunkMcpTools.getRecentLogs(null, null, withArgumentMeta)).expectNextCount(1).verifyComplete();
+        StepVerifier.create(splunkMcpTools.getRecentLogs(null, null, null)).expectNextCount(1).verifyComplete();
+        Instant after = Instant.now();
+
+        // --- Verify ---
+        ArgumentCaptor<SplunkLogRequest> requestCaptor = ArgumentCaptor.forClass(SplunkLogRequest.class);
+        verify(splunkSearchService, times(3)).searchLogs(requestCaptor.capture());
+
+        for (SplunkLogRequest capturedRequest : requestCaptor.getAllValues().subList(0, 2)) {
+            Instant deadline = capturedRequest.getDeadline();
+            assertNotNull(deadline, "Deadline should be set from the tool call");
+            assertFalse(deadline.isBefore(before.plusSeconds(30)), "Deadline should be 30s after the call");
+            assertFalse(deadline.isAfter(after.plusSeconds(30)), "Deadline should be 30s after the call");
+        }
+        assertNull(requestCaptor.getAllValues().get(2).getDeadline(), "No deadline without one from the caller");
+    }
+}
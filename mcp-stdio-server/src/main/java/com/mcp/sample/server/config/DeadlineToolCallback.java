@@ -0,0 +1,123 @@
+package com.mcp.sample.server.config;
+
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mcpserver.deadline.ToolCallDeadline;
+import org.slf4j.Logger;
+
+import org.springframework.ai.chat.model.ToolContext;
+import org.springframework.ai.tool.ToolCallback;
+import org.springframework.ai.tool.definition.ToolDefinition;
+import org.springframework.ai.tool.metadata.ToolMetadata;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+
+/**
+ * Honours the deadline an MCP client sends with a tool call.
+ *
+ * The client sends the time it has left as {@code "_meta": {"timeoutMillis": ...}} among the arguments,
+ * read by {@link ToolCallDeadline}.
+ * The tool runs for at most that long: a call with no time left is not started, and one still running
+ * when the time is up is interrupted and answered with an error, since the client no longer waits for it.
+ * The {@code _meta} argument is removed before the tool's own arguments are bound.
+ *
+ * Calls with a deadline run on the given executor, so the caller's thread can stop waiting; a call that
+ * finds the executor full is refused rather than queued without bound.
+ */
+public class DeadlineToolCallback implements ToolCallback {
+
+	private static final Logger logger = org.slf4j.LoggerFactory.getLogger(DeadlineToolCallback.class);
+
+	private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+	private static final TypeReference<Map<String, Object>> ARGUMENTS = new TypeReference<>() {
+	};
+
+	private final ToolCallback delegate;
+
+	private final AsyncTaskExecutor executor;
+
+	public DeadlineToolCallback(ToolCallback delegate, AsyncTaskExecutor executor) {
+		this.delegate = delegate;
+		this.executor = executor;
+	}
+
+	@Override
+	public ToolDefinition getToolDefinition() {
+		return this.delegate.getToolDefinition();
+	}
+
+	@Override
+	public ToolMetadata getToolMetadata() {
+		return this.delegate.getToolMetadata();
+	}
+
+	@Override
+	public String call(String toolInput) {
+		return call(toolInput, null);
+	}
+
+	@Override
+	public String call(String toolInput, ToolContext toolContext) {
+		String input = toolInput;
+		Long timeoutMillis = null;
+		try {
+			Map<String, Object> arguments = OBJECT_MAPPER.readValue(toolInput, ARGUMENTS);
+			if (arguments != null && arguments.containsKey(ToolCallDeadline.META)) {
+				timeoutMillis = ToolCallDeadline.removeFrom(arguments);
+				input = OBJECT_MAPPER.writeValueAsString(arguments);
+			}
+		}
+		catch (JsonProcessingException e) {
+			// Not JSON arguments; the tool reports them as invalid itself
+		}
+
+		if (timeoutMillis == null) {
+			return invoke(input, toolContext);
+		}
+		if (timeoutMillis <= 0) {
+			logger.warn("Not calling {}: the caller's deadline has passed", getToolDefinition().name());
+			throw new IllegalStateException("Deadline exceeded before the tool was called");
+		}
+		String boundedInput = input;
+		Future<String> result;
+		try {
+			result = this.executor.submit(() -> invoke(boundedInput, toolContext));
+		}
+		catch (TaskRejectedException e) {
+			logger.warn("Not calling {}: too many tool calls in progress", getToolDefinition().name());
+			throw new IllegalStateException("Too many tool calls in progress", e);
+		}
+		try {
+			return result.get(timeoutMillis, TimeUnit.MILLISECONDS);
+		}
+		catch (TimeoutException e) {
+			result.cancel(true);
+			logger.warn("Stopped {} at the caller's deadline of {} ms", getToolDefinition().name(), timeoutMillis);
+			throw new IllegalStateException("Deadline exceeded after " + timeoutMillis + " ms");
+		}
+		catch (InterruptedException e) {
+			result.cancel(true);
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Interrupted while calling " + getToolDefinition().name(), e);
+		}
+		catch (ExecutionException e) {
+			if (e.getCause() instanceof RuntimeException runtimeException) {
+				throw runtimeException;
+			}
+			throw new IllegalStateException(e.getCause());
+		}
+	}
+
+	private String invoke(String input, ToolContext toolContext) {
+		return toolContext == null ? this.delegate.call(input) : this.delegate.call(input, toolContext);
+	}
+
+}
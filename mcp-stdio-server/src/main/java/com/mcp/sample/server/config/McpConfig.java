@@ -1,17 +1,43 @@
 package com.mcp.sample.server.config;
 
 import com.mcp.sample.server.service.WeatherService;
+import org.springframework.ai.tool.StaticToolCallbackProvider;
+import org.springframework.ai.tool.ToolCallback;
 import org.springframework.ai.tool.ToolCallbackProvider;
 import org.springframework.ai.tool.method.MethodToolCallbackProvider;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.Arrays;
 
 @Configuration
 public class McpConfig {
 
     @Bean
-    public ToolCallbackProvider weatherTools(WeatherService weatherService) {
-        return MethodToolCallbackProvider.builder().toolObjects(weatherService).build();
+    public ToolCallbackProvider weatherTools(WeatherService weatherService, ThreadPoolTaskExecutor toolCallExecutor) {
+        ToolCallback[] tools = MethodToolCallbackProvider.builder().toolObjects(weatherService).build().getToolCallbacks();
+        // Every tool honours the deadline its caller sends
+        return new StaticToolCallbackProvider(Arrays.stream(tools)
+                .map(tool -> new DeadlineToolCallback(tool, toolCallExecutor))
+                .toArray(ToolCallback[]::new));
+    }
+
+    /**
+     * Runs the tool calls that carry a deadline; shut down with the application, interrupting calls still running.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor toolCallExecutor(@Value("${mcp.tools.threads:8}") int threads,
+                                                   @Value("${mcp.tools.queue-capacity:32}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setAllowCoreThreadTimeOut(true);
+        executor.setThreadNamePrefix("deadline-tool-call-");
+        executor.setDaemon(true);
+        return executor;
     }
 
 }
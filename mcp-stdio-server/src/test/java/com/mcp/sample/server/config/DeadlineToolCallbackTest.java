@@ -0,0 +1,86 @@
+package com.mcp.sample.server.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.tool.ToolCallback;
+import org.springframework.ai.tool.definition.ToolDefinition;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for DeadlineToolCallback.
+ */
+class DeadlineToolCallbackTest {
+
+    private ToolCallback tool;
+    private ThreadPoolTaskExecutor executor;
+    private DeadlineToolCallback callback;
+
+    @BeforeEach
+    void setUp() {
+        tool = mock(ToolCallback.class);
+        when(tool.getToolDefinition()).thenReturn(ToolDefinition.builder()
+                .name("getTemperature").description("Current temperature").inputSchema("{}").build());
+        executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setQueueCapacity(0);
+        executor.initialize();
+        callback = new DeadlineToolCallback(tool, executor);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdown();
+    }
+
+    @Test
+    @DisplayName("call - The _meta argument is removed and the tool runs within the time left")
+    void whenCallCarriesTimeLeft_shouldCallToolWithoutMeta() {
+        when(tool.call(anyString())).thenReturn("20.5");
+
+        assertEquals("20.5", callback.call("{\"latitude\":52.5,\"_meta\":{\"timeoutMillis\":5000}}"));
+
+        verify(tool).call("{\"latitude\":52.5}");
+    }
+
+    @Test
+    @DisplayName("call - A tool still running at the deadline is interrupted and the call fails")
+    void whenToolOutlastsDeadline_shouldInterruptIt() throws InterruptedException {
+        CountDownLatch interrupted = new CountDownLatch(1);
+        when(tool.call(anyString())).thenAnswer(invocation -> {
+            try {
+                Thread.sleep(10_000);
+            }
+            catch (InterruptedException e) {
+                interrupted.countDown();
+            }
+            return "late";
+        });
+
+        assertThrows(IllegalStateException.class,
+                () -> callback.call("{\"latitude\":52.5,\"_meta\":{\"timeoutMillis\":\"100\"}}"));
+        assertTrue(interrupted.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    @DisplayName("call - A call whose deadline has passed is not started, one without a deadline runs as is")
+    void whenDeadlinePassedOrAbsent() {
+        when(tool.call(anyString())).thenReturn("20.5");
+
+        assertThrows(IllegalStateException.class,
+                () -> callback.call("{\"latitude\":52.5,\"_meta\":{\"timeoutMillis\":-1}}"));
+        assertEquals("20.5", callback.call("{ \"latitude\": 52.5 }"));
+
+        verify(tool).call("{ \"latitude\": 52.5 }");
+        verifyNoMoreInteractions(ignoreStubs(tool));
+    }
+}
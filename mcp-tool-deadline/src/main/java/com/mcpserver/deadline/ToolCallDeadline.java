@@ -0,0 +1,75 @@
+package com.mcpserver.deadline;
+
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * Reads the deadline an MCP client sends with a tool call.
+ *
+ * The client sends the time it has left as {@code timeoutMillis} in the request's {@code _meta}. Clients
+ * that cannot set request metadata send the same {@code _meta} object as an argument instead.
+ * The time left rather than a timestamp, so the deadline holds whatever the clocks of both hosts say.
+ * The value is a number, or a string holding one; anything else counts as no deadline.
+ */
+public final class ToolCallDeadline {
+
+    public static final String META = "_meta";
+    public static final String TIMEOUT_MILLIS = "timeoutMillis";
+
+    private ToolCallDeadline() {
+    }
+
+    /**
+     * @param requestMeta the request's {@code _meta}, may be null
+     * @param arguments   the call's arguments, may be null
+     * @return the deadline of the call, or null when the client sent none
+     */
+    public static Instant deadline(Map<?, ?> requestMeta, Map<?, ?> arguments) {
+        Long timeoutMillis = timeoutMillis(requestMeta, arguments);
+        return timeoutMillis == null ? null : Instant.now().plusMillis(Math.max(0, timeoutMillis));
+    }
+
+    /**
+     * @param requestMeta the request's {@code _meta}, may be null
+     * @param arguments   the call's arguments, may be null
+     * @return the time the client has left, from the request's {@code _meta} or else from the
+     * {@code _meta} argument; null when the client sent none
+     */
+    public static Long timeoutMillis(Map<?, ?> requestMeta, Map<?, ?> arguments) {
+        Long timeoutMillis = timeoutMillis(requestMeta);
+        if (timeoutMillis == null && arguments != null && arguments.get(META) instanceof Map<?, ?> argumentMeta) {
+            timeoutMillis = timeoutMillis(argumentMeta);
+        }
+        return timeoutMillis;
+    }
+
+    /**
+     * Takes the {@code _meta} argument out of the arguments, so that they bind to the tool's own parameters.
+     *
+     * @return the time the client has left, from the removed {@code _meta}; null when it carried none
+     */
+    public static Long removeFrom(Map<String, Object> arguments) {
+        return arguments.remove(META) instanceof Map<?, ?> meta ? timeoutMillis(meta) : null;
+    }
+
+    /**
+     * @return the {@code timeoutMillis} of the given {@code _meta}, or null when it carries none
+     */
+    public static Long timeoutMillis(Map<?, ?> meta) {
+        if (meta == null) {
+            return null;
+        }
+        Object value = meta.get(TIMEOUT_MILLIS);
+        if (value instanceof Number number) {
+            return number.longValue();
+        }
+        if (value instanceof String text) {
+            try {
+                return Long.parseLong(text.trim());
+            } catch (NumberFormatException e) {
+                return null;
+            }
+        }
+        return null;
+    }
+}
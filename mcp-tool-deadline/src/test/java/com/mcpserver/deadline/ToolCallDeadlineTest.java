@@ -0,0 +1,67 @@
+package com.mcpserver.deadline;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for ToolCallDeadline.
+ */
+class ToolCallDeadlineTest {
+
+    @Test
+    @DisplayName("timeoutMillis - Reads a number or a numeric string, and nothing else")
+    void timeoutMillis_NumberOrNumericString() {
+        assertEquals(30_000L, ToolCallDeadline.timeoutMillis(Map.of("timeoutMillis", 30_000)));
+        assertEquals(1_500L, ToolCallDeadline.timeoutMillis(Map.of("timeoutMillis", 1_500.7)));
+        assertEquals(250L, ToolCallDeadline.timeoutMillis(Map.of("timeoutMillis", " 250 ")));
+        assertNull(ToolCallDeadline.timeoutMillis(Map.of("timeoutMillis", "soon")));
+        assertNull(ToolCallDeadline.timeoutMillis(Map.of("timeoutMillis", true)));
+        assertNull(ToolCallDeadline.timeoutMillis(Map.of("other", 1)));
+        assertNull(ToolCallDeadline.timeoutMillis(null));
+    }
+
+    @Test
+    @DisplayName("timeoutMillis - The request's _meta wins over the _meta argument")
+    void timeoutMillis_RequestMetaFirst() {
+        Map<String, Object> arguments = Map.of("query", "error", "_meta", Map.of("timeoutMillis", 5_000));
+
+        assertEquals(1_000L, ToolCallDeadline.timeoutMillis(Map.of("timeoutMillis", 1_000), arguments));
+        assertEquals(5_000L, ToolCallDeadline.timeoutMillis(Map.of("progressToken", "t1"), arguments));
+        assertEquals(5_000L, ToolCallDeadline.timeoutMillis(null, arguments));
+        assertNull(ToolCallDeadline.timeoutMillis(null, Map.of("_meta", "not an object")));
+        assertNull(ToolCallDeadline.timeoutMillis(null, null));
+    }
+
+    @Test
+    @DisplayName("deadline - Is the time left from now, never in the past, and null without a timeout")
+    void deadline_FromNow() {
+        Instant before = Instant.now();
+        Instant deadline = ToolCallDeadline.deadline(Map.of("timeoutMillis", 30_000), null);
+        Instant after = Instant.now();
+
+        assertFalse(deadline.isBefore(before.plus(Duration.ofSeconds(30))));
+        assertFalse(deadline.isAfter(after.plus(Duration.ofSeconds(30))));
+        assertFalse(ToolCallDeadline.deadline(Map.of("timeoutMillis", -5), null).isAfter(Instant.now()));
+        assertNull(ToolCallDeadline.deadline(null, Map.of("query", "error")));
+    }
+
+    @Test
+    @DisplayName("removeFrom - Removes the _meta argument and returns its timeout")
+    void removeFrom_RemovesMeta() {
+        Map<String, Object> arguments = new HashMap<>(Map.of("to", "a@b.c", "_meta", Map.of("timeoutMillis", 0)));
+
+        assertEquals(0L, ToolCallDeadline.removeFrom(arguments));
+        assertEquals(Map.of("to", "a@b.c"), arguments);
+
+        Map<String, Object> withoutTimeout = new HashMap<>(Map.of("to", "a@b.c", "_meta", "ignored"));
+        assertNull(ToolCallDeadline.removeFrom(withoutTimeout));
+        assertEquals(Map.of("to", "a@b.c"), withoutTimeout);
+    }
+}